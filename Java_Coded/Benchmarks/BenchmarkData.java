@@ -0,0 +1,94 @@
+package Benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import DataFrame.*;
+
+/**
+ * Helper used by the benchmarks to locate the bundled datasets.
+ *
+ * The benchmarks can be launched from the repository root or from any folder below it,
+ * so the relative paths are resolved by walking up from the working directory.
+ *
+ * The bundled datasets only hold a few thousand rows, so scale() writes larger synthetic copies of them
+ * (such as 1M or 10M rows) by repeating their rows.
+ */
+public class BenchmarkData {
+
+    private BenchmarkData(){}
+
+    /**
+     * Resolves a path relative to the repository root
+     * @param relativePath A path such as "Datasets/Linear_Regression/housing.csv"
+     * @return The absolute path of the file
+     */
+    public static String resolve(String relativePath){
+        File dir = new File(System.getProperty("user.dir")).getAbsoluteFile();
+
+        while (dir != null){
+            File candidate = new File(dir, relativePath);
+            if (candidate.exists())
+                return candidate.getPath();
+            dir = dir.getParentFile();
+        }
+
+        throw new IllegalArgumentException("Unable to find \"" + relativePath + "\" from " + System.getProperty("user.dir"));
+    }
+
+    /**
+     * Writes a copy of a dataset to a temporary csv file, repeating its rows until the file holds the given number of rows.
+     * The caller deletes the file.
+     * @param relativePath A path such as "Datasets/Linear_Regression/housing.csv"
+     * @param rows Number of rows of the copy
+     * @return The path of the copy
+     */
+    public static Path scale(String relativePath, int rows){
+        try {
+            List<String> lines = Files.readAllLines(Paths.get(resolve(relativePath)), StandardCharsets.UTF_8);
+            if (lines.size() < 2)
+                throw new IllegalArgumentException("Unable to scale \"" + relativePath + "\" as it has no rows.");
+
+            Path path = Files.createTempFile("benchmark", ".csv");
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)){
+                writer.write(lines.get(0));
+                writer.newLine();
+                for (int i = 0; i < rows; i++){
+                    writer.write(lines.get(1 + i % (lines.size() - 1)));
+                    writer.newLine();
+                }
+            }
+            return path;
+        } catch (IOException e){
+            throw new UncheckedIOException("Unable to scale \"" + relativePath + "\".", e);
+        }
+    }
+
+    /**
+     * Loads a dataset, scaled to the given number of rows through scale()
+     * @param relativePath A path such as "Datasets/Linear_Regression/housing.csv"
+     * @param rows Number of rows, or 0 to load the dataset as bundled
+     */
+    public static DataFrame load(String relativePath, int rows){
+        if (rows == 0)
+            return new CsvReader(resolve(relativePath)).read();
+
+        Path path = scale(relativePath, rows);
+        try {
+            return new CsvReader(path.toString()).read();
+        } finally {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e){
+                // Left in the temporary directory
+            }
+        }
+    }
+}
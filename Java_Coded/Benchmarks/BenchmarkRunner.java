@@ -0,0 +1,53 @@
+package Benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+/**
+ * Entry point of benchmarks.jar. Takes the usual JMH command line, but always runs the GC profiler so the
+ * allocation rate (gc.alloc.rate.norm, in bytes per operation) is reported next to each score, and adds the
+ * Vector API module to the forked JVMs unless other JVM arguments are given.
+ *
+ * Example:
+ * java -jar benchmarks.jar DataFrameBenchmark -p rows=1000000
+ */
+public class BenchmarkRunner {
+
+    private BenchmarkRunner(){}
+
+    public static void main(String [] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()){
+            commandLine.showHelp();
+            return;
+        }
+
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        if (!hasGCProfiler(commandLine))
+            options.addProfiler(GCProfiler.class);
+        if (!commandLine.getJvmArgsAppend().hasValue())
+            options.jvmArgsAppend("--add-modules=jdk.incubator.vector");
+
+        Runner runner = new Runner(options.build());
+        if (commandLine.shouldList())
+            runner.list();
+        else
+            runner.run();
+    }
+
+    private static boolean hasGCProfiler(CommandLineOptions commandLine){
+        for (ProfilerConfig profiler : commandLine.getProfilers()){
+            if (profiler.getKlass().equals("gc") || profiler.getKlass().equals(GCProfiler.class.getName()))
+                return true;
+        }
+        return false;
+    }
+}
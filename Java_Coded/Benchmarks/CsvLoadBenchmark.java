@@ -0,0 +1,98 @@
+package Benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import DataFrame.*;
+
+/**
+ * Measures how fast a csv file is loaded into a DataFrame, compared to loading the same data
+ * from the binary columnar format of DataFrame.save().
+ *
+ * The "rows" counter is reported as an operation, so JMH prints the load speed in rows per second
+ * next to the usual time per load. Larger copies of the datasets are loaded through the "scaledRows" parameter
+ * (see BenchmarkData.scale()), 0 loading them as bundled.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvLoadBenchmark {
+
+    @Param({"Datasets/Linear_Regression/housing.csv", "Datasets/Linear_Regression/Car_Price_Prediction.csv"})
+    public String dataset;
+
+    @Param({"0", "1000000", "10000000"})
+    public int scaledRows;
+
+    private String path;
+
+    // The scaled copy of the dataset, null when loading it as bundled
+    private Path scaledPath;
+
+    // The dataset saved in the binary columnar format
+    private Path savedPath;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Rows {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset(){
+            rows = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup(){
+        if (scaledRows > 0){
+            scaledPath = BenchmarkData.scale(dataset, scaledRows);
+            path = scaledPath.toString();
+        } else
+            path = BenchmarkData.resolve(dataset);
+        try {
+            savedPath = Files.createTempFile("benchmark", ".df");
+        } catch (IOException e){
+            throw new IllegalStateException("Unable to create the saved DataFrame.", e);
+        }
+        new CsvReader(path).read().save(savedPath);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(savedPath);
+        if (scaledPath != null)
+            Files.deleteIfExists(scaledPath);
+    }
+
+    @Benchmark
+    public DataFrame singlePassLoad(Rows counter){
+        CsvReader reader = new CsvReader(path);
+        DataFrame df = reader.read();
+        counter.rows += reader.getRowsRead();
+        return df;
+    }
+
+    @Benchmark
+    public DataFrame memoryMappedLoad(Rows counter){
+        CsvReader reader = new CsvReader(path);
+        reader.setMemoryMapped(true);
+        DataFrame df = reader.read();
+        counter.rows += reader.getRowsRead();
+        return df;
+    }
+
+    @Benchmark
+    public DataFrame binaryLoad(Rows counter){
+        DataFrame df = DataFrame.load(savedPath);
+        counter.rows += df.getShape()[0];
+        return df;
+    }
+}
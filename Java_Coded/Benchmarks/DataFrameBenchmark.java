@@ -0,0 +1,60 @@
+package Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import DataFrame.*;
+
+/**
+ * Measures the operations building views over a DataFrame (select, iloc, split) and printing it.
+ *
+ * The housing dataset is loaded as bundled (rows = 0) or repeated up to 1M and 10M rows (see BenchmarkData.scale()).
+ * Views should cost the same whatever the number of rows, except split() which shuffles every row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class DataFrameBenchmark {
+
+    @Param({"0", "1000000", "10000000"})
+    public int rows;
+
+    private DataFrame dataset;
+    private int rowCount;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        dataset = BenchmarkData.load("Datasets/Linear_Regression/housing.csv", rows);
+        dataset.setSeed(42);
+        rowCount = dataset.getShape()[0];
+    }
+
+    @Benchmark
+    public Series<?> selectColumn(){
+        return dataset.select("median_income");
+    }
+
+    @Benchmark
+    public DataFrame selectColumns(){
+        return dataset.select("median_income", "total_rooms", "median_house_value");
+    }
+
+    @Benchmark
+    public DataFrame iloc(){
+        return dataset.iloc(rowCount / 4, 2, rowCount / 4 * 3, 8);
+    }
+
+    @Benchmark
+    public DataFrame[] split(){
+        return dataset.split(0.8);
+    }
+
+    @Benchmark
+    public String print(){
+        return dataset.toString();
+    }
+}
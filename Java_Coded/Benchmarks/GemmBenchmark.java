@@ -0,0 +1,78 @@
+package Benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import FloatMatrix.FloatMatrix;
+
+/**
+ * Measures the speed of the matrix product of FloatMatrix on square matrices.
+ *
+ * The "flops" counter is reported as an operation, so JMH prints the floating point operations per second
+ * (2 * size^3 per product) next to the usual number of products per second. Divide it by 1e9 for GFLOPS
+ * and compare it to the peak of one core: frequency * 2 FMA units * the floats per SIMD register * 2.
+ *
+ * The "threads" parameter sets FloatMatrix.setThreads(), so the scaling of the parallel product shows with
+ * -p threads=1,2,4,8 -p size=2048
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class GemmBenchmark {
+
+    @Param({"128", "256", "512", "1024"})
+    public int size;
+
+    @Param({"1"})
+    public int threads;
+
+    private FloatMatrix left;
+    private FloatMatrix right;
+    private float [] vector;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Flops {
+        public long flops;
+
+        @Setup(Level.Iteration)
+        public void reset(){
+            flops = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup(){
+        FloatMatrix.setThreads(threads);
+        Random random = new Random(42);
+        left = randomMatrix(random, size);
+        right = randomMatrix(random, size);
+        vector = new float[size];
+        for (int i = 0; i < size; i++)
+            vector[i] = random.nextFloat();
+    }
+
+    private static FloatMatrix randomMatrix(Random random, int size){
+        float [] values = new float[size * size];
+        for (int i = 0; i < values.length; i++)
+            values[i] = random.nextFloat() - 0.5f;
+        return new FloatMatrix(size, size, values);
+    }
+
+    @Benchmark
+    public FloatMatrix matrixProduct(Flops counter){
+        counter.flops += 2L * size * size * size;
+        return left.dotProduct(right);
+    }
+
+    @Benchmark
+    public float[] matrixVectorProduct(Flops counter){
+        counter.flops += 2L * size * size;
+        return left.dotProduct(vector);
+    }
+}
@@ -0,0 +1,58 @@
+package Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import DataFrame.*;
+import LinearRegression.LinearRegression;
+
+/**
+ * Measures training a simple linear regression (one independent variable) on the housing dataset,
+ * loaded as bundled (rows = 0) or repeated up to 1M and 10M rows (see BenchmarkData.scale()).
+ *
+ * The "rows" counter is reported as an operation, so JMH prints the rows trained per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class LinearRegressionBenchmark {
+
+    @Param({"0", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"1"})
+    public int threads;
+
+    private DataFrame dataset;
+    private int rowCount;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Rows {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset(){
+            rows = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup(){
+        dataset = BenchmarkData.load("Datasets/Linear_Regression/housing.csv", rows);
+        rowCount = dataset.getShape()[0];
+    }
+
+    @Benchmark
+    public LinearRegression simpleFit(Rows counter){
+        LinearRegression model = new LinearRegression();
+        model.setThreads(threads);
+        model.train(dataset, "median_house_value", "median_income");
+        counter.rows += rowCount;
+        return model;
+    }
+}
@@ -0,0 +1,95 @@
+package Benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import DataFrame.*;
+import LinearRegression.LinearRegression;
+
+/**
+ * Compares predicting a whole DataFrame through LinearRegression.predict(DataFrame) to calling
+ * predict(float...) once per row.
+ *
+ * The dataset is generated in a temporary csv file, with three independent variables.
+ * The "rows" counter is reported as an operation, so JMH prints the rows predicted per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class PredictBenchmark {
+
+    private static final String [] FEATURES = {"x1", "x2", "x3"};
+
+    @Param({"1000000", "10000000"})
+    public int rows;
+
+    @Param({"1"})
+    public int threads;
+
+    private DataFrame dataset;
+    private NumericSeries<?>[] columns;
+    private LinearRegression model;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Rows {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset(){
+            rows = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Path path = Files.createTempFile("benchmark", ".csv");
+        try {
+            Random random = new Random(42);
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)){
+                writer.write("x1,x2,x3,y\n");
+                for (int i = 0; i < rows; i++){
+                    float x1 = random.nextFloat(), x2 = random.nextFloat(), x3 = random.nextFloat();
+                    float y = 1 + 2 * x1 - 3 * x2 + 0.5f * x3 + (float) random.nextGaussian() * 0.1f;
+                    writer.write(x1 + "," + x2 + "," + x3 + "," + y + "\n");
+                }
+            }
+            dataset = new CsvReader(path.toString()).read();
+        } finally {
+            Files.deleteIfExists(path);
+        }
+
+        model = new LinearRegression();
+        model.setThreads(threads);
+        model.train(dataset, "y", FEATURES);
+
+        columns = new NumericSeries[FEATURES.length];
+        for (int j = 0; j < FEATURES.length; j++)
+            columns[j] = (NumericSeries<?>) dataset.select(FEATURES[j]);
+    }
+
+    @Benchmark
+    public float rowByRow(Rows counter){
+        float checksum = 0;
+        for (int i = 0; i < rows; i++)
+            checksum += model.predict(columns[0].getFloat(i), columns[1].getFloat(i), columns[2].getFloat(i));
+        counter.rows += rows;
+        return checksum;
+    }
+
+    @Benchmark
+    public float[] wholeDataFrame(Rows counter){
+        counter.rows += rows;
+        return model.predict(dataset);
+    }
+}
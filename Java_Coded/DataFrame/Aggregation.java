@@ -0,0 +1,105 @@
+package DataFrame;
+
+/**
+ * A statistic computed for every group by GroupBy.agg().
+ *
+ * Missing values are skipped, so the count of a column only counts its non-null values.
+ * The result of a group without any value is null, except for the counts which are 0.
+ *
+ * Example:
+ * df.groupBy("ocean_proximity").agg(Aggregation.count(),
+ *                                   Aggregation.mean("median_house_value").as("mean_value"),
+ *                                   Aggregation.variance("median_income"));
+ */
+public final class Aggregation {
+
+    // Operations
+    static final int COUNT_ROWS = 0;
+    static final int COUNT = 1;
+    static final int SUM = 2;
+    static final int MEAN = 3;
+    static final int MIN = 4;
+    static final int MAX = 5;
+    static final int VARIANCE = 6;
+
+    private static final String [] SUFFIXES = {"count", "count", "sum", "mean", "min", "max", "variance"};
+
+    private final int operation;
+    private final String column;
+    private final String name;
+
+    private Aggregation(int operation, String column, String name){
+        if (operation != COUNT_ROWS && column == null)
+            throw new IllegalArgumentException("The parameter \"colName\" is null.");
+        this.operation = operation;
+        this.column = column;
+        this.name = (name != null)? name : (column == null)? SUFFIXES[operation] : column + "_" + SUFFIXES[operation];
+    }
+
+    /**
+     * Counts the rows of each group, including the ones with missing values
+     */
+    public static Aggregation count(){
+        return new Aggregation(COUNT_ROWS, null, null);
+    }
+
+    /**
+     * Counts the non-null values of a column in each group
+     */
+    public static Aggregation count(String colName){
+        return new Aggregation(COUNT, colName, null);
+    }
+
+    public static Aggregation sum(String colName){
+        return new Aggregation(SUM, colName, null);
+    }
+
+    public static Aggregation mean(String colName){
+        return new Aggregation(MEAN, colName, null);
+    }
+
+    public static Aggregation min(String colName){
+        return new Aggregation(MIN, colName, null);
+    }
+
+    public static Aggregation max(String colName){
+        return new Aggregation(MAX, colName, null);
+    }
+
+    /**
+     * Computes the sample variance (divided by n - 1) of a column in each group, null for groups with less than 2 values
+     */
+    public static Aggregation variance(String colName){
+        return new Aggregation(VARIANCE, colName, null);
+    }
+
+    /**
+     * Renames the column holding the result, which defaults to the column name followed by the operation (i.e., "Sales_mean")
+     * @return A copy of the Aggregation with the new name
+     */
+    public Aggregation as(String name){
+        if (name == null)
+            throw new IllegalArgumentException("The parameter \"name\" is null.");
+        return new Aggregation(this.operation, this.column, name);
+    }
+
+    int getOperation(){
+        return this.operation;
+    }
+
+    /**
+     * @return The aggregated column, or null when counting rows
+     */
+    String getColumn(){
+        return this.column;
+    }
+
+    public String getName(){
+        return this.name;
+    }
+
+    @Override
+    public String toString(){
+        return this.name;
+    }
+}
@@ -0,0 +1,152 @@
+package DataFrame;
+
+import java.util.Arrays;
+
+/**
+ * Helper methods for bitmaps packed into long [] arrays, 64 rows per word.
+ * Used by every Series to mark its null values, and by the filters to mark the rows they keep.
+ */
+final class Bitmap {
+
+    private Bitmap(){}
+
+    /**
+     * Gets the number of words needed to hold the given number of bits
+     * @param bits Number of bits
+     * @return Number of longs needed
+     */
+    static int words(int bits){
+        return (bits + 63) >>> 6;
+    }
+
+    static boolean get(long [] bitmap, int index){
+        return (bitmap[index >>> 6] & (1L << index)) != 0;
+    }
+
+    static void set(long [] bitmap, int index){
+        bitmap[index >>> 6] |= 1L << index;
+    }
+
+    static void clear(long [] bitmap, int index){
+        bitmap[index >>> 6] &= ~(1L << index);
+    }
+
+    /**
+     * Reads the 64 bits starting at any bit of a bitmap as a single word
+     * @param bitmap The source bitmap
+     * @param start The first bit to be read. The bits past the end of the bitmap are read as 0.
+     * @return The bits start to start + 63, bit start being the lowest
+     */
+    static long word(long [] bitmap, int start){
+        int index = start >>> 6;
+        int shift = start & 63;
+        long bits = bitmap[index] >>> shift;
+        if (shift != 0 && index + 1 < bitmap.length)
+            bits |= bitmap[index + 1] << (64 - shift);
+        return bits;
+    }
+
+    /**
+     * Gets a mask of the bits of the last word used by a range
+     * @param length Number of bits of the range
+     * @return -1L when the range ends on a word boundary, otherwise the lowest length % 64 bits
+     */
+    static long tailMask(int length){
+        return ((length & 63) == 0)? -1L : (1L << length) - 1;
+    }
+
+    /**
+     * Copies a range of bits into a new bitmap starting at bit 0, a word at a time
+     * @param bitmap The source bitmap
+     * @param start The first bit to be copied
+     * @param length Number of bits to be copied
+     * @return A new bitmap holding the copied bits
+     */
+    static long[] copyRange(long [] bitmap, int start, int length){
+        long [] result = new long[words(length)];
+        for (int w = 0; w < result.length; w++)
+            result[w] = word(bitmap, start + (w << 6));
+        if (result.length > 0)
+            result[result.length - 1] &= tailMask(length);
+        return result;
+    }
+
+    /**
+     * Copies the bits of a view into a new bitmap starting at bit 0
+     * @param bitmap The source bitmap, or null
+     * @param start The first position to be copied, within the row index if there is one
+     * @param rowIndex The positions of the view's elements in the bitmap, or null if they are contiguous
+     * @param length Number of bits to be copied
+     * @return A new bitmap holding the copied bits, or null if the source bitmap is null
+     */
+    static long[] copyRange(long [] bitmap, int start, int [] rowIndex, int length){
+        if (bitmap == null)
+            return null;
+        else if (rowIndex == null)
+            return copyRange(bitmap, start, length);
+
+        long [] result = new long[words(length)];
+        for (int i = 0; i < length; i++){
+            if (get(bitmap, rowIndex[start + i]))
+                set(result, i);
+        }
+        return result;
+    }
+
+    /**
+     * Writes the validity bitmap of a range of rows, the complement of their null bitmap: a set bit marks a value that is present.
+     * The bits past the range are cleared, so a word equal to -1L stands for 64 rows without any missing value.
+     * @param nulls The null bitmap, or null if there are no missing values
+     * @param start The first position, within the row index if there is one
+     * @param rowIndex The positions of the rows in the null bitmap, or null if they are contiguous
+     * @param length Number of rows
+     * @param destination The array receiving the bitmap, of at least words(length) longs
+     */
+    static void validity(long [] nulls, int start, int [] rowIndex, int length, long [] destination){
+        int words = words(length);
+        if (words == 0)
+            return;
+
+        if (nulls == null)
+            Arrays.fill(destination, 0, words, -1L);
+        else if (rowIndex == null){
+            for (int w = 0; w < words; w++)
+                destination[w] = ~word(nulls, start + (w << 6));
+        } else {
+            // The bits are gathered one by one, without a branch per row
+            for (int w = 0; w < words; w++){
+                int first = start + (w << 6);
+                int count = Math.min(64, length - (w << 6));
+                long missing = 0;
+                for (int b = 0; b < count; b++){
+                    int position = rowIndex[first + b];
+                    missing |= ((nulls[position >>> 6] >>> position) & 1L) << b;
+                }
+                destination[w] = ~missing;
+            }
+        }
+        destination[words - 1] &= tailMask(length);
+    }
+
+    /**
+     * Turns a bitmap into a selection vector
+     * @param bitmap The bitmap, whose bits past the last row must be cleared
+     * @return The positions of the set bits, in increasing order
+     */
+    static int[] positions(long [] bitmap){
+        int count = 0;
+        for (long word : bitmap)
+            count += Long.bitCount(word);
+
+        int [] selection = new int[count];
+        int position = 0;
+        for (int w = 0; w < bitmap.length; w++){
+            long word = bitmap[w];
+            while (word != 0){
+                selection[position++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return selection;
+    }
+}
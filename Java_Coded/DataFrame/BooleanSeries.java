@@ -0,0 +1,154 @@
+package DataFrame;
+
+import MachineLearningExceptions.*;
+
+/**
+ * A Series of Booleans packed into a bitset, using a single bit per element.
+ *
+ * Missing values are kept in the null bitmap of the Series.
+ *
+ * Example:
+ * BooleanSeries series = new BooleanSeries(new boolean[] {true, false, true}, "Sample");
+ * boolean value = series.getBoolean(1);          // Returns false without boxing it
+ */
+public class BooleanSeries extends Series<Boolean> {
+
+    // A set bit marks a true value
+    private long [] values;
+
+    public BooleanSeries(int size, String name){
+        super("Boolean", name, size);
+        this.values = new long[Bitmap.words(size)];
+    }
+
+    public BooleanSeries(boolean [] data, String name){
+        this(data.length, name);
+        for (int i = 0; i < data.length; i++)
+            addBoolean(data[i]);
+    }
+
+    public BooleanSeries(BooleanSeries other){
+        super("Boolean", other.getName(), other.getSize());
+        this.values = Bitmap.copyRange(other.values, other.offset, other.rowIndex, other.size);
+        this.nulls = Bitmap.copyRange(other.nulls, other.offset, other.rowIndex, other.size);
+        this.currentIndex = other.currentIndex;
+    }
+
+    /**
+     * Wraps already filled bitmaps without copying them.
+     * @param values The bitset of the values
+     * @param nulls The null bitmap of the values, or null if there are no missing values
+     * @param size Number of elements stored in the bitset
+     * @param name Name of the Series
+     */
+    BooleanSeries(long [] values, long [] nulls, int size, String name){
+        super("Boolean", name, size);
+        this.values = values;
+        this.nulls = nulls;
+        this.currentIndex = size;
+    }
+
+    /**
+     * Creates a view sharing the bitmaps of another Series (see Series.createView())
+     */
+    private BooleanSeries(BooleanSeries source, int offset, int [] rowIndex, int size){
+        super(source, offset, rowIndex, size);
+        this.values = source.values;
+    }
+
+    /**
+     * Adds a new value to the Series
+     * @param item The value to be added, null values are stored in the null bitmap
+     */
+    @Override
+    public void addItem(Boolean item){
+        if (item == null)
+            addNull();
+        else
+            addBoolean(item);
+    }
+
+    /**
+     * Adds a new value to the Series without boxing it
+     * @param value The value to be added
+     */
+    public void addBoolean(boolean value){
+        if (this.currentIndex == this.size)
+            throw new SeriesOverflowException("Max set size reached.");
+        if (value)
+            Bitmap.set(this.values, this.currentIndex);
+        this.currentIndex++;
+    }
+
+    @Override
+    public BooleanSeries duplicate(){
+        return new BooleanSeries(this);
+    }
+
+    @Override
+    protected BooleanSeries createView(int offset, int [] rowIndex, int size){
+        return new BooleanSeries(this, offset, rowIndex, size);
+    }
+
+    /**
+     * Writes a value at every missing position, a whole word of the null bitmap at a time
+     */
+    @Override
+    protected void fillNulls(Boolean value){
+        if (value){
+            for (int w = 0; w < this.nulls.length; w++)
+                this.values[w] |= this.nulls[w];
+        }
+    }
+
+// ===================================================================================================================================
+//  GETTERS
+
+    /**
+     * Gets the bitset backing the Series without copying it. Used to write the values in bulk (see ColumnarFile),
+     * which only makes sense when the Series is not a view.
+     */
+    long[] getBits(){
+        return this.values;
+    }
+
+    /**
+     * Gets an element of the Series without boxing it
+     * @param index Index of where the data is located
+     * @return The element at the given index. Null elements are returned as false.
+     */
+    public boolean getBoolean(int index){
+        return Bitmap.get(this.values, locate(index));
+    }
+
+    @Override
+    public void appendTo(StringBuilder builder, int index){
+        int position = locate(index);
+
+        if (this.nulls != null && Bitmap.get(this.nulls, position))
+            builder.append("null");
+        else
+            builder.append(Bitmap.get(this.values, position));
+    }
+
+    @Override
+    public Boolean getIndex_DataType(int index){
+        int position = locate(index);
+
+        if (this.nulls != null && Bitmap.get(this.nulls, position))
+            return null;
+        return Bitmap.get(this.values, position);
+    }
+
+    @Override
+    public BooleanSeries getIndex(int index){
+        int resolvedIndex = resolveIndex(index);
+        return getIndex(resolvedIndex, resolvedIndex);
+    }
+
+    @Override
+    public BooleanSeries getIndex(int startIndex, int endIndex){
+        checkRange(startIndex, endIndex);
+        return createView(this.offset + startIndex, this.rowIndex, endIndex - startIndex + 1);
+    }
+}
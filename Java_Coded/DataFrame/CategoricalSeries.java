@@ -0,0 +1,369 @@
+package DataFrame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import MachineLearningExceptions.*;
+
+/**
+ * A dictionary-encoded Series of Strings or Characters, such as the "Species" column of Iris.csv.
+ *
+ * Each distinct value (a category) is stored once in a dictionary, in the order it first appears, and every row only
+ * keeps the int code of its category (-1 for a missing value, which is also marked in the null bitmap of the Series).
+ * The csv readers build String and Character columns this way, so a value repeated on thousands of rows is a single object.
+ *
+ * Filters, groupBy() and joins compare the codes instead of the values. oneHot() and ordinal() turn the codes into
+ * primitive feature columns for LinearRegression without going through the values at all.
+ *
+ * Views and the Series derived from this one (i.e., the keys of a groupBy()) share its dictionary.
+ *
+ * Example:
+ * CategoricalSeries<?> species = (CategoricalSeries<?>) df.select("Species");
+ * int code = species.getCode(0);                  // 0, the code of "Iris-setosa"
+ * FloatSeries[] features = species.oneHot(true);   // Species_Iris-versicolor and Species_Iris-virginica
+ */
+public class CategoricalSeries<DataType> extends Series<DataType> {
+
+    // Code of each row, -1 marking a missing value
+    private int [] codes;
+
+    // The value of each code, and the code of each value
+    private final ArrayList<DataType> categories;
+    private final HashMap<Object, Integer> lookup;
+
+    public CategoricalSeries(String type, int size, String name){
+        super(type, name, size);
+        this.codes = new int[size];
+        this.categories = new ArrayList<>();
+        this.lookup = new HashMap<>();
+    }
+
+    public CategoricalSeries(DataType [] data, String type, String name){
+        this(type, data.length, name);
+        for (DataType item : data)
+            addItem(item);
+    }
+
+    public CategoricalSeries(CategoricalSeries<DataType> other){
+        super(other.getType(), other.getName(), other.getSize());
+        this.codes = other.copyCodes();
+        this.categories = new ArrayList<>(other.categories);
+        this.lookup = new HashMap<>(other.lookup);
+        this.nulls = other.copyNulls(0, other.size);
+        this.currentIndex = other.currentIndex;
+    }
+
+    /**
+     * Wraps already filled codes without copying them.
+     * @param codes The code of each row, -1 for a missing value
+     * @param categories The value of each code, without duplicates. The list is kept, not copied.
+     * @param size Number of elements stored in the codes array
+     * @param type Type of the values, "String" or "Character"
+     * @param name Name of the Series
+     */
+    CategoricalSeries(int [] codes, ArrayList<DataType> categories, int size, String type, String name){
+        this(codes, categories, lookupOf(categories), size, type, name);
+    }
+
+    /**
+     * Wraps already filled codes along with the code of each value, such as the dictionary of a ColumnBuffer.
+     * Neither the list nor the map is copied.
+     */
+    CategoricalSeries(int [] codes, ArrayList<DataType> categories, HashMap<Object, Integer> lookup, int size, String type, String name){
+        super(type, name, size);
+        this.codes = codes;
+        this.categories = categories;
+        this.lookup = lookup;
+        this.nulls = nullsOf(codes, size);
+        this.currentIndex = size;
+    }
+
+    private static HashMap<Object, Integer> lookupOf(ArrayList<?> categories){
+        HashMap<Object, Integer> lookup = new HashMap<>(categories.size() * 2);
+        for (int code = 0; code < categories.size(); code++)
+            lookup.put(categories.get(code), code);
+        return lookup;
+    }
+
+    /**
+     * Wraps codes sharing the dictionary of another Series, such as the keys of a groupBy()
+     */
+    CategoricalSeries(CategoricalSeries<DataType> source, int [] codes, int size, String name){
+        super(source.getType(), name, size);
+        this.codes = codes;
+        this.categories = source.categories;
+        this.lookup = source.lookup;
+        this.nulls = nullsOf(codes, size);
+        this.currentIndex = size;
+    }
+
+    /**
+     * Builds the null bitmap of wrapped codes, a word at a time: the sign bit of a code is set only for -1
+     * @return The bitmap, or null if no code is missing
+     */
+    private static long[] nullsOf(int [] codes, int size){
+        long [] nulls = new long[Bitmap.words(size)];
+        long any = 0;
+        for (int w = 0; w < nulls.length; w++){
+            int first = w << 6;
+            int count = Math.min(64, size - first);
+            long bits = 0;
+            for (int b = 0; b < count; b++)
+                bits |= (long) (codes[first + b] >>> 31) << b;
+            nulls[w] = bits;
+            any |= bits;
+        }
+        return (any == 0)? null : nulls;
+    }
+
+    /**
+     * Creates a view sharing the codes and dictionary of another Series (see Series.createView())
+     */
+    private CategoricalSeries(CategoricalSeries<DataType> source, int offset, int [] rowIndex, int size){
+        super(source, offset, rowIndex, size);
+        this.codes = source.codes;
+        this.categories = source.categories;
+        this.lookup = source.lookup;
+    }
+
+    /**
+     * Dictionary-encodes a Series of any type but the primitive ones
+     * @param series The Series to be encoded, which is returned as it is if it is already a CategoricalSeries
+     * @return A CategoricalSeries holding the same values
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CategoricalSeries<T> encode(Series<T> series){
+        if (series instanceof CategoricalSeries)
+            return (CategoricalSeries<T>) series;
+        else if (series instanceof NumericSeries || series instanceof BooleanSeries)
+            throw new IllegalDataTypeException("Unable to encode the column \"" + series.getName() + "\" as it holds " + series.getType() + " values.");
+
+        int size = series.getSize();
+        CategoricalSeries<T> result = new CategoricalSeries<>(series.getType(), size, series.getName());
+        for (int i = 0; i < size; i++)
+            result.addItem(series.getIndex_DataType(i));
+        return result;
+    }
+
+    /**
+     * Adds a new value to the Series, adding it to the dictionary if it is new
+     * @param item The value to be added, or null for a missing value
+     */
+    @Override
+    public void addItem(DataType item){
+        if (item == null)
+            addNull();
+        else if (this.currentIndex == this.size)
+            throw new SeriesOverflowException("Max set size reached.");
+        else
+            this.codes[this.currentIndex++] = addCategory(item);
+    }
+
+    @Override
+    public void addNull(){
+        super.addNull();
+        this.codes[this.currentIndex - 1] = -1;
+    }
+
+    /**
+     * Gets the code of a value, adding it to the dictionary if it is new
+     */
+    private int addCategory(DataType value){
+        Integer code = this.lookup.get(value);
+        if (code == null){
+            code = this.categories.size();
+            this.categories.add(value);
+            this.lookup.put(value, code);
+        }
+        return code;
+    }
+
+    @Override
+    public CategoricalSeries<DataType> duplicate(){
+        return new CategoricalSeries<DataType>(this);
+    }
+
+    @Override
+    protected CategoricalSeries<DataType> createView(int offset, int [] rowIndex, int size){
+        return new CategoricalSeries<DataType>(this, offset, rowIndex, size);
+    }
+
+    /**
+     * Copies the codes of the Series into a new array. Views only copy the codes they can reach.
+     */
+    private int[] copyCodes(){
+        if (this.rowIndex == null)
+            return Arrays.copyOfRange(this.codes, this.offset, this.offset + this.size);
+
+        int [] copy = new int[this.size];
+        for (int i = 0; i < this.size; i++)
+            copy[i] = this.codes[this.rowIndex[this.offset + i]];
+        return copy;
+    }
+
+    /**
+     * Gives every missing row the code of a value, adding it to the dictionary of the copy if it is new
+     */
+    @Override
+    protected void fillNulls(DataType value){
+        int code = addCategory(value);
+        for (int w = 0; w < this.nulls.length; w++){
+            for (long bits = this.nulls[w]; bits != 0; bits &= bits - 1)
+                this.codes[(w << 6) + Long.numberOfTrailingZeros(bits)] = code;
+        }
+    }
+
+// ===================================================================================================================================
+//  ENCODING
+
+    /**
+     * One-hot encodes the Series: one column per category, holding 1 on the rows of that category and 0 elsewhere.
+     * A missing value gives 0 in every column. The columns are named after the Series and the category (i.e., "Species_Iris-setosa").
+     *
+     * @param dropFirst Whether to leave out the column of the first category, which is implied by the others.
+     *                  Needed when the columns are used along with an intercept, as in LinearRegression.
+     * @return The columns, in the order of the codes
+     */
+    public FloatSeries[] oneHot(boolean dropFirst){
+        int first = dropFirst? 1 : 0;
+        int count = Math.max(0, this.categories.size() - first);
+        float [][] columns = new float[count][this.size];
+
+        for (int i = 0; i < this.size; i++){
+            int code = this.codes[position(i)] - first;
+            if (code >= 0)
+                columns[code][i] = 1;
+        }
+
+        FloatSeries [] result = new FloatSeries[count];
+        for (int k = 0; k < count; k++)
+            result[k] = new FloatSeries(columns[k], null, this.size, getName() + "_" + this.categories.get(k + first));
+        return result;
+    }
+
+    /**
+     * Ordinal encodes the Series: each value is replaced by its code, the categories being numbered in the order
+     * they first appear. Missing values stay missing.
+     * @return A Series of the same name holding the codes
+     */
+    public IntSeries ordinal(){
+        int [] values = new int[this.size];
+        long [] nulls = null;
+        for (int i = 0; i < this.size; i++){
+            int code = this.codes[position(i)];
+            if (code < 0){
+                if (nulls == null)
+                    nulls = new long[Bitmap.words(this.size)];
+                Bitmap.set(nulls, i);
+            } else
+                values[i] = code;
+        }
+        return new IntSeries(values, nulls, this.size, getName());
+    }
+
+    /**
+     * Ordinal encodes the Series along a given order of the categories (i.e., "Low", "Medium", "High" become 0, 1, 2).
+     * Missing values stay missing.
+     * @param order Every category of the Series, from the lowest to the highest
+     * @return A Series of the same name holding the position of each value in the order
+     */
+    public IntSeries ordinal(List<DataType> order){
+        if (order == null)
+            throw new IllegalArgumentException("The parameter \"order\" is null.");
+
+        int [] ranks = new int[this.categories.size()];
+        Arrays.fill(ranks, -1);
+        for (int rank = 0; rank < order.size(); rank++){
+            Integer code = this.lookup.get(order.get(rank));
+            if (code != null)
+                ranks[code] = rank;
+        }
+
+        int [] values = new int[this.size];
+        long [] nulls = null;
+        for (int i = 0; i < this.size; i++){
+            int code = this.codes[position(i)];
+            if (code < 0){
+                if (nulls == null)
+                    nulls = new long[Bitmap.words(this.size)];
+                Bitmap.set(nulls, i);
+            } else if (ranks[code] < 0)
+                throw new IllegalArgumentException("The value \"" + this.categories.get(code) + "\" of the column \"" + getName() + "\" is missing from the order.");
+            else
+                values[i] = ranks[code];
+        }
+        return new IntSeries(values, nulls, this.size, getName());
+    }
+
+// ===================================================================================================================================
+//  GETTERS
+
+    /**
+     * Gets the code of an element
+     * @param index Index of where the data is located
+     * @return The code of its category, or -1 if the element is missing
+     */
+    public int getCode(int index){
+        return this.codes[locate(index)];
+    }
+
+    /**
+     * Gets the array backing the Series without copying it, -1 marking a missing value.
+     * Used to write the codes in bulk (see ColumnarFile), which only makes sense when the Series is not a view.
+     */
+    int[] getCodes(){
+        return this.codes;
+    }
+
+    /**
+     * @return The number of distinct values in the dictionary, which views share with the whole Series
+     */
+    public int getCategoryCount(){
+        return this.categories.size();
+    }
+
+    /**
+     * Gets the value of a code
+     * @param code A code from 0 to getCategoryCount() - 1
+     */
+    public DataType getCategory(int code){
+        return this.categories.get(code);
+    }
+
+    /**
+     * @return The values of the dictionary in the order of their codes, as a read-only list
+     */
+    public List<DataType> getCategories(){
+        return Collections.unmodifiableList(this.categories);
+    }
+
+    /**
+     * Gets the code of a value without adding it to the dictionary
+     * @return The code of the value, or -1 if no row holds it
+     */
+    public int codeOf(Object value){
+        Integer code = this.lookup.get(value);
+        return (code == null)? -1 : code;
+    }
+
+    @Override
+    public DataType getIndex_DataType(int index){
+        int code = this.codes[locate(index)];
+        return (code < 0)? null : this.categories.get(code);
+    }
+
+    @Override
+    public CategoricalSeries<DataType> getIndex(int index){
+        int resolvedIndex = resolveIndex(index);
+        return getIndex(resolvedIndex, resolvedIndex);
+    }
+
+    @Override
+    public CategoricalSeries<DataType> getIndex(int startIndex, int endIndex){
+        checkRange(startIndex, endIndex);
+        return createView(this.offset + startIndex, this.rowIndex, endIndex - startIndex + 1);
+    }
+}
@@ -0,0 +1,604 @@
+package DataFrame;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import MachineLearningExceptions.*;
+
+/**
+ * A growable, typed buffer used while reading a csv file.
+ *
+ * Each column of the file gets one ColumnBuffer. Values are scanned by a TypeInference state machine as soon as
+ * they are read and stored in a primitive array matching the column's type, which doubles in size whenever it runs out of room.
+ * Once the whole file has been read, the buffer is turned into a Series through toSeries().
+ *
+ * Unless its type is fixed by a schema, a buffer widens its type (i.e., from Integer to Float) when a value
+ * does not fit, converting the values it already holds. A buffer created without a type takes the type of its first value.
+ * A buffer widened to String can only rebuild its numbers, booleans and timestamps from their parsed values, which loses
+ * the way they were written (i.e., 00501 becomes 501). It then reports the loss (see isTextLost()), and CsvReader reads
+ * the column again as a String column.
+ *
+ * Empty fields are stored as null values.
+ *
+ * String and Character values are dictionary-encoded as they are read: each distinct value is kept once, and each
+ * row only stores its code, so the column becomes a CategoricalSeries.
+ *
+ * Dates and timestamps are stored as the epoch day or epoch millisecond computed by the scan, so the column becomes
+ * a DateSeries or TimestampSeries without making a single LocalDate.
+ */
+class ColumnBuffer {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Used to determine the type of data stored. Follows the same names as Series.getType()
+    // Stays null until the first value when the type is inferred.
+    private String type;
+
+    // Whether the type was given by a schema, in which case it is never widened
+    private final boolean fixedType;
+
+    // Number of values currently stored, and how many of them are null
+    private int size;
+    private int nullCount;
+    private int capacity;
+
+    // Storage, only the array matching the type is instantiated.
+    // Floats are kept as doubles until toSeries(), so a Float column widened to Double loses no precision.
+    private double [] doubles;
+    private int [] ints;
+    private long [] longs;
+    private Object [] objects;
+
+    // LocalDate columns: the epoch day of each row. LocalDateTime columns: the epoch millisecond of each row.
+    private int [] days;
+    private long [] millis;
+
+    // String and Character columns: the code of each row, the value of each code and the code of each value
+    private int [] codes;
+    private ArrayList<Object> categories;
+    private HashMap<Object, Integer> lookup;
+
+    // A set bit marks a null value at that position
+    private long [] nulls;
+
+    // Whether values stored before the buffer was widened to String lost their text
+    private boolean textLost;
+
+    // Scans the values, each buffer has its own as it keeps the result of the last scan
+    private final TypeInference inference;
+
+    ColumnBuffer(String type, boolean fixedType){
+        this(type, fixedType, INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param type The data type of the column, or null to take the type of the first value
+     * @param fixedType Whether the type comes from a schema and must never be widened
+     * @param capacity Number of values the buffer can hold before growing
+     */
+    ColumnBuffer(String type, boolean fixedType, int capacity){
+        if (fixedType && type == null)
+            throw new IllegalArgumentException("A fixed ColumnBuffer needs a type.");
+
+        this.fixedType = fixedType;
+        this.inference = new TypeInference();
+        this.size = 0;
+        this.nullCount = 0;
+        this.capacity = Math.max(capacity, 16);
+        this.nulls = new long[Bitmap.words(this.capacity)];
+        setType(type);
+    }
+
+    /**
+     * Sets the type of the buffer, creating the array that holds its values
+     */
+    private void setType(String type){
+        this.type = type;
+        this.doubles = null;
+        this.ints = null;
+        this.longs = null;
+        this.objects = null;
+        this.days = null;
+        this.millis = null;
+        this.codes = null;
+        this.categories = null;
+        this.lookup = null;
+
+        if (type == null)
+            return;
+        else if (type.equals("Float") || type.equals("Double"))
+            this.doubles = new double[capacity];
+        else if (type.equals("Short") || type.equals("Integer"))
+            this.ints = new int[capacity];
+        else if (type.equals("Long"))
+            this.longs = new long[capacity];
+        else if (type.equals("Character") || type.equals("String")){
+            this.codes = new int[capacity];
+            this.categories = new ArrayList<>();
+            this.lookup = new HashMap<>();
+        } else if (type.equals("LocalDate"))
+            this.days = new int[capacity];
+        else if (type.equals("LocalDateTime"))
+            this.millis = new long[capacity];
+        else if (type.equals("Boolean"))
+            this.objects = new Object[capacity];
+        else
+            throw new IllegalDataTypeException("Undefinable Data Type: " + type);
+    }
+
+// ===================================================================================================================================
+//  ADDING VALUES
+
+    /**
+     * Scans and stores a raw value taken from the csv file.
+     * @param raw The text of the field. An empty field is stored as null.
+     */
+    void append(String raw){
+        if (raw == null || raw.isEmpty()){
+            appendNull();
+            return;
+        }
+
+        inference.scan(raw);
+        store(raw, null, 0, 0);
+    }
+
+    /**
+     * Scans and stores a value straight from the bytes of a csv file.
+     * Numbers, booleans and dates are read without creating a String.
+     * @param buffer The bytes of the file
+     * @param start Position of the first byte of the field
+     * @param end Position right after the last byte of the field. An empty field is stored as null.
+     */
+    void append(ByteBuffer buffer, int start, int end){
+        if (start == end){
+            appendNull();
+            return;
+        }
+
+        inference.scan(buffer, start, end);
+        store(null, buffer, start, end);
+    }
+
+    /**
+     * Stores the value found by the last scan. The text of the value is either given as a String (raw)
+     * or as a range of bytes, and is only read again for text and numbers the scan could not compute.
+     */
+    private void store(String raw, ByteBuffer buffer, int start, int end){
+        String valueType = inference.getType();
+
+        if (this.type == null)
+            setType(valueType);
+        else if (!accepts(valueType)){
+            if (this.fixedType)
+                throw new IllegalDataTypeException("The value \"" + text(raw, buffer, start, end) + "\" is not a " + this.type + ".");
+            widen(TypeInference.widen(this.type, valueType));
+        }
+
+        ensureCapacity();
+        int kind = inference.getKind();
+        if (ints != null)
+            ints[size] = (int) inference.getWholeValue();
+        else if (longs != null)
+            longs[size] = inference.getWholeValue();
+        else if (doubles != null){
+            if (kind == TypeInference.WHOLE_NUMBER)
+                doubles[size] = inference.getWholeValue();
+            else if (inference.isExact())
+                doubles[size] = inference.getDecimalValue();
+            else
+                doubles[size] = Double.parseDouble(text(raw, buffer, start, end));
+        } else if (codes != null){
+            String text = text(raw, buffer, start, end);
+            codes[size] = code(type.equals("Character")? (Object) text.charAt(0) : text);
+        } else if (days != null)
+            days[size] = inference.getEpochDay();
+        else if (millis != null)
+            millis[size] = inference.getEpochMilli();
+        else
+            objects[size] = inference.getBooleanValue();
+        size++;
+    }
+
+    /**
+     * Gets the code of a String or Character value, adding it to the dictionary if it is new
+     */
+    private int code(Object value){
+        Integer code = lookup.get(value);
+        if (code == null){
+            code = categories.size();
+            categories.add(value);
+            lookup.put(value, code);
+        }
+        return code;
+    }
+
+    /**
+     * Checks if a value of the given type can be stored without widening the buffer
+     */
+    private boolean accepts(String valueType){
+        // A schema fixing the type to Character takes any single character, such as a digit read as an Integer
+        if (this.fixedType && this.type.equals("Character"))
+            return inference.getCharacters() == 1;
+        if (TypeInference.fits(this.type, valueType))
+            return true;
+
+        // Whole numbers are never inferred as Short, so their range is checked instead
+        if (this.type.equals("Short") && inference.getKind() == TypeInference.WHOLE_NUMBER)
+            return inference.getWholeValue() >= Short.MIN_VALUE && inference.getWholeValue() <= Short.MAX_VALUE;
+        return false;
+    }
+
+    private static String text(String raw, ByteBuffer buffer, int start, int end){
+        return (raw != null)? raw : decode(buffer, start, end);
+    }
+
+    /**
+     * Decodes a range of the buffer as UTF-8 text
+     * @return The text between the start (inclusive) and end (exclusive) positions
+     */
+    static String decode(ByteBuffer buffer, int start, int end){
+        byte [] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Stores a null value
+     */
+    void appendNull(){
+        ensureCapacity();
+        Bitmap.set(nulls, size);
+        nullCount++;
+        size++;
+    }
+
+    /**
+     * Doubles the storage whenever the buffer is full.
+     */
+    private void ensureCapacity(){
+        if (size < capacity)
+            return;
+
+        int newCapacity = capacity << 1;
+        if (doubles != null)
+            doubles = Arrays.copyOf(doubles, newCapacity);
+        else if (ints != null)
+            ints = Arrays.copyOf(ints, newCapacity);
+        else if (longs != null)
+            longs = Arrays.copyOf(longs, newCapacity);
+        else if (objects != null)
+            objects = Arrays.copyOf(objects, newCapacity);
+        else if (days != null)
+            days = Arrays.copyOf(days, newCapacity);
+        else if (millis != null)
+            millis = Arrays.copyOf(millis, newCapacity);
+        else if (codes != null)
+            codes = Arrays.copyOf(codes, newCapacity);
+        nulls = Arrays.copyOf(nulls, Bitmap.words(newCapacity));
+        capacity = newCapacity;
+    }
+
+// ===================================================================================================================================
+//  WIDENING
+
+    /**
+     * Changes the type of the buffer, converting the values it already holds.
+     * @param newType A type able to hold every value of the current type (see TypeInference.widen())
+     */
+    void widen(String newType){
+        if (newType == null || newType.equals(this.type))
+            return;
+
+        String oldType = this.type;
+        double [] oldDoubles = this.doubles;
+        int [] oldInts = this.ints;
+        long [] oldLongs = this.longs;
+        Object [] oldObjects = this.objects;
+        int [] oldDays = this.days;
+        long [] oldMillis = this.millis;
+        int [] oldCodes = this.codes;
+        ArrayList<Object> oldCategories = this.categories;
+
+        setType(newType);
+        if (oldType == null || nullCount == size)
+            return;
+
+        // A Character is its own text, anything else is rebuilt from its value
+        if (codes != null && oldCodes == null)
+            textLost = true;
+
+        for (int i = 0; i < size; i++){
+            if (Bitmap.get(nulls, i))
+                continue;
+
+            if (doubles != null)
+                doubles[i] = (oldInts != null)? oldInts[i] : (oldLongs != null)? oldLongs[i] : oldDoubles[i];
+            else if (ints != null)
+                ints[i] = oldInts[i];
+            else if (longs != null)
+                longs[i] = (oldInts != null)? oldInts[i] : oldLongs[i];
+            else if (millis != null)
+                millis[i] = oldDays[i] * TemporalSeries.MILLIS_PER_DAY;
+            else {
+                String value;
+                if (oldInts != null)
+                    value = String.valueOf(oldInts[i]);
+                else if (oldLongs != null)
+                    value = String.valueOf(oldLongs[i]);
+                else if (oldDoubles != null)
+                    value = oldType.equals("Float")? String.valueOf((float) oldDoubles[i]) : String.valueOf(oldDoubles[i]);
+                else if (oldCodes != null)
+                    value = String.valueOf(oldCategories.get(oldCodes[i]));
+                else if (oldDays != null)
+                    value = TemporalSeries.appendDate(new StringBuilder(10), oldDays[i]).toString();
+                else if (oldMillis != null)
+                    value = TimestampSeries.appendTimestamp(new StringBuilder(23), oldMillis[i]).toString();
+                else
+                    value = String.valueOf(oldObjects[i]);
+
+                if (codes != null)
+                    codes[i] = code(value);
+                else
+                    objects[i] = value;
+            }
+        }
+    }
+
+    /**
+     * Joins the buffers filled by separate threads into a single buffer, keeping their order.
+     * The parts are first widened to a common type.
+     * @param parts Buffers of the same column
+     * @return A buffer holding the values of every part
+     */
+    static ColumnBuffer concat(ColumnBuffer[] parts){
+        String common = null;
+        for (ColumnBuffer part : parts)
+            common = TypeInference.widen(common, part.type);
+
+        for (ColumnBuffer part : parts)
+            part.widen(common);
+
+        if (parts.length == 1)
+            return parts[0];
+
+        int total = 0;
+        for (ColumnBuffer part : parts)
+            total += part.size;
+
+        ColumnBuffer result = new ColumnBuffer(common, parts[0].fixedType && common != null, total);
+        for (ColumnBuffer part : parts)
+            result.textLost |= part.textLost;
+        for (ColumnBuffer part : parts){
+            if (part.type != null){
+                if (result.doubles != null)
+                    System.arraycopy(part.doubles, 0, result.doubles, result.size, part.size);
+                else if (result.ints != null)
+                    System.arraycopy(part.ints, 0, result.ints, result.size, part.size);
+                else if (result.longs != null)
+                    System.arraycopy(part.longs, 0, result.longs, result.size, part.size);
+                else if (result.days != null)
+                    System.arraycopy(part.days, 0, result.days, result.size, part.size);
+                else if (result.millis != null)
+                    System.arraycopy(part.millis, 0, result.millis, result.size, part.size);
+                else if (result.codes != null){
+                    // Each part has its own dictionary, so its codes are translated into the codes of the result
+                    int [] translation = new int[part.categories.size()];
+                    for (int code = 0; code < translation.length; code++)
+                        translation[code] = result.code(part.categories.get(code));
+                    for (int i = 0; i < part.size; i++){
+                        if (!Bitmap.get(part.nulls, i))
+                            result.codes[result.size + i] = translation[part.codes[i]];
+                    }
+                } else
+                    System.arraycopy(part.objects, 0, result.objects, result.size, part.size);
+            }
+
+            if (part.nullCount > 0){
+                for (int i = 0; i < part.size; i++){
+                    if (Bitmap.get(part.nulls, i))
+                        Bitmap.set(result.nulls, result.size + i);
+                }
+                result.nullCount += part.nullCount;
+            }
+            result.size += part.size;
+        }
+
+        return result;
+    }
+
+// ===================================================================================================================================
+//  FILTERING
+
+    /**
+     * Keeps some of the rows [start, size) and forgets the others, used to drop the rows a filter rejects while
+     * the file is read (see ScanFilter). The kept rows are moved down in place, in order, so no array is allocated.
+     * @param keep One bit per row of the range, bit 0 standing for the row start. Bits past the range must be cleared.
+     * @param start Index of the first row of the range
+     */
+    void retain(long [] keep, int start){
+        int end = size;
+        int kept = start;
+        int rangeNulls = countNulls(start, end);
+
+        for (int w = 0; w < Bitmap.words(end - start); w++){
+            for (long bits = keep[w]; bits != 0; bits &= bits - 1){
+                int row = start + (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (row != kept)
+                    move(row, kept);
+                kept++;
+            }
+        }
+
+        // The bits of the dropped rows are cleared, as storing a value never clears the bit of its row
+        for (int i = kept; i < end; i++)
+            Bitmap.clear(nulls, i);
+        nullCount += countNulls(start, kept) - rangeNulls;
+        size = kept;
+    }
+
+    /**
+     * Counts the null values of the rows [start, end), a word at a time
+     */
+    private int countNulls(int start, int end){
+        int count = 0;
+        for (int from = start; from < end; from += 64){
+            long word = Bitmap.word(nulls, from);
+            count += Long.bitCount((end - from < 64)? word & Bitmap.tailMask(end - from) : word);
+        }
+        return count;
+    }
+
+    /**
+     * Copies a row, and whether it is null, to a lower position
+     */
+    private void move(int from, int to){
+        if (doubles != null)
+            doubles[to] = doubles[from];
+        else if (ints != null)
+            ints[to] = ints[from];
+        else if (longs != null)
+            longs[to] = longs[from];
+        else if (objects != null)
+            objects[to] = objects[from];
+        else if (days != null)
+            days[to] = days[from];
+        else if (millis != null)
+            millis[to] = millis[from];
+        else if (codes != null)
+            codes[to] = codes[from];
+
+        boolean fromNull = Bitmap.get(nulls, from);
+        if (fromNull != Bitmap.get(nulls, to)){
+            if (fromNull)
+                Bitmap.set(nulls, to);
+            else
+                Bitmap.clear(nulls, to);
+        }
+    }
+
+// ===================================================================================================================================
+//  GETTERS
+
+    /**
+     * @return The type of the buffer, or null if it has not seen a single value yet
+     */
+    String getType(){
+        return this.type;
+    }
+
+    boolean isFixedType(){
+        return this.fixedType;
+    }
+
+    /**
+     * Checks if the buffer was widened to String after storing values whose text it could not keep
+     */
+    boolean isTextLost(){
+        return this.textLost;
+    }
+
+    int getSize(){
+        return this.size;
+    }
+
+    boolean isNull(int index){
+        return Bitmap.get(nulls, index);
+    }
+
+    /**
+     * Converts the buffer into a Series of the same type.
+     * Numeric columns hand their arrays over to the primitive Series without boxing a single value.
+     * String and Character columns become a CategoricalSeries sharing the dictionary of the buffer,
+     * and LocalDate and LocalDateTime columns a DateSeries or TimestampSeries holding their epoch values.
+     * A column without a single value becomes a String CategoricalSeries of null values.
+     * @param name Name of the resulting Series
+     * @return A Series containing every value stored in the buffer
+     */
+    Series<?> toSeries(String name){
+        return toSeries(name, 0, size);
+    }
+
+    /**
+     * Converts the rows [start, size) into a Series, so a filter can be evaluated on the rows read last (see ScanFilter).
+     * The values are copied, while a String column shares the dictionary of the buffer.
+     * @param name Name of the resulting Series
+     * @param start Index of the first row
+     */
+    Series<?> peek(String name, int start){
+        return toSeries(name, start, size - start);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Series<?> toSeries(String name, int start, int length){
+        long [] nullBitmap = (nullCount > 0)? nullsOf(start, length) : null;
+
+        if (type == null){
+            int [] missing = new int[length];
+            Arrays.fill(missing, -1);
+            return new CategoricalSeries<Object>(missing, new ArrayList<>(), length, "String", name);
+        } else if (codes != null){
+            int [] rowCodes = range(codes, start, length);
+            if (nullBitmap != null){
+                for (int w = 0; w < nullBitmap.length; w++){
+                    for (long bits = nullBitmap[w]; bits != 0; bits &= bits - 1)
+                        rowCodes[(w << 6) + Long.numberOfTrailingZeros(bits)] = -1;
+                }
+            }
+            return new CategoricalSeries<Object>(rowCodes, categories, lookup, length, type, name);
+        } else if (type.equals("Float")){
+            float [] floats = new float[length];
+            for (int i = 0; i < length; i++)
+                floats[i] = (float) doubles[start + i];
+            return new FloatSeries(floats, nullBitmap, length, name);
+        } else if (type.equals("Double"))
+            return new DoubleSeries(range(doubles, start, length), nullBitmap, length, name);
+        else if (type.equals("Long"))
+            return new LongSeries(range(longs, start, length), nullBitmap, length, name);
+        else if (type.equals("Integer"))
+            return new IntSeries(range(ints, start, length), nullBitmap, length, name);
+        else if (type.equals("LocalDate"))
+            return new DateSeries(range(days, start, length), nullBitmap, length, name);
+        else if (type.equals("LocalDateTime"))
+            return new TimestampSeries(range(millis, start, length), nullBitmap, length, name);
+        else if (type.equals("Short")){
+            short [] shorts = new short[length];
+            for (int i = 0; i < length; i++)
+                shorts[i] = (short) ints[start + i];
+            return new ShortSeries(shorts, nullBitmap, length, name);
+        }
+
+        Series<Object> series = (Series<Object>) DataFrame.createSeries(type, length, name);
+        for (int i = start; i < start + length; i++)
+            series.addItem(Bitmap.get(nulls, i)? null : objects[i]);
+        return series;
+    }
+
+    /**
+     * Copies the null bitmap of a range of rows
+     * @return The bitmap starting at bit 0, or null if no row of the range is null
+     */
+    private long[] nullsOf(int start, int length){
+        long [] bitmap = Bitmap.copyRange(nulls, start, length);
+        for (long word : bitmap){
+            if (word != 0)
+                return bitmap;
+        }
+        return null;
+    }
+
+    private double[] range(double [] array, int start, int length){
+        return (start == 0 && array.length == length)? array : Arrays.copyOfRange(array, start, start + length);
+    }
+
+    private int[] range(int [] array, int start, int length){
+        return (start == 0 && array.length == length)? array : Arrays.copyOfRange(array, start, start + length);
+    }
+
+    private long[] range(long [] array, int start, int length){
+        return (start == 0 && array.length == length)? array : Arrays.copyOfRange(array, start, start + length);
+    }
+}
@@ -0,0 +1,574 @@
+package DataFrame;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Reads and writes DataFrames in a binary columnar format, used by DataFrame.save() and DataFrame.load().
+ *
+ * Unlike a csv file, nothing has to be parsed when the file is loaded: every column is a contiguous block of
+ * little-endian values that is memory-mapped and copied in bulk into the array backing its Series.
+ *
+ * Layout of the file (every block starts at a multiple of 8 bytes):
+ * Header  : magic "MLJDFCOL", version (int), number of rows (int), number of columns (int)
+ *           then for each column: name, type (Series.getType()), whether it has nulls (byte) and the offset of its block (long).
+ *           Names and types are written as their UTF-8 length (int) followed by their bytes.
+ * Columns : the null bitmap (one long per 64 rows) when the column has nulls, followed by its values:
+ *           Float, Integer, LocalDate (epoch day) : 4 bytes per row
+ *           Double, Long, LocalDateTime (epoch ms) : 8 bytes per row
+ *           Short                                 : 2 bytes per row
+ *           Boolean                               : a bitset, one long per 64 rows
+ *           String, Character                     : dictionary encoded: the number of distinct values (int), the byte offset
+ *                                                   of each value (int [count + 1]), the code of each row (int, -1 for null)
+ *                                                   and the UTF-8 bytes of the distinct values.
+ */
+final class ColumnarFile {
+
+    private static final byte [] MAGIC = "MLJDFCOL".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 2;
+
+    // Size of the buffer used when writing, and of the regions mapped when reading
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+    private static final int MAX_MAPPED_REGION = 1 << 30;
+
+    private ColumnarFile(){}
+
+// ===================================================================================================================================
+//  WRITING
+
+    /**
+     * Writes the columns of a DataFrame into a file, replacing it if it exists.
+     * @param path Where the file is written
+     * @param columns The columns of the DataFrame
+     * @param rows Number of rows of the DataFrame
+     */
+    static void write(Path path, Series<?>[] columns, int rows){
+        // The values are written straight from the arrays backing each Series, so views are compacted first
+        columns = columns.clone();
+        for (int j = 0; j < columns.length; j++){
+            if (columns[j].isView())
+                columns[j] = columns[j].duplicate();
+        }
+
+        // The dictionaries are built first, as the size of each String and Character block is needed for the header
+        Dictionary[] dictionaries = new Dictionary[columns.length];
+        byte [][] names = new byte[columns.length][];
+        byte [][] types = new byte[columns.length][];
+        boolean [] hasNulls = new boolean[columns.length];
+        long [] offsets = new long[columns.length];
+
+        long position = 20;
+        for (int j = 0; j < columns.length; j++){
+            names[j] = columns[j].getName().getBytes(StandardCharsets.UTF_8);
+            types[j] = columns[j].getType().getBytes(StandardCharsets.UTF_8);
+            position += 4 + names[j].length + 4 + types[j].length + 1 + 8;
+        }
+
+        for (int j = 0; j < columns.length; j++){
+            Series<?> column = columns[j];
+            hasNulls[j] = column.getNulls() != null;
+            if (column.getType().equals("String") || column.getType().equals("Character"))
+                dictionaries[j] = new Dictionary(column, rows);
+
+            position = align(position);
+            offsets[j] = position;
+            if (hasNulls[j])
+                position += 8L * Bitmap.words(rows);
+            position += valuesLength(column.getType(), rows, dictionaries[j]);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            Output out = new Output(channel);
+            out.putBytes(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(rows);
+            out.putInt(columns.length);
+            for (int j = 0; j < columns.length; j++){
+                out.putInt(names[j].length);
+                out.putBytes(names[j]);
+                out.putInt(types[j].length);
+                out.putBytes(types[j]);
+                out.putByte(hasNulls[j]? (byte) 1 : (byte) 0);
+                out.putLong(offsets[j]);
+            }
+
+            for (int j = 0; j < columns.length; j++){
+                out.padTo(offsets[j]);
+                if (hasNulls[j])
+                    writeNulls(out, columns[j], rows);
+                writeValues(out, columns[j], rows, dictionaries[j]);
+            }
+            out.flush();
+        } catch (IOException e){
+            throw new UncheckedIOException("Unable to write the file \"" + path + "\".", e);
+        }
+    }
+
+    private static void writeNulls(Output out, Series<?> column, int rows){
+        out.putLongs(column.getNulls(), Bitmap.words(rows));
+    }
+
+    private static void writeValues(Output out, Series<?> column, int rows, Dictionary dictionary){
+        switch (column.getType()){
+            case "Float":
+                out.putFloats(((FloatSeries) column).getValues(), rows);
+                break;
+            case "Double":
+                out.putDoubles(((DoubleSeries) column).getValues(), rows);
+                break;
+            case "Short":
+                out.putShorts(((ShortSeries) column).getValues(), rows);
+                break;
+            case "Integer":
+                out.putInts(((IntSeries) column).getValues(), rows);
+                break;
+            case "Long":
+                out.putLongs(((LongSeries) column).getValues(), rows);
+                break;
+            case "Boolean":
+                out.putLongs(((BooleanSeries) column).getBits(), Bitmap.words(rows));
+                break;
+            case "LocalDate":
+                if (column instanceof DateSeries)
+                    out.putInts(((DateSeries) column).getValues(), rows);
+                else {
+                    for (int i = 0; i < rows; i++){
+                        LocalDate date = (LocalDate) column.getIndex_DataType(i);
+                        out.putInt((date == null)? 0 : (int) date.toEpochDay());
+                    }
+                }
+                break;
+            case "LocalDateTime":
+                if (column instanceof TimestampSeries)
+                    out.putLongs(((TimestampSeries) column).getValues(), rows);
+                else {
+                    // Copied into a TimestampSeries, which turns each value into epoch milliseconds
+                    TimestampSeries millis = new TimestampSeries(rows, column.getName());
+                    for (int i = 0; i < rows; i++)
+                        millis.addItem((LocalDateTime) column.getIndex_DataType(i));
+                    out.putLongs(millis.getValues(), rows);
+                }
+                break;
+            case "String":
+            case "Character":
+                dictionary.write(out);
+                break;
+            default:
+                throw new IllegalArgumentException("Unable to save the column \"" + column.getName() + "\" of type " + column.getType() + ".");
+        }
+    }
+
+    /**
+     * Gets the number of bytes used by the values of a column, excluding its null bitmap
+     */
+    private static long valuesLength(String type, int rows, Dictionary dictionary){
+        switch (type){
+            case "Float":
+            case "Integer":
+            case "LocalDate":   return 4L * rows;
+            case "Double":
+            case "Long":
+            case "LocalDateTime": return 8L * rows;
+            case "Short":       return 2L * rows;
+            case "Boolean":     return 8L * Bitmap.words(rows);
+            case "String":
+            case "Character":   return dictionary.length();
+            default:            return 0;
+        }
+    }
+
+    private static long align(long position){
+        return (position + 7) & ~7L;
+    }
+
+    /**
+     * The distinct values of a String or Character column, each given a code in the order they first appear
+     */
+    private static class Dictionary {
+        private final ArrayList<byte[]> values;
+        private final int [] codes;
+        private int byteCount;
+
+        Dictionary(Series<?> column, int rows){
+            HashMap<Object, Integer> lookup = new HashMap<>();
+            this.values = new ArrayList<>();
+
+            // A CategoricalSeries already holds its codes, only the bytes of its values are needed
+            if (column instanceof CategoricalSeries){
+                CategoricalSeries<?> categorical = (CategoricalSeries<?>) column;
+                this.codes = categorical.getCodes();
+                for (int code = 0; code < categorical.getCategoryCount(); code++){
+                    byte [] bytes = categorical.getCategory(code).toString().getBytes(StandardCharsets.UTF_8);
+                    values.add(bytes);
+                    byteCount += bytes.length;
+                }
+                return;
+            }
+
+            this.codes = new int[rows];
+
+            for (int i = 0; i < rows; i++){
+                Object value = column.getIndex_DataType(i);
+                if (value == null){
+                    codes[i] = -1;
+                    continue;
+                }
+
+                Integer code = lookup.get(value);
+                if (code == null){
+                    code = values.size();
+                    lookup.put(value, code);
+                    byte [] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                    values.add(bytes);
+                    byteCount += bytes.length;
+                }
+                codes[i] = code;
+            }
+        }
+
+        long length(){
+            return 4L + 4L * (values.size() + 1) + 4L * codes.length + byteCount;
+        }
+
+        void write(Output out){
+            out.putInt(values.size());
+            int offset = 0;
+            out.putInt(offset);
+            for (byte [] value : values){
+                offset += value.length;
+                out.putInt(offset);
+            }
+            out.putInts(codes, codes.length);
+            for (byte [] value : values)
+                out.putBytes(value);
+        }
+    }
+
+    /**
+     * Writes little-endian values to a channel through a fixed size buffer
+     */
+    private static class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long position;
+
+        Output(FileChannel channel){
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            this.position = 0;
+        }
+
+        private void reserve(int bytes){
+            if (buffer.remaining() < bytes)
+                flush();
+            position += bytes;
+        }
+
+        void putByte(byte value){
+            reserve(1);
+            buffer.put(value);
+        }
+
+        void putInt(int value){
+            reserve(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value){
+            reserve(8);
+            buffer.putLong(value);
+        }
+
+        void putBytes(byte [] values){
+            for (int written = 0; written < values.length; ){
+                int count = Math.min(values.length - written, WRITE_BUFFER_SIZE);
+                reserve(count);
+                buffer.put(values, written, count);
+                written += count;
+            }
+        }
+
+        // The bulk writers fill the buffer through a view, then move its position past the written values
+
+        void putShorts(short [] values, int length){
+            for (int written = 0; written < length; ){
+                int count = Math.min(length - written, WRITE_BUFFER_SIZE / 2);
+                reserve(count * 2);
+                buffer.asShortBuffer().put(values, written, count);
+                buffer.position(buffer.position() + count * 2);
+                written += count;
+            }
+        }
+
+        void putInts(int [] values, int length){
+            for (int written = 0; written < length; ){
+                int count = Math.min(length - written, WRITE_BUFFER_SIZE / 4);
+                reserve(count * 4);
+                buffer.asIntBuffer().put(values, written, count);
+                buffer.position(buffer.position() + count * 4);
+                written += count;
+            }
+        }
+
+        void putFloats(float [] values, int length){
+            for (int written = 0; written < length; ){
+                int count = Math.min(length - written, WRITE_BUFFER_SIZE / 4);
+                reserve(count * 4);
+                buffer.asFloatBuffer().put(values, written, count);
+                buffer.position(buffer.position() + count * 4);
+                written += count;
+            }
+        }
+
+        void putLongs(long [] values, int length){
+            for (int written = 0; written < length; ){
+                int count = Math.min(length - written, WRITE_BUFFER_SIZE / 8);
+                reserve(count * 8);
+                buffer.asLongBuffer().put(values, written, count);
+                buffer.position(buffer.position() + count * 8);
+                written += count;
+            }
+        }
+
+        void putDoubles(double [] values, int length){
+            for (int written = 0; written < length; ){
+                int count = Math.min(length - written, WRITE_BUFFER_SIZE / 8);
+                reserve(count * 8);
+                buffer.asDoubleBuffer().put(values, written, count);
+                buffer.position(buffer.position() + count * 8);
+                written += count;
+            }
+        }
+
+        /**
+         * Writes zeros until the given position is reached
+         */
+        void padTo(long target){
+            while (position < target)
+                putByte((byte) 0);
+        }
+
+        void flush(){
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+            } catch (IOException e){
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+    }
+
+// ===================================================================================================================================
+//  READING
+
+    /**
+     * Reads the columns of a file written by write()
+     * @param path The file to be read
+     * @return The columns of the DataFrame
+     */
+    static Series<?>[] read(Path path){
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            long fileSize = channel.size();
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(fileSize, MAX_MAPPED_REGION))
+                                       .order(ByteOrder.LITTLE_ENDIAN);
+
+            byte [] magic = new byte[MAGIC.length];
+            if (header.remaining() < 20)
+                throw new IllegalArgumentException("The file \"" + path + "\" is not a saved DataFrame.");
+            header.get(magic);
+            if (!Arrays.equals(magic, MAGIC))
+                throw new IllegalArgumentException("The file \"" + path + "\" is not a saved DataFrame.");
+
+            int version = header.getInt();
+            if (version != VERSION)
+                throw new IllegalArgumentException("The file \"" + path + "\" uses an unsupported format version: " + version);
+
+            int rows = header.getInt();
+            int columnSize = header.getInt();
+            Series<?>[] columns = new Series[columnSize];
+            for (int j = 0; j < columnSize; j++){
+                String name = getString(header);
+                String type = getString(header);
+                boolean hasNulls = header.get() != 0;
+                long offset = header.getLong();
+                columns[j] = readColumn(channel, offset, name, type, hasNulls, rows);
+            }
+            return columns;
+        } catch (IOException e){
+            throw new UncheckedIOException("Unable to read the file \"" + path + "\".", e);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer){
+        byte [] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Series<?> readColumn(FileChannel channel, long offset, String name, String type, boolean hasNulls, int rows) throws IOException {
+        long [] nulls = null;
+        if (hasNulls){
+            nulls = new long[Bitmap.words(rows)];
+            offset = readLongs(channel, offset, nulls);
+        }
+
+        switch (type){
+            case "Float": {
+                float [] values = new float[rows];
+                readFloats(channel, offset, values);
+                return new FloatSeries(values, nulls, rows, name);
+            }
+            case "Double": {
+                double [] values = new double[rows];
+                readDoubles(channel, offset, values);
+                return new DoubleSeries(values, nulls, rows, name);
+            }
+            case "Short": {
+                short [] values = new short[rows];
+                readShorts(channel, offset, values);
+                return new ShortSeries(values, nulls, rows, name);
+            }
+            case "Integer": {
+                int [] values = new int[rows];
+                readInts(channel, offset, values);
+                return new IntSeries(values, nulls, rows, name);
+            }
+            case "Long": {
+                long [] values = new long[rows];
+                readLongs(channel, offset, values);
+                return new LongSeries(values, nulls, rows, name);
+            }
+            case "Boolean": {
+                long [] values = new long[Bitmap.words(rows)];
+                readLongs(channel, offset, values);
+                return new BooleanSeries(values, nulls, rows, name);
+            }
+            case "LocalDate": {
+                int [] days = new int[rows];
+                readInts(channel, offset, days);
+                return new DateSeries(days, nulls, rows, name);
+            }
+            case "LocalDateTime": {
+                long [] millis = new long[rows];
+                readLongs(channel, offset, millis);
+                return new TimestampSeries(millis, nulls, rows, name);
+            }
+            case "String":
+                return readDictionary(channel, offset, name, rows);
+            case "Character":
+                return readCharacters(channel, offset, name, rows);
+            default:
+                throw new IllegalArgumentException("Undefinable Data Type for the column \"" + name + "\": " + type);
+        }
+    }
+
+    private static Series<?> readDictionary(FileChannel channel, long offset, String name, int rows) throws IOException {
+        int [] codes = new int[rows];
+        ArrayList<String> values = readDictionary(channel, offset, codes);
+        return new CategoricalSeries<String>(codes, values, rows, "String", name);
+    }
+
+    private static Series<?> readCharacters(FileChannel channel, long offset, String name, int rows) throws IOException {
+        int [] codes = new int[rows];
+        ArrayList<String> values = readDictionary(channel, offset, codes);
+        ArrayList<Character> characters = new ArrayList<>(values.size());
+        for (String value : values)
+            characters.add(value.charAt(0));
+        return new CategoricalSeries<Character>(codes, characters, rows, "Character", name);
+    }
+
+    /**
+     * Reads the codes of a dictionary block into codes
+     * @return The distinct values of the block, in the order of their codes
+     */
+    private static ArrayList<String> readDictionary(FileChannel channel, long offset, int [] codes) throws IOException {
+        int [] count = new int[1];
+        offset = readInts(channel, offset, count);
+        int [] bounds = new int[count[0] + 1];
+        offset = readInts(channel, offset, bounds);
+        offset = readInts(channel, offset, codes);
+
+        // The codes of the file become the codes of the CategoricalSeries
+        ArrayList<String> values = new ArrayList<>(count[0]);
+        ByteBuffer bytes = map(channel, offset, bounds[count[0]]);
+        for (int k = 0; k < count[0]; k++){
+            byte [] value = new byte[bounds[k + 1] - bounds[k]];
+            bytes.get(bounds[k], value);
+            values.add(new String(value, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long offset, long length) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    // The bulk readers map the block in regions of at most MAX_MAPPED_REGION bytes and copy each region straight
+    // into the array. They return the position right after the block.
+
+    private static long readShorts(FileChannel channel, long offset, short [] values) throws IOException {
+        for (int read = 0; read < values.length; ){
+            int count = Math.min(values.length - read, MAX_MAPPED_REGION / 2);
+            map(channel, offset, count * 2L).asShortBuffer().get(values, read, count);
+            offset += count * 2L;
+            read += count;
+        }
+        return offset;
+    }
+
+    private static long readInts(FileChannel channel, long offset, int [] values) throws IOException {
+        for (int read = 0; read < values.length; ){
+            int count = Math.min(values.length - read, MAX_MAPPED_REGION / 4);
+            map(channel, offset, count * 4L).asIntBuffer().get(values, read, count);
+            offset += count * 4L;
+            read += count;
+        }
+        return offset;
+    }
+
+    private static long readFloats(FileChannel channel, long offset, float [] values) throws IOException {
+        for (int read = 0; read < values.length; ){
+            int count = Math.min(values.length - read, MAX_MAPPED_REGION / 4);
+            map(channel, offset, count * 4L).asFloatBuffer().get(values, read, count);
+            offset += count * 4L;
+            read += count;
+        }
+        return offset;
+    }
+
+    private static long readLongs(FileChannel channel, long offset, long [] values) throws IOException {
+        for (int read = 0; read < values.length; ){
+            int count = Math.min(values.length - read, MAX_MAPPED_REGION / 8);
+            map(channel, offset, count * 8L).asLongBuffer().get(values, read, count);
+            offset += count * 8L;
+            read += count;
+        }
+        return offset;
+    }
+
+    private static long readDoubles(FileChannel channel, long offset, double [] values) throws IOException {
+        for (int read = 0; read < values.length; ){
+            int count = Math.min(values.length - read, MAX_MAPPED_REGION / 8);
+            map(channel, offset, count * 8L).asDoubleBuffer().get(values, read, count);
+            offset += count * 8L;
+            read += count;
+        }
+        return offset;
+    }
+}
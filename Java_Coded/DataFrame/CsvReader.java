@@ -0,0 +1,507 @@
+package DataFrame;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import MachineLearningExceptions.*;
+
+/**
+ * Reads a csv file into a DataFrame in a single pass.
+ *
+ * The file is opened once: the first line gives the column names, the first records (see setSampleRows()) decide each
+ * column's data type, and every record is parsed straight into a growable ColumnBuffer as it is read.
+ * Data types are inferred by a TypeInference state machine, without throwing exceptions. A column whose later values do not
+ * fit its type is widened (i.e., from Integer to Float), and a schema can fix the types of some or all columns.
+ *
+ * Large files can instead be memory-mapped and parsed on several threads (see setMemoryMapped()).
+ *
+ * Only some of the columns can be read (see setColumns()), the fields of the others being skipped without being parsed,
+ * and a filter can drop rows while the file is read (see setFilter()). LazyFrame relies on both to push the columns
+ * and the filters of a plan down into the reading of the file.
+ *
+ * How to use it:
+ * DataFrame df = new CsvReader("Datasets/Linear_Regression/housing.csv").read();
+ *
+ * CsvReader reader = new CsvReader("large_file.csv");
+ * reader.setMemoryMapped(true);
+ * reader.setThreads(8);
+ * reader.setSchema(Map.of("Price", "Double", "Year", "Short"));
+ * DataFrame large = reader.read();
+ *
+ * CsvReader reader = new CsvReader("Datasets/Linear_Regression/housing.csv");
+ * reader.setColumns("median_income", "median_house_value");
+ * reader.setFilter(Filter.notNull("total_bedrooms"));
+ * DataFrame small = reader.read();           // 2 columns, and only the rows with a total_bedrooms
+ */
+public class CsvReader {
+
+    // Passed to setSampleRows() to infer the data types from every record
+    public static final int ALL_ROWS = -1;
+
+    // Size of the character buffer used by the underlying BufferedReader
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private static final int DEFAULT_SAMPLE_ROWS = 1000;
+
+    private final File file;
+
+    // Whether the file is memory-mapped and parsed on several threads
+    private boolean memoryMapped;
+
+    // Number of threads used when the file is memory-mapped
+    private int threads;
+
+    // Number of records used to infer the data types, or ALL_ROWS
+    private int sampleRows;
+
+    // Data types given by the user, by column name
+    private Map<String, String> schema;
+
+    // Names of the columns returned by read(), in order, or null for every column of the file
+    private String [] columns;
+
+    // Condition on the rows kept while reading the file, or null to keep every row
+    private Filter filter;
+
+    // Number of records read by the last call to read()
+    private int rowsRead;
+
+    public CsvReader(String pathToFile){
+        if (pathToFile == null)
+            throw new IllegalArgumentException("The parameter \"pathToFile\" is null.");
+        this.file = new File(pathToFile);
+        this.memoryMapped = false;
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.sampleRows = DEFAULT_SAMPLE_ROWS;
+        this.schema = new HashMap<>();
+    }
+
+    /**
+     * Copies the settings of another reader, so they can be changed without changing the other reader (see lazy())
+     */
+    CsvReader(CsvReader other){
+        this.file = other.file;
+        this.memoryMapped = other.memoryMapped;
+        this.threads = other.threads;
+        this.sampleRows = other.sampleRows;
+        this.schema = new HashMap<>(other.schema);
+        this.columns = other.columns;
+        this.filter = other.filter;
+    }
+
+// ===================================================================================================================================
+//  SETTERS
+
+    /**
+     * Chooses how the file is read.
+     * 
+     * By default the file is streamed through a BufferedReader on the calling thread.
+     * A memory-mapped file is split into chunks at line breaks, and each chunk is parsed straight from its bytes
+     * on its own thread. This is faster for large files, but uses one mapping per chunk.
+     * 
+     * @param memoryMapped true to memory-map the file and parse it in parallel
+     */
+    public void setMemoryMapped(boolean memoryMapped){
+        this.memoryMapped = memoryMapped;
+    }
+
+    /**
+     * Sets the number of threads used to parse a memory-mapped file. Defaults to the number of available processors.
+     * @param threads Number of threads, at least 1
+     */
+    public void setThreads(int threads){
+        if (threads < 1)
+            throw new IllegalArgumentException("The parameter \"threads\" must be a positive non-zero number.");
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the number of records used to infer the data type of each column. Defaults to 1000.
+     * 
+     * Values found after the sample that do not fit their column's type still widen the column, but every value
+     * stored so far then has to be converted. With ALL_ROWS, each column starts from the type of its first value
+     * and widens as the records are read.
+     * 
+     * @param sampleRows Number of records, at least 1, or ALL_ROWS
+     */
+    public void setSampleRows(int sampleRows){
+        if (sampleRows < 1 && sampleRows != ALL_ROWS)
+            throw new IllegalArgumentException("The parameter \"sampleRows\" must be a positive non-zero number or CsvReader.ALL_ROWS.");
+        this.sampleRows = sampleRows;
+    }
+
+    /**
+     * Fixes the data types of some columns, skipping their type inference.
+     * Columns left out of the schema are still inferred. A value that does not fit its fixed type stops the reading.
+     * 
+     * @param schema The data types by column name, using the names of Series.getType() (Float, Integer, String, ...)
+     */
+    public void setSchema(Map<String, String> schema){
+        if (schema == null)
+            throw new IllegalArgumentException("The parameter \"schema\" is null.");
+
+        for (Map.Entry<String, String> entry : schema.entrySet()){
+            if (entry.getValue() == null || !DataFrame.isSupportedType(entry.getValue()))
+                throw new IllegalDataTypeException("Undefinable Data Type for the column \"" + entry.getKey() + "\": " + entry.getValue());
+        }
+        this.schema = new HashMap<>(schema);
+    }
+
+    /**
+     * Reads only some of the columns of the file. The fields of the other columns are skipped without being parsed,
+     * and their data types are never inferred.
+     * @param colNames Names of the columns, in the order read() returns them
+     */
+    public void setColumns(String... colNames){
+        if (colNames == null || colNames.length == 0)
+            throw new IllegalArgumentException("The parameter \"colNames\" must not be null nor empty.");
+        this.columns = colNames.clone();
+    }
+
+    /**
+     * Keeps only the rows matching a filter while the file is read. Every few thousand records, the filter is evaluated on the
+     * records just read and the rows it rejects are dropped, so they are never held in memory along with the whole file.
+     * The columns read by the filter are read even when setColumns() leaves them out.
+     * @param filter The condition on the rows (see Filter), or null to keep every row
+     */
+    public void setFilter(Filter filter){
+        this.filter = filter;
+    }
+
+// ===================================================================================================================================
+//  READING
+
+    /**
+     * Reads the whole file into a new DataFrame.
+     * @return A DataFrame holding every record of the csv file
+     */
+    public DataFrame read(){
+        return new DataFrame(readColumns(), false);
+    }
+
+    /**
+     * Starts a lazy plan over the file (see LazyFrame). Only the header is read now, the records are read by LazyFrame.collect().
+     * The settings of the reader (memory mapping, threads, schema) are copied into the plan.
+     * @return A LazyFrame reading every column of the file
+     */
+    public LazyFrame lazy(){
+        return LazyFrame.scan(new CsvReader(this), readHeader());
+    }
+
+    /**
+     * Reads the column names from the first line of the file
+     * @return The names, or an empty array if the file is empty
+     */
+    String[] readHeader(){
+        try (BufferedReader br = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8), READ_BUFFER_SIZE)){
+            String header = br.readLine();
+            return (header == null)? new String[0] : splitLine(header, -1);
+        } catch (IOException e){
+            throw new UncheckedIOException("Unable to read the file \"" + file.getPath() + "\".", e);
+        }
+    }
+
+    /**
+     * Reads the whole file into an array of Series, one per column.
+     *
+     * A column whose sample holds numbers (or booleans, timestamps) but which later meets a text value is widened to String,
+     * and its first values can then only be rebuilt from what was parsed (see ColumnBuffer.isTextLost()). The file is then
+     * read a second time with those columns fixed to String, so they keep their fields as written (i.e., 00501 and not 501).
+     * @return The columns of the csv file, or an empty array if the file is empty
+     */
+    Series<?>[] readColumns(){
+        List<String> lost = new ArrayList<>();
+        Series<?>[] columns = readOnce(lost);
+        if (lost.isEmpty())
+            return columns;
+
+        // Lets the first read be collected while the second one runs
+        columns = null;
+        CsvReader again = new CsvReader(this);
+        for (String name : lost)
+            again.schema.put(name, "String");
+        columns = again.readOnce(new ArrayList<>());
+        this.rowsRead = again.rowsRead;
+        return columns;
+    }
+
+    /**
+     * Reads the file once
+     * @param lost Receives the names of the columns widened to String after some of their values lost their text
+     */
+    private Series<?>[] readOnce(List<String> lost){
+        if (this.memoryMapped){
+            MappedCsvParser parser = new MappedCsvParser(file, threads, this);
+            Series<?>[] columns = parser.readColumns(lost);
+            this.rowsRead = parser.getRowsRead();
+            return columns;
+        }
+
+        try (BufferedReader br = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8), READ_BUFFER_SIZE)){
+            String header = br.readLine();
+            if (header == null){
+                this.rowsRead = 0;
+                return new Series[0];
+            }
+
+            String [] columnNames = splitLine(header, -1);
+            int [] returned = columnsReturned(columnNames);
+            ScanFilter scanFilter = (this.filter == null)? null : new ScanFilter(this.filter, columnNames);
+            boolean [] read = columnsRead(columnNames.length, returned, scanFilter);
+
+            // Reads the sample used to infer the data types
+            ArrayList<String[]> sample = new ArrayList<>();
+            String line;
+            if (needsSample(columnNames, read)){
+                while (sample.size() < this.sampleRows && (line = br.readLine()) != null){
+                    if (line.isEmpty())
+                        continue;
+                    String [] fields = new String[columnNames.length];
+                    splitLine(line, fields);
+                    sample.add(fields);
+                }
+            }
+
+            ColumnBuffer[] buffers = createBuffers(columnNames, sample, read);
+            int rows = 0;
+            int evaluated = 0;
+            for (String [] fields : sample){
+                appendRecord(buffers, columnNames, fields, rows++);
+                if (scanFilter != null && rows % ScanFilter.BATCH == 0)
+                    evaluated = scanFilter.apply(buffers, evaluated);
+            }
+
+            // Only the fields up to the last column read are split
+            String [] fields = new String[lastRead(read) + 1];
+            while ((line = br.readLine()) != null){
+                if (line.isEmpty())
+                    continue;
+
+                splitLine(line, fields, read);
+                appendRecord(buffers, columnNames, fields, rows++);
+                if (scanFilter != null && rows % ScanFilter.BATCH == 0)
+                    evaluated = scanFilter.apply(buffers, evaluated);
+            }
+            if (scanFilter != null)
+                scanFilter.apply(buffers, evaluated);
+
+            Series<?>[] columns = new Series[returned.length];
+            for (int k = 0; k < returned.length; k++)
+                columns[k] = buffers[returned[k]].toSeries(columnNames[returned[k]]);
+            for (int j : returned){
+                if (buffers[j].isTextLost())
+                    lost.add(columnNames[j]);
+            }
+            this.rowsRead = (columns.length == 0)? 0 : columns[0].getSize();
+            return columns;
+        } catch (IOException e){
+            throw new UncheckedIOException("Unable to read the file \"" + file.getPath() + "\".", e);
+        }
+    }
+
+    private static void appendRecord(ColumnBuffer[] buffers, String [] columnNames, String [] fields, int row){
+        for (int j = 0; j < buffers.length; j++){
+            if (buffers[j] == null)
+                continue;
+
+            try {
+                buffers[j].append(fields[j]);
+            } catch (RuntimeException e){
+                throw new IllegalArgumentException("Unable to read the value \"" + fields[j] + "\" of the column \"" + columnNames[j]
+                                                    + "\" at row " + row + " as a " + buffers[j].getType() + ".", e);
+            }
+        }
+    }
+
+    /**
+     * Finds the columns returned by read()
+     * @param columnNames Names of the columns of the file
+     * @return The position of each returned column in the file, in the order given to setColumns()
+     */
+    int[] columnsReturned(String [] columnNames){
+        if (this.columns == null){
+            int [] all = new int[columnNames.length];
+            for (int j = 0; j < all.length; j++)
+                all[j] = j;
+            return all;
+        }
+
+        int [] returned = new int[this.columns.length];
+        for (int k = 0; k < returned.length; k++)
+            returned[k] = ScanFilter.indexOf(columnNames, this.columns[k]);
+        return returned;
+    }
+
+    /**
+     * Finds the columns parsed while reading the file: the returned ones and the ones read by the filter
+     * @param columnSize Number of columns of the file
+     * @param returned The positions of the returned columns (see columnsReturned())
+     * @param filter The filter pushed into the reading, or null
+     * @return Whether each column of the file is parsed
+     */
+    static boolean[] columnsRead(int columnSize, int [] returned, ScanFilter filter){
+        boolean [] read = new boolean[columnSize];
+        for (int j : returned)
+            read[j] = true;
+        if (filter != null){
+            for (int j : filter.getColumns())
+                read[j] = true;
+        }
+        return read;
+    }
+
+    /**
+     * @return The position of the last column parsed, or -1 if there is none
+     */
+    static int lastRead(boolean [] read){
+        int last = read.length - 1;
+        while (last >= 0 && !read[last])
+            last--;
+        return last;
+    }
+
+    /**
+     * Checks if a sample has to be read, which is not the case when every type is inferred on the go
+     * or when the schema gives the type of every column read.
+     */
+    boolean needsSample(String [] columnNames, boolean [] read){
+        if (this.sampleRows == ALL_ROWS)
+            return false;
+
+        for (int j = 0; j < columnNames.length; j++){
+            if (read[j] && !this.schema.containsKey(columnNames[j]))
+                return true;
+        }
+        return false;
+    }
+
+    Filter getFilter(){
+        return this.filter;
+    }
+
+    int getSampleRows(){
+        return this.sampleRows;
+    }
+
+    /**
+     * Creates the buffers of each column read, with the type given by the schema or inferred from the sample.
+     * @param columnNames Names of the columns
+     * @param sample The records used to infer the types, split into fields
+     * @param read Whether each column is read
+     * @return One ColumnBuffer per column, null for the columns that are not read
+     */
+    ColumnBuffer[] createBuffers(String [] columnNames, List<String[]> sample, boolean [] read){
+        ColumnBuffer[] buffers = new ColumnBuffer[columnNames.length];
+        TypeInference inference = new TypeInference();
+
+        for (int j = 0; j < columnNames.length; j++){
+            if (!read[j])
+                continue;
+
+            String fixed = this.schema.get(columnNames[j]);
+            if (fixed != null){
+                buffers[j] = new ColumnBuffer(fixed, true);
+                continue;
+            }
+
+            String type = null;
+            for (String [] fields : sample){
+                inference.scan(fields[j]);
+                type = TypeInference.widen(type, inference.getType());
+            }
+            buffers[j] = new ColumnBuffer(type, false);
+        }
+
+        return buffers;
+    }
+
+// ===================================================================================================================================
+//  PARSING
+
+    /**
+     * Splits a line by its commas. Unlike String.split(","), no regular expression is used and
+     * trailing empty fields are kept.
+     * @param line The line to be split
+     * @param fields The array receiving the fields. Missing fields are set to an empty String, extra fields are ignored.
+     */
+    static void splitLine(String line, String [] fields){
+        splitLine(line, fields, null);
+    }
+
+    /**
+     * Splits a line by its commas, only making a String of the fields that are read
+     * @param line The line to be split
+     * @param fields The array receiving the fields (see splitLine(String, String[]))
+     * @param read Whether each field is read, or null to read every field. The fields that are not read are set to null.
+     */
+    static void splitLine(String line, String [] fields, boolean [] read){
+        int start = 0;
+        int length = line.length();
+
+        // Removes the carriage return left by files saved with Windows line endings
+        if (length > 0 && line.charAt(length - 1) == '\r')
+            length--;
+
+        for (int j = 0; j < fields.length; j++){
+            if (start > length){
+                fields[j] = "";
+                continue;
+            }
+
+            int end = line.indexOf(',', start);
+            if (end == -1 || end > length)
+                end = length;
+            fields[j] = (read == null || read[j])? line.substring(start, end) : null;
+            start = end + 1;
+        }
+    }
+
+    /**
+     * Splits a line by its commas, keeping every field.
+     * @param line The line to be split
+     * @param expected Expected number of fields, or -1 if unknown
+     * @return The fields of the line
+     */
+    static String[] splitLine(String line, int expected){
+        ArrayList<String> list = new ArrayList<>(expected > 0? expected : 16);
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r')
+            length--;
+
+        int start = 0;
+        while (true){
+            int end = line.indexOf(',', start);
+            if (end == -1 || end > length){
+                list.add(line.substring(start, length));
+                break;
+            }
+            list.add(line.substring(start, end));
+            start = end + 1;
+        }
+
+        return list.toArray(new String[0]);
+    }
+
+// ===================================================================================================================================
+//  GETTERS
+
+    /**
+     * Gets the number of records read by the last call to read()
+     * @return The number of records, excluding the line containing the column names and the records dropped by the filter
+     */
+    public int getRowsRead(){
+        return this.rowsRead;
+    }
+
+    public String getPath(){
+        return this.file.getPath();
+    }
+}
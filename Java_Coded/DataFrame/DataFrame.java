@@ -1,693 +1,974 @@
-package DataFrame;
-
-import java.io.File;
-import java.io.FileReader;
-import java.time.LocalDate;
-import java.util.Hashtable;
-import java.util.Random;
-
-import MachineLearningExceptions.*;
-import java.io.BufferedReader;
-
-/**
- * A Class mimicing the DataFrames present in R and Python.
- * 
- * Each DataFrame comprises of a/several Series class(es), representing as the column, where each element 
- * in a series represents a partial record
- *  
- * For Visualization:
- * Index | Series 1 | Series 2 |
- *   0   |  Pencil  |   10.00  |
- *   1   | Ballpen  |   20.00  |
- * 
- * It is stored as an array:
- * Series 1 : ["Pencil", "Ballpen"]
- * Series 2 : [10.00, 20.00]
- */
-public class DataFrame {
-    /**
-     * Count the number of columns
-     * Count the number of records
-     * Capture the DataType for each row
-     */
-
-     // The columns used to store the data.
-    @SuppressWarnings("rawtypes")
-    private Series[] columns;
-
-    // Dimensions of the DataFrame
-    private int columnSize;
-    private int rowSize;
-
-    // Seed used for methods relying on randomization (i.e., split())
-    private int seed;
-
-    public static void main(String [] args){
-        // DataFrame df = new DataFrame("C:/Users/Waks/Downloads/USEP BSCS/Coding/Machine Learning/Datasets/advertising.csv");
-        // DataFrame df = new DataFrame("C:\\Users\\Waks\\Downloads\\USEP BSCS\\Coding\\Machine Learning\\Datasets\\Iris.csv");
-        DataFrame df = new DataFrame("D:\\Waks - Academics\\Side Projects\\Machine-Learning-in-Java\\Datasets\\Iris.csv");
-        System.out.println(df.getInfo());
-        System.out.println(df);
-        // System.out.println(df.getHead());
-        // System.out.println(df.select("Id", "SepalLengthCm", "PetalLengthCm", "Species")
-        //                         .getHead());
-        // System.out.println(df.loc("Id", "SepalLengthCm").getHead());
-        System.out.println(df.iloc(0, 0, 3, 2).getHead());
-    }
-
-    /**
-     * Makes a copy of the passed DataFrame
-     * @param df
-     */
-    public DataFrame(DataFrame df){
-        int [] shape = df.getShape();
-        if (shape[0] < 1 || shape[1] < 1)
-            throw new IllegalArgumentException("Empty DataFrame was used.");
-        this.rowSize = shape[0];
-        this.columnSize = shape[1];
-        this.columns = duplicateColumns(df.getColumns());
-        this.seed = df.seed;
-    }
-
-    public DataFrame(String pathToFile){
-        File file = new File(pathToFile);
-        prepareDimensions(file);
-        prepareFileData(file);
-        this.seed = -1;
-    }
-
-    private DataFrame(Series<?>[] seriesArray){
-        if (seriesArray == null)
-            throw new NullPointerException("Cannot access Series as \"seriesArray\" is null.");
-        
-        int rowSize = seriesArray[0].getSize();
-        for (int i = 1; i < seriesArray.length; i++){
-            if (seriesArray[i].getSize() != rowSize)
-                throw new IllegalArgumentException("Invalid Series \"" + seriesArray[i].getName() + "\" as it has " + seriesArray[i].getSize() + " rows than the supposed " + rowSize + ".");
-        }
-
-        this.rowSize = seriesArray[0].getSize();
-        this.columnSize = seriesArray.length;
-        this.columns = duplicateColumns(seriesArray);
-        this.seed = -1;
-    }
-
-// ===================================================================================================================================
-//  INSTANTIATING THE DATA FRAME
-
-    /**
-     * Prepares the row and column size taken from the csv file
-     * This is made for the instantiation of the columns, and their rows.
-     * @param file
-     */
-    private void prepareDimensions(File file){
-        try {
-            if (file == null){
-                setColumnSize(0);
-                setRowSize(0);
-                return;
-            }
-
-            // Prepares the file for reading
-            FileReader reader = new FileReader(file);
-            BufferedReader br = new BufferedReader(reader);
-
-            String columnNames = br.readLine();
-            if (columnNames == null){
-                setColumnSize(0);
-                setRowSize(0);
-                br.close();
-                return;
-            }
-
-            // Prepares the columns
-            setColumnSize(columnNames.split(",").length);
-
-            int rows = 0;
-            while (br.readLine() != null)
-                rows++;
-            setRowSize(rows);
-
-            br.close();
-        } catch (Exception e){
-            System.err.println(e);
-        }
-    }
-
-    /**
-     * The method that fills in the records for each Series based on the given csv file.
-     * This method assumes that the file is not null and is existing.
-     * @param file
-     */
-    @SuppressWarnings("unchecked")
-    private void prepareFileData(File file){
-        try {
-            // PART 1: Prepares the file readers
-            FileReader reader = new FileReader(file);
-            BufferedReader br = new BufferedReader(reader);
-
-            // PART 3: Create the columns
-            createColumns(file);
-
-            // Enter the records
-            br.readLine(); // Skips the line containing the column names
-            for (int i = 0; i < this.rowSize; i++){
-                String [] row = br.readLine().split(",");
-                for (int j = 0; j < this.columnSize; j++){
-                    handleAddItem(this.columns[j], row[j]);
-                }
-            }
-
-            br.close();
-        } catch (Exception e){
-            System.err.println("ERROR: prepareFileData() \n" + e + " " + e.getStackTrace()[0].getMethodName() + " " + e.getMessage() + "\n");
-        }
-    }
-
-    /**
-     * Creates the columns for our DataFrame, done by instantiating the Series array.
-     * @param file The file containing the data to be read.
-     */
-    private void createColumns(File file){
-        try {
-            FileReader reader = new FileReader(file);
-            BufferedReader br = new BufferedReader(reader);
-
-            // Instantiate the columns
-            this.columns = new Series[this.columnSize];
-
-            // Get the column names
-            String [] columnNames = br.readLine().split(",");
-            String [] firstRow = br.readLine().split(",");
-
-            for (int i = 0; i < this.columnSize; i++){
-                String type = getType(firstRow[i]);
-
-                if (("Unknown").equals(type)){
-                    br.close();
-                    throw new IllegalArgumentException("Undefinable Data Type: " + firstRow[i]);
-                } else if (type == "LocalDate")
-                    this.columns[i] = new Series<LocalDate>(type, this.rowSize, columnNames[i]);
-                else if (type == "Float")
-                    this.columns[i] = new Series<Float>(type, this.rowSize, columnNames[i]);
-                else if (type == "Double")
-                    this.columns[i] = new Series<Double>(type, this.rowSize, columnNames[i]);
-                else if (type == "Short") 
-                    this.columns[i] = new Series<Short>(type, this.rowSize, columnNames[i]);
-                else if (type == "Integer") 
-                    this.columns[i] = new Series<Integer>(type, this.rowSize, columnNames[i]);
-                else if (type == "Long") 
-                    this.columns[i] = new Series<Long>(type, this.rowSize, columnNames[i]);
-                else if (type == "Boolean")
-                    this.columns[i] = new Series<Boolean>(type, this.rowSize, columnNames[i]);
-                else if (type == "Character")
-                    this.columns[i] = new Series<Character>(type, this.rowSize, columnNames[i]);
-                else if (type == "String")
-                    this.columns[i] = new Series<String>(type, this.rowSize, columnNames[i]);
-            }
-
-            br.close();
-        } catch (Exception e){
-            System.err.println(e);
-        }
-    }
-
-    private void createColumns(Series<?> [] otherColumns, int otherRowSize){
-        for (int i = 0; i < this.columns.length; i++){
-            String type = this.columns[i].getType();
-            String colName = this.columns[i].getName();
-
-            if (type == "Unknown"){
-                throw new IllegalArgumentException("Undefinable Data Type: " + type);
-            } else if (type == "LocalDate")
-                otherColumns[i] = new Series<LocalDate>(type, otherRowSize, colName);
-            else if (type == "Float")
-                otherColumns[i] = new Series<Float>(type, otherRowSize, colName);
-            else if (type == "Double")
-                otherColumns[i] = new Series<Double>(type, otherRowSize, colName);
-            else if (type == "Short") 
-                otherColumns[i] = new Series<Short>(type, otherRowSize, colName);
-            else if (type == "Integer") 
-                otherColumns[i] = new Series<Integer>(type, otherRowSize, colName);
-            else if (type == "Long") 
-                otherColumns[i] = new Series<Long>(type, otherRowSize, colName);
-            else if (type == "Boolean")
-                otherColumns[i] = new Series<Boolean>(type, otherRowSize, colName);
-            else if (type == "Character")
-                otherColumns[i] = new Series<Character>(type, otherRowSize, colName);
-            else if (type == "String")
-                otherColumns[i] = new Series<String>(type, otherRowSize, colName);
-        }
-    }
-
-    /**
-     * Gets the object's data type given a string. Similar to a JSON object being transformed into a variable
-     * @param data
-     * @return String representing its data type (LocalDate, Float, Integer, Boolean, String)
-     */
-    private String getType(String data){
-        try {
-            LocalDate.parse(data);
-            return "LocalDate";
-        } catch (Exception e){}
-
-        try {
-            if (!data.contains("."))
-                throw new IllegalArgumentException("");
-            Float.parseFloat(data);
-            return "Float";
-        } catch (Exception e){}
-
-        try {
-            if (!data.contains("."))
-                throw new IllegalArgumentException("");
-            Double.parseDouble(data);
-            return "Double";
-        } catch (Exception e){}
-
-        try {
-            Integer.parseInt(data);
-            return "Integer";
-        } catch (Exception e){}
-
-        try {
-            Short.parseShort(data);
-            return "Short";
-        } catch (Exception e){}
-
-        try {
-            Integer.parseInt(data);
-            return "Integer";
-        } catch (Exception e){}
-
-        try {
-            if (data.equals("True") || data.equals("true")){
-                Boolean.parseBoolean(data);
-                return "Boolean";
-            }
-        } catch (Exception e){}
-
-        return (data.length() == 1)? "Character" : "String";
-    }
-    
-// ===================================================================================================================================
-//  SERIES DUPLICATION
-
-    /**
-     * Creates a deep copy of a DataFrame
-     * @param otherCols The Series or columns to be copied
-     * @return A separate and independently editable Series.
-     */
-    private Series<?>[] duplicateColumns(Series<?>[] otherCols){
-        Series<?>[] copy = new Series[otherCols.length];
-
-        for (int i = 0; i < otherCols.length; i++){
-            copy[i] = new Series<>(otherCols[i]);
-        }
-
-        return copy;
-    }
-
-// ===================================================================================================================================
-//  SETTERS
-
-    private void setRowSize(int rowSize){
-        this.rowSize = rowSize;
-    }
-
-    private void setColumnSize(int columnSize){
-        this.columnSize = columnSize;
-    }
-
-    public void setSeed(int seed){
-        if (seed == -1)
-            throw new IllegalArgumentException("Seed must be a positive non-zero number.");
-        this.seed = seed;
-    }
-
-// ===================================================================================================================================
-//  SUBSETTING
-
-    public Series<?> select(String colName){
-        return select(new String[] {colName}).getColumns()[0];
-    }
-
-    /**
-     * Selects the columns from a DataFrame
-     * 
-     * @param colNames List of column names to be selected
-     * @return A new DataFrame composing of only the selected columns. 
-     *         Note that the order of the Strings affect the column order.
-     */
-    public DataFrame select(String... colNames){
-        Series<?>[] seriesArray = new Series[colNames.length];
-
-        // Adds the DataFrames columns to a HashSet
-        Hashtable<String, Series<?>> set = new Hashtable<>();
-        for (int i = 0; i < this.columnSize; i++)
-            set.put(this.columns[i].getName(), this.columns[i]);
-        
-        // Iterate over the HashSet if the columns are found there
-        for (int i = 0; i < colNames.length; i++){
-            Series<?> result = set.getOrDefault(colNames[i], null);
-            if (result == null)
-                throw new UnknownColumnException("The column \"" + colNames[i] + "\" doesn't exist in the DataFrame.");
-            seriesArray[i] = new Series<>(result);
-        }
-        
-        // Instantiate and return the new DataFrame
-        return new DataFrame(seriesArray);
-    }
-
-    /**
-     * Splits the DataFrame to return the selected columns from the startCol till the endCol column
-     * 
-     * Example: 
-     * The DataFrame "df" contains the following columns in this order: Id, Name, Number, Address
-     * df.loc("Id", "Number"); // Returns a DataFrame containing the Id, Name, and Number columns.
-     * 
-     * @param startCol The starting column
-     * @param endCol The last column to be selected in the DataFrame
-     * @return
-     */
-    public DataFrame loc(String startCol, String endCol){
-        int startIndex = -1;
-        int endIndex = -1;
-
-        for (int i = 0; i < this.columns.length; i++){
-            if (startIndex == -1 && this.columns[i].getName().equals(startCol))
-                startIndex = i;
-            
-            if (startIndex != 1 && this.columns[i].getName().equals(endCol)){
-                endIndex = i;
-                break;
-            }
-        }
-
-        if (startIndex == -1)
-            throw new UnknownColumnException("The column \"" + startCol + "\" doesn't exist in the DataFrame.");
-        else if (endIndex == -1)
-            throw new UnknownColumnException("The column \"" + endCol + "\" doesn't exist in the DataFrame.");
-
-        String [] list = new String[endIndex - startIndex + 1];
-        for (int i = startIndex; i <= endIndex; i++)
-            list[i - startIndex] = this.columns[i].getName();
-
-        return select(list);
-    }
-
-    public Series<?> iloc(int rowIndex, int columnIndex){
-        if (rowIndex >= this.rowSize || columnIndex >= this.columnSize)
-            throw new IllegalArgumentException("The parameters \"row\" or \"column\" must be within the dimension of the DataFrame.");
-        
-        return new Series<>(this.columns[columnIndex].getIndex(rowIndex));
-    }
-
-    /**
-     * Splicing the DataFrame by selecting the start, end 
-     * @param startRow
-     * @param endRow
-     * @param startCol
-     * @param endCol
-     * @return
-     */
-    public DataFrame iloc(int startRow, int startCol, int endRow, int endCol){
-        if (startCol > endCol)
-            throw new IllegalArgumentException("The parameter \"startCol\" must be less than or equal to the \"endCol\" parameter");
-        else if (startRow > endRow)
-            throw new IllegalArgumentException("The parameter \"startRow\" must be less than or equal to the \"endRow\" parameter");
-        else if (startRow < 0 || endRow < 0)
-            throw new IllegalArgumentException("The parameter \"startRow\" and \"endRow\" must be a positive number");
-        else if (endRow > this.rowSize || endCol > this.columnSize)
-            throw new IllegalArgumentException("The parameter \"endRow\" and \"endCol\" must be a within the DataFrame's dimensions.");
-        
-        String [] colNames = new String[endCol - startCol + 1];
-        for (int i = startCol; i <= endCol; i++)
-            colNames[i - startCol] = this.columns[i].getName();
-
-        Series<?>[] newColumns = new Series[endCol - startCol + 1];
-        for (int i = startCol; i <= endCol; i++)
-            newColumns[i] = this.columns[i].getIndex(startRow, endRow);
-
-        return new DataFrame(newColumns).select(colNames);
-    }
-
-// ===================================================================================================================================
-//  GETTERS
-
-    public int getSeed(){
-        return this.seed;
-    }
-
-    private Series<?>[] getColumns(){
-        return duplicateColumns(this.columns);
-    }
-
-    public String getColumnNames(){
-        String resultString = "[ ";
-
-        for (int i = 0; i < this.columns.length; i++){
-            resultString += this.columns[i].getName() + " ";
-
-            if (i != this.columns.length - 1)
-                resultString += ", ";
-        }
-
-        return resultString += "]";
-    }
-
-    public String getHead(){
-        return getHead(6);
-    }
-
-    /**
-     * Method used to get a number of rows, defined by numberOfRows variable, from the DataFrame
-     * @param numberOfRows Number of rows to be printed
-     * @return A String version of a DataFrame containing the rows numbered from 0 to the numberOfRows - 1;
-     */
-    public String getHead(int numberOfRows){
-        String tempString = "";
-        if (numberOfRows < 1)
-            throw new IllegalArgumentException("numberOfRows parameter must be a positive non-zero number.");
-
-        numberOfRows = (this.rowSize > numberOfRows)? numberOfRows : this.rowSize;
-
-        // Adds the column names
-        for (int i = 0; i < this.columnSize; i++)
-            tempString += this.columns[i].getName() + "  |  ";
-        tempString += "\n";
-
-        // Adds the data
-        for (int i = 0; i < numberOfRows; i++){
-            for (int j = 0; j < this.columnSize; j++)
-                tempString += this.columns[j].getIndex(i) + "  |  ";
-            tempString += "\n";
-        }
-        
-        return tempString;
-    }
-
-    /**
-     * Method to get the dimension of the data frame
-     * @return an integer array of 2 elements [row size, column size]
-     */
-    public int[] getShape(){
-        if (this.columnSize == 0)
-            return new int[] {0, 0}; 
-        else 
-            return new int[] {this.rowSize, this.columnSize};
-    }
-
-    /**
-     * Method to return a string containing the dimensions of the DataFrame
-     * @return A String containing the row and column dimension of a DataFrame
-     */
-    public String getShape_String(){
-        return "[ " + this.rowSize + ", " + this.columnSize + " ]";
-    }
-
-    /**
-     * Gets the column names and data types for each column
-     * @return A String containing the size of the Data Frame and its columns' data types
-     */
-    public String getInfo(){
-        String tempString = "DataFrame info: \n";
-
-        tempString += "Dimension : [ " + this.rowSize + ", " + this.columnSize + " ] \n\nColumns: \n";
-        for (int i = 0; i < this.columnSize; i++){
-            tempString += "   " + this.columns[i].getName() + " - " + this.columns[i].getIndex_DataType(0).getClass();
-
-            if (i < this.columnSize - 1)
-                tempString += "\n";
-        }
-        return tempString;
-    }
-
-    public String getDataType(String colName){
-        for (int i = 0; i < this.columns.length; i++){
-            if (this.columns[i].getName().equals(colName))
-                return this.columns[i].getIndex_DataType(0).getClass().toString();
-        }
-
-        throw new UnknownColumnException("The column \"" + colName + "\" doesn't exist in the DataFrame.");
-    }
-
-// ===================================================================================================================================
-//  MACHINE LEARNING RELATED
-
-    // TODO: Implement this method
-    /**
-     * Splits the DataFrame for training and testing.
-     * 
-     * @param partition Percentage of data used for the testing data
-     * @return A two element array containing the DataFrame for testing and training respectively
-     */
-    public DataFrame[] split(double partition){
-        if (partition > 1)
-            throw new IllegalArgumentException("The partition parameter must be set between 0 to 1.");
-        
-        // Get the number of rows for partitioning / training
-        int trainingRow = (int) Math.floor(partition * this.rowSize);
-        Random dice = (this.seed != -1)? new Random(this.seed) : new Random();
-
-        int [] indices = new int[this.rowSize];
-        for (int i = 0; i < this.rowSize; i++)
-            indices[i] = i;
-        
-        // Shuffle the indices
-        for (int i = 0; i < this.rowSize; i++){
-            int randomIndex = dice.nextInt(this.rowSize);
-            int temp = indices[i];
-            indices[i] = indices[randomIndex];
-            indices[randomIndex] = temp;
-        }
-
-        // Instantiate the training and testing DataFrames
-        Series<?>[] trainingColumns = new Series[this.columnSize];
-        Series<?>[] testingColumns = new Series[this.columnSize];
-        createColumns(trainingColumns, trainingRow);
-        createColumns(testingColumns, this.rowSize - trainingRow);
-
-        // Fill the training and testing DataFrames
-        for (int i = 0; i < trainingRow; i++){
-            for (int j = 0; j < this.columnSize; j++){
-                handleAddItem(trainingColumns[j], this.columns[j].getIndex_DataType(indices[i]));
-            }
-        }
-
-        for (int i = trainingRow; i < this.rowSize; i++){
-            for (int j = 0; j < this.columnSize; j++){
-                handleAddItem(testingColumns[j], this.columns[j].getIndex_DataType(indices[i]));
-            }
-        }
-
-        return new DataFrame[] {new DataFrame(trainingColumns), new DataFrame(testingColumns)};
-    }
-
-    /**
-     *              No switches?
-     * ⠀⣞⢽⢪⢣⢣⢣⢫⡺⡵⣝⡮⣗⢷⢽⢽⢽⣮⡷⡽⣜⣜⢮⢺⣜⢷⢽⢝⡽⣝
-        ⠸⡸⠜⠕⠕⠁⢁⢇⢏⢽⢺⣪⡳⡝⣎⣏⢯⢞⡿⣟⣷⣳⢯⡷⣽⢽⢯⣳⣫⠇
-        ⠀⠀⢀⢀⢄⢬⢪⡪⡎⣆⡈⠚⠜⠕⠇⠗⠝⢕⢯⢫⣞⣯⣿⣻⡽⣏⢗⣗⠏⠀
-        ⠀⠪⡪⡪⣪⢪⢺⢸⢢⢓⢆⢤⢀⠀⠀⠀⠀⠈⢊⢞⡾⣿⡯⣏⢮⠷⠁⠀⠀
-        ⠀⠀⠀⠈⠊⠆⡃⠕⢕⢇⢇⢇⢇⢇⢏⢎⢎⢆⢄⠀⢑⣽⣿⢝⠲⠉⠀⠀⠀⠀
-        ⠀⠀⠀⠀⠀⡿⠂⠠⠀⡇⢇⠕⢈⣀⠀⠁⠡⠣⡣⡫⣂⣿⠯⢪⠰⠂⠀⠀⠀⠀
-        ⠀⠀⠀⠀⡦⡙⡂⢀⢤⢣⠣⡈⣾⡃⠠⠄⠀⡄⢱⣌⣶⢏⢊⠂⠀⠀⠀⠀⠀⠀
-        ⠀⠀⠀⠀⢝⡲⣜⡮⡏⢎⢌⢂⠙⠢⠐⢀⢘⢵⣽⣿⡿⠁⠁⠀⠀⠀⠀⠀⠀⠀
-        ⠀⠀⠀⠀⠨⣺⡺⡕⡕⡱⡑⡆⡕⡅⡕⡜⡼⢽⡻⠏⠀⠀⠀⠀⠀⠀⠀⠀⠀⠀
-        ⠀⠀⠀⠀⣼⣳⣫⣾⣵⣗⡵⡱⡡⢣⢑⢕⢜⢕⡝⠀⠀⠀⠀⠀⠀⠀⠀⠀⠀⠀
-        ⠀⠀⠀⣴⣿⣾⣿⣿⣿⡿⡽⡑⢌⠪⡢⡣⣣⡟⠀⠀⠀⠀⠀⠀⠀⠀⠀⠀⠀⠀
-        ⠀⠀⠀⡟⡾⣿⢿⢿⢵⣽⣾⣼⣘⢸⢸⣞⡟⠀⠀⠀⠀⠀⠀⠀⠀⠀⠀⠀⠀⠀
-        ⠀⠀⠀⠀⠁⠇⠡⠩⡫⢿⣝⡻⡮⣒⢽⠋⠀⠀⠀⠀⠀⠀⠀⠀⠀⠀⠀⠀⠀⠀
-     * @param col
-     * @param obj
-     */
-    private void handleAddItem(Series<?> col, Object obj){
-        // Ensures that the obj variable is not of class Object or String.
-        if (!obj.getClass().toString().equals("class java.lang.Object") && 
-            !obj.getClass().toString().equals("class java.lang.String")){
-            if (obj instanceof LocalDate)
-                ((Series<LocalDate>) col).addItem((LocalDate) obj);
-            else if (obj instanceof Float)
-                ((Series<Float>) col).addItem((Float) obj);
-            else if (obj instanceof Double)
-                ((Series<Double>) col).addItem((Double) obj);
-            else if (obj instanceof Short)
-                ((Series<Short>) col).addItem((Short) obj);
-            else if (obj instanceof Integer)
-                ((Series<Integer>) col).addItem((Integer) obj);
-            else if (obj instanceof Long)
-                ((Series<Long>) col).addItem((Long) obj);
-            else if (obj instanceof Boolean)
-                ((Series<Boolean>) col).addItem((Boolean) obj);
-            else if (obj instanceof Character)
-                ((Series<Character>) col).addItem(((String) obj).charAt(0));
-            else if (obj instanceof String && ((String) obj).length() > 0)
-                ((Series<String>) col).addItem((String) obj);
-            else if (obj instanceof String && ((String) obj).length() == 0)
-                ((Series<String>) col).addItem((String) null);
-            else 
-                System.out.println("Item: " + obj + " has no data type.");
-        } else {
-            if (col.getType().equals("LocalDate"))
-                ((Series<LocalDate>) col).addItem(LocalDate.parse((String) obj));
-            else if (col.getType().equals("Float"))
-                ((Series<Float>) col).addItem(Float.parseFloat((String) obj));
-            else if (col.getType().equals("Double"))
-                ((Series<Double>) col).addItem(Double.parseDouble((String) obj));
-            else if (col.getType().equals("Short"))
-                ((Series<Short>) col).addItem(Short.parseShort((String) obj));
-            else if (col.getType().equals("Integer"))
-                ((Series<Integer>) col).addItem(Integer.parseInt((String) obj));
-            else if (col.getType().equals("Long"))
-                ((Series<Long>) col).addItem(Long.parseLong((String) obj));
-            else if (col.getType().equals("Boolean"))
-                ((Series<Boolean>) col).addItem(Boolean.parseBoolean((String) obj));
-            else if (col.getType().equals("Character"))
-                ((Series<Character>) col).addItem(((String) obj).charAt(0));
-            else if (col.getType().equals("String"))
-                ((Series<String>) col).addItem((String) obj);
-            else 
-                System.out.println("Item: " + obj + " has no data type.");
-        }
-    }
-
-// ===================================================================================================================================
-//  PRINT FORMATTING
-
-    @Override
-    public String toString(){
-        String tempString = "";
-
-        // Adds the column names
-        for (int i = 0; i < this.columnSize; i++)
-            tempString += this.columns[i].getName() + "  |  ";
-        tempString += "\n";
-
-        if (this.rowSize < 10){
-            // Adds the data
-            for (int i = 0; i < this.rowSize; i++){
-                for (int j = 0; j < this.columnSize; j++)
-                    tempString += this.columns[j].getIndex(i) + "  |  ";
-                tempString += "\n";
-            }
-        } else {
-            for (int i = 0; i < this.rowSize; i++){
-                for (int j = 0; j < this.columnSize; j++)
-                    tempString += this.columns[j].getIndex(i) + "  |  ";
-                tempString += "\n";
-
-                if (i == 5){
-                    String continueString = "";
-                    for (int k = 0; k < this.columnSize; k++)
-                        continueString += "       .";
-                    continueString += "\n";
-                    tempString += continueString + continueString + continueString;
-                    i = this.rowSize - 6;
-                }
-            }
-        }
-
-        return tempString;
-    }
-}
+package DataFrame;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import MachineLearningExceptions.*;
+
+/**
+ * A Class mimicing the DataFrames present in R and Python.
+ * 
+ * Each DataFrame comprises of a/several Series class(es), representing as the column, where each element 
+ * in a series represents a partial record
+ *  
+ * For Visualization:
+ * Index | Series 1 | Series 2 |
+ *   0   |  Pencil  |   10.00  |
+ *   1   | Ballpen  |   20.00  |
+ * 
+ * It is stored as an array:
+ * Series 1 : ["Pencil", "Ballpen"]
+ * Series 2 : [10.00, 20.00]
+ */
+public class DataFrame {
+    /**
+     * Count the number of columns
+     * Count the number of records
+     * Capture the DataType for each row
+     */
+
+     // The columns used to store the data.
+    @SuppressWarnings("rawtypes")
+    private Series[] columns;
+
+    // Position of each column, by name. Built once when the DataFrame is made.
+    private HashMap<String, Integer> columnIndices;
+
+    // Dimensions of the DataFrame
+    private int columnSize;
+    private int rowSize;
+
+    // Seed used for methods relying on randomization (i.e., split())
+    private int seed;
+
+    // Limits of getHead() and toString(), so printing a large DataFrame stays cheap
+    public static final int MAX_PRINTED_ROWS = 1000;
+    public static final int MAX_PRINTED_CHARACTERS = 1 << 16;
+
+    public static void main(String [] args){
+        // DataFrame df = new DataFrame("C:/Users/Waks/Downloads/USEP BSCS/Coding/Machine Learning/Datasets/advertising.csv");
+        // DataFrame df = new DataFrame("C:\\Users\\Waks\\Downloads\\USEP BSCS\\Coding\\Machine Learning\\Datasets\\Iris.csv");
+        DataFrame df = new DataFrame("D:\\Waks - Academics\\Side Projects\\Machine-Learning-in-Java\\Datasets\\Iris.csv");
+        System.out.println(df.getInfo());
+        System.out.println(df);
+        // System.out.println(df.getHead());
+        // System.out.println(df.select("Id", "SepalLengthCm", "PetalLengthCm", "Species")
+        //                         .getHead());
+        // System.out.println(df.loc("Id", "SepalLengthCm").getHead());
+        System.out.println(df.iloc(0, 0, 3, 2).getHead());
+    }
+
+    /**
+     * Makes a copy of the passed DataFrame
+     * @param df
+     */
+    public DataFrame(DataFrame df){
+        int [] shape = df.getShape();
+        if (shape[0] < 1 || shape[1] < 1)
+            throw new IllegalArgumentException("Empty DataFrame was used.");
+        this.rowSize = shape[0];
+        this.columnSize = shape[1];
+        this.columns = duplicateColumns(df.columns);
+        this.columnIndices = df.columnIndices;
+        this.seed = df.seed;
+    }
+
+    public DataFrame(String pathToFile){
+        this(new CsvReader(pathToFile).readColumns(), false);
+    }
+
+    /**
+     * Creates a DataFrame out of the given columns
+     * @param seriesArray The columns of the DataFrame, which must all have the same size
+     * @param copyColumns Whether the columns are deep copied. Only pass false for Series no one else holds a reference to.
+     */
+    DataFrame(Series<?>[] seriesArray, boolean copyColumns){
+        if (seriesArray == null)
+            throw new NullPointerException("Cannot access Series as \"seriesArray\" is null.");
+        
+        if (seriesArray.length == 0){
+            this.rowSize = 0;
+            this.columnSize = 0;
+            this.columns = seriesArray;
+            this.columnIndices = new HashMap<>();
+            this.seed = -1;
+            return;
+        }
+
+        int rowSize = seriesArray[0].getSize();
+        for (int i = 1; i < seriesArray.length; i++){
+            if (seriesArray[i].getSize() != rowSize)
+                throw new IllegalArgumentException("Invalid Series \"" + seriesArray[i].getName() + "\" as it has " + seriesArray[i].getSize() + " rows than the supposed " + rowSize + ".");
+        }
+
+        this.rowSize = seriesArray[0].getSize();
+        this.columnSize = seriesArray.length;
+        this.columns = copyColumns? duplicateColumns(seriesArray) : seriesArray;
+        this.columnIndices = indexColumns(this.columns);
+        this.seed = -1;
+    }
+
+    /**
+     * Maps the name of each column to its position. When two columns share a name, the first one is kept.
+     */
+    private static HashMap<String, Integer> indexColumns(Series<?>[] columns){
+        HashMap<String, Integer> indices = new HashMap<>(columns.length * 2);
+        for (int i = 0; i < columns.length; i++)
+            indices.putIfAbsent(columns[i].getName(), i);
+        return indices;
+    }
+
+// ===================================================================================================================================
+//  INSTANTIATING THE DATA FRAME
+
+    /**
+     * Creates an empty Series that can hold the given data type.
+     * Numeric and Boolean types get a primitive-backed Series (FloatSeries, IntSeries, BooleanSeries, ...),
+     * Character and String types a dictionary-encoded CategoricalSeries, and LocalDate and LocalDateTime types
+     * a Series of epoch values (DateSeries, TimestampSeries).
+     * @param type The data type of the Series (LocalDate, LocalDateTime, Float, Double, Short, Integer, Long, Boolean, Character, String)
+     * @param size Number of elements the Series can hold
+     * @param name Name of the Series
+     * @return An empty Series
+     */
+    static Series<?> createSeries(String type, int size, String name){
+        if (type.equals("LocalDate"))
+            return new DateSeries(size, name);
+        else if (type.equals("LocalDateTime"))
+            return new TimestampSeries(size, name);
+        else if (type.equals("Float"))
+            return new FloatSeries(size, name);
+        else if (type.equals("Double"))
+            return new DoubleSeries(size, name);
+        else if (type.equals("Short")) 
+            return new ShortSeries(size, name);
+        else if (type.equals("Integer")) 
+            return new IntSeries(size, name);
+        else if (type.equals("Long")) 
+            return new LongSeries(size, name);
+        else if (type.equals("Boolean"))
+            return new BooleanSeries(size, name);
+        else if (type.equals("Character"))
+            return new CategoricalSeries<Character>(type, size, name);
+        else if (type.equals("String"))
+            return new CategoricalSeries<String>(type, size, name);
+
+        throw new IllegalArgumentException("Undefinable Data Type: " + type);
+    }
+
+    /**
+     * Checks if a Series can be created for the given data type
+     * @param type The name of the data type (i.e., "Float")
+     * @return true if createSeries() accepts the type
+     */
+    static boolean isSupportedType(String type){
+        switch (type){
+            case "LocalDate": case "LocalDateTime": case "Float": case "Double": case "Short": case "Integer":
+            case "Long": case "Boolean": case "Character": case "String":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+// ===================================================================================================================================
+//  SERIES DUPLICATION
+
+    /**
+     * Makes an independent deep copy of the DataFrame. Views made by select(), loc() and iloc()
+     * share their values with the DataFrame they come from, so this is how one is detached from it.
+     * @return A DataFrame whose columns share nothing with this one
+     */
+    public DataFrame copy(){
+        DataFrame copy = new DataFrame(this.columns, true);
+        copy.seed = this.seed;
+        return copy;
+    }
+
+    /**
+     * Creates a deep copy of a DataFrame
+     * @param otherCols The Series or columns to be copied
+     * @return A separate and independently editable Series.
+     */
+    private Series<?>[] duplicateColumns(Series<?>[] otherCols){
+        Series<?>[] copy = new Series[otherCols.length];
+
+        for (int i = 0; i < otherCols.length; i++){
+            copy[i] = otherCols[i].duplicate();
+        }
+
+        return copy;
+    }
+
+// ===================================================================================================================================
+//  SETTERS
+
+    private void setRowSize(int rowSize){
+        this.rowSize = rowSize;
+    }
+
+    private void setColumnSize(int columnSize){
+        this.columnSize = columnSize;
+    }
+
+    public void setSeed(int seed){
+        if (seed == -1)
+            throw new IllegalArgumentException("Seed must be a positive non-zero number.");
+        this.seed = seed;
+    }
+
+// ===================================================================================================================================
+//  SUBSETTING
+
+    /**
+     * Selects a single column of the DataFrame
+     * @param colName Name of the column
+     * @return A view of the column, sharing its values with the DataFrame
+     */
+    public Series<?> select(String colName){
+        return this.columns[getColumnIndex(colName)].view();
+    }
+
+    /**
+     * Selects the columns from a DataFrame.
+     * The columns are views sharing their values with this DataFrame, so nothing is copied. Call copy() for an independent DataFrame.
+     * 
+     * @param colNames List of column names to be selected
+     * @return A new DataFrame composing of only the selected columns. 
+     *         Note that the order of the Strings affect the column order.
+     */
+    public DataFrame select(String... colNames){
+        Series<?>[] seriesArray = new Series[colNames.length];
+
+        for (int i = 0; i < colNames.length; i++)
+            seriesArray[i] = this.columns[getColumnIndex(colNames[i])].view();
+        
+        return new DataFrame(seriesArray, false);
+    }
+
+    /**
+     * Splits the DataFrame to return the selected columns from the startCol till the endCol column
+     * 
+     * Example: 
+     * The DataFrame "df" contains the following columns in this order: Id, Name, Number, Address
+     * df.loc("Id", "Number"); // Returns a DataFrame containing the Id, Name, and Number columns.
+     * 
+     * @param startCol The starting column
+     * @param endCol The last column to be selected in the DataFrame
+     * @return A DataFrame of views sharing their values with this DataFrame
+     */
+    public DataFrame loc(String startCol, String endCol){
+        int startIndex = getColumnIndex(startCol);
+        int endIndex = getColumnIndex(endCol);
+
+        if (startIndex > endIndex)
+            throw new IllegalArgumentException("The column \"" + startCol + "\" must come before the column \"" + endCol + "\".");
+
+        Series<?>[] seriesArray = new Series[endIndex - startIndex + 1];
+        for (int i = startIndex; i <= endIndex; i++)
+            seriesArray[i - startIndex] = this.columns[i].view();
+
+        return new DataFrame(seriesArray, false);
+    }
+
+    public Series<?> iloc(int rowIndex, int columnIndex){
+        if (rowIndex >= this.rowSize || columnIndex >= this.columnSize)
+            throw new IllegalArgumentException("The parameters \"row\" or \"column\" must be within the dimension of the DataFrame.");
+        
+        return this.columns[columnIndex].getIndex(rowIndex);
+    }
+
+    /**
+     * Splicing the DataFrame by selecting the start, end 
+     * @param startRow
+     * @param endRow
+     * @param startCol
+     * @param endCol
+     * @return A DataFrame of views over the selected rows and columns (both ends included)
+     */
+    public DataFrame iloc(int startRow, int startCol, int endRow, int endCol){
+        if (startCol > endCol)
+            throw new IllegalArgumentException("The parameter \"startCol\" must be less than or equal to the \"endCol\" parameter");
+        else if (startRow > endRow)
+            throw new IllegalArgumentException("The parameter \"startRow\" must be less than or equal to the \"endRow\" parameter");
+        else if (startRow < 0 || endRow < 0)
+            throw new IllegalArgumentException("The parameter \"startRow\" and \"endRow\" must be a positive number");
+        else if (startCol < 0 || endCol < 0)
+            throw new IllegalArgumentException("The parameter \"startCol\" and \"endCol\" must be a positive number");
+        else if (endRow >= this.rowSize || endCol >= this.columnSize)
+            throw new IllegalArgumentException("The parameter \"endRow\" and \"endCol\" must be a within the DataFrame's dimensions.");
+
+        // Each column is a view of the rows, so nothing is copied
+        Series<?>[] newColumns = new Series[endCol - startCol + 1];
+        for (int i = startCol; i <= endCol; i++)
+            newColumns[i - startCol] = this.columns[i].getIndex(startRow, endRow);
+
+        return new DataFrame(newColumns, false);
+    }
+
+    /**
+     * Starts a lazy plan over the DataFrame (see LazyFrame), which runs a chain of select(), iloc(), filter() and dropNa()
+     * as a single selection of rows once collect() is called.
+     *
+     * Example:
+     * DataFrame rows = df.lazy().filter(Filter.greater("TV", 100)).select("TV", "Sales").iloc(0, 0, 9, 1).collect();
+     *
+     * @return A LazyFrame over every column of the DataFrame
+     */
+    public LazyFrame lazy(){
+        return LazyFrame.scan(this, columnNames());
+    }
+
+// ===================================================================================================================================
+//  FILTERING
+
+    /**
+     * Keeps the rows matching a filter.
+     *
+     * Example:
+     * DataFrame rows = df.filter(Filter.and(Filter.greater("TV", 100), Filter.in("Species", "Iris-setosa", "Iris-virginica")));
+     *
+     * @param filter The condition on the rows, see Filter
+     * @return A view of the kept rows, in their order, sharing their values with this DataFrame
+     */
+    public DataFrame filter(Filter filter){
+        return filter(filter, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Keeps the rows matching a filter (see filter(Filter))
+     * @param threads Maximum number of threads evaluating the filter
+     */
+    public DataFrame filter(Filter filter, int threads){
+        int [] rows = selectRows(filter, threads);
+        return rowView(rows, 0, rows.length);
+    }
+
+    /**
+     * Finds the rows matching a filter
+     * @param filter The condition on the rows, see Filter
+     * @param threads Maximum number of threads evaluating the filter
+     * @return The positions of the matching rows in increasing order
+     */
+    public int[] selectRows(Filter filter, int threads){
+        if (filter == null)
+            throw new IllegalArgumentException("The parameter \"filter\" is null.");
+        else if (threads < 1)
+            throw new IllegalArgumentException("The parameter \"threads\" must be a positive non-zero number.");
+        return filter.select(this, threads);
+    }
+
+// ===================================================================================================================================
+//  MISSING VALUES
+
+    /**
+     * Keeps the rows holding a value in every column
+     * @return A view of the kept rows, in their order, sharing their values with this DataFrame
+     */
+    public DataFrame dropNa(){
+        return dropNa(columnNames());
+    }
+
+    /**
+     * Keeps the rows holding a value in the given columns. The validity bitmaps of the columns are combined
+     * a word of 64 rows at a time (see Filter.notNull()).
+     *
+     * Example:
+     * DataFrame complete = df.dropNa("total_bedrooms");
+     *
+     * @param colNames Names of the columns
+     * @return A view of the kept rows, in their order, sharing their values with this DataFrame
+     */
+    public DataFrame dropNa(String... colNames){
+        if (colNames == null || colNames.length == 0)
+            throw new IllegalArgumentException("The parameter \"colNames\" must not be null nor empty.");
+
+        Filter [] filters = new Filter[colNames.length];
+        for (int i = 0; i < colNames.length; i++)
+            filters[i] = Filter.notNull(colNames[i]);
+        return filter(Filter.and(filters));
+    }
+
+    /**
+     * Replaces the missing values of a column by a constant (see Series.fillNa()).
+     * Numeric columns accept any Number, which integral columns round to the nearest integer.
+     *
+     * Example:
+     * DataFrame filled = df.fillNa("total_bedrooms", 0).fillNa("ocean_proximity", "UNKNOWN");
+     *
+     * @param colName Name of the column
+     * @param value The value of the missing elements
+     * @return A DataFrame sharing the other columns, with a column of the same name and type
+     */
+    @SuppressWarnings("unchecked")
+    public DataFrame fillNa(String colName, Object value){
+        int index = getColumnIndex(colName);
+        Series<Object> column = (Series<Object>) this.columns[index];
+
+        if (column instanceof NumericSeries && value instanceof Number)
+            return replaceColumn(index, ((NumericSeries<?>) column).fillNa(((Number) value).doubleValue()));
+        else if (value != null && !column.getTypeClass().isInstance(value))
+            throw new IllegalDataTypeException("Unable to fill the column \"" + colName + "\" with the value " + value + " as it holds " + column.getType() + " values.");
+        return replaceColumn(index, column.fillNa(value));
+    }
+
+    /**
+     * Replaces the missing values of every numeric column by a number. The other columns are kept as they are.
+     * @param value The value of the missing elements
+     * @return A DataFrame sharing the columns without missing values
+     */
+    public DataFrame fillNa(double value){
+        Series<?>[] newColumns = new Series[this.columnSize];
+        for (int j = 0; j < this.columnSize; j++){
+            Series<?> column = this.columns[j];
+            newColumns[j] = (column instanceof NumericSeries)? ((NumericSeries<?>) column).fillNa(value) : column.view();
+        }
+        return new DataFrame(newColumns, false);
+    }
+
+    /**
+     * Replaces the missing values of a numeric column by the mean or the median of its values (see NumericSeries.impute())
+     *
+     * Example:
+     * DataFrame imputed = df.impute("total_bedrooms", "median");
+     *
+     * @param colName Name of the column
+     * @param strategy "mean" or "median"
+     * @return A DataFrame sharing the other columns, with a column of the same name and type
+     */
+    public DataFrame impute(String colName, String strategy){
+        int index = getColumnIndex(colName);
+        Series<?> column = this.columns[index];
+        if (!(column instanceof NumericSeries))
+            throw new IllegalDataTypeException("Unable to impute the column \"" + colName + "\" as it holds " + column.getType() + " values.");
+        return replaceColumn(index, ((NumericSeries<?>) column).impute(strategy));
+    }
+
+// ===================================================================================================================================
+//  SORTING
+
+    /**
+     * Sorts the rows by the values of a column. Missing values come last, and rows with the same value keep their order.
+     * @param colName Name of the column
+     * @param ascending Whether the smallest values come first
+     * @return A view of the rows in sorted order, sharing their values with this DataFrame
+     */
+    public DataFrame sortBy(String colName, boolean ascending){
+        int [] rows = Sorting.argsort(this.columns[getColumnIndex(colName)], ascending, Runtime.getRuntime().availableProcessors());
+        return rowView(rows, 0, rows.length);
+    }
+
+    /**
+     * Gets the rows holding the k largest values of a numeric column, without sorting the whole DataFrame.
+     * Missing values are skipped, so fewer than k rows are returned when the column lacks values.
+     * @param colName Name of the column
+     * @param k Number of rows to keep
+     * @return A view of the rows from the largest value to the smallest
+     */
+    public DataFrame topK(String colName, int k){
+        if (k < 0)
+            throw new IllegalArgumentException("The parameter \"k\" must not be negative.");
+
+        Series<?> column = this.columns[getColumnIndex(colName)];
+        if (!(column instanceof NumericSeries))
+            throw new IllegalDataTypeException("Unable to find the largest values of the column \"" + colName + "\" as it holds " + column.getType() + " values.");
+
+        int [] rows = Sorting.topK((NumericSeries<?>) column, k);
+        return rowView(rows, 0, rows.length);
+    }
+
+// ===================================================================================================================================
+//  GROUPING
+
+    /**
+     * Groups the rows sharing the same values in the given columns, so statistics can be computed per group.
+     *
+     * Example:
+     * df.groupBy("Species").agg(Aggregation.mean("PetalLengthCm"), Aggregation.variance("PetalLengthCm"));
+     *
+     * @param colNames The key columns. Missing values form groups of their own.
+     * @return A GroupBy whose agg() method computes the statistics
+     */
+    public GroupBy groupBy(String... colNames){
+        if (colNames == null || colNames.length == 0)
+            throw new IllegalArgumentException("The parameter \"colNames\" must not be null nor empty.");
+
+        Series<?>[] keyColumns = new Series[colNames.length];
+        for (int i = 0; i < colNames.length; i++)
+            keyColumns[i] = this.columns[getColumnIndex(colNames[i])].view();
+        return new GroupBy(this, keyColumns);
+    }
+
+    /**
+     * Replaces a date or timestamp column by the start of the period of each value (see TemporalSeries.bucket()),
+     * so the rows can be grouped by day, week or month.
+     *
+     * Example:
+     * df.bucket("date", "month").groupBy("date").agg(Aggregation.mean("avg_temp_c"));
+     *
+     * @param colName Name of a LocalDate or LocalDateTime column
+     * @param unit "day", "week" or "month"
+     * @return A DataFrame sharing the other columns, with a column of the same name and type
+     */
+    public DataFrame bucket(String colName, String unit){
+        int index = getColumnIndex(colName);
+        if (!(this.columns[index] instanceof TemporalSeries))
+            throw new IllegalDataTypeException("Unable to bucket the column \"" + colName + "\" as it holds " + this.columns[index].getType() + " values.");
+        return replaceColumn(index, ((TemporalSeries<?>) this.columns[index]).bucket(unit));
+    }
+
+// ===================================================================================================================================
+//  JOINING
+
+    /**
+     * Joins this DataFrame with another on the values of some key columns, through a hash table over the other DataFrame.
+     * Rows with a missing key never match. See HashJoin to set the threads or the memory used before spilling to disk.
+     *
+     * Example:
+     * DataFrame result = sales.join(regions, "left", "region_id");
+     *
+     * @param other The DataFrame held in the hash table
+     * @param how "inner", "left" (keeping the rows of this DataFrame without a match) or "semi" (keeping only
+     *            the rows of this DataFrame having a match)
+     * @param colNames Names of the key columns, found in both DataFrames
+     * @return The joined DataFrame, whose rows follow the order of this DataFrame
+     */
+    public DataFrame join(DataFrame other, String how, String... colNames){
+        return new HashJoin().join(this, other, how, colNames);
+    }
+
+// ===================================================================================================================================
+//  ENCODING
+
+    /**
+     * Replaces a String or Character column by its one-hot encoding (see CategoricalSeries.oneHot()),
+     * one Float column per category, which LinearRegression can use as independent variables.
+     *
+     * Example:
+     * DataFrame encoded = df.oneHotEncode("ocean_proximity", true);
+     * model.train(encoded, "median_house_value", "median_income", "ocean_proximity_INLAND", "ocean_proximity_NEAR OCEAN");
+     *
+     * @param colName Name of the column
+     * @param dropFirst Whether to leave out the column of the first category, which is implied by the others
+     * @return A DataFrame sharing the other columns, with the new columns where the encoded column was
+     */
+    public DataFrame oneHotEncode(String colName, boolean dropFirst){
+        int index = getColumnIndex(colName);
+        Series<?> column = this.columns[index];
+        FloatSeries [] encoded = CategoricalSeries.encode(column).oneHot(dropFirst);
+
+        Series<?>[] newColumns = new Series[this.columnSize - 1 + encoded.length];
+        for (int j = 0; j < index; j++)
+            newColumns[j] = this.columns[j].view();
+        System.arraycopy(encoded, 0, newColumns, index, encoded.length);
+        for (int j = index + 1; j < this.columnSize; j++)
+            newColumns[j - 1 + encoded.length] = this.columns[j].view();
+        return new DataFrame(newColumns, false);
+    }
+
+    /**
+     * Replaces a String or Character column by the codes of its values (see CategoricalSeries.ordinal()),
+     * the categories being numbered in the order they first appear
+     * @param colName Name of the column
+     * @return A DataFrame sharing the other columns, with an Integer column of the same name
+     */
+    public DataFrame ordinalEncode(String colName){
+        int index = getColumnIndex(colName);
+        Series<?> column = this.columns[index];
+        return replaceColumn(index, CategoricalSeries.encode(column).ordinal());
+    }
+
+    /**
+     * Replaces a String or Character column by the position of its values in the given order
+     * (see CategoricalSeries.ordinal(List))
+     * @param colName Name of the column
+     * @param order Every value of the column, from the lowest to the highest
+     * @return A DataFrame sharing the other columns, with an Integer column of the same name
+     */
+    @SuppressWarnings("unchecked")
+    public DataFrame ordinalEncode(String colName, List<?> order){
+        int index = getColumnIndex(colName);
+        CategoricalSeries<Object> column = CategoricalSeries.encode((Series<Object>) this.columns[index]);
+        return replaceColumn(index, column.ordinal((List<Object>) order));
+    }
+
+    private DataFrame replaceColumn(int index, Series<?> column){
+        Series<?>[] newColumns = new Series[this.columnSize];
+        for (int j = 0; j < this.columnSize; j++)
+            newColumns[j] = (j == index)? column : this.columns[j].view();
+        return new DataFrame(newColumns, false);
+    }
+
+// ===================================================================================================================================
+//  GETTERS
+
+    public int getSeed(){
+        return this.seed;
+    }
+
+    /**
+     * Gets the position of a column
+     * @param colName Name of the column
+     * @return The index of the column in the DataFrame
+     */
+    private int getColumnIndex(String colName){
+        Integer index = this.columnIndices.get(colName);
+        if (index == null)
+            throw new UnknownColumnException("The column \"" + colName + "\" doesn't exist in the DataFrame.");
+        return index;
+    }
+
+    private String[] columnNames(){
+        String [] colNames = new String[this.columnSize];
+        for (int j = 0; j < this.columnSize; j++)
+            colNames[j] = this.columns[j].getName();
+        return colNames;
+    }
+
+    /**
+     * Gets a column by its position
+     * @param columnIndex Position of the column, starting at 0
+     * @return A view of the column, sharing its values with the DataFrame
+     */
+    public Series<?> getColumn(int columnIndex){
+        if (columnIndex < 0 || columnIndex >= this.columnSize)
+            throw new IllegalArgumentException("The parameter \"columnIndex\" must be within the dimension of the DataFrame.");
+        return this.columns[columnIndex].view();
+    }
+
+    public String getColumnNames(){
+        String resultString = "[ ";
+
+        for (int i = 0; i < this.columns.length; i++){
+            resultString += this.columns[i].getName() + " ";
+
+            if (i != this.columns.length - 1)
+                resultString += ", ";
+        }
+
+        return resultString += "]";
+    }
+
+    public String getHead(){
+        return getHead(6);
+    }
+
+    /**
+     * Method used to get a number of rows, defined by numberOfRows variable, from the DataFrame
+     * @param numberOfRows Number of rows to be printed, at most MAX_PRINTED_ROWS
+     * @return A String version of a DataFrame containing the rows numbered from 0 to the numberOfRows - 1;
+     */
+    public String getHead(int numberOfRows){
+        if (numberOfRows < 1)
+            throw new IllegalArgumentException("numberOfRows parameter must be a positive non-zero number.");
+
+        StringBuilder builder = new StringBuilder();
+        print(builder, Math.min(numberOfRows, MAX_PRINTED_ROWS), 0, MAX_PRINTED_CHARACTERS);
+        return builder.toString();
+    }
+
+    /**
+     * Method to get the dimension of the data frame
+     * @return an integer array of 2 elements [row size, column size]
+     */
+    public int[] getShape(){
+        if (this.columnSize == 0)
+            return new int[] {0, 0}; 
+        else 
+            return new int[] {this.rowSize, this.columnSize};
+    }
+
+    /**
+     * Method to return a string containing the dimensions of the DataFrame
+     * @return A String containing the row and column dimension of a DataFrame
+     */
+    public String getShape_String(){
+        return "[ " + this.rowSize + ", " + this.columnSize + " ]";
+    }
+
+    /**
+     * Gets the column names and data types for each column
+     * @return A String containing the size of the Data Frame and its columns' data types
+     */
+    public String getInfo(){
+        String tempString = "DataFrame info: \n";
+
+        tempString += "Dimension : [ " + this.rowSize + ", " + this.columnSize + " ] \n\nColumns: \n";
+        for (int i = 0; i < this.columnSize; i++){
+            tempString += "   " + this.columns[i].getName() + " - " + this.columns[i].getTypeClass();
+
+            int missing = this.columns[i].countNulls();
+            if (missing > 0)
+                tempString += " (" + missing + " missing)";
+
+            if (i < this.columnSize - 1)
+                tempString += "\n";
+        }
+        return tempString;
+    }
+
+    public String getDataType(String colName){
+        return this.columns[getColumnIndex(colName)].getTypeClass().toString();
+    }
+
+// ===================================================================================================================================
+//  SAVING AND LOADING
+
+    /**
+     * Saves the DataFrame into a binary columnar file, which loads much faster than a csv file (see load()).
+     * Each column is written as a contiguous block of values, String columns being dictionary encoded.
+     * @param path Where the file is written. An existing file is replaced.
+     */
+    public void save(Path path){
+        if (path == null)
+            throw new IllegalArgumentException("The parameter \"path\" is null.");
+        ColumnarFile.write(path, this.columns, this.rowSize);
+    }
+
+    /**
+     * Loads a DataFrame saved by save(). The file is memory-mapped and each column is copied in bulk,
+     * so no value has to be parsed.
+     * @param path The file to be loaded
+     * @return A DataFrame with the same columns, types and missing values as the saved one
+     */
+    public static DataFrame load(Path path){
+        if (path == null)
+            throw new IllegalArgumentException("The parameter \"path\" is null.");
+        return new DataFrame(ColumnarFile.read(path), false);
+    }
+
+// ===================================================================================================================================
+//  MACHINE LEARNING RELATED
+
+    /**
+     * Splits the DataFrame for training and testing.
+     * 
+     * The rows are shuffled through a Fisher-Yates shuffle of their indices (using the seed if one was set).
+     * Both DataFrames are views of the shuffled rows sharing the values of this DataFrame and a single
+     * permutation array, so no value is copied. Call copy() on them for independent DataFrames.
+     * 
+     * @param partition Share of the rows used for training, between 0 and 1
+     * @return A two element array containing the DataFrame for training and testing respectively
+     */
+    public DataFrame[] split(double partition){
+        checkPartition(partition);
+        int trainingRows = (int) Math.floor(partition * this.rowSize);
+        int [] rows = shuffleRows();
+
+        return new DataFrame[] {rowView(rows, 0, trainingRows), rowView(rows, trainingRows, this.rowSize - trainingRows)};
+    }
+
+    /**
+     * Splits the DataFrame for training and testing, keeping the share of each value of a column
+     * (such as the classes of a classification) the same in both DataFrames.
+     * See split() for how the rows are shuffled and shared.
+     * 
+     * @param partition Share of the rows of each value used for training, between 0 and 1
+     * @param colName The column whose values are kept in proportion
+     * @return A two element array containing the DataFrame for training and testing respectively
+     */
+    public DataFrame[] stratifiedSplit(double partition, String colName){
+        checkPartition(partition);
+        int [] shuffled = shuffleRows();
+        int [] labels = new int[this.rowSize];
+        int [] counts = labelRows(this.columns[getColumnIndex(colName)], labels);
+
+        // The first rows of each value, in shuffled order, go to training
+        int [] quotas = new int[counts.length];
+        int trainingRows = 0;
+        for (int c = 0; c < counts.length; c++){
+            quotas[c] = (int) Math.round(partition * counts[c]);
+            trainingRows += quotas[c];
+        }
+
+        int [] rows = new int[this.rowSize];
+        int training = 0;
+        int testing = trainingRows;
+        for (int row : shuffled){
+            if (quotas[labels[row]] > 0){
+                quotas[labels[row]]--;
+                rows[training++] = row;
+            } else
+                rows[testing++] = row;
+        }
+
+        return new DataFrame[] {rowView(rows, 0, trainingRows), rowView(rows, trainingRows, this.rowSize - trainingRows)};
+    }
+
+    /**
+     * Splits the shuffled rows into k folds of (nearly) the same size for cross-validation.
+     * Fold i is tested on its own rows and trained on the rows of every other fold.
+     * 
+     * Every DataFrame is a view over one array holding the permutation twice in a row: the training rows of
+     * a fold are the n - foldSize rows following it, which wrap around the end of the first copy. So the k pairs
+     * of DataFrames share a single array, whatever the number of folds.
+     * 
+     * @param k Number of folds, between 2 and the number of rows
+     * @return k two element arrays containing the DataFrame for training and testing respectively
+     */
+    public DataFrame[][] kFold(int k){
+        checkFolds(k);
+        int [] starts = new int[k + 1];
+        for (int f = 0; f <= k; f++)
+            starts[f] = (int) ((long) f * this.rowSize / k);
+        return folds(shuffleRows(), starts);
+    }
+
+    /**
+     * Same as kFold(), with the share of each value of a column kept the same in every fold
+     * @param k Number of folds, between 2 and the number of rows
+     * @param colName The column whose values are kept in proportion
+     * @return k two element arrays containing the DataFrame for training and testing respectively
+     */
+    public DataFrame[][] stratifiedKFold(int k, String colName){
+        checkFolds(k);
+        int [] shuffled = shuffleRows();
+        int [] labels = new int[this.rowSize];
+        int [] counts = labelRows(this.columns[getColumnIndex(colName)], labels);
+
+        // Orders the shuffled rows by value (a stable counting sort), then deals them to the folds in turn
+        int [] valueStarts = new int[counts.length];
+        for (int c = 1; c < counts.length; c++)
+            valueStarts[c] = valueStarts[c - 1] + counts[c - 1];
+        int [] byValue = new int[this.rowSize];
+        for (int row : shuffled)
+            byValue[valueStarts[labels[row]]++] = row;
+
+        int [] starts = new int[k + 1];
+        for (int f = 0; f < k; f++)
+            starts[f + 1] = starts[f] + (this.rowSize - f + k - 1) / k;      // Number of positions i with i % k == f
+
+        int [] cursors = Arrays.copyOf(starts, k);
+        int [] rows = shuffled;
+        for (int i = 0; i < this.rowSize; i++)
+            rows[cursors[i % k]++] = byValue[i];
+
+        return folds(rows, starts);
+    }
+
+    /**
+     * Builds the training and testing views of every fold
+     * @param rows The permutation of the rows, fold after fold
+     * @param starts Position of the first row of each fold in the permutation, followed by the number of rows
+     */
+    private DataFrame[][] folds(int [] rows, int [] starts){
+        int n = this.rowSize;
+        int [] twice = Arrays.copyOf(rows, 2 * n);
+        System.arraycopy(rows, 0, twice, n, n);
+
+        int k = starts.length - 1;
+        DataFrame[][] folds = new DataFrame[k][];
+        for (int f = 0; f < k; f++){
+            int size = starts[f + 1] - starts[f];
+            folds[f] = new DataFrame[] {rowView(twice, starts[f + 1], n - size), rowView(twice, starts[f], size)};
+        }
+        return folds;
+    }
+
+    /**
+     * Shuffles the indices of the rows through the Fisher-Yates shuffle, where every permutation is equally likely
+     */
+    private int[] shuffleRows(){
+        Random dice = (this.seed != -1)? new Random(this.seed) : new Random();
+
+        int [] rows = new int[this.rowSize];
+        for (int i = 0; i < this.rowSize; i++)
+            rows[i] = i;
+
+        for (int i = this.rowSize - 1; i > 0; i--){
+            int randomIndex = dice.nextInt(i + 1);
+            int temp = rows[i];
+            rows[i] = rows[randomIndex];
+            rows[randomIndex] = temp;
+        }
+        return rows;
+    }
+
+    /**
+     * Numbers the distinct values of a column in order of appearance. Missing values count as one more value.
+     * @param labels Receives the number of the value of each row
+     * @return The number of rows holding each value
+     */
+    private int[] labelRows(Series<?> column, int [] labels){
+        HashMap<Object, Integer> numbers = new HashMap<>();
+        int [] counts = new int[16];
+
+        for (int i = 0; i < this.rowSize; i++){
+            Integer label = numbers.computeIfAbsent(column.getIndex_DataType(i), value -> numbers.size());
+            if (label == counts.length)
+                counts = Arrays.copyOf(counts, counts.length * 2);
+            counts[label]++;
+            labels[i] = label;
+        }
+        return Arrays.copyOf(counts, numbers.size());
+    }
+
+    /**
+     * Creates a DataFrame viewing the rows rows[start, start + length) of every column
+     */
+    private DataFrame rowView(int [] rows, int start, int length){
+        Series<?>[] newColumns = new Series[this.columnSize];
+        for (int j = 0; j < this.columnSize; j++)
+            newColumns[j] = this.columns[j].view(rows, start, length);
+
+        DataFrame view = new DataFrame(newColumns, false);
+        view.seed = this.seed;
+        return view;
+    }
+
+    private void checkPartition(double partition){
+        if (!(partition >= 0 && partition <= 1))
+            throw new IllegalArgumentException("The partition parameter must be set between 0 to 1.");
+    }
+
+    private void checkFolds(int k){
+        if (k < 2 || k > this.rowSize)
+            throw new IllegalArgumentException("The parameter \"k\" must be between 2 and the number of rows (" + this.rowSize + ").");
+    }
+
+// ===================================================================================================================================
+//  PRINT FORMATTING
+
+    /**
+     * Writes the DataFrame as an aligned table (see getHead()), such as to a log or System.out.
+     * When the DataFrame has more than maxRows rows, only the first and last rows are written.
+     * @param out Where the table is written
+     * @param maxRows Most rows written
+     * @param maxCharacters Most characters written, including line breaks
+     */
+    public void print(Appendable out, int maxRows, int maxCharacters){
+        if (out == null)
+            throw new IllegalArgumentException("The parameter \"out\" is null.");
+        else if (maxRows < 0 || maxCharacters < 0)
+            throw new IllegalArgumentException("The parameters \"maxRows\" and \"maxCharacters\" must not be negative.");
+
+        int tail = (this.rowSize > maxRows)? maxRows / 2 : 0;
+        print(out, maxRows - tail, tail, maxCharacters);
+    }
+
+    private void print(Appendable out, int head, int tail, int maxCharacters){
+        try {
+            new TablePrinter(this.columns, this.columnSize, this.rowSize).print(out, head, tail, maxCharacters);
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets the DataFrame as an aligned table. Large DataFrames only show their first 6 and last 5 rows.
+     */
+    @Override
+    public String toString(){
+        StringBuilder builder = new StringBuilder();
+        if (this.rowSize <= 11)
+            print(builder, this.rowSize, 0, MAX_PRINTED_CHARACTERS);
+        else
+            print(builder, 6, 5, MAX_PRINTED_CHARACTERS);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,200 @@
+package DataFrame;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import MachineLearningExceptions.*;
+
+/**
+ * A Series of LocalDates backed by a primitive int [] array of epoch days (days since 1970-01-01).
+ *
+ * Example:
+ * DateSeries series = new DateSeries(new int[] {10957, 10988}, "date");
+ * LocalDate date = series.getIndex_DataType(1);      // 2000-02-01
+ * int day = series.getEpochDay(1);                   // Returns 10988 without making a LocalDate
+ */
+public class DateSeries extends TemporalSeries<LocalDate> {
+
+    // The epoch day of each element
+    private int [] days;
+
+    public DateSeries(int size, String name){
+        super("LocalDate", name, size);
+        this.days = new int[size];
+    }
+
+    public DateSeries(int [] epochDays, String name){
+        this(Arrays.copyOf(epochDays, epochDays.length), null, epochDays.length, name);
+    }
+
+    public DateSeries(DateSeries other){
+        super("LocalDate", other.getName(), other.getSize());
+        this.days = other.copyDays();
+        this.nulls = other.copyNulls(0, other.size);
+        this.currentIndex = other.currentIndex;
+    }
+
+    /**
+     * Wraps an already filled array without copying it.
+     * @param days The epoch day of each element
+     * @param nulls The null bitmap of the values, or null if there are no missing values
+     * @param size Number of elements stored in the days array
+     * @param name Name of the Series
+     */
+    DateSeries(int [] days, long [] nulls, int size, String name){
+        super("LocalDate", name, size);
+        this.days = days;
+        this.nulls = nulls;
+        this.currentIndex = size;
+    }
+
+    /**
+     * Creates a view sharing the values of another Series (see Series.createView())
+     */
+    private DateSeries(DateSeries source, int offset, int [] rowIndex, int size){
+        super(source, offset, rowIndex, size);
+        this.days = source.days;
+    }
+
+    /**
+     * Adds a new value to the Series
+     * @param item The value to be added, null values are stored in the null bitmap
+     */
+    @Override
+    public void addItem(LocalDate item){
+        if (item == null)
+            addNull();
+        else {
+            long day = item.toEpochDay();
+            if (day < Integer.MIN_VALUE || day > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("The date " + item + " is out of the range of the Series.");
+            addEpochDay((int) day);
+        }
+    }
+
+    /**
+     * Adds a new value to the Series without making a LocalDate
+     * @param epochDay The number of days since 1970-01-01
+     */
+    public void addEpochDay(int epochDay){
+        if (this.currentIndex == this.size)
+            throw new SeriesOverflowException("Max set size reached.");
+        this.days[this.currentIndex++] = epochDay;
+    }
+
+    @Override
+    public DateSeries duplicate(){
+        return new DateSeries(this);
+    }
+
+    @Override
+    protected DateSeries createView(int offset, int [] rowIndex, int size){
+        return new DateSeries(this, offset, rowIndex, size);
+    }
+
+    /**
+     * Copies the elements of the Series into a new array. Views only copy the elements they can reach.
+     */
+    private int[] copyDays(){
+        if (this.rowIndex == null)
+            return Arrays.copyOfRange(this.days, this.offset, this.offset + this.size);
+
+        int [] copy = new int[this.size];
+        for (int i = 0; i < this.size; i++)
+            copy[i] = this.days[this.rowIndex[this.offset + i]];
+        return copy;
+    }
+
+    @Override
+    public DateSeries bucket(String unit){
+        int bucket = unitOf(unit);
+        int [] starts = new int[this.size];
+        for (int i = 0; i < this.size; i++)
+            starts[i] = (int) truncate(this.days[position(i)], bucket);
+        return new DateSeries(starts, copyNulls(0, this.size), this.size, getName());
+    }
+
+    @Override
+    protected void fillNulls(LocalDate value){
+        long day = value.toEpochDay();
+        if (day < Integer.MIN_VALUE || day > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("The date " + value + " is out of the range of the Series.");
+
+        for (int w = 0; w < this.nulls.length; w++){
+            for (long bits = this.nulls[w]; bits != 0; bits &= bits - 1)
+                this.days[(w << 6) + Long.numberOfTrailingZeros(bits)] = (int) day;
+        }
+    }
+
+// ===================================================================================================================================
+//  GETTERS
+
+    /**
+     * Gets the array backing the Series without copying it. Null elements are stored as 0.
+     * Used to write the values in bulk (see ColumnarFile), which only makes sense when the Series is not a view.
+     */
+    int[] getValues(){
+        return this.days;
+    }
+
+    /**
+     * Gets an element of the Series without making a LocalDate
+     * @param index Index of where the data is located
+     * @return The number of days since 1970-01-01. Null elements are returned as 0.
+     */
+    public int getEpochDay(int index){
+        return this.days[locate(index)];
+    }
+
+    @Override
+    public long getEpochValue(int index){
+        return this.days[locate(index)];
+    }
+
+    @Override
+    public void getDoubles(int startIndex, int length, double [] destination, int destinationOffset){
+        if (length == 0)
+            return;
+        checkRange(startIndex, startIndex + length - 1);
+
+        if (this.rowIndex == null){
+            int start = this.offset + startIndex;
+            for (int i = 0; i < length; i++)
+                destination[destinationOffset + i] = this.days[start + i];
+        } else {
+            for (int i = 0; i < length; i++)
+                destination[destinationOffset + i] = this.days[this.rowIndex[this.offset + startIndex + i]];
+        }
+    }
+
+    @Override
+    public void appendTo(StringBuilder builder, int index){
+        int position = locate(index);
+
+        if (this.nulls != null && Bitmap.get(this.nulls, position))
+            builder.append("null");
+        else
+            appendDate(builder, this.days[position]);
+    }
+
+    @Override
+    public LocalDate getIndex_DataType(int index){
+        int position = locate(index);
+
+        if (this.nulls != null && Bitmap.get(this.nulls, position))
+            return null;
+        return LocalDate.ofEpochDay(this.days[position]);
+    }
+
+    @Override
+    public DateSeries getIndex(int index){
+        int resolvedIndex = resolveIndex(index);
+        return getIndex(resolvedIndex, resolvedIndex);
+    }
+
+    @Override
+    public DateSeries getIndex(int startIndex, int endIndex){
+        checkRange(startIndex, endIndex);
+        return createView(this.offset + startIndex, this.rowIndex, endIndex - startIndex + 1);
+    }
+}
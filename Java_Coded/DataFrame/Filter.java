@@ -0,0 +1,870 @@
+package DataFrame;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import MachineLearningExceptions.*;
+import VectorMath.VectorMath;
+
+/**
+ * A condition on the columns of a DataFrame, used to keep some of its rows (see DataFrame.filter()).
+ *
+ * Filters are made by the static methods of this class and combined with and(), or() and not():
+ *
+ * Filter filter = Filter.and(Filter.greater("TV", 100), Filter.lessOrEqual("Radio", 20), Filter.notNull("Sales"));
+ * DataFrame rows = df.filter(filter);
+ *
+ * A filter is evaluated column by column rather than row by row. Each column is read BLOCK rows at a time as
+ * primitive values (see NumericSeries.getDoubles()), and every test sets one bit per row in a bitmap. The bitmaps of
+ * and() and or() are combined 64 rows at a time. Numbers are compared as doubles, and missing values never match a
+ * comparison, equal() or in(), only isNull(). not() flips every bit, so it keeps rows whose values are missing.
+ *
+ * and() and or() fuse the tests made on the same numeric column, which is then read once for all of them:
+ * the ranges of and() are intersected into a single range, and the equalities of or() merged into a single in().
+ *
+ * Date and timestamp columns (see TemporalSeries) are tested the same way, on their epoch values. They are compared
+ * to a LocalDate, LocalDateTime or Instant given to less(), between(), equal()... A LocalDate stands for its midnight,
+ * so a timestamp column can be compared to dates and a date column to timestamps. Compared to a plain number,
+ * a date column gives its epoch day and a timestamp column its epoch millisecond.
+ *
+ * Large DataFrames are evaluated in chunks of CHUNK rows on separate threads. The bitmap is then turned into a
+ * selection vector: the positions of the kept rows, in order, which the DataFrame uses as the row index of its view.
+ */
+public abstract class Filter {
+
+    // Number of rows read at once from a column
+    static final int BLOCK = 1024;
+
+    // Number of rows evaluated by one task, a multiple of 64 so every task owns whole words of the bitmap
+    static final int CHUNK = 1 << 16;
+
+    Filter(){}
+
+// ===================================================================================================================================
+//  COMPARISONS
+
+    public static Filter equal(String colName, double value){
+        return new NumericFilter(colName, Test.range(value, true, value, true), true);
+    }
+
+    /**
+     * Keeps the rows whose value is equal to the given object, such as a String or LocalDate.
+     * Numbers are compared to numeric columns as doubles, and a null value keeps the missing values.
+     */
+    public static Filter equal(String colName, Object value){
+        if (value == null)
+            return isNull(colName);
+        else if (value instanceof Number)
+            return equal(colName, ((Number) value).doubleValue());
+        return new ObjectFilter(colName, new Object[] {value});
+    }
+
+    public static Filter notEqual(String colName, double value){
+        return new NumericFilter(colName, Test.notEqual(value), true);
+    }
+
+    public static Filter less(String colName, double value){
+        return new NumericFilter(colName, Test.range(Double.NEGATIVE_INFINITY, true, value, false), true);
+    }
+
+    public static Filter lessOrEqual(String colName, double value){
+        return new NumericFilter(colName, Test.range(Double.NEGATIVE_INFINITY, true, value, true), true);
+    }
+
+    public static Filter greater(String colName, double value){
+        return new NumericFilter(colName, Test.range(value, false, Double.POSITIVE_INFINITY, true), true);
+    }
+
+    public static Filter greaterOrEqual(String colName, double value){
+        return new NumericFilter(colName, Test.range(value, true, Double.POSITIVE_INFINITY, true), true);
+    }
+
+    /**
+     * Keeps the rows whose value is within [lower, upper], both ends included
+     */
+    public static Filter between(String colName, double lower, double upper){
+        if (lower > upper)
+            throw new IllegalArgumentException("The parameter \"lower\" must not be greater than \"upper\".");
+        return new NumericFilter(colName, Test.range(lower, true, upper, true), true);
+    }
+
+    public static Filter less(String colName, Temporal value){
+        int unit = unitOf(value);
+        return new NumericFilter(colName, Test.range(Double.NEGATIVE_INFINITY, true, epochOf(value, unit), false), true, unit);
+    }
+
+    public static Filter lessOrEqual(String colName, Temporal value){
+        int unit = unitOf(value);
+        return new NumericFilter(colName, Test.range(Double.NEGATIVE_INFINITY, true, epochOf(value, unit), true), true, unit);
+    }
+
+    public static Filter greater(String colName, Temporal value){
+        int unit = unitOf(value);
+        return new NumericFilter(colName, Test.range(epochOf(value, unit), false, Double.POSITIVE_INFINITY, true), true, unit);
+    }
+
+    public static Filter greaterOrEqual(String colName, Temporal value){
+        int unit = unitOf(value);
+        return new NumericFilter(colName, Test.range(epochOf(value, unit), true, Double.POSITIVE_INFINITY, true), true, unit);
+    }
+
+    /**
+     * Keeps the rows of a date or timestamp column within [lower, upper], both ends included
+     *
+     * Example:
+     * Filter.between("date", LocalDate.of(2010, 1, 1), LocalDate.of(2010, 12, 31))
+     */
+    public static Filter between(String colName, Temporal lower, Temporal upper){
+        int unit = Math.max(unitOf(lower), unitOf(upper));
+        double lowerBound = epochOf(lower, unit);
+        double upperBound = epochOf(upper, unit);
+        if (lowerBound > upperBound)
+            throw new IllegalArgumentException("The parameter \"lower\" must not be greater than \"upper\".");
+        return new NumericFilter(colName, Test.range(lowerBound, true, upperBound, true), true, unit);
+    }
+
+    /**
+     * Keeps the rows whose value is one of the given numbers
+     */
+    public static Filter in(String colName, double [] values){
+        if (values == null || values.length == 0)
+            throw new IllegalArgumentException("The parameter \"values\" must not be null nor empty.");
+        return new NumericFilter(colName, Test.in(values), true);
+    }
+
+    /**
+     * Keeps the rows whose value is one of the given objects, such as Strings.
+     * When every value is a number, they are compared as doubles like in(String, double []).
+     */
+    public static Filter in(String colName, Object... values){
+        if (values == null || values.length == 0)
+            throw new IllegalArgumentException("The parameter \"values\" must not be null nor empty.");
+
+        double [] numbers = new double[values.length];
+        for (int i = 0; i < values.length; i++){
+            if (!(values[i] instanceof Number))
+                return new ObjectFilter(colName, values.clone());
+            numbers[i] = ((Number) values[i]).doubleValue();
+        }
+        return in(colName, numbers);
+    }
+
+    public static Filter isNull(String colName){
+        return new NullFilter(colName, true);
+    }
+
+    public static Filter notNull(String colName){
+        return new NullFilter(colName, false);
+    }
+
+// ===================================================================================================================================
+//  COMBINATIONS
+
+    /**
+     * Keeps the rows kept by every filter
+     */
+    public static Filter and(Filter... filters){
+        return combine(filters, true);
+    }
+
+    /**
+     * Keeps the rows kept by at least one of the filters
+     */
+    public static Filter or(Filter... filters){
+        return combine(filters, false);
+    }
+
+    /**
+     * Keeps the rows the filter does not keep, including the ones with missing values
+     */
+    public static Filter not(Filter filter){
+        if (filter == null)
+            throw new IllegalArgumentException("The parameter \"filter\" is null.");
+        else if (filter instanceof Not)
+            return ((Not) filter).filter;
+        return new Not(filter);
+    }
+
+    /**
+     * Flattens nested and() or or() and fuses their numeric tests by column
+     */
+    private static Filter combine(Filter [] filters, boolean conjunction){
+        if (filters == null || filters.length == 0)
+            throw new IllegalArgumentException("The parameter \"filters\" must not be null nor empty.");
+
+        List<Filter> flat = new ArrayList<>();
+        for (Filter filter : filters){
+            if (filter == null)
+                throw new IllegalArgumentException("The parameter \"filters\" must not hold null values.");
+            else if (filter instanceof Combination && ((Combination) filter).conjunction == conjunction)
+                flat.addAll(Arrays.asList(((Combination) filter).filters));
+            else
+                flat.add(filter);
+        }
+
+        // Numeric tests on the same column and in the same unit become a single filter, at the position of the first one
+        Map<String, List<Test>> tests = new LinkedHashMap<>();
+        Map<String, NumericFilter> firsts = new HashMap<>();
+        Map<String, Integer> positions = new HashMap<>();
+        List<Filter> combined = new ArrayList<>();
+        for (Filter filter : flat){
+            NumericFilter numeric = (filter instanceof NumericFilter)? (NumericFilter) filter : null;
+            if (numeric == null || (numeric.conjunction != conjunction && numeric.tests.length > 1)){
+                combined.add(filter);
+                continue;
+            }
+
+            String key = numeric.unit + ":" + numeric.column;
+            if (!tests.containsKey(key)){
+                tests.put(key, new ArrayList<>());
+                firsts.put(key, numeric);
+                positions.put(key, combined.size());
+                combined.add(numeric);
+            }
+            tests.get(key).addAll(Arrays.asList(numeric.tests));
+        }
+
+        for (Map.Entry<String, List<Test>> entry : tests.entrySet()){
+            NumericFilter first = firsts.get(entry.getKey());
+            combined.set(positions.get(entry.getKey()), new NumericFilter(first.column, Test.fuse(entry.getValue(), conjunction), conjunction, first.unit));
+        }
+
+        if (combined.size() == 1)
+            return combined.get(0);
+        return new Combination(combined.toArray(new Filter[0]), conjunction);
+    }
+
+// ===================================================================================================================================
+//  EVALUATION
+
+    /**
+     * Evaluates the filter on the rows of a DataFrame
+     * @param threads Maximum number of threads
+     * @return The selection vector: the positions of the kept rows, in increasing order
+     */
+    int[] select(DataFrame dataset, int threads){
+        Evaluator evaluator = bind(dataset);
+        int rows = dataset.getShape()[0];
+        long [] bitmap = new long[Bitmap.words(rows)];
+
+        int chunks = (rows + CHUNK - 1) / CHUNK;
+        if (threads == 1 || chunks < 2){
+            for (int c = 0; c < chunks; c++)
+                evaluateChunk(evaluator, c, rows, bitmap);
+        } else {
+            ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, chunks));
+            try {
+                List<Callable<Void>> tasks = new ArrayList<>(chunks);
+                for (int c = 0; c < chunks; c++){
+                    int chunk = c;
+                    tasks.add(() -> {
+                        evaluateChunk(evaluator, chunk, rows, bitmap);
+                        return null;
+                    });
+                }
+
+                for (Future<Void> result : pool.invokeAll(tasks))
+                    result.get();
+            } catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("The filter was interrupted.", e);
+            } catch (ExecutionException e){
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException) cause;
+                throw new IllegalStateException(cause);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        return Bitmap.positions(bitmap);
+    }
+
+    private static void evaluateChunk(Evaluator evaluator, int chunk, int rows, long [] bitmap){
+        int start = chunk * CHUNK;
+        int length = Math.min(CHUNK, rows - start);
+        long [] bits = new long[Bitmap.words(length)];
+        evaluator.evaluate(start, length, bits);
+        System.arraycopy(bits, 0, bitmap, start >>> 6, bits.length);
+    }
+
+    /**
+     * Resolves the columns of the filter in a DataFrame
+     */
+    abstract Evaluator bind(DataFrame dataset);
+
+    /**
+     * Adds the names of the columns read by the filter, so a scan knows which columns it needs (see LazyFrame)
+     */
+    abstract void addColumns(Set<String> names);
+
+    /**
+     * A filter bound to the columns of a DataFrame. It holds no state, so chunks can be evaluated at the same time.
+     */
+    interface Evaluator {
+
+        /**
+         * Sets the bit i of bits for each row start + i kept by the filter, and clears the others
+         * @param length Number of rows, bits holding at least Bitmap.words(length) longs
+         */
+        void evaluate(int start, int length, long [] bits);
+    }
+
+    /**
+     * Clears the bits of the last word past the given number of rows
+     */
+    static void clearTail(long [] bits, int length){
+        if ((length & 63) != 0)
+            bits[(length - 1) >>> 6] &= -1L >>> (64 - (length & 63));
+    }
+
+    private static Series<?> getColumn(DataFrame dataset, String colName){
+        return dataset.select(colName);
+    }
+
+// ===================================================================================================================================
+//  DATES
+
+    // Units of the values of a NumericFilter
+    private static final int NUMBERS = 0;
+    private static final int DAYS = 1;
+    private static final int MILLIS = 2;
+
+    /**
+     * Gets the unit a date is compared in: DAYS for a LocalDate, MILLIS for a LocalDateTime or an Instant
+     */
+    private static int unitOf(Temporal value){
+        if (value instanceof LocalDate)
+            return DAYS;
+        else if (value instanceof LocalDateTime || value instanceof Instant)
+            return MILLIS;
+        throw new IllegalArgumentException("Unable to compare dates to \"" + value + "\", which is not a LocalDate, LocalDateTime or Instant.");
+    }
+
+    /**
+     * Gets the epoch value of a date in the given unit, a LocalDateTime being read as a UTC time
+     */
+    private static double epochOf(Temporal value, int unit){
+        if (value instanceof LocalDate){
+            long day = ((LocalDate) value).toEpochDay();
+            return (unit == DAYS)? day : day * TemporalSeries.MILLIS_PER_DAY;
+        } else if (value instanceof LocalDateTime){
+            LocalDateTime time = (LocalDateTime) value;
+            return time.toEpochSecond(ZoneOffset.UTC) * 1000 + time.getNano() / 1_000_000;
+        }
+        return ((Instant) value).toEpochMilli();
+    }
+
+// ===================================================================================================================================
+//  TESTS ON NUMBERS
+
+    /**
+     * A test on a number: a range, a value to differ from, or a set of values
+     */
+    private static final class Test {
+
+        static final int RANGE = 0;
+        static final int NOT_EQUAL = 1;
+        static final int IN = 2;
+
+        final int kind;
+
+        // Ends of a range as given, used by toString()
+        final double lowerBound;
+        final boolean lowerIncluded;
+        final double upperBound;
+        final boolean upperIncluded;
+
+        // Both ends of a range are included when evaluated, an excluded end being moved to the next double
+        final double lower;
+        final double upper;
+
+        // Value of NOT_EQUAL, or sorted values of IN
+        final double [] values;
+
+        private Test(int kind, double lowerBound, boolean lowerIncluded, double upperBound, boolean upperIncluded, double [] values){
+            this.kind = kind;
+            this.lowerBound = lowerBound;
+            this.lowerIncluded = lowerIncluded;
+            this.upperBound = upperBound;
+            this.upperIncluded = upperIncluded;
+            this.lower = lowerIncluded? lowerBound : Math.nextUp(lowerBound);
+            this.upper = upperIncluded? upperBound : Math.nextDown(upperBound);
+            this.values = values;
+        }
+
+        static Test range(double lower, boolean lowerIncluded, double upper, boolean upperIncluded){
+            if (Double.isNaN(lower) || Double.isNaN(upper))
+                throw new IllegalArgumentException("Unable to compare values to NaN.");
+            return new Test(RANGE, lower, lowerIncluded, upper, upperIncluded, null);
+        }
+
+        static Test notEqual(double value){
+            return new Test(NOT_EQUAL, 0, true, 0, true, new double[] {value});
+        }
+
+        static Test in(double [] values){
+            double [] sorted = Arrays.stream(values).distinct().sorted().toArray();
+            return new Test(IN, 0, true, 0, true, sorted);
+        }
+
+        /**
+         * Merges the tests of a column: ranges are intersected by and(), and equalities are gathered into a set by or()
+         */
+        static Test[] fuse(List<Test> tests, boolean conjunction){
+            List<Test> fused = new ArrayList<>();
+            Test lower = null;
+            Test upper = null;
+            List<Double> set = new ArrayList<>();
+            boolean hasSet = false;
+
+            for (Test test : tests){
+                if (conjunction && test.kind == RANGE){
+                    lower = (lower == null || test.lower > lower.lower)? test : lower;
+                    upper = (upper == null || test.upper < upper.upper)? test : upper;
+                } else if (!conjunction && (test.kind == IN || test.isPoint())){
+                    if (test.kind == IN){
+                        for (double value : test.values)
+                            set.add(value);
+                    } else
+                        set.add(test.lower);
+                    hasSet = true;
+                } else
+                    fused.add(test);
+            }
+
+            if (lower != null)
+                fused.add(0, new Test(RANGE, lower.lowerBound, lower.lowerIncluded, upper.upperBound, upper.upperIncluded, null));
+            if (hasSet){
+                double [] values = new double[set.size()];
+                for (int i = 0; i < values.length; i++)
+                    values[i] = set.get(i);
+                fused.add(0, in(values));
+            }
+            return fused.toArray(new Test[0]);
+        }
+
+        boolean isPoint(){
+            return this.kind == RANGE && this.lower == this.upper;
+        }
+
+        /**
+         * Sets one bit per value passing the test, into the words bits[wordOffset, wordOffset + Bitmap.words(length))
+         */
+        void evaluate(double [] block, int length, long [] bits, int wordOffset){
+            if (this.kind == RANGE)
+                VectorMath.between(block, 0, length, this.lower, this.upper, bits, wordOffset);
+            else if (this.kind == IN && this.values.length <= 8)
+                VectorMath.equalsAny(block, 0, length, this.values, bits, wordOffset);
+            else if (this.kind == IN){
+                for (int base = 0; base < length; base += 64){
+                    int end = Math.min(64, length - base);
+                    long word = 0;
+                    for (int r = 0; r < end; r++){
+                        if (Arrays.binarySearch(this.values, block[base + r]) >= 0)
+                            word |= 1L << r;
+                    }
+                    bits[wordOffset + (base >>> 6)] = word;
+                }
+            } else {
+                // Flips the rows equal to the value, then clears the bits past the end again
+                VectorMath.equalsAny(block, 0, length, this.values, bits, wordOffset);
+                int words = Bitmap.words(length);
+                for (int w = 0; w < words; w++)
+                    bits[wordOffset + w] = ~bits[wordOffset + w];
+                if ((length & 63) != 0)
+                    bits[wordOffset + words - 1] &= -1L >>> (64 - (length & 63));
+            }
+        }
+
+        /**
+         * @param unit The unit of the values (NUMBERS, DAYS or MILLIS), so dates are shown as dates
+         */
+        String describe(String column, int unit){
+            if (this.kind == NOT_EQUAL)
+                return column + " != " + format(this.values[0], unit);
+            else if (this.kind == IN){
+                StringBuilder builder = new StringBuilder(column).append(" IN [");
+                for (int i = 0; i < this.values.length; i++)
+                    builder.append((i > 0)? ", " : "").append(format(this.values[i], unit));
+                return builder.append(']').toString();
+            } else if (isPoint())
+                return column + " == " + format(this.lower, unit);
+
+            String lower = format(this.lowerBound, unit) + (this.lowerIncluded? " <= " : " < ");
+            String upper = (this.upperIncluded? " <= " : " < ") + format(this.upperBound, unit);
+            if (this.lowerBound == Double.NEGATIVE_INFINITY)
+                return column + upper;
+            else if (this.upperBound == Double.POSITIVE_INFINITY)
+                return column + (this.lowerIncluded? " >= " : " > ") + format(this.lowerBound, unit);
+            return lower + column + upper;
+        }
+
+        private static String format(double value, int unit){
+            if (Double.isInfinite(value))
+                return String.valueOf(value);
+            else if (unit == DAYS)
+                return TemporalSeries.appendDate(new StringBuilder(10), (long) value).toString();
+            else if (unit == MILLIS)
+                return TimestampSeries.appendTimestamp(new StringBuilder(23), (long) value).toString();
+            return String.valueOf(value);
+        }
+    }
+
+    /**
+     * One or more tests on the same numeric, date or timestamp column, read once for all of them
+     */
+    private static final class NumericFilter extends Filter {
+
+        final String column;
+        final Test [] tests;
+        final boolean conjunction;
+
+        // Unit of the values of the tests: NUMBERS, or the epoch values of dates (DAYS) or timestamps (MILLIS)
+        final int unit;
+
+        NumericFilter(String column, Test test, boolean conjunction){
+            this(column, new Test[] {test}, conjunction, NUMBERS);
+        }
+
+        NumericFilter(String column, Test test, boolean conjunction, int unit){
+            this(column, new Test[] {test}, conjunction, unit);
+        }
+
+        NumericFilter(String column, Test [] tests, boolean conjunction, int unit){
+            if (column == null)
+                throw new IllegalArgumentException("The parameter \"colName\" is null.");
+            this.column = column;
+            this.tests = tests;
+            this.conjunction = conjunction;
+            this.unit = unit;
+        }
+
+        @Override
+        Evaluator bind(DataFrame dataset){
+            Series<?> series = getColumn(dataset, this.column);
+            boolean temporal = series instanceof TemporalSeries;
+            if (!temporal && !(series instanceof NumericSeries))
+                throw new IllegalDataTypeException("Unable to compare the column \"" + this.column + "\" to numbers as it holds " + series.getType() + " values.");
+            else if (!temporal && this.unit != NUMBERS)
+                throw new IllegalDataTypeException("Unable to compare the column \"" + this.column + "\" to dates as it holds " + series.getType() + " values.");
+
+            // Epoch values of the column, turned into the unit of the tests when a date is compared to a timestamp
+            NumericSeries<?> numbers = temporal? null : (NumericSeries<?>) series;
+            TemporalSeries<?> dates = temporal? (TemporalSeries<?>) series : null;
+            boolean millisColumn = series instanceof TimestampSeries;
+            double scale = (this.unit == MILLIS && !millisColumn)? TemporalSeries.MILLIS_PER_DAY : 1;
+            double divisor = (this.unit == DAYS && millisColumn)? TemporalSeries.MILLIS_PER_DAY : 1;
+
+            boolean nullable = series.hasNulls();
+            Test [] tests = this.tests;
+            boolean conjunction = this.conjunction;
+
+            return (start, length, bits) -> {
+                double [] block = new double[BLOCK];
+                long [] testBits = new long[BLOCK / 64];
+                long [] valid = nullable? new long[BLOCK / 64] : null;
+
+                for (int b = 0; b < length; b += BLOCK){
+                    int blockLength = Math.min(BLOCK, length - b);
+                    int wordOffset = b >>> 6;
+                    int words = Bitmap.words(blockLength);
+                    if (temporal){
+                        dates.getDoubles(start + b, blockLength, block, 0);
+                        if (scale != 1 || divisor != 1){
+                            for (int r = 0; r < blockLength; r++)
+                                block[r] = block[r] * scale / divisor;
+                        }
+                    } else
+                        numbers.getDoubles(start + b, blockLength, block, 0);
+
+                    tests[0].evaluate(block, blockLength, bits, wordOffset);
+                    for (int t = 1; t < tests.length; t++){
+                        tests[t].evaluate(block, blockLength, testBits, 0);
+                        for (int w = 0; w < words; w++)
+                            bits[wordOffset + w] = conjunction? bits[wordOffset + w] & testBits[w] : bits[wordOffset + w] | testBits[w];
+                    }
+
+                    // Missing values fail every comparison, which clears them a word at a time
+                    if (nullable){
+                        series.getValidity(start + b, blockLength, valid);
+                        for (int w = 0; w < words; w++)
+                            bits[wordOffset + w] &= valid[w];
+                    }
+                }
+            };
+        }
+
+        @Override
+        void addColumns(Set<String> names){
+            names.add(this.column);
+        }
+
+        @Override
+        public String toString(){
+            if (this.tests.length == 1)
+                return this.tests[0].describe(this.column, this.unit);
+
+            StringBuilder builder = new StringBuilder("(");
+            for (int t = 0; t < this.tests.length; t++){
+                if (t > 0)
+                    builder.append(this.conjunction? " AND " : " OR ");
+                builder.append(this.tests[t].describe(this.column, this.unit));
+            }
+            return builder.append(')').toString();
+        }
+    }
+
+// ===================================================================================================================================
+//  TESTS ON OBJECTS AND NULLS
+
+    /**
+     * Keeps the rows whose value is one of a set of objects
+     */
+    private static final class ObjectFilter extends Filter {
+
+        private final String column;
+        private final Object [] values;
+
+        ObjectFilter(String column, Object [] values){
+            if (column == null)
+                throw new IllegalArgumentException("The parameter \"colName\" is null.");
+            this.column = column;
+            this.values = values;
+        }
+
+        @Override
+        Evaluator bind(DataFrame dataset){
+            Series<?> column = getColumn(dataset, this.column);
+
+            // Numeric columns are compared as doubles, which needs every value to be a number
+            if (column instanceof NumericSeries){
+                double [] numbers = new double[this.values.length];
+                for (int i = 0; i < numbers.length; i++){
+                    if (!(this.values[i] instanceof Number))
+                        throw new IllegalDataTypeException("Unable to compare the numeric column \"" + this.column + "\" to \"" + this.values[i] + "\".");
+                    numbers[i] = ((Number) this.values[i]).doubleValue();
+                }
+                return new NumericFilter(this.column, Test.in(numbers), true).bind(dataset);
+            }
+
+            // So are date and timestamp columns, through the epoch values of the given dates
+            if (column instanceof TemporalSeries){
+                int unit = DAYS;
+                for (Object value : this.values){
+                    if (!(value instanceof Temporal))
+                        throw new IllegalDataTypeException("Unable to compare the date column \"" + this.column + "\" to \"" + value + "\".");
+                    unit = Math.max(unit, unitOf((Temporal) value));
+                }
+
+                double [] epochs = new double[this.values.length];
+                for (int i = 0; i < epochs.length; i++)
+                    epochs[i] = epochOf((Temporal) this.values[i], unit);
+                return new NumericFilter(this.column, Test.in(epochs), true, unit).bind(dataset);
+            }
+
+            HashSet<Object> set = new HashSet<>(Arrays.asList(this.values));
+            boolean keepNulls = set.contains(null);
+            set.remove(null);
+
+            // Dictionary-encoded columns look the values up once, then only compare the code of each row
+            if (column instanceof CategoricalSeries){
+                CategoricalSeries<?> categorical = (CategoricalSeries<?>) column;
+                boolean [] kept = new boolean[categorical.getCategoryCount()];
+                for (Object value : set){
+                    int code = categorical.codeOf(value);
+                    if (code >= 0)
+                        kept[code] = true;
+                }
+
+                return (start, length, bits) -> {
+                    Arrays.fill(bits, 0, Bitmap.words(length), 0);
+                    for (int r = 0; r < length; r++){
+                        int code = categorical.getCode(start + r);
+                        if ((code < 0)? keepNulls : kept[code])
+                            Bitmap.set(bits, r);
+                    }
+                };
+            }
+
+            return (start, length, bits) -> {
+                Arrays.fill(bits, 0, Bitmap.words(length), 0);
+                for (int r = 0; r < length; r++){
+                    Object value = column.getIndex_DataType(start + r);
+                    if ((value == null)? keepNulls : set.contains(value))
+                        Bitmap.set(bits, r);
+                }
+            };
+        }
+
+        @Override
+        void addColumns(Set<String> names){
+            names.add(this.column);
+        }
+
+        @Override
+        public String toString(){
+            if (this.values.length == 1)
+                return this.column + " == " + this.values[0];
+            return this.column + " IN " + Arrays.toString(this.values);
+        }
+    }
+
+    /**
+     * Keeps the rows whose value is missing, or the ones whose value is not
+     */
+    private static final class NullFilter extends Filter {
+
+        private final String column;
+        private final boolean missing;
+
+        NullFilter(String column, boolean missing){
+            if (column == null)
+                throw new IllegalArgumentException("The parameter \"colName\" is null.");
+            this.column = column;
+            this.missing = missing;
+        }
+
+        @Override
+        Evaluator bind(DataFrame dataset){
+            Series<?> column = getColumn(dataset, this.column);
+            boolean missing = this.missing;
+
+            // The validity bitmap of the column is already the result of isNotNull(), and its complement the result of isNull()
+            return (start, length, bits) -> {
+                column.getValidity(start, length, bits);
+                if (missing){
+                    for (int w = 0; w < Bitmap.words(length); w++)
+                        bits[w] = ~bits[w];
+                    clearTail(bits, length);
+                }
+            };
+        }
+
+        @Override
+        void addColumns(Set<String> names){
+            names.add(this.column);
+        }
+
+        @Override
+        public String toString(){
+            return this.column + (this.missing? " IS NULL" : " IS NOT NULL");
+        }
+    }
+
+// ===================================================================================================================================
+//  COMBINATIONS
+
+    /**
+     * and() or or() of several filters
+     */
+    private static final class Combination extends Filter {
+
+        final Filter [] filters;
+        final boolean conjunction;
+
+        Combination(Filter [] filters, boolean conjunction){
+            this.filters = filters;
+            this.conjunction = conjunction;
+        }
+
+        @Override
+        Evaluator bind(DataFrame dataset){
+            Evaluator [] evaluators = new Evaluator[this.filters.length];
+            for (int i = 0; i < evaluators.length; i++)
+                evaluators[i] = this.filters[i].bind(dataset);
+            boolean conjunction = this.conjunction;
+
+            return (start, length, bits) -> {
+                int words = Bitmap.words(length);
+                long [] other = new long[words];
+                evaluators[0].evaluate(start, length, bits);
+
+                for (int i = 1; i < evaluators.length; i++){
+                    // Stops once no row is left to keep (and) or every row is kept (or)
+                    if (settled(bits, length, conjunction))
+                        return;
+
+                    evaluators[i].evaluate(start, length, other);
+                    for (int w = 0; w < words; w++)
+                        bits[w] = conjunction? bits[w] & other[w] : bits[w] | other[w];
+                }
+            };
+        }
+
+        private static boolean settled(long [] bits, int length, boolean conjunction){
+            int words = Bitmap.words(length);
+            for (int w = 0; w < words; w++){
+                long full = (w == words - 1 && (length & 63) != 0)? -1L >>> (64 - (length & 63)) : -1L;
+                if (bits[w] != (conjunction? 0 : full))
+                    return false;
+            }
+            return true;
+        }
+
+        @Override
+        void addColumns(Set<String> names){
+            for (Filter filter : this.filters)
+                filter.addColumns(names);
+        }
+
+        @Override
+        public String toString(){
+            StringBuilder builder = new StringBuilder("(");
+            for (int i = 0; i < this.filters.length; i++){
+                if (i > 0)
+                    builder.append(this.conjunction? " AND " : " OR ");
+                builder.append(this.filters[i]);
+            }
+            return builder.append(')').toString();
+        }
+    }
+
+    private static final class Not extends Filter {
+
+        final Filter filter;
+
+        Not(Filter filter){
+            this.filter = filter;
+        }
+
+        @Override
+        Evaluator bind(DataFrame dataset){
+            Evaluator evaluator = this.filter.bind(dataset);
+            return (start, length, bits) -> {
+                evaluator.evaluate(start, length, bits);
+                int words = Bitmap.words(length);
+                for (int w = 0; w < words; w++)
+                    bits[w] = ~bits[w];
+                clearTail(bits, length);
+            };
+        }
+
+        @Override
+        void addColumns(Set<String> names){
+            this.filter.addColumns(names);
+        }
+
+        @Override
+        public String toString(){
+            return "NOT " + this.filter;
+        }
+    }
+}
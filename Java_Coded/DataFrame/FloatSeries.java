@@ -0,0 +1,213 @@
+package DataFrame;
+
+import java.util.Arrays;
+
+import MachineLearningExceptions.*;
+import VectorMath.VectorMath;
+
+/**
+ * A Series of Floats backed by a primitive float [] array.
+ *
+ * Example:
+ * FloatSeries series = new FloatSeries(new float[] {1.5f, 2.5f, 3.5f}, "Sample");
+ * float value = series.getFloat(1);            // Returns 2.5 without boxing it
+ */
+public class FloatSeries extends NumericSeries<Float> {
+
+    // The list of items to be stored
+    private float [] values;
+
+    public FloatSeries(int size, String name){
+        super("Float", name, size);
+        this.values = new float[size];
+    }
+
+    public FloatSeries(float [] data, String name){
+        this(Arrays.copyOf(data, data.length), null, data.length, name);
+    }
+
+    public FloatSeries(FloatSeries other){
+        super("Float", other.getName(), other.getSize());
+        this.values = other.copyValues();
+        this.nulls = other.copyNulls(0, other.size);
+        this.currentIndex = other.currentIndex;
+    }
+
+    /**
+     * Wraps an already filled array without copying it.
+     * @param values The values of the Series
+     * @param nulls The null bitmap of the values, or null if there are no missing values
+     * @param size Number of elements stored in the values array
+     * @param name Name of the Series
+     */
+    FloatSeries(float [] values, long [] nulls, int size, String name){
+        super("Float", name, size);
+        this.values = values;
+        this.nulls = nulls;
+        this.currentIndex = size;
+    }
+
+    /**
+     * Creates a view sharing the values of another Series (see Series.createView())
+     */
+    private FloatSeries(FloatSeries source, int offset, int [] rowIndex, int size){
+        super(source, offset, rowIndex, size);
+        this.values = source.values;
+    }
+
+    /**
+     * Adds a new value to the Series
+     * @param item The value to be added, null values are stored in the null bitmap
+     */
+    @Override
+    public void addItem(Float item){
+        if (item == null)
+            addNull();
+        else
+            addFloat(item.floatValue());
+    }
+
+    /**
+     * Adds a new value to the Series without boxing it
+     * @param value The value to be added
+     */
+    public void addFloat(float value){
+        if (this.currentIndex == this.size)
+            throw new SeriesOverflowException("Max set size reached.");
+        this.values[this.currentIndex++] = value;
+    }
+
+    @Override
+    public FloatSeries duplicate(){
+        return new FloatSeries(this);
+    }
+
+    @Override
+    protected FloatSeries createView(int offset, int [] rowIndex, int size){
+        return new FloatSeries(this, offset, rowIndex, size);
+    }
+
+    /**
+     * Copies the elements of the Series into a new array. Views only copy the elements they can reach.
+     */
+    private float[] copyValues(){
+        if (this.rowIndex == null)
+            return Arrays.copyOfRange(this.values, this.offset, this.offset + this.size);
+
+        float [] copy = new float[this.size];
+        for (int i = 0; i < this.size; i++)
+            copy[i] = this.values[this.rowIndex[this.offset + i]];
+        return copy;
+    }
+
+    @Override
+    protected void fillNulls(double value){
+        float filled = (float) value;
+        for (int w = 0; w < this.nulls.length; w++){
+            for (long bits = this.nulls[w]; bits != 0; bits &= bits - 1)
+                this.values[(w << 6) + Long.numberOfTrailingZeros(bits)] = filled;
+        }
+    }
+
+// ===================================================================================================================================
+//  GETTERS
+
+    /**
+     * Gets the array backing the Series without copying it. Null elements are stored as 0.
+     * Used to write the values in bulk (see ColumnarFile), which only makes sense when the Series is not a view.
+     */
+    float[] getValues(){
+        return this.values;
+    }
+
+    /**
+     * Gets an element of the Series without boxing it
+     * @param index Index of where the data is located
+     * @return The element at the given index. Null elements are returned as 0.
+     */
+    @Override
+    public float getFloat(int index){
+        return this.values[locate(index)];
+    }
+
+    @Override
+    public double getDouble(int index){
+        return this.values[locate(index)];
+    }
+
+    @Override
+    public void getDoubles(int startIndex, int length, double [] destination, int destinationOffset){
+        if (length == 0)
+            return;
+        checkRange(startIndex, startIndex + length - 1);
+
+        if (this.rowIndex == null){
+            int start = this.offset + startIndex;
+            for (int i = 0; i < length; i++)
+                destination[destinationOffset + i] = this.values[start + i];
+        } else {
+            for (int i = 0; i < length; i++)
+                destination[destinationOffset + i] = this.values[this.rowIndex[this.offset + startIndex + i]];
+        }
+    }
+
+    @Override
+    public void getFloats(int startIndex, int length, float [] destination, int destinationOffset, int destinationStride){
+        if (length == 0)
+            return;
+        checkRange(startIndex, startIndex + length - 1);
+
+        if (this.rowIndex == null){
+            int start = this.offset + startIndex;
+            for (int i = 0; i < length; i++)
+                destination[destinationOffset + i * destinationStride] = this.values[start + i];
+        } else {
+            for (int i = 0; i < length; i++)
+                destination[destinationOffset + i * destinationStride] = this.values[this.rowIndex[this.offset + startIndex + i]];
+        }
+    }
+
+    @Override
+    protected double reduce(int operation){
+        // Only a Series without missing values and with consecutive rows can be reduced in place
+        if (this.rowIndex != null || hasNulls())
+            return super.reduce(operation);
+
+        if (operation == REDUCE_MIN)
+            return VectorMath.min(this.values, this.offset, this.size);
+        else if (operation == REDUCE_MAX)
+            return VectorMath.max(this.values, this.offset, this.size);
+        return VectorMath.sum(this.values, this.offset, this.size);
+    }
+
+    @Override
+    public void appendTo(StringBuilder builder, int index){
+        int position = locate(index);
+
+        if (this.nulls != null && Bitmap.get(this.nulls, position))
+            builder.append("null");
+        else
+            builder.append(this.values[position]);
+    }
+
+    @Override
+    public Float getIndex_DataType(int index){
+        int position = locate(index);
+
+        if (this.nulls != null && Bitmap.get(this.nulls, position))
+            return null;
+        return this.values[position];
+    }
+
+    @Override
+    public FloatSeries getIndex(int index){
+        int resolvedIndex = resolveIndex(index);
+        return getIndex(resolvedIndex, resolvedIndex);
+    }
+
+    @Override
+    public FloatSeries getIndex(int startIndex, int endIndex){
+        checkRange(startIndex, endIndex);
+        return createView(this.offset + startIndex, this.rowIndex, endIndex - startIndex + 1);
+    }
+}
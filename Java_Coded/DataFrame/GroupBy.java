@@ -0,0 +1,689 @@
+package DataFrame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import MachineLearningExceptions.*;
+
+/**
+ * Rows of a DataFrame grouped by the values of some key columns, made by DataFrame.groupBy().
+ *
+ * agg() computes its statistics in a single pass over the rows, BLOCK rows at a time:
+ * - The keys of a block are encoded as longs: the bits of the value for the primitive columns (including the epoch
+ *   values of dates and timestamps), the code of the value for a CategoricalSeries, and a number given to each
+ *   distinct value (a dictionary, built once) for the other columns.
+ *   Missing values get a flag of their own.
+ * - Each key is looked up in an open-addressing hash table (see GroupTable), giving the group number of every row.
+ * - Every aggregated column is then copied as doubles (see NumericSeries.getDoubles()) and added to the accumulators
+ *   of its groups, which are primitive arrays indexed by group number. Nothing is boxed per row.
+ *
+ * Large DataFrames are cut into partitions aggregated on separate threads, each with its own table and accumulators,
+ * which are then merged in partition order. Groups come out in the order they first appear in the DataFrame.
+ *
+ * Example:
+ * DataFrame stats = df.groupBy("ocean_proximity")
+ *                     .agg(Aggregation.count(), Aggregation.mean("median_house_value"), Aggregation.max("median_income"));
+ */
+public class GroupBy {
+
+    // Number of rows whose keys are encoded and looked up at once
+    private static final int BLOCK = 1024;
+
+    // Fewest rows given to a thread, below which starting it costs more than it saves
+    private static final int MIN_PARTITION_ROWS = 1 << 16;
+
+    // Kinds of key columns
+    private static final int KEY_SHORT = 0;
+    private static final int KEY_INTEGER = 1;
+    private static final int KEY_LONG = 2;
+    private static final int KEY_FLOAT = 3;
+    private static final int KEY_DOUBLE = 4;
+    private static final int KEY_BOOLEAN = 5;
+    private static final int KEY_OBJECT = 6;
+    private static final int KEY_CATEGORY = 7;
+    private static final int KEY_DATE = 8;
+    private static final int KEY_TIMESTAMP = 9;
+
+    private final DataFrame dataset;
+    private final Series<?> [] keyColumns;
+    private final int rowCount;
+    private int threads;
+
+    /**
+     * @param dataset The grouped DataFrame
+     * @param keyColumns Views of its key columns
+     */
+    GroupBy(DataFrame dataset, Series<?> [] keyColumns){
+        if (keyColumns.length == 0)
+            throw new IllegalArgumentException("At least one column is needed to group the rows.");
+        else if (keyColumns.length > 64)
+            throw new IllegalArgumentException("The rows cannot be grouped by more than 64 columns.");
+
+        this.dataset = dataset;
+        this.keyColumns = keyColumns;
+        this.rowCount = dataset.getShape()[0];
+        this.threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Sets the maximum number of threads used by agg(). Defaults to the number of available processors.
+     */
+    public void setThreads(int threads){
+        if (threads < 1)
+            throw new IllegalArgumentException("The parameter \"threads\" must be a positive non-zero number.");
+        this.threads = threads;
+    }
+
+    /**
+     * Counts the rows of each group
+     * @return A DataFrame with the key columns and a "count" column
+     */
+    public DataFrame count(){
+        return agg(Aggregation.count());
+    }
+
+    /**
+     * Computes statistics for every group
+     * @param aggregations The statistics, see Aggregation
+     * @return A DataFrame with one row per group, holding the key columns followed by one column per aggregation
+     */
+    public DataFrame agg(Aggregation... aggregations){
+        if (aggregations == null || aggregations.length == 0)
+            throw new IllegalArgumentException("The parameter \"aggregations\" must not be null nor empty.");
+
+        // Each aggregated column is read once, whatever the number of statistics computed on it
+        List<String> valueNames = new ArrayList<>();
+        List<NumericSeries<?>> valueColumns = new ArrayList<>();
+        int [] valueOf = new int[aggregations.length];
+        boolean [] extremes = new boolean[aggregations.length];
+        boolean [] moments = new boolean[aggregations.length];
+
+        for (int a = 0; a < aggregations.length; a++){
+            Aggregation aggregation = aggregations[a];
+            if (aggregation == null)
+                throw new IllegalArgumentException("The parameter \"aggregations\" must not hold null values.");
+            if (aggregation.getOperation() == Aggregation.COUNT_ROWS){
+                valueOf[a] = -1;
+                continue;
+            }
+
+            int value = valueNames.indexOf(aggregation.getColumn());
+            if (value < 0){
+                Series<?> column = this.dataset.select(aggregation.getColumn());
+                if (!(column instanceof NumericSeries))
+                    throw new IllegalDataTypeException("Unable to aggregate the column \"" + aggregation.getColumn() + "\" as it holds " + column.getType() + " values.");
+                value = valueNames.size();
+                valueNames.add(aggregation.getColumn());
+                valueColumns.add((NumericSeries<?>) column);
+            }
+            valueOf[a] = value;
+            extremes[value] |= aggregation.getOperation() == Aggregation.MIN || aggregation.getOperation() == Aggregation.MAX;
+            moments[value] |= aggregation.getOperation() == Aggregation.VARIANCE;
+        }
+
+        NumericSeries<?> [] values = valueColumns.toArray(new NumericSeries<?>[0]);
+        boolean [] nullable = new boolean[values.length];
+        for (int v = 0; v < values.length; v++)
+            nullable[v] = values[v].hasNulls();
+
+        KeyEncoder encoder = new KeyEncoder(this.keyColumns, this.rowCount);
+        Partial result = aggregate(encoder, values, nullable, Arrays.copyOf(extremes, values.length), Arrays.copyOf(moments, values.length));
+        return createResult(encoder, result, aggregations, valueOf);
+    }
+
+// ===================================================================================================================================
+//  AGGREGATING
+
+    /**
+     * Aggregates every row, in partitions run on a pool when the DataFrame is large enough
+     */
+    private Partial aggregate(KeyEncoder encoder, NumericSeries<?> [] values, boolean [] nullable, boolean [] extremes, boolean [] moments){
+        int partitions = (int) Math.max(1, Math.min(this.threads, this.rowCount / MIN_PARTITION_ROWS));
+        if (partitions == 1)
+            return aggregate(encoder, values, nullable, extremes, moments, 0, this.rowCount);
+
+        ExecutorService pool = Executors.newFixedThreadPool(partitions);
+        try {
+            List<Callable<Partial>> tasks = new ArrayList<>(partitions);
+            for (int p = 0; p < partitions; p++){
+                int start = (int) ((long) this.rowCount * p / partitions);
+                int end = (int) ((long) this.rowCount * (p + 1) / partitions);
+                tasks.add(() -> aggregate(encoder, values, nullable, extremes, moments, start, end));
+            }
+
+            List<Future<Partial>> results = pool.invokeAll(tasks);
+            Partial merged = results.get(0).get();
+            for (int p = 1; p < partitions; p++)
+                merged.merge(results.get(p).get());
+            return merged;
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The aggregation was interrupted.", e);
+        } catch (ExecutionException e){
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Aggregates the rows [start, end) into a new table and set of accumulators
+     */
+    private static Partial aggregate(KeyEncoder encoder, NumericSeries<?> [] values, boolean [] nullable,
+                                     boolean [] extremes, boolean [] moments, int start, int end){
+        int width = encoder.width;
+        Partial partial = new Partial(width, extremes, moments);
+        long [] keys = new long[BLOCK * width];
+        int [] groups = new int[BLOCK];
+        double [] block = new double[BLOCK];
+        long [] present = new long[Bitmap.words(BLOCK)];
+
+        for (int b = start; b < end; b += BLOCK){
+            int length = Math.min(BLOCK, end - b);
+            encoder.encode(b, length, keys);
+
+            for (int r = 0; r < length; r++)
+                groups[r] = partial.table.findOrInsert(keys, r * width);
+            partial.ensureCapacity(partial.table.size());
+
+            for (int r = 0; r < length; r++)
+                partial.rows[groups[r]]++;
+
+            for (int v = 0; v < values.length; v++){
+                values[v].getDoubles(b, length, block, 0);
+                Accumulator accumulator = partial.accumulators[v];
+
+                if (!nullable[v])
+                    accumulator.add(groups, block, length);
+                else {
+                    // Only the rows holding a value are visited, a word of the validity bitmap at a time
+                    values[v].getValidity(b, length, present);
+                    for (int w = 0; w < Bitmap.words(length); w++){
+                        for (long bits = present[w]; bits != 0; bits &= bits - 1){
+                            int r = (w << 6) + Long.numberOfTrailingZeros(bits);
+                            accumulator.add(groups[r], block[r]);
+                        }
+                    }
+                }
+            }
+        }
+        return partial;
+    }
+
+// ===================================================================================================================================
+//  RESULT
+
+    private DataFrame createResult(KeyEncoder encoder, Partial result, Aggregation [] aggregations, int [] valueOf){
+        int groups = result.table.size();
+        Series<?> [] columns = new Series<?>[this.keyColumns.length + aggregations.length];
+
+        for (int j = 0; j < this.keyColumns.length; j++)
+            columns[j] = encoder.decode(j, result.table);
+
+        for (int a = 0; a < aggregations.length; a++){
+            String name = aggregations[a].getName();
+            int operation = aggregations[a].getOperation();
+            Series<?> column;
+
+            if (operation == Aggregation.COUNT_ROWS)
+                column = new LongSeries(Arrays.copyOf(result.rows, groups), null, groups, name);
+            else {
+                Accumulator accumulator = result.accumulators[valueOf[a]];
+                if (operation == Aggregation.COUNT)
+                    column = new LongSeries(Arrays.copyOf(accumulator.count, groups), null, groups, name);
+                else
+                    column = accumulator.toSeries(operation, groups, name);
+            }
+            columns[this.keyColumns.length + a] = column;
+        }
+        return new DataFrame(columns, false);
+    }
+
+// ===================================================================================================================================
+//  KEYS
+
+    /**
+     * Encodes the key columns of a row as longs, and decodes the keys of the groups back into columns
+     */
+    private static final class KeyEncoder {
+
+        private final Series<?> [] columns;
+        private final int [] kinds;
+        private final boolean [] nullable;
+        private final boolean hasNulls;
+
+        // Number of longs per key: one per column, plus the null flags if a column has missing values
+        final int width;
+
+        // Dictionary of each KEY_OBJECT column: the number given to each row, and the value of each number
+        private final int [][] codes;
+        private final List<List<Object>> dictionaries;
+
+        KeyEncoder(Series<?> [] columns, int rowCount){
+            this.columns = columns;
+            this.kinds = new int[columns.length];
+            this.nullable = new boolean[columns.length];
+            this.codes = new int[columns.length][];
+            this.dictionaries = new ArrayList<>(columns.length);
+
+            boolean hasNulls = false;
+            for (int j = 0; j < columns.length; j++){
+                Series<?> column = columns[j];
+                this.kinds[j] = kindOf(column);
+                this.dictionaries.add(null);
+
+                if (this.kinds[j] == KEY_OBJECT){
+                    // null is a value of the dictionary like any other
+                    HashMap<Object, Integer> numbers = new HashMap<>();
+                    List<Object> dictionary = new ArrayList<>();
+                    int [] rowCodes = new int[rowCount];
+                    for (int i = 0; i < rowCount; i++){
+                        Object value = column.getIndex_DataType(i);
+                        Integer code = numbers.get(value);
+                        if (code == null){
+                            code = dictionary.size();
+                            numbers.put(value, code);
+                            dictionary.add(value);
+                        }
+                        rowCodes[i] = code;
+                    }
+                    this.codes[j] = rowCodes;
+                    this.dictionaries.set(j, dictionary);
+                } else if (this.kinds[j] != KEY_CATEGORY){
+                    this.nullable[j] = column.hasNulls();
+                    hasNulls |= this.nullable[j];
+                }
+            }
+
+            this.hasNulls = hasNulls;
+            this.width = columns.length + (hasNulls? 1 : 0);
+        }
+
+        private static int kindOf(Series<?> column){
+            if (column instanceof ShortSeries)
+                return KEY_SHORT;
+            else if (column instanceof IntSeries)
+                return KEY_INTEGER;
+            else if (column instanceof LongSeries)
+                return KEY_LONG;
+            else if (column instanceof FloatSeries)
+                return KEY_FLOAT;
+            else if (column instanceof DoubleSeries)
+                return KEY_DOUBLE;
+            else if (column instanceof BooleanSeries)
+                return KEY_BOOLEAN;
+            else if (column instanceof CategoricalSeries)
+                return KEY_CATEGORY;
+            else if (column instanceof DateSeries)
+                return KEY_DATE;
+            else if (column instanceof TimestampSeries)
+                return KEY_TIMESTAMP;
+            return KEY_OBJECT;
+        }
+
+        /**
+         * Writes the keys of the rows [start, start + length), width longs per row
+         */
+        void encode(int start, int length, long [] keys){
+            int width = this.width;
+            if (this.hasNulls){
+                for (int r = 0; r < length; r++)
+                    keys[r * width + width - 1] = 0;
+            }
+
+            for (int j = 0; j < this.columns.length; j++){
+                Series<?> column = this.columns[j];
+                switch (this.kinds[j]){
+                    case KEY_SHORT:
+                        for (int r = 0; r < length; r++)
+                            keys[r * width + j] = ((ShortSeries) column).getShort(start + r);
+                        break;
+                    case KEY_INTEGER:
+                        for (int r = 0; r < length; r++)
+                            keys[r * width + j] = ((IntSeries) column).getInt(start + r);
+                        break;
+                    case KEY_LONG:
+                        for (int r = 0; r < length; r++)
+                            keys[r * width + j] = ((LongSeries) column).getLong(start + r);
+                        break;
+                    case KEY_FLOAT:
+                        // Adding 0 turns -0 into 0, and floatToIntBits() gives every NaN the same bits
+                        for (int r = 0; r < length; r++)
+                            keys[r * width + j] = Float.floatToIntBits(((FloatSeries) column).getFloat(start + r) + 0.0f);
+                        break;
+                    case KEY_DOUBLE:
+                        for (int r = 0; r < length; r++)
+                            keys[r * width + j] = Double.doubleToLongBits(((DoubleSeries) column).getDouble(start + r) + 0.0);
+                        break;
+                    case KEY_BOOLEAN:
+                        for (int r = 0; r < length; r++)
+                            keys[r * width + j] = ((BooleanSeries) column).getBoolean(start + r)? 1 : 0;
+                        break;
+                    case KEY_CATEGORY:
+                        // Missing values have the code -1, which already makes them a key of their own
+                        for (int r = 0; r < length; r++)
+                            keys[r * width + j] = ((CategoricalSeries<?>) column).getCode(start + r);
+                        break;
+                    case KEY_DATE:
+                    case KEY_TIMESTAMP:
+                        for (int r = 0; r < length; r++)
+                            keys[r * width + j] = ((TemporalSeries<?>) column).getEpochValue(start + r);
+                        break;
+                    default:
+                        int [] rowCodes = this.codes[j];
+                        for (int r = 0; r < length; r++)
+                            keys[r * width + j] = rowCodes[start + r];
+                }
+
+                // A missing value is stored as 0 with its flag set, so every null of a column is the same key
+                if (this.nullable[j]){
+                    long [] present = new long[Bitmap.words(length)];
+                    column.getValidity(start, length, present);
+                    for (int w = 0; w < present.length; w++){
+                        for (long missing = ~present[w]; missing != 0; missing &= missing - 1){
+                            int r = (w << 6) + Long.numberOfTrailingZeros(missing);
+                            if (r >= length)
+                                break;
+                            keys[r * width + j] = 0;
+                            keys[r * width + width - 1] |= 1L << j;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Makes a column holding the value of a key column for every group
+         */
+        Series<?> decode(int j, GroupTable table){
+            int groups = table.size();
+            String name = this.columns[j].getName();
+
+            long [] nulls = null;
+            if (this.nullable[j]){
+                for (int g = 0; g < groups; g++){
+                    if ((table.getKey(g, this.width - 1) & (1L << j)) != 0){
+                        if (nulls == null)
+                            nulls = new long[Bitmap.words(groups)];
+                        Bitmap.set(nulls, g);
+                    }
+                }
+            }
+
+            switch (this.kinds[j]){
+                case KEY_SHORT: {
+                    short [] values = new short[groups];
+                    for (int g = 0; g < groups; g++)
+                        values[g] = (short) table.getKey(g, j);
+                    return new ShortSeries(values, nulls, groups, name);
+                }
+                case KEY_INTEGER: {
+                    int [] values = new int[groups];
+                    for (int g = 0; g < groups; g++)
+                        values[g] = (int) table.getKey(g, j);
+                    return new IntSeries(values, nulls, groups, name);
+                }
+                case KEY_LONG: {
+                    long [] values = new long[groups];
+                    for (int g = 0; g < groups; g++)
+                        values[g] = table.getKey(g, j);
+                    return new LongSeries(values, nulls, groups, name);
+                }
+                case KEY_FLOAT: {
+                    float [] values = new float[groups];
+                    for (int g = 0; g < groups; g++)
+                        values[g] = Float.intBitsToFloat((int) table.getKey(g, j));
+                    return new FloatSeries(values, nulls, groups, name);
+                }
+                case KEY_DOUBLE: {
+                    double [] values = new double[groups];
+                    for (int g = 0; g < groups; g++)
+                        values[g] = Double.longBitsToDouble(table.getKey(g, j));
+                    return new DoubleSeries(values, nulls, groups, name);
+                }
+                case KEY_BOOLEAN: {
+                    long [] values = new long[Bitmap.words(groups)];
+                    for (int g = 0; g < groups; g++){
+                        if (table.getKey(g, j) != 0)
+                            Bitmap.set(values, g);
+                    }
+                    return new BooleanSeries(values, nulls, groups, name);
+                }
+                case KEY_CATEGORY: {
+                    int [] codes = new int[groups];
+                    for (int g = 0; g < groups; g++)
+                        codes[g] = (int) table.getKey(g, j);
+                    return categories((CategoricalSeries<?>) this.columns[j], codes, groups, name);
+                }
+                case KEY_DATE: {
+                    int [] values = new int[groups];
+                    for (int g = 0; g < groups; g++)
+                        values[g] = (int) table.getKey(g, j);
+                    return new DateSeries(values, nulls, groups, name);
+                }
+                case KEY_TIMESTAMP: {
+                    long [] values = new long[groups];
+                    for (int g = 0; g < groups; g++)
+                        values[g] = table.getKey(g, j);
+                    return new TimestampSeries(values, nulls, groups, name);
+                }
+                default: {
+                    List<Object> dictionary = this.dictionaries.get(j);
+                    Object [] values = new Object[groups];
+                    for (int g = 0; g < groups; g++)
+                        values[g] = dictionary.get((int) table.getKey(g, j));
+                    return new Series<Object>(values, this.columns[j].getType(), name);
+                }
+            }
+        }
+
+        /**
+         * Wraps the codes of the groups in a CategoricalSeries sharing the dictionary of the key column
+         */
+        private static <T> CategoricalSeries<T> categories(CategoricalSeries<T> column, int [] codes, int size, String name){
+            return new CategoricalSeries<T>(column, codes, size, name);
+        }
+    }
+
+// ===================================================================================================================================
+//  ACCUMULATORS
+
+    /**
+     * The groups and accumulators of a range of rows
+     */
+    private static final class Partial {
+
+        final GroupTable table;
+        final Accumulator [] accumulators;
+
+        // Number of rows of each group
+        long [] rows;
+
+        Partial(int width, boolean [] extremes, boolean [] moments){
+            this.table = new GroupTable(width);
+            this.accumulators = new Accumulator[extremes.length];
+            for (int v = 0; v < extremes.length; v++)
+                this.accumulators[v] = new Accumulator(extremes[v], moments[v]);
+            this.rows = new long[0];
+        }
+
+        void ensureCapacity(int groups){
+            if (groups <= this.rows.length)
+                return;
+
+            int capacity = Math.max(groups, this.rows.length * 2);
+            this.rows = Arrays.copyOf(this.rows, capacity);
+            for (Accumulator accumulator : this.accumulators)
+                accumulator.grow(capacity);
+        }
+
+        /**
+         * Adds the groups of another Partial, which covers the rows right after the ones of this one
+         */
+        void merge(Partial other){
+            long [] otherKeys = other.table.getKeys();
+            int width = other.table.getWidth();
+            for (int g = 0; g < other.table.size(); g++){
+                int group = this.table.findOrInsert(otherKeys, g * width);
+                ensureCapacity(this.table.size());
+
+                this.rows[group] += other.rows[g];
+                for (int v = 0; v < this.accumulators.length; v++)
+                    this.accumulators[v].merge(group, other.accumulators[v], g);
+            }
+        }
+    }
+
+    /**
+     * Statistics of one aggregated column for every group, as arrays indexed by group number
+     */
+    private static final class Accumulator {
+
+        private final boolean extremes;
+        private final boolean moments;
+
+        long [] count;
+        double [] sum;
+        double [] min;
+        double [] max;
+
+        // Running mean and sum of squared deviations (Welford's algorithm), for the variance
+        double [] mean;
+        double [] squaredDeviations;
+
+        Accumulator(boolean extremes, boolean moments){
+            this.extremes = extremes;
+            this.moments = moments;
+            grow(0);
+        }
+
+        void grow(int capacity){
+            int previous = (this.count == null)? 0 : this.count.length;
+            this.count = (this.count == null)? new long[capacity] : Arrays.copyOf(this.count, capacity);
+            this.sum = (this.sum == null)? new double[capacity] : Arrays.copyOf(this.sum, capacity);
+
+            if (this.extremes){
+                this.min = (this.min == null)? new double[capacity] : Arrays.copyOf(this.min, capacity);
+                this.max = (this.max == null)? new double[capacity] : Arrays.copyOf(this.max, capacity);
+                Arrays.fill(this.min, previous, capacity, Double.POSITIVE_INFINITY);
+                Arrays.fill(this.max, previous, capacity, Double.NEGATIVE_INFINITY);
+            }
+            if (this.moments){
+                this.mean = (this.mean == null)? new double[capacity] : Arrays.copyOf(this.mean, capacity);
+                this.squaredDeviations = (this.squaredDeviations == null)? new double[capacity] : Arrays.copyOf(this.squaredDeviations, capacity);
+            }
+        }
+
+        /**
+         * Adds a block of values without missing values, the value r going to the group groups[r]
+         */
+        void add(int [] groups, double [] values, int length){
+            double [] sum = this.sum;
+            for (int r = 0; r < length; r++)
+                sum[groups[r]] += values[r];
+
+            if (this.extremes){
+                double [] min = this.min;
+                double [] max = this.max;
+                for (int r = 0; r < length; r++){
+                    min[groups[r]] = Math.min(min[groups[r]], values[r]);
+                    max[groups[r]] = Math.max(max[groups[r]], values[r]);
+                }
+            }
+
+            // Welford's update needs the count of the group up to each value
+            long [] count = this.count;
+            if (this.moments){
+                for (int r = 0; r < length; r++){
+                    count[groups[r]]++;
+                    addMoments(groups[r], values[r]);
+                }
+            } else {
+                for (int r = 0; r < length; r++)
+                    count[groups[r]]++;
+            }
+        }
+
+        void add(int group, double value){
+            this.count[group]++;
+            this.sum[group] += value;
+            if (this.extremes){
+                this.min[group] = Math.min(this.min[group], value);
+                this.max[group] = Math.max(this.max[group], value);
+            }
+            if (this.moments)
+                addMoments(group, value);
+        }
+
+        /**
+         * Updates the mean and squared deviations of a group whose count already includes the value
+         */
+        private void addMoments(int group, double value){
+            double delta = value - this.mean[group];
+            this.mean[group] += delta / this.count[group];
+            this.squaredDeviations[group] += delta * (value - this.mean[group]);
+        }
+
+        /**
+         * Adds the statistics of the group otherGroup of another Accumulator to a group of this one
+         */
+        void merge(int group, Accumulator other, int otherGroup){
+            long count = this.count[group];
+            long otherCount = other.count[otherGroup];
+            if (otherCount == 0)
+                return;
+
+            this.count[group] = count + otherCount;
+            this.sum[group] += other.sum[otherGroup];
+            if (this.extremes){
+                this.min[group] = Math.min(this.min[group], other.min[otherGroup]);
+                this.max[group] = Math.max(this.max[group], other.max[otherGroup]);
+            }
+
+            // Combines the moments of both parts (Chan et al.)
+            if (this.moments){
+                double total = count + otherCount;
+                double delta = other.mean[otherGroup] - this.mean[group];
+                this.mean[group] += delta * otherCount / total;
+                this.squaredDeviations[group] += other.squaredDeviations[otherGroup] + delta * delta * count * otherCount / total;
+            }
+        }
+
+        /**
+         * Makes the column of a statistic, with a null for every group lacking the values to compute it
+         */
+        DoubleSeries toSeries(int operation, int groups, String name){
+            double [] values = new double[groups];
+            long [] nulls = null;
+
+            for (int g = 0; g < groups; g++){
+                long n = this.count[g];
+                if (n == 0 || (operation == Aggregation.VARIANCE && n < 2)){
+                    if (nulls == null)
+                        nulls = new long[Bitmap.words(groups)];
+                    Bitmap.set(nulls, g);
+                    continue;
+                }
+
+                switch (operation){
+                    case Aggregation.SUM:       values[g] = this.sum[g]; break;
+                    case Aggregation.MEAN:      values[g] = this.sum[g] / n; break;
+                    case Aggregation.MIN:       values[g] = this.min[g]; break;
+                    case Aggregation.MAX:       values[g] = this.max[g]; break;
+                    default:                    values[g] = this.squaredDeviations[g] / (n - 1);
+                }
+            }
+            return new DoubleSeries(values, nulls, groups, name);
+        }
+    }
+}
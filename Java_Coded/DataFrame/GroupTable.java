@@ -0,0 +1,159 @@
+package DataFrame;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table numbering the distinct keys met by GroupBy, and the keys of the build side of a HashJoin.
+ *
+ * A key is a fixed number of longs (its width), one per key column plus one holding the null flags when a key column
+ * has missing values. Keys are stored back to back in a single long [] array in the order they were first met,
+ * so the number of a group is its position in that array. The slots only hold group numbers (plus 1, 0 being empty)
+ * and are probed linearly, so looking up a key never allocates nor boxes anything.
+ */
+final class GroupTable {
+
+    private static final int INITIAL_GROUPS = 64;
+
+    private final int width;
+
+    // The key of group g is keys[g * width, (g + 1) * width)
+    private long [] keys;
+    private int [] hashes;
+    private int groups;
+
+    // Group number + 1 of each slot, 0 for an empty slot. Its length is a power of 2, at least twice the number of groups.
+    private int [] slots;
+    private int mask;
+
+    GroupTable(int width){
+        this.width = width;
+        this.keys = new long[INITIAL_GROUPS * width];
+        this.hashes = new int[INITIAL_GROUPS];
+        this.slots = new int[INITIAL_GROUPS * 2];
+        this.mask = this.slots.length - 1;
+    }
+
+    /**
+     * Finds the number of the group of a key, adding the group if the key is new
+     * @param key Array holding the key
+     * @param offset Position of the key's first long in the array
+     * @return The number of the group, from 0 to size() - 1
+     */
+    int findOrInsert(long [] key, int offset){
+        int hash = hash(key, offset, this.width);
+        int slot = hash & this.mask;
+
+        while (true){
+            int group = this.slots[slot] - 1;
+            if (group < 0)
+                break;
+            if (this.hashes[group] == hash && sameKey(group, key, offset))
+                return group;
+            slot = (slot + 1) & this.mask;
+        }
+
+        if (this.groups == this.hashes.length)
+            grow();
+        int group = this.groups++;
+        System.arraycopy(key, offset, this.keys, group * this.width, this.width);
+        this.hashes[group] = hash;
+
+        if (this.groups * 2 > this.slots.length)
+            rehash();
+        else
+            this.slots[slot] = group + 1;
+        return group;
+    }
+
+    /**
+     * Finds the number of the group of a key without adding it
+     * @return The number of the group, or -1 if the key was never added
+     */
+    int find(long [] key, int offset){
+        int hash = hash(key, offset, this.width);
+        int slot = hash & this.mask;
+
+        while (true){
+            int group = this.slots[slot] - 1;
+            if (group < 0)
+                return -1;
+            if (this.hashes[group] == hash && sameKey(group, key, offset))
+                return group;
+            slot = (slot + 1) & this.mask;
+        }
+    }
+
+    int size(){
+        return this.groups;
+    }
+
+    /**
+     * @return Number of longs per key
+     */
+    int getWidth(){
+        return this.width;
+    }
+
+    /**
+     * Gets a long of the key of a group
+     * @param group Number of the group
+     * @param column Position of the long within the key
+     */
+    long getKey(int group, int column){
+        return this.keys[group * this.width + column];
+    }
+
+    /**
+     * Gets the keys of every group, back to back, so another table can add them through findOrInsert()
+     */
+    long[] getKeys(){
+        return this.keys;
+    }
+
+    private boolean sameKey(int group, long [] key, int offset){
+        int start = group * this.width;
+        for (int j = 0; j < this.width; j++){
+            if (this.keys[start + j] != key[offset + j])
+                return false;
+        }
+        return true;
+    }
+
+    private void grow(){
+        int capacity = this.hashes.length * 2;
+        this.keys = Arrays.copyOf(this.keys, capacity * this.width);
+        this.hashes = Arrays.copyOf(this.hashes, capacity);
+    }
+
+    /**
+     * Doubles the slots and places every group again, using the hashes kept for each group
+     */
+    private void rehash(){
+        this.slots = new int[this.slots.length * 2];
+        this.mask = this.slots.length - 1;
+
+        for (int group = 0; group < this.groups; group++){
+            int slot = this.hashes[group] & this.mask;
+            while (this.slots[slot] != 0)
+                slot = (slot + 1) & this.mask;
+            this.slots[slot] = group + 1;
+        }
+    }
+
+    /**
+     * Hashes a key by mixing its longs with the finalizer of MurmurHash3, so keys differing in a few bits
+     * (such as consecutive integers) spread over every slot
+     */
+    static int hash(long [] key, int offset, int width){
+        long hash = 0x9E3779B97F4A7C15L;
+        for (int j = 0; j < width; j++){
+            hash ^= key[offset + j];
+            hash ^= hash >>> 33;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            hash *= 0xC4CEB9FE1A85EC53L;
+            hash ^= hash >>> 33;
+        }
+        return (int) hash;
+    }
+}
@@ -0,0 +1,773 @@
+package DataFrame;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import MachineLearningExceptions.*;
+
+/**
+ * Joins the rows of two DataFrames sharing the same values in some key columns, used by DataFrame.join().
+ *
+ * The left DataFrame is probed against a hash table built over the right one:
+ * - The keys of both sides are encoded as longs: integers and the epoch values of dates as themselves, decimals as the bits of their double value,
+ *   and other values as their number in a dictionary of the right side's values, so a left value missing from the
+ *   dictionary can never match. Rows with a missing key never match either. When both columns are a CategoricalSeries,
+ *   the right side's codes are used as they are, and the left side's codes are translated once per category.
+ *   A Character column and a String column are compared as text, so 'A' matches "A".
+ * - The distinct keys of the right side are numbered by a GroupTable, and the rows of each key are laid out
+ *   contiguously, in their original order.
+ * - The left rows are cut into partitions probed on separate threads, each producing a pair of index vectors
+ *   (left row, right row) which are concatenated in partition order.
+ * - The columns of the result are then gathered from those index vectors: the left columns are views of the left
+ *   DataFrame, and the right columns are copied, holding null for the left rows without a match.
+ *
+ * When the hash table of the right side would use more memory than the budget (see setMemoryBudget()), both sides
+ * are instead partitioned by hash into temporary files, and each pair of partitions is joined on its own.
+ *
+ * Either way, the rows of the result follow the order of the left DataFrame, then the order of the right one.
+ *
+ * Example:
+ * HashJoin join = new HashJoin();
+ * join.setMemoryBudget(256L << 20);
+ * DataFrame result = join.join(sales, regions, "left", "region_id");
+ */
+public class HashJoin {
+
+    // Number of rows whose keys are encoded and looked up at once
+    private static final int BLOCK = 1024;
+
+    // Fewest rows given to a thread, below which starting it costs more than it saves
+    private static final int MIN_PARTITION_ROWS = 1 << 16;
+
+    // Most partitions written to disk, each holding two open files while spilling
+    private static final int MAX_SPILL_BITS = 10;
+
+    // Bytes of hash table per row of the right side, besides the 16 bytes per long of its key
+    private static final int BYTES_PER_ROW = 32;
+
+    // Kinds of key columns
+    private static final int KEY_INTEGER = 0;
+    private static final int KEY_DECIMAL = 1;
+    private static final int KEY_BOOLEAN = 2;
+    private static final int KEY_OBJECT = 3;
+
+    // Kinds of joins
+    private static final int JOIN_INNER = 0;
+    private static final int JOIN_LEFT = 1;
+    private static final int JOIN_SEMI = 2;
+
+    private int threads;
+    private long memoryBudget;
+    private Path spillDirectory;
+
+    public HashJoin(){
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.memoryBudget = Runtime.getRuntime().maxMemory() / 4;
+        this.spillDirectory = null;
+    }
+
+    /**
+     * Sets the maximum number of threads probing the hash table. Defaults to the number of available processors.
+     */
+    public void setThreads(int threads){
+        if (threads < 1)
+            throw new IllegalArgumentException("The parameter \"threads\" must be a positive non-zero number.");
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the memory the hash table of the right DataFrame may use before it is spilled to disk.
+     * Defaults to a quarter of the maximum heap size.
+     * @param bytes The budget in bytes
+     */
+    public void setMemoryBudget(long bytes){
+        if (bytes < 1)
+            throw new IllegalArgumentException("The parameter \"bytes\" must be a positive non-zero number.");
+        this.memoryBudget = bytes;
+    }
+
+    /**
+     * Sets the directory of the temporary files written when spilling. Defaults to the system's temporary directory.
+     */
+    public void setSpillDirectory(Path directory){
+        if (directory == null)
+            throw new IllegalArgumentException("The parameter \"directory\" is null.");
+        this.spillDirectory = directory;
+    }
+
+    /**
+     * Joins two DataFrames on the given key columns, which must be found in both of them
+     * @param left The probed DataFrame, whose rows keep their order
+     * @param right The DataFrame held in the hash table
+     * @param how "inner" keeps the pairs of matching rows,
+     *            "left" also keeps the left rows without a match (with null right values),
+     *            "semi" keeps the left rows having a match, without any right column
+     * @param colNames Names of the key columns
+     * @return The joined DataFrame. The key columns are only taken from the left DataFrame, and the other right
+     *         columns sharing a name with a left column are suffixed with "_right".
+     */
+    public DataFrame join(DataFrame left, DataFrame right, String how, String... colNames){
+        if (left == null || right == null)
+            throw new IllegalArgumentException("The DataFrames to be joined must not be null.");
+        else if (how == null)
+            throw new IllegalArgumentException("The parameter \"how\" is null.");
+        else if (colNames == null || colNames.length == 0)
+            throw new IllegalArgumentException("The parameter \"colNames\" must not be null nor empty.");
+
+        int mode;
+        switch (how.toLowerCase()){
+            case "inner": mode = JOIN_INNER; break;
+            case "left": mode = JOIN_LEFT; break;
+            case "semi": mode = JOIN_SEMI; break;
+            default:
+                throw new IllegalArgumentException("Unknown join \"" + how + "\", expected \"inner\", \"left\" or \"semi\".");
+        }
+
+        Series<?> [] probeKeys = new Series[colNames.length];
+        Series<?> [] buildKeys = new Series[colNames.length];
+        for (int j = 0; j < colNames.length; j++){
+            probeKeys[j] = left.select(colNames[j]);
+            buildKeys[j] = right.select(colNames[j]);
+        }
+
+        KeyEncoder encoder = new KeyEncoder(probeKeys, buildKeys);
+        int probeRows = left.getShape()[0];
+        int buildRows = right.getShape()[0];
+
+        long estimate = (long) buildRows * (BYTES_PER_ROW + 16L * colNames.length);
+        Matches matches = (estimate <= this.memoryBudget)
+                        ? joinInMemory(encoder, probeKeys, probeRows, buildKeys, buildRows, mode)
+                        : joinSpilled(encoder, probeKeys, probeRows, buildKeys, buildRows, mode, estimate);
+
+        return gather(left, right, colNames, matches, mode);
+    }
+
+// ===================================================================================================================================
+//  IN MEMORY
+
+    private Matches joinInMemory(KeyEncoder encoder, Series<?> [] probeKeys, int probeRows, Series<?> [] buildKeys, int buildRows, int mode){
+        BuildTable table = build(encoder, buildKeys, buildRows);
+
+        int partitions = Math.max(1, Math.min(this.threads, probeRows / MIN_PARTITION_ROWS));
+        if (partitions == 1)
+            return probe(encoder, table, probeKeys, 0, probeRows, mode);
+
+        int partitionRows = (probeRows + partitions - 1) / partitions;
+        ExecutorService pool = Executors.newFixedThreadPool(partitions);
+        try {
+            List<Callable<Matches>> tasks = new ArrayList<>(partitions);
+            for (int p = 0; p < partitions; p++){
+                int start = p * partitionRows;
+                int end = Math.min(probeRows, start + partitionRows);
+                tasks.add(() -> probe(encoder, table, probeKeys, start, end, mode));
+            }
+
+            List<Future<Matches>> results = pool.invokeAll(tasks);
+            Matches matches = results.get(0).get();
+            for (int p = 1; p < partitions; p++)
+                matches.addAll(results.get(p).get());
+            return matches;
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The join was interrupted.", e);
+        } catch (ExecutionException e){
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new IllegalStateException("Unable to join the DataFrames.", cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Builds the hash table over the rows of the right side whose key can match
+     */
+    private static BuildTable build(KeyEncoder encoder, Series<?> [] buildKeys, int buildRows){
+        int width = encoder.width;
+        long [] keys = new long[buildRows * width];
+        int [] rows = new int[buildRows];
+        int count = 0;
+
+        long [] block = new long[BLOCK * width];
+        boolean [] valid = new boolean[BLOCK];
+        for (int start = 0; start < buildRows; start += BLOCK){
+            int length = Math.min(BLOCK, buildRows - start);
+            encoder.encode(buildKeys, true, start, length, block, valid);
+            for (int r = 0; r < length; r++){
+                if (!valid[r])
+                    continue;
+                System.arraycopy(block, r * width, keys, count * width, width);
+                rows[count++] = start + r;
+            }
+        }
+        return new BuildTable(keys, rows, count, width);
+    }
+
+    /**
+     * Probes the rows [start, end) of the left side
+     */
+    private static Matches probe(KeyEncoder encoder, BuildTable table, Series<?> [] probeKeys, int start, int end, int mode){
+        int width = encoder.width;
+        Matches matches = new Matches();
+        long [] keys = new long[BLOCK * width];
+        boolean [] valid = new boolean[BLOCK];
+
+        for (int blockStart = start; blockStart < end; blockStart += BLOCK){
+            int length = Math.min(BLOCK, end - blockStart);
+            encoder.encode(probeKeys, false, blockStart, length, keys, valid);
+            for (int r = 0; r < length; r++){
+                if (valid[r])
+                    table.probe(keys, r * width, blockStart + r, mode, matches);
+                else if (mode == JOIN_LEFT)
+                    matches.add(blockStart + r, -1);
+            }
+        }
+        return matches;
+    }
+
+// ===================================================================================================================================
+//  SPILLING
+
+    /**
+     * Writes both sides to 2^bits pairs of temporary files, a row going to the partition given by the high bits of the
+     * hash of its key, so matching rows always meet in the same pair. Each pair is then joined with its own hash table.
+     */
+    private Matches joinSpilled(KeyEncoder encoder, Series<?> [] probeKeys, int probeRows, Series<?> [] buildKeys, int buildRows, int mode, long estimate){
+        int bits = 1;
+        while (bits < MAX_SPILL_BITS && (estimate >> bits) > this.memoryBudget)
+            bits++;
+        int partitions = 1 << bits;
+
+        Path directory = (this.spillDirectory != null)? this.spillDirectory : Paths.get(System.getProperty("java.io.tmpdir"));
+        Path [] buildFiles = new Path[partitions];
+        Path [] probeFiles = new Path[partitions];
+        Matches matches = new Matches();
+
+        try {
+            for (int p = 0; p < partitions; p++){
+                buildFiles[p] = Files.createTempFile(directory, "join-build-", ".bin");
+                probeFiles[p] = Files.createTempFile(directory, "join-probe-", ".bin");
+            }
+
+            // The left rows which cannot match are settled while spilling
+            spill(encoder, buildKeys, true, buildRows, buildFiles, bits, null, mode);
+            spill(encoder, probeKeys, false, probeRows, probeFiles, bits, matches, mode);
+
+            int width = encoder.width;
+            long [] keys = new long[BLOCK * width];
+            int [] rows = new int[BLOCK];
+            for (int p = 0; p < partitions; p++){
+                BuildTable table = readBuildTable(buildFiles[p], width);
+                Files.delete(buildFiles[p]);
+                buildFiles[p] = null;
+
+                try (DataInputStream in = openSpill(probeFiles[p])){
+                    int remaining = (int) (Files.size(probeFiles[p]) / (4 + 8L * width));
+                    while (remaining > 0){
+                        int length = Math.min(BLOCK, remaining);
+                        readRecords(in, keys, rows, length, width);
+                        for (int r = 0; r < length; r++)
+                            table.probe(keys, r * width, rows[r], mode, matches);
+                        remaining -= length;
+                    }
+                }
+                Files.delete(probeFiles[p]);
+                probeFiles[p] = null;
+            }
+        } catch (IOException e){
+            throw new UncheckedIOException("Unable to spill the join to \"" + directory + "\".", e);
+        } finally {
+            deleteAll(buildFiles);
+            deleteAll(probeFiles);
+        }
+
+        matches.sortByRows();
+        return matches;
+    }
+
+    /**
+     * Writes each row whose key can match to the file of its partition, as its row number followed by its key
+     * @param unmatched Receives the left rows which cannot match during a left join, null for the right side
+     */
+    private static void spill(KeyEncoder encoder, Series<?> [] columns, boolean build, int rowCount, Path [] files, int bits, Matches unmatched, int mode) throws IOException {
+        int width = encoder.width;
+        DataOutputStream [] outputs = new DataOutputStream[files.length];
+        try {
+            for (int p = 0; p < files.length; p++)
+                outputs[p] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(files[p]), 1 << 16));
+
+            long [] keys = new long[BLOCK * width];
+            boolean [] valid = new boolean[BLOCK];
+            for (int start = 0; start < rowCount; start += BLOCK){
+                int length = Math.min(BLOCK, rowCount - start);
+                encoder.encode(columns, build, start, length, keys, valid);
+                for (int r = 0; r < length; r++){
+                    if (!valid[r]){
+                        if (unmatched != null && mode == JOIN_LEFT)
+                            unmatched.add(start + r, -1);
+                        continue;
+                    }
+                    DataOutputStream out = outputs[GroupTable.hash(keys, r * width, width) >>> (32 - bits)];
+                    out.writeInt(start + r);
+                    for (int j = 0; j < width; j++)
+                        out.writeLong(keys[r * width + j]);
+                }
+            }
+        } finally {
+            for (DataOutputStream out : outputs){
+                if (out != null)
+                    out.close();
+            }
+        }
+    }
+
+    private static BuildTable readBuildTable(Path file, int width) throws IOException {
+        int count = (int) (Files.size(file) / (4 + 8L * width));
+        long [] keys = new long[count * width];
+        int [] rows = new int[count];
+        try (DataInputStream in = openSpill(file)){
+            readRecords(in, keys, rows, count, width);
+        }
+        return new BuildTable(keys, rows, count, width);
+    }
+
+    private static DataInputStream openSpill(Path file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+    }
+
+    private static void readRecords(DataInputStream in, long [] keys, int [] rows, int count, int width) throws IOException {
+        for (int r = 0; r < count; r++){
+            rows[r] = in.readInt();
+            for (int j = 0; j < width; j++)
+                keys[r * width + j] = in.readLong();
+        }
+    }
+
+    private static void deleteAll(Path [] files){
+        for (Path file : files){
+            if (file == null)
+                continue;
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e){
+                // Left to the system to clean up with the rest of its temporary directory
+            }
+        }
+    }
+
+// ===================================================================================================================================
+//  GATHERING
+
+    private static DataFrame gather(DataFrame left, DataFrame right, String [] colNames, Matches matches, int mode){
+        int count = matches.size;
+        int leftColumns = left.getShape()[1];
+        List<Series<?>> columns = new ArrayList<>();
+        HashSet<String> names = new HashSet<>();
+
+        for (int j = 0; j < leftColumns; j++){
+            Series<?> column = left.getColumn(j);
+            columns.add(column.view(matches.left, 0, count));
+            names.add(column.getName());
+        }
+
+        if (mode != JOIN_SEMI){
+            HashSet<String> keyNames = new HashSet<>(Arrays.asList(colNames));
+            int rightColumns = right.getShape()[1];
+            for (int j = 0; j < rightColumns; j++){
+                Series<?> column = right.getColumn(j);
+                if (keyNames.contains(column.getName()))
+                    continue;
+                String name = names.contains(column.getName())? column.getName() + "_right" : column.getName();
+                columns.add(take(column, matches.right, count, name));
+            }
+        }
+
+        return new DataFrame(columns.toArray(new Series<?>[0]), false);
+    }
+
+    /**
+     * Copies the given rows of a column into a new Series, a row of -1 giving a null value
+     */
+    private static Series<?> take(Series<?> column, int [] rows, int length, String name){
+        if (column instanceof CategoricalSeries)
+            return takeCodes((CategoricalSeries<?>) column, rows, length, name);
+
+        long [] nulls = new long[Bitmap.words(length)];
+        boolean hasNulls = false;
+        for (int i = 0; i < length; i++){
+            if (rows[i] < 0 || column.isNull(rows[i])){
+                Bitmap.set(nulls, i);
+                hasNulls = true;
+            }
+        }
+        if (!hasNulls)
+            nulls = null;
+
+        if (column instanceof ShortSeries){
+            ShortSeries source = (ShortSeries) column;
+            short [] values = new short[length];
+            for (int i = 0; i < length; i++)
+                values[i] = (rows[i] < 0)? 0 : source.getShort(rows[i]);
+            return new ShortSeries(values, nulls, length, name);
+        } else if (column instanceof IntSeries){
+            IntSeries source = (IntSeries) column;
+            int [] values = new int[length];
+            for (int i = 0; i < length; i++)
+                values[i] = (rows[i] < 0)? 0 : source.getInt(rows[i]);
+            return new IntSeries(values, nulls, length, name);
+        } else if (column instanceof LongSeries){
+            LongSeries source = (LongSeries) column;
+            long [] values = new long[length];
+            for (int i = 0; i < length; i++)
+                values[i] = (rows[i] < 0)? 0 : source.getLong(rows[i]);
+            return new LongSeries(values, nulls, length, name);
+        } else if (column instanceof FloatSeries){
+            FloatSeries source = (FloatSeries) column;
+            float [] values = new float[length];
+            for (int i = 0; i < length; i++)
+                values[i] = (rows[i] < 0)? 0 : source.getFloat(rows[i]);
+            return new FloatSeries(values, nulls, length, name);
+        } else if (column instanceof DoubleSeries){
+            DoubleSeries source = (DoubleSeries) column;
+            double [] values = new double[length];
+            for (int i = 0; i < length; i++)
+                values[i] = (rows[i] < 0)? 0 : source.getDouble(rows[i]);
+            return new DoubleSeries(values, nulls, length, name);
+        } else if (column instanceof BooleanSeries){
+            BooleanSeries source = (BooleanSeries) column;
+            long [] values = new long[Bitmap.words(length)];
+            for (int i = 0; i < length; i++){
+                if (rows[i] >= 0 && source.getBoolean(rows[i]))
+                    Bitmap.set(values, i);
+            }
+            return new BooleanSeries(values, nulls, length, name);
+        } else if (column instanceof DateSeries){
+            DateSeries source = (DateSeries) column;
+            int [] values = new int[length];
+            for (int i = 0; i < length; i++)
+                values[i] = (rows[i] < 0)? 0 : source.getEpochDay(rows[i]);
+            return new DateSeries(values, nulls, length, name);
+        } else if (column instanceof TimestampSeries){
+            TimestampSeries source = (TimestampSeries) column;
+            long [] values = new long[length];
+            for (int i = 0; i < length; i++)
+                values[i] = (rows[i] < 0)? 0 : source.getEpochMilli(rows[i]);
+            return new TimestampSeries(values, nulls, length, name);
+        }
+
+        Object [] values = new Object[length];
+        for (int i = 0; i < length; i++)
+            values[i] = (rows[i] < 0)? null : column.getIndex_DataType(rows[i]);
+        return new Series<Object>(values, column.getType(), name);
+    }
+
+    /**
+     * Copies the codes of the given rows, the result sharing the dictionary of the column
+     */
+    private static <T> CategoricalSeries<T> takeCodes(CategoricalSeries<T> column, int [] rows, int length, String name){
+        int [] codes = new int[length];
+        for (int i = 0; i < length; i++)
+            codes[i] = (rows[i] < 0)? -1 : column.getCode(rows[i]);
+        return new CategoricalSeries<T>(column, codes, length, name);
+    }
+
+// ===================================================================================================================================
+//  HELPER CLASSES
+
+    /**
+     * Encodes the keys of both sides the same way, one long per key column
+     */
+    private static final class KeyEncoder {
+
+        private final int [] kinds;
+
+        // Number given to each distinct value of the right side, for the KEY_OBJECT columns
+        private final List<HashMap<Object, Integer>> dictionaries;
+
+        // For the KEY_OBJECT columns being a CategoricalSeries on both sides: the right side's code of each
+        // left side's code (-1 if no right row holds that value), used instead of the dictionary
+        private final int [][] translations;
+
+        // For a Character column joined with a String column: the type of the right side, which the left values are
+        // converted to. Null when both sides have the same type.
+        private final String [] buildTypes;
+
+        final int width;
+
+        KeyEncoder(Series<?> [] probeKeys, Series<?> [] buildKeys){
+            this.width = probeKeys.length;
+            this.kinds = new int[this.width];
+            this.dictionaries = new ArrayList<>(this.width);
+            this.translations = new int[this.width][];
+            this.buildTypes = new String[this.width];
+
+            for (int j = 0; j < this.width; j++){
+                this.kinds[j] = kindOf(probeKeys[j], buildKeys[j]);
+                this.dictionaries.add((this.kinds[j] == KEY_OBJECT)? new HashMap<>() : null);
+                if (this.kinds[j] == KEY_OBJECT && !probeKeys[j].getType().equals(buildKeys[j].getType()))
+                    this.buildTypes[j] = buildKeys[j].getType();
+
+                if (probeKeys[j] instanceof CategoricalSeries && buildKeys[j] instanceof CategoricalSeries){
+                    CategoricalSeries<?> probe = (CategoricalSeries<?>) probeKeys[j];
+                    CategoricalSeries<?> build = (CategoricalSeries<?>) buildKeys[j];
+                    this.translations[j] = new int[probe.getCategoryCount()];
+                    for (int code = 0; code < this.translations[j].length; code++)
+                        this.translations[j][code] = build.codeOf(convert(probe.getCategory(code), this.buildTypes[j]));
+                }
+            }
+        }
+
+        private static int kindOf(Series<?> probe, Series<?> build){
+            boolean probeInteger = probe instanceof ShortSeries || probe instanceof IntSeries || probe instanceof LongSeries;
+            boolean buildInteger = build instanceof ShortSeries || build instanceof IntSeries || build instanceof LongSeries;
+
+            if (probeInteger && buildInteger)
+                return KEY_INTEGER;
+            else if ((probe instanceof DateSeries && build instanceof DateSeries)
+                  || (probe instanceof TimestampSeries && build instanceof TimestampSeries))
+                return KEY_INTEGER;
+            else if (probe instanceof NumericSeries && build instanceof NumericSeries)
+                return KEY_DECIMAL;
+            else if (probe instanceof BooleanSeries && build instanceof BooleanSeries)
+                return KEY_BOOLEAN;
+            else if (!(probe instanceof NumericSeries || probe instanceof BooleanSeries || probe instanceof TemporalSeries)
+                  && !(build instanceof NumericSeries || build instanceof BooleanSeries || build instanceof TemporalSeries)
+                  && (probe.getType().equals(build.getType()) || (isText(probe.getType()) && isText(build.getType()))))
+                return KEY_OBJECT;
+
+            throw new IllegalDataTypeException("Unable to join the column \"" + probe.getName() + "\" of " + probe.getType()
+                                             + " values with a column of " + build.getType() + " values.");
+        }
+
+        private static boolean isText(String type){
+            return type.equals("String") || type.equals("Character");
+        }
+
+        /**
+         * Converts a left value to the type of the right column when one is a Character column and the other a String column
+         * @param type The type of the right column, or null if both columns have the same type
+         * @return The value to look up on the right side, or null if no right value can match it
+         */
+        private static Object convert(Object value, String type){
+            if (type == null || value == null)
+                return value;
+            else if (type.equals("String"))
+                return value.toString();
+
+            String text = value.toString();
+            return (text.length() == 1)? (Object) text.charAt(0) : null;
+        }
+
+        /**
+         * Writes the keys of the rows [start, start + length), width longs per row
+         * @param build Whether the columns are from the right side, whose new values are added to the dictionaries
+         * @param valid Receives whether each key can match, which is false if it holds a missing value
+         */
+        void encode(Series<?> [] columns, boolean build, int start, int length, long [] keys, boolean [] valid){
+            int width = this.width;
+            Arrays.fill(valid, 0, length, true);
+
+            for (int j = 0; j < width; j++){
+                Series<?> column = columns[j];
+                switch (this.kinds[j]){
+                    case KEY_INTEGER:
+                        for (int r = 0; r < length; r++)
+                            keys[r * width + j] = integerAt(column, start + r);
+                        break;
+                    case KEY_DECIMAL:
+                        NumericSeries<?> numbers = (NumericSeries<?>) column;
+                        for (int r = 0; r < length; r++){
+                            // Adding 0.0 turns -0.0 into 0.0, and NaN never matches
+                            double value = numbers.getDouble(start + r) + 0.0;
+                            keys[r * width + j] = Double.doubleToRawLongBits(value);
+                            if (value != value)
+                                valid[r] = false;
+                        }
+                        break;
+                    case KEY_BOOLEAN:
+                        for (int r = 0; r < length; r++)
+                            keys[r * width + j] = ((BooleanSeries) column).getBoolean(start + r)? 1 : 0;
+                        break;
+                    default:
+                        if (this.translations[j] != null){
+                            CategoricalSeries<?> categorical = (CategoricalSeries<?>) column;
+                            int [] translation = build? null : this.translations[j];
+                            for (int r = 0; r < length; r++){
+                                int code = categorical.getCode(start + r);
+                                if (code >= 0 && translation != null)
+                                    code = translation[code];
+                                if (code < 0)
+                                    valid[r] = false;
+                                else
+                                    keys[r * width + j] = code;
+                            }
+                            continue;
+                        }
+
+                        HashMap<Object, Integer> dictionary = this.dictionaries.get(j);
+                        String convertTo = build? null : this.buildTypes[j];
+                        for (int r = 0; r < length; r++){
+                            Object value = convert(column.getIndex_DataType(start + r), convertTo);
+                            if (value == null){
+                                valid[r] = false;
+                                continue;
+                            }
+                            Integer code = dictionary.get(value);
+                            if (code == null){
+                                if (!build){
+                                    valid[r] = false;
+                                    continue;
+                                }
+                                code = dictionary.size();
+                                dictionary.put(value, code);
+                            }
+                            keys[r * width + j] = code;
+                        }
+                        continue;
+                }
+
+                // Only the missing values are visited, a word of the validity bitmap at a time
+                if (column.hasNulls()){
+                    long [] present = new long[Bitmap.words(length)];
+                    column.getValidity(start, length, present);
+                    for (int w = 0; w < present.length; w++){
+                        for (long missing = ~present[w]; missing != 0; missing &= missing - 1){
+                            int r = (w << 6) + Long.numberOfTrailingZeros(missing);
+                            if (r >= length)
+                                break;
+                            valid[r] = false;
+                        }
+                    }
+                }
+            }
+        }
+
+        private static long integerAt(Series<?> column, int index){
+            if (column instanceof IntSeries)
+                return ((IntSeries) column).getInt(index);
+            else if (column instanceof LongSeries)
+                return ((LongSeries) column).getLong(index);
+            else if (column instanceof TemporalSeries)
+                return ((TemporalSeries<?>) column).getEpochValue(index);
+            return ((ShortSeries) column).getShort(index);
+        }
+    }
+
+    /**
+     * The rows of the right side grouped by key: the rows of the key numbered g by the GroupTable are
+     * rows[starts[g], starts[g + 1]), in their original order
+     */
+    private static final class BuildTable {
+
+        private final GroupTable table;
+        private final int [] starts;
+        private final int [] rows;
+
+        /**
+         * @param keys The key of each row, width longs per row
+         * @param rowNumbers The row number of each key
+         * @param count Number of rows
+         */
+        BuildTable(long [] keys, int [] rowNumbers, int count, int width){
+            this.table = new GroupTable(width);
+            int [] groups = new int[count];
+            for (int i = 0; i < count; i++)
+                groups[i] = this.table.findOrInsert(keys, i * width);
+
+            int groupCount = this.table.size();
+            this.starts = new int[groupCount + 1];
+            for (int i = 0; i < count; i++)
+                this.starts[groups[i] + 1]++;
+            for (int g = 0; g < groupCount; g++)
+                this.starts[g + 1] += this.starts[g];
+
+            this.rows = new int[count];
+            int [] next = Arrays.copyOf(this.starts, groupCount);
+            for (int i = 0; i < count; i++)
+                this.rows[next[groups[i]]++] = rowNumbers[i];
+        }
+
+        /**
+         * Adds the matches of a left row
+         */
+        void probe(long [] keys, int offset, int row, int mode, Matches matches){
+            int group = this.table.find(keys, offset);
+            if (group < 0){
+                if (mode == JOIN_LEFT)
+                    matches.add(row, -1);
+                return;
+            } else if (mode == JOIN_SEMI){
+                matches.add(row, -1);
+                return;
+            }
+
+            for (int i = this.starts[group]; i < this.starts[group + 1]; i++)
+                matches.add(row, this.rows[i]);
+        }
+    }
+
+    /**
+     * Growable pair of index vectors: the left row and the right row (-1 for none) of each row of the result
+     */
+    private static final class Matches {
+
+        int [] left = new int[64];
+        int [] right = new int[64];
+        int size;
+
+        void add(int leftRow, int rightRow){
+            if (this.size == this.left.length){
+                this.left = Arrays.copyOf(this.left, this.size * 2);
+                this.right = Arrays.copyOf(this.right, this.size * 2);
+            }
+            this.left[this.size] = leftRow;
+            this.right[this.size] = rightRow;
+            this.size++;
+        }
+
+        void addAll(Matches other){
+            int size = this.size + other.size;
+            if (size > this.left.length){
+                int capacity = Math.max(size, this.left.length * 2);
+                this.left = Arrays.copyOf(this.left, capacity);
+                this.right = Arrays.copyOf(this.right, capacity);
+            }
+            System.arraycopy(other.left, 0, this.left, this.size, other.size);
+            System.arraycopy(other.right, 0, this.right, this.size, other.size);
+            this.size = size;
+        }
+
+        /**
+         * Orders the pairs by left row, then by right row (the order of the in-memory join)
+         */
+        void sortByRows(){
+            long [] keys = new long[this.size];
+            for (int i = 0; i < this.size; i++)
+                keys[i] = ((long) this.left[i] << 32) | (this.right[i] + 1L);
+
+            Sorting.radixSort(keys, new int[this.size], this.size);
+            for (int i = 0; i < this.size; i++){
+                this.left[i] = (int) (keys[i] >>> 32);
+                this.right[i] = (int) keys[i] - 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package DataFrame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import MachineLearningExceptions.*;
+
+/**
+ * A DataFrame whose operations are recorded instead of run. Each call returns a new LazyFrame holding one more step
+ * of a logical plan, and nothing is read nor copied until collect() is called.
+ *
+ * collect() first optimizes the plan:
+ * - The columns are pushed down into the scan, so a csv file only parses the columns used by the output or by a filter
+ *   (see CsvReader.setColumns()). The projections themselves disappear from the plan.
+ * - The filters coming before any slice are combined with Filter.and() and pushed down into the scan, where a csv file
+ *   drops the rejected rows while it is read (see CsvReader.setFilter()). Neighbouring filters are combined the same way,
+ *   so their tests on a same column are fused into a single pass over it.
+ * - Neighbouring slices are composed into a single slice.
+ * The remaining filters and slices then only narrow a single selection vector, the positions of the kept rows, and each
+ * column of the result is a view over it (see Series.view()). No DataFrame is made between two steps.
+ *
+ * explain() prints the optimized plan, and toString() the plan as it was recorded.
+ *
+ * How to use it:
+ * LazyFrame plan = new CsvReader("Datasets/Linear_Regression/housing.csv").lazy()
+ *                      .filter(Filter.greater("median_income", 3))
+ *                      .select("median_income", "median_house_value")
+ *                      .iloc(0, 0, 99, 1);
+ * System.out.println(plan.explain());        // Scan reading 2 of the 10 columns of the file
+ * DataFrame df = plan.collect();
+ *
+ * DataFrame complete = df.lazy().dropNa().select("median_income").collect();
+ */
+public class LazyFrame {
+
+    // The source of the plan: either a csv file or a DataFrame
+    private final CsvReader reader;
+    private final DataFrame source;
+
+    // Names of the columns of the source
+    private final String [] sourceColumns;
+
+    // The previous LazyFrame of the plan and the step added by this one, both null for the scan
+    private final LazyFrame parent;
+    private final Step step;
+
+    // Names of the columns after this step
+    private final String [] columns;
+
+    private LazyFrame(CsvReader reader, DataFrame source, String [] columns){
+        this.reader = reader;
+        this.source = source;
+        this.sourceColumns = columns;
+        this.parent = null;
+        this.step = null;
+        this.columns = columns;
+    }
+
+    private LazyFrame(LazyFrame parent, Step step, String [] columns){
+        this.reader = parent.reader;
+        this.source = parent.source;
+        this.sourceColumns = parent.sourceColumns;
+        this.parent = parent;
+        this.step = step;
+        this.columns = columns;
+    }
+
+    /**
+     * Starts a plan reading a csv file (see CsvReader.lazy())
+     * @param reader The settings of the reading, copied again by each collect()
+     * @param columnNames Names of the columns of the file
+     */
+    static LazyFrame scan(CsvReader reader, String [] columnNames){
+        return new LazyFrame(reader, null, columnNames);
+    }
+
+    /**
+     * Starts a plan over the columns of a DataFrame (see DataFrame.lazy())
+     * @param columnNames Names of the columns of the DataFrame
+     */
+    static LazyFrame scan(DataFrame source, String [] columnNames){
+        return new LazyFrame(null, source, columnNames);
+    }
+
+// ===================================================================================================================================
+//  SUBSETTING
+
+    /**
+     * Keeps the given columns (see DataFrame.select(String...))
+     * @param colNames Names of the columns, in the order of the result
+     */
+    public LazyFrame select(String... colNames){
+        if (colNames == null || colNames.length == 0)
+            throw new IllegalArgumentException("The parameter \"colNames\" must not be null nor empty.");
+        for (String colName : colNames)
+            getColumnIndex(colName);
+        return new LazyFrame(this, new Project(colNames.clone()), colNames.clone());
+    }
+
+    /**
+     * Keeps the columns from startCol till endCol, both included (see DataFrame.loc())
+     */
+    public LazyFrame loc(String startCol, String endCol){
+        int startIndex = getColumnIndex(startCol);
+        int endIndex = getColumnIndex(endCol);
+
+        if (startIndex > endIndex)
+            throw new IllegalArgumentException("The column \"" + startCol + "\" must come before the column \"" + endCol + "\".");
+        return select(Arrays.copyOfRange(this.columns, startIndex, endIndex + 1));
+    }
+
+    /**
+     * Keeps the rows from startRow till endRow and the columns from startCol till endCol, all included (see DataFrame.iloc()).
+     * Since the number of rows is only known once the plan runs, collect() checks that endRow is within the rows.
+     */
+    public LazyFrame iloc(int startRow, int startCol, int endRow, int endCol){
+        if (startCol > endCol)
+            throw new IllegalArgumentException("The parameter \"startCol\" must be less than or equal to the \"endCol\" parameter");
+        else if (startRow > endRow)
+            throw new IllegalArgumentException("The parameter \"startRow\" must be less than or equal to the \"endRow\" parameter");
+        else if (startRow < 0 || endRow < 0)
+            throw new IllegalArgumentException("The parameter \"startRow\" and \"endRow\" must be a positive number");
+        else if (startCol < 0 || endCol < 0)
+            throw new IllegalArgumentException("The parameter \"startCol\" and \"endCol\" must be a positive number");
+        else if (endCol >= this.columns.length)
+            throw new IllegalArgumentException("The parameter \"endRow\" and \"endCol\" must be a within the DataFrame's dimensions.");
+
+        LazyFrame rows = new LazyFrame(this, new Slice(startRow, endRow + 1), this.columns);
+        return rows.select(Arrays.copyOfRange(this.columns, startCol, endCol + 1));
+    }
+
+// ===================================================================================================================================
+//  FILTERING
+
+    /**
+     * Keeps the rows matching a filter (see DataFrame.filter())
+     * @param filter The condition on the rows, see Filter
+     */
+    public LazyFrame filter(Filter filter){
+        if (filter == null)
+            throw new IllegalArgumentException("The parameter \"filter\" is null.");
+
+        Set<String> used = new LinkedHashSet<>();
+        filter.addColumns(used);
+        for (String colName : used)
+            getColumnIndex(colName);
+        return new LazyFrame(this, new Select(filter), this.columns);
+    }
+
+    /**
+     * Keeps the rows holding a value in every column (see DataFrame.dropNa())
+     */
+    public LazyFrame dropNa(){
+        return dropNa(this.columns);
+    }
+
+    /**
+     * Keeps the rows holding a value in the given columns (see DataFrame.dropNa(String...))
+     */
+    public LazyFrame dropNa(String... colNames){
+        if (colNames == null || colNames.length == 0)
+            throw new IllegalArgumentException("The parameter \"colNames\" must not be null nor empty.");
+
+        Filter [] filters = new Filter[colNames.length];
+        for (int i = 0; i < colNames.length; i++)
+            filters[i] = Filter.notNull(colNames[i]);
+        return filter((filters.length == 1)? filters[0] : Filter.and(filters));
+    }
+
+// ===================================================================================================================================
+//  RUNNING THE PLAN
+
+    /**
+     * Optimizes and runs the plan
+     * @return A DataFrame of the columns of the plan. Its columns are views of the columns read by the scan or of the source DataFrame.
+     */
+    public DataFrame collect(){
+        Plan plan = optimize();
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        // The scan
+        DataFrame base;
+        int [] rows = null;
+        int start = 0;
+        int length;
+        if (this.reader != null){
+            if (plan.read.length == 0)
+                return new DataFrame(new Series[0], false);
+            CsvReader reader = new CsvReader(this.reader);
+            reader.setColumns(plan.read);
+            reader.setFilter(plan.pushed);
+            base = reader.read();
+            length = base.getShape()[0];
+        }
+        else {
+            base = this.source;
+            length = base.getShape()[0];
+            if (plan.pushed != null){
+                rows = base.selectRows(plan.pushed, threads);
+                length = rows.length;
+            }
+        }
+
+        // The remaining steps narrow the same selection vector
+        for (Step step : plan.steps){
+            if (step instanceof Slice){
+                Slice slice = (Slice) step;
+                if (slice.end > length)
+                    throw new IllegalArgumentException("The parameter \"endRow\" and \"endCol\" must be a within the DataFrame's dimensions.");
+                start += slice.start;
+                length = slice.end - slice.start;
+                continue;
+            }
+
+            Filter filter = ((Select) step).filter;
+            Set<String> used = new LinkedHashSet<>();
+            filter.addColumns(used);
+            Series<?>[] viewed = new Series[used.size()];
+            int k = 0;
+            for (String colName : used)
+                viewed[k++] = view(base.select(colName), rows, start, length);
+
+            int [] kept = new DataFrame(viewed, false).selectRows(filter, threads);
+            for (int i = 0; i < kept.length; i++)
+                kept[i] = (rows == null)? start + kept[i] : rows[start + kept[i]];
+            rows = kept;
+            start = 0;
+            length = kept.length;
+        }
+
+        Series<?>[] result = new Series[this.columns.length];
+        for (int j = 0; j < result.length; j++)
+            result[j] = view(base.select(this.columns[j]), rows, start, length);
+
+        DataFrame df = new DataFrame(result, false);
+        if (this.source != null && this.source.getSeed() != -1)
+            df.setSeed(this.source.getSeed());
+        return df;
+    }
+
+    /**
+     * Gets the rows rows[start, start + length) of a column, or the rows [start, start + length) when rows is null
+     */
+    private static Series<?> view(Series<?> column, int [] rows, int start, int length){
+        if (rows != null)
+            return column.view(rows, start, length);
+        else if (length == 0)
+            return column.view(new int[0], 0, 0);
+        return column.getIndex(start, start + length - 1);
+    }
+
+    /**
+     * Prints the optimized plan, from the last step down to the scan, showing which columns the scan reads
+     *
+     * Example:
+     * Project [median_income, median_house_value]
+     *   Slice rows [0, 100)
+     *     Scan csv "Datasets/Linear_Regression/housing.csv"
+     *       columns: [median_income, median_house_value] (2 of 10)
+     *       filter: median_income > 3.0
+     */
+    public String explain(){
+        Plan plan = optimize();
+
+        List<String> lines = new ArrayList<>();
+        if (!Arrays.equals(plan.read, this.columns))
+            lines.add("Project " + Arrays.toString(this.columns));
+        for (int i = plan.steps.size() - 1; i >= 0; i--)
+            lines.add(plan.steps.get(i).toString());
+
+        StringBuilder builder = new StringBuilder();
+        String indent = appendSteps(builder, lines);
+        appendScan(builder, indent, plan.read, plan.pushed);
+        return builder.toString();
+    }
+
+    /**
+     * Prints the plan as it was recorded, from the last step down to the scan
+     */
+    @Override
+    public String toString(){
+        List<String> lines = new ArrayList<>();
+        for (LazyFrame frame = this; frame.step != null; frame = frame.parent)
+            lines.add(frame.step.toString());
+
+        StringBuilder builder = new StringBuilder();
+        String indent = appendSteps(builder, lines);
+        appendScan(builder, indent, this.sourceColumns, null);
+        return builder.toString();
+    }
+
+    private static String appendSteps(StringBuilder builder, List<String> lines){
+        String indent = "";
+        for (String line : lines){
+            builder.append(indent).append(line).append('\n');
+            indent += "  ";
+        }
+        return indent;
+    }
+
+    private void appendScan(StringBuilder builder, String indent, String [] read, Filter filter){
+        builder.append(indent).append("Scan ");
+        builder.append((this.reader != null)? "csv \"" + this.reader.getPath() + "\"" : "DataFrame").append('\n');
+        builder.append(indent).append("  columns: ").append(Arrays.toString(read))
+               .append(" (").append(read.length).append(" of ").append(this.sourceColumns.length).append(')');
+        if (filter != null)
+            builder.append('\n').append(indent).append("  filter: ").append(filter);
+    }
+
+// ===================================================================================================================================
+//  OPTIMIZING
+
+    /**
+     * Pushes the columns and the leading filters into the scan, and fuses the neighbouring filters and slices
+     */
+    private Plan optimize(){
+        List<Step> recorded = new ArrayList<>();
+        for (LazyFrame frame = this; frame.step != null; frame = frame.parent)
+            recorded.add(0, frame.step);
+
+        // Filters met before any slice see the same rows at the scan, so they move into it
+        List<Filter> pushed = new ArrayList<>();
+        List<Step> steps = new ArrayList<>();
+        for (Step step : recorded){
+            if (step instanceof Project)
+                continue;
+
+            if (step instanceof Select && steps.isEmpty()){
+                pushed.add(((Select) step).filter);
+                continue;
+            }
+
+            Step last = steps.isEmpty()? null : steps.get(steps.size() - 1);
+            if (step instanceof Select && last instanceof Select)
+                steps.set(steps.size() - 1, new Select(Filter.and(((Select) last).filter, ((Select) step).filter)));
+            else if (step instanceof Slice && last instanceof Slice)
+                steps.set(steps.size() - 1, ((Slice) last).then((Slice) step));
+            else
+                steps.add(step);
+        }
+
+        // Columns used by the output or by the filters left after the scan
+        Set<String> read = new LinkedHashSet<>(Arrays.asList(this.columns));
+        for (Step step : steps){
+            if (step instanceof Select)
+                ((Select) step).filter.addColumns(read);
+        }
+
+        Filter filter = pushed.isEmpty()? null : (pushed.size() == 1)? pushed.get(0) : Filter.and(pushed.toArray(new Filter[0]));
+        return new Plan(read.toArray(new String[0]), filter, steps);
+    }
+
+    private int getColumnIndex(String colName){
+        for (int j = 0; j < this.columns.length; j++){
+            if (this.columns[j].equals(colName))
+                return j;
+        }
+        throw new UnknownColumnException("The column \"" + colName + "\" doesn't exist in the DataFrame.");
+    }
+
+// ===================================================================================================================================
+//  STEPS
+
+    /**
+     * The optimized plan: the columns read and the filter evaluated by the scan, then the remaining steps in order
+     */
+    private static final class Plan {
+        final String [] read;
+        final Filter pushed;
+        final List<Step> steps;
+
+        Plan(String [] read, Filter pushed, List<Step> steps){
+            this.read = read;
+            this.pushed = pushed;
+            this.steps = steps;
+        }
+    }
+
+    private static abstract class Step {}
+
+    private static final class Project extends Step {
+        final String [] columns;
+
+        Project(String [] columns){
+            this.columns = columns;
+        }
+
+        @Override
+        public String toString(){
+            return "Project " + Arrays.toString(this.columns);
+        }
+    }
+
+    private static final class Select extends Step {
+        final Filter filter;
+
+        Select(Filter filter){
+            this.filter = filter;
+        }
+
+        @Override
+        public String toString(){
+            return "Filter " + this.filter;
+        }
+    }
+
+    /**
+     * Keeps the rows [start, end)
+     */
+    private static final class Slice extends Step {
+        final int start;
+        final int end;
+
+        Slice(int start, int end){
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Composes this slice with a slice of its rows
+         */
+        Slice then(Slice next){
+            if (next.end > this.end - this.start)
+                throw new IllegalArgumentException("The parameter \"endRow\" and \"endCol\" must be a within the DataFrame's dimensions.");
+            return new Slice(this.start + next.start, this.start + next.end);
+        }
+
+        @Override
+        public String toString(){
+            return "Slice rows [" + this.start + ", " + this.end + ")";
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package DataFrame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads a csv file by memory-mapping it and parsing separate chunks of it on separate threads.
+ *
+ * The records after the header are split into chunks that always start and end at a line break.
+ * Each chunk is mapped with FileChannel.map() and parsed straight from its bytes into its own ColumnBuffers,
+ * which are joined in file order once every chunk is done.
+ * The columns left out by CsvReader.setColumns() are skipped without being parsed, and the filter given to CsvReader.setFilter()
+ * is evaluated by each chunk on its own rows (see ScanFilter).
+ *
+ * Used by CsvReader when setMemoryMapped(true) is called.
+ */
+class MappedCsvParser {
+
+    // A single mapping cannot go past 2 GB, so larger files always get more chunks
+    private static final long MAX_CHUNK_SIZE = Integer.MAX_VALUE - (1 << 20);
+
+    // Chunks smaller than this are not worth a thread of their own
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+
+    // Size of the buffer used while looking for line breaks outside of the mapped chunks
+    private static final int SCAN_BUFFER_SIZE = 1 << 16;
+
+    private final File file;
+    private final int threads;
+
+    // The reader holding the sample size and schema
+    private final CsvReader reader;
+
+    // Whether each column is parsed, and the position of the last one parsed
+    private boolean [] read;
+    private int lastRead;
+
+    // The filter evaluated while parsing, or null
+    private ScanFilter scanFilter;
+
+    // Number of records read by the last call to readColumns()
+    private int rowsRead;
+
+    MappedCsvParser(File file, int threads, CsvReader reader){
+        if (threads < 1)
+            throw new IllegalArgumentException("The parameter \"threads\" must be a positive non-zero number.");
+        this.file = file;
+        this.threads = threads;
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the whole file into an array of Series, one per column.
+     * @param lost Receives the names of the columns widened to String after some of their values lost their text
+     * @return The columns of the csv file, or an empty array if the file is empty
+     */
+    Series<?>[] readColumns(List<String> lost){
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)){
+            long fileSize = channel.size();
+            if (fileSize == 0){
+                this.rowsRead = 0;
+                return new Series[0];
+            }
+
+            // The column names
+            long headerEnd = findLineEnd(channel, 0, fileSize);
+            String [] columnNames = CsvReader.splitLine(readText(channel, 0, headerEnd), -1);
+            long dataStart = Math.min(headerEnd + 1, fileSize);
+
+            int [] returned = reader.columnsReturned(columnNames);
+            this.scanFilter = (reader.getFilter() == null)? null : new ScanFilter(reader.getFilter(), columnNames);
+            this.read = CsvReader.columnsRead(columnNames.length, returned, this.scanFilter);
+            this.lastRead = CsvReader.lastRead(this.read);
+
+            // The first records decide the data type of each column
+            List<String[]> sample = reader.needsSample(columnNames, this.read)? readSample(channel, dataStart, fileSize, columnNames.length) : new ArrayList<>();
+            ColumnBuffer[] typed = reader.createBuffers(columnNames, sample, this.read);
+            String [] types = new String[columnNames.length];
+            boolean [] fixed = new boolean[columnNames.length];
+            for (int j = 0; j < types.length; j++){
+                if (typed[j] == null)
+                    continue;
+                types[j] = typed[j].getType();
+                fixed[j] = typed[j].isFixedType();
+            }
+
+            long [] bounds = findChunkBounds(channel, dataStart, fileSize);
+            ColumnBuffer[][] parts = parseChunks(channel, bounds, columnNames, types, fixed);
+
+            // Joins the chunks in file order
+            Series<?>[] columns = new Series[returned.length];
+            ColumnBuffer[] column = new ColumnBuffer[parts.length];
+            int rows = 0;
+            for (int c = 0; c < returned.length; c++){
+                int j = returned[c];
+                for (int k = 0; k < parts.length; k++)
+                    column[k] = parts[k][j];
+                ColumnBuffer joined = ColumnBuffer.concat(column);
+                columns[c] = joined.toSeries(columnNames[j]);
+                if (joined.isTextLost())
+                    lost.add(columnNames[j]);
+                rows = joined.getSize();
+            }
+
+            this.rowsRead = rows;
+            return columns;
+        } catch (IOException e){
+            throw new UncheckedIOException("Unable to read the file \"" + file.getPath() + "\".", e);
+        }
+    }
+
+    int getRowsRead(){
+        return this.rowsRead;
+    }
+
+// ===================================================================================================================================
+//  CHUNKS
+
+    /**
+     * Splits the records into chunks which start right after a line break.
+     * @return The start of each chunk, followed by the end of the file
+     */
+    private long[] findChunkBounds(FileChannel channel, long dataStart, long fileSize) throws IOException {
+        long dataSize = fileSize - dataStart;
+
+        int chunkCount = (int) Math.max(1, Math.min(threads, dataSize / MIN_CHUNK_SIZE));
+        chunkCount = (int) Math.max(chunkCount, (dataSize + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+
+        long [] bounds = new long[chunkCount + 1];
+        bounds[0] = dataStart;
+        bounds[chunkCount] = fileSize;
+        for (int k = 1; k < chunkCount; k++){
+            long estimate = dataStart + (dataSize / chunkCount) * k;
+            long start = (estimate <= bounds[k - 1])? bounds[k - 1] : Math.min(findLineEnd(channel, estimate, fileSize) + 1, fileSize);
+            bounds[k] = start;
+        }
+
+        return bounds;
+    }
+
+    private ColumnBuffer[][] parseChunks(FileChannel channel, long [] bounds, String [] columnNames, String [] types, boolean [] fixed) throws IOException {
+        int chunkCount = bounds.length - 1;
+        ColumnBuffer[][] parts = new ColumnBuffer[chunkCount][];
+
+        if (chunkCount == 1){
+            parts[0] = parseChunk(channel, bounds[0], bounds[1], columnNames, types, fixed);
+            return parts;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, chunkCount));
+        try {
+            List<Callable<ColumnBuffer[]>> tasks = new ArrayList<>(chunkCount);
+            for (int k = 0; k < chunkCount; k++){
+                long start = bounds[k];
+                long end = bounds[k + 1];
+                tasks.add(() -> parseChunk(channel, start, end, columnNames, types, fixed));
+            }
+
+            List<Future<ColumnBuffer[]>> results = pool.invokeAll(tasks);
+            for (int k = 0; k < chunkCount; k++)
+                parts[k] = results.get(k).get();
+            return parts;
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reading the file \"" + file.getPath() + "\" was interrupted.", e);
+        } catch (ExecutionException e){
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            throw new IllegalStateException(cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Parses every record of a chunk into a new set of ColumnBuffers, one per column read
+     * @param chunkStart Position of the first byte of the chunk in the file
+     * @param chunkEnd Position right after the last byte of the chunk
+     */
+    private ColumnBuffer[] parseChunk(FileChannel channel, long chunkStart, long chunkEnd, String [] columnNames, String [] types, boolean [] fixed) throws IOException {
+        int columnSize = columnNames.length;
+        int length = (int) (chunkEnd - chunkStart);
+
+        ColumnBuffer[] buffers = new ColumnBuffer[columnSize];
+        for (int j = 0; j < columnSize; j++){
+            if (this.read[j])
+                buffers[j] = new ColumnBuffer(types[j], fixed[j], Math.max(16, length / (8 * columnSize)));
+        }
+
+        if (length == 0)
+            return buffers;
+
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, length);
+        int position = 0;
+        int records = 0;
+        int evaluated = 0;
+        while (position < length){
+            int lineEnd = position;
+            while (lineEnd < length && buffer.get(lineEnd) != '\n')
+                lineEnd++;
+
+            // Removes the carriage return left by files saved with Windows line endings
+            int end = lineEnd;
+            if (end > position && buffer.get(end - 1) == '\r')
+                end--;
+
+            if (end > position){
+                int fieldStart = position;
+                for (int j = 0; j <= this.lastRead; j++){
+                    // Missing fields at the end of the record are stored as null
+                    if (fieldStart > end){
+                        if (this.read[j])
+                            buffers[j].appendNull();
+                        continue;
+                    }
+
+                    int fieldEnd = fieldStart;
+                    while (fieldEnd < end && buffer.get(fieldEnd) != ',')
+                        fieldEnd++;
+                    if (!this.read[j]){
+                        fieldStart = fieldEnd + 1;
+                        continue;
+                    }
+
+                    try {
+                        buffers[j].append(buffer, fieldStart, fieldEnd);
+                    } catch (RuntimeException e){
+                        throw new IllegalArgumentException("Unable to read the value \"" + ColumnBuffer.decode(buffer, fieldStart, fieldEnd) + "\" of the column \""
+                                                            + columnNames[j] + "\" at byte " + (chunkStart + fieldStart) + " as a " + buffers[j].getType() + ".", e);
+                    }
+                    fieldStart = fieldEnd + 1;
+                }
+
+                if (this.scanFilter != null && ++records % ScanFilter.BATCH == 0)
+                    evaluated = this.scanFilter.apply(buffers, evaluated);
+            }
+
+            position = lineEnd + 1;
+        }
+
+        if (this.scanFilter != null)
+            this.scanFilter.apply(buffers, evaluated);
+        return buffers;
+    }
+
+// ===================================================================================================================================
+//  SCANNING
+
+    /**
+     * Looks for the next line break starting from the given position
+     * @return Position of the line break, or the file size if the last line has none
+     */
+    private static long findLineEnd(FileChannel channel, long from, long fileSize) throws IOException {
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = from;
+
+        while (position < fileSize){
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0)
+                break;
+
+            for (int i = 0; i < read; i++){
+                if (scan.get(i) == '\n')
+                    return position + i;
+            }
+            position += read;
+        }
+
+        return fileSize;
+    }
+
+    /**
+     * Reads the first non-empty records after the header, split into fields
+     * @param columnSize Number of fields per record
+     * @return At most CsvReader.getSampleRows() records
+     */
+    private List<String[]> readSample(FileChannel channel, long dataStart, long fileSize, int columnSize) throws IOException {
+        List<String[]> sample = new ArrayList<>();
+        int sampleRows = reader.getSampleRows();
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = dataStart;
+
+        while (position < fileSize && sample.size() < sampleRows){
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0)
+                break;
+
+            for (int i = 0; i < read && sample.size() < sampleRows; i++){
+                byte b = scan.get(i);
+                if (b != '\n')
+                    line.write(b);
+                else
+                    addSampleLine(sample, line, columnSize);
+            }
+            position += read;
+        }
+
+        // The last line of the file may have no line break
+        if (position >= fileSize && sample.size() < sampleRows)
+            addSampleLine(sample, line, columnSize);
+        return sample;
+    }
+
+    private static void addSampleLine(List<String[]> sample, ByteArrayOutputStream line, int columnSize){
+        String text = new String(line.toByteArray(), StandardCharsets.UTF_8);
+        line.reset();
+        if (isBlank(text))
+            return;
+
+        String [] fields = new String[columnSize];
+        CsvReader.splitLine(text, fields);
+        sample.add(fields);
+    }
+
+    /**
+     * Reads a line of the file as text, without its line break
+     */
+    private static String readText(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer text = ByteBuffer.allocate((int) (end - start));
+        long position = start;
+        while (text.hasRemaining()){
+            int read = channel.read(text, position);
+            if (read <= 0)
+                break;
+            position += read;
+        }
+        return new String(text.array(), 0, text.position(), StandardCharsets.UTF_8);
+    }
+
+    private static boolean isBlank(String line){
+        return line.isEmpty() || line.equals("\r");
+    }
+}
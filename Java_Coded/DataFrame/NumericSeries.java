@@ -0,0 +1,267 @@
+package DataFrame;
+
+import java.util.Arrays;
+
+import VectorMath.VectorMath;
+
+/**
+ * Base class of the Series storing their numbers in a primitive array (FloatSeries, DoubleSeries, ShortSeries,
+ * IntSeries and LongSeries) instead of one boxed object per element.
+ *
+ * Missing values are kept in the null bitmap of the Series, so the values themselves never need to be boxed.
+ * The unboxed accessors (getDouble(), getFloat()) let numeric loops run without allocating,
+ * and the reductions (sum(), mean(), min(), max()) run over the primitive values with SIMD instructions (see VectorMath).
+ * fillNa() and impute() replace the missing values in bulk, reading the null bitmap a word of 64 elements at a time.
+ */
+public abstract class NumericSeries<DataType extends Number> extends Series<DataType> {
+
+    // Operations of reduce()
+    protected static final int REDUCE_SUM = 0;
+    protected static final int REDUCE_MIN = 1;
+    protected static final int REDUCE_MAX = 2;
+
+    // Number of elements copied at once by the default reduce()
+    private static final int REDUCTION_BLOCK = 1024;
+
+    protected NumericSeries(String type, String name, int size){
+        super(type, name, size);
+    }
+
+    protected NumericSeries(NumericSeries<DataType> source, int offset, int [] rowIndex, int size){
+        super(source, offset, rowIndex, size);
+    }
+
+    /**
+     * Gets an element of the Series as a double, without boxing it.
+     * @param index Index of where the data is located
+     * @return The element converted to a double. Null elements are returned as 0.
+     */
+    public abstract double getDouble(int index);
+
+    /**
+     * Copies a range of elements into an array of doubles, without boxing them.
+     * Null elements are copied as 0, use isNull() to tell them apart.
+     * @param startIndex Index of the first element to be copied
+     * @param length Number of elements to be copied
+     * @param destination The array receiving the elements
+     * @param destinationOffset Position of the first element in the destination
+     */
+    public void getDoubles(int startIndex, int length, double [] destination, int destinationOffset){
+        if (length == 0)
+            return;
+        checkRange(startIndex, startIndex + length - 1);
+        for (int i = 0; i < length; i++)
+            destination[destinationOffset + i] = getDouble(startIndex + i);
+    }
+
+    /**
+     * Gets an element of the Series as a float, without boxing it.
+     * @param index Index of where the data is located
+     * @return The element converted to a float. Null elements are returned as 0.
+     */
+    public float getFloat(int index){
+        return (float) getDouble(index);
+    }
+
+    /**
+     * Copies a range of elements into an array of floats, without boxing them.
+     * Null elements are copied as 0, use isNull() to tell them apart.
+     * @param startIndex Index of the first element to be copied
+     * @param length Number of elements to be copied
+     * @param destination The array receiving the elements
+     * @param destinationOffset Position of the first element in the destination
+     * @param destinationStride Distance between two elements in the destination, such as the row length of a row-major matrix
+     */
+    public void getFloats(int startIndex, int length, float [] destination, int destinationOffset, int destinationStride){
+        if (length == 0)
+            return;
+        checkRange(startIndex, startIndex + length - 1);
+        for (int i = 0; i < length; i++)
+            destination[destinationOffset + i * destinationStride] = getFloat(startIndex + i);
+    }
+
+// ===================================================================================================================================
+//  MISSING VALUES
+
+    /**
+     * Replaces the missing values by a number (see Series.fillNa()). Integral Series round it to the nearest integer.
+     *
+     * Example:
+     * NumericSeries<?> bedrooms = ((NumericSeries<?>) df.select("total_bedrooms")).fillNa(0);
+     *
+     * @param value The value of the missing elements
+     * @return A new Series of the same type without missing values, or a view of this one if it has none
+     */
+    @SuppressWarnings("unchecked")
+    public NumericSeries<DataType> fillNa(double value){
+        if (!hasNulls())
+            return (NumericSeries<DataType>) view();
+
+        NumericSeries<DataType> result = (NumericSeries<DataType>) duplicate();
+        result.fillNulls(value);
+        result.nulls = null;
+        return result;
+    }
+
+    /**
+     * Replaces the missing values by a statistic of the values present
+     *
+     * Example:
+     * NumericSeries<?> bedrooms = ((NumericSeries<?>) df.select("total_bedrooms")).impute("median");
+     *
+     * @param strategy "mean" or "median"
+     * @return A new Series of the same type without missing values, or a view of this one if it has none
+     */
+    public NumericSeries<DataType> impute(String strategy){
+        double value;
+        if ("mean".equals(strategy))
+            value = mean();
+        else if ("median".equals(strategy))
+            value = median();
+        else
+            throw new IllegalArgumentException("The parameter \"strategy\" must be \"mean\" or \"median\".");
+
+        if (Double.isNaN(value) && hasNulls())
+            throw new IllegalArgumentException("Unable to impute the column \"" + getName() + "\" as it has no value.");
+        return fillNa(value);
+    }
+
+    @Override
+    protected void fillNulls(DataType value){
+        fillNulls(value.doubleValue());
+    }
+
+    /**
+     * Writes a number at every position marked in the null bitmap (see Series.fillNulls())
+     */
+    protected abstract void fillNulls(double value);
+
+    /**
+     * Rounds a number written into an integral Series, checking that it fits
+     * @param min The smallest value of the Series' type
+     * @param max The largest value of the Series' type
+     */
+    protected static long round(double value, long min, long max){
+        if (!(value >= min && value <= max))
+            throw new IllegalArgumentException("The value " + value + " is out of the range of the Series.");
+        return Math.round(value);
+    }
+
+// ===================================================================================================================================
+//  REDUCTIONS
+
+    /**
+     * Sums the elements of the Series, skipping the missing values
+     */
+    public double sum(){
+        return reduce(REDUCE_SUM);
+    }
+
+    /**
+     * Averages the elements of the Series, skipping the missing values
+     * @return The mean, or NaN if the Series has no value
+     */
+    public double mean(){
+        int count = this.size - countNulls();
+        return (count == 0)? Double.NaN : sum() / count;
+    }
+
+    /**
+     * Finds the smallest element of the Series, skipping the missing values
+     * @return The minimum, or NaN if the Series has no value
+     */
+    public double min(){
+        return (this.size == countNulls())? Double.NaN : reduce(REDUCE_MIN);
+    }
+
+    /**
+     * Finds the largest element of the Series, skipping the missing values
+     * @return The maximum, or NaN if the Series has no value
+     */
+    public double max(){
+        return (this.size == countNulls())? Double.NaN : reduce(REDUCE_MAX);
+    }
+
+    /**
+     * Finds the middle element of the Series, skipping the missing values
+     * @return The median (the mean of the two middle elements for an even count), or NaN if the Series has no value
+     */
+    public double median(){
+        double [] values = presentValues();
+        if (values.length == 0)
+            return Double.NaN;
+
+        Arrays.sort(values);
+        int middle = values.length >>> 1;
+        return ((values.length & 1) == 1)? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+
+    /**
+     * Copies the values present into an array of doubles. Words of the validity bitmap without a missing value
+     * are copied at once, the others one set bit at a time.
+     */
+    private double[] presentValues(){
+        double [] result = new double[this.size - countNulls()];
+        double [] block = new double[Math.min(this.size, REDUCTION_BLOCK)];
+        long [] valid = new long[Bitmap.words(REDUCTION_BLOCK)];
+        int count = 0;
+
+        for (int start = 0; start < this.size; start += REDUCTION_BLOCK){
+            int length = Math.min(REDUCTION_BLOCK, this.size - start);
+            getDoubles(start, length, block, 0);
+            getValidity(start, length, valid);
+
+            for (int w = 0; w < Bitmap.words(length); w++){
+                int first = w << 6;
+                if (valid[w] == -1L){
+                    System.arraycopy(block, first, result, count, 64);
+                    count += 64;
+                } else {
+                    for (long bits = valid[w]; bits != 0; bits &= bits - 1)
+                        result[count++] = block[first + Long.numberOfTrailingZeros(bits)];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Runs a reduction over every element, skipping the missing values.
+     * The elements are copied into blocks of doubles, where the missing values are replaced by
+     * the neutral value of the operation. Subclasses holding doubles or floats reduce their array in place instead.
+     * @param operation REDUCE_SUM, REDUCE_MIN or REDUCE_MAX
+     */
+    protected double reduce(int operation){
+        double neutral = (operation == REDUCE_MIN)? Double.POSITIVE_INFINITY
+                       : (operation == REDUCE_MAX)? Double.NEGATIVE_INFINITY : 0;
+        double [] block = new double[Math.min(this.size, REDUCTION_BLOCK)];
+        long [] valid = new long[Bitmap.words(REDUCTION_BLOCK)];
+        boolean nulls = hasNulls();
+        double result = neutral;
+
+        for (int start = 0; start < this.size; start += REDUCTION_BLOCK){
+            int length = Math.min(REDUCTION_BLOCK, this.size - start);
+            getDoubles(start, length, block, 0);
+            if (nulls){
+                // Only the missing values are visited, a word of the validity bitmap at a time
+                getValidity(start, length, valid);
+                for (int w = 0; w < Bitmap.words(length); w++){
+                    for (long missing = ~valid[w]; missing != 0; missing &= missing - 1){
+                        int i = (w << 6) + Long.numberOfTrailingZeros(missing);
+                        if (i >= length)
+                            break;
+                        block[i] = neutral;
+                    }
+                }
+            }
+
+            if (operation == REDUCE_MIN)
+                result = Math.min(result, VectorMath.min(block, 0, length));
+            else if (operation == REDUCE_MAX)
+                result = Math.max(result, VectorMath.max(block, 0, length));
+            else
+                result += VectorMath.sum(block, 0, length);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+package DataFrame;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import MachineLearningExceptions.*;
+
+/**
+ * A filter pushed down into the reading of a csv file (see CsvReader.setFilter()).
+ *
+ * Every BATCH records, the columns read by the filter are turned into Series holding the new rows only (see ColumnBuffer.peek()),
+ * the filter is evaluated on them, and the rows it rejects are dropped from every ColumnBuffer (see ColumnBuffer.retain()).
+ * The buffers thus never hold more than the kept rows and one batch, and the kept rows are never copied into a second DataFrame.
+ *
+ * It holds no state between batches, so the threads of a MappedCsvParser share the same ScanFilter.
+ */
+final class ScanFilter {
+
+    // Number of records read between two evaluations of the filter, a multiple of 64
+    static final int BATCH = 4096;
+
+    private final Filter filter;
+
+    // Positions of the columns read by the filter among the columns of the file, and their names
+    private final int [] columns;
+    private final String [] names;
+
+    /**
+     * @param filter The filter to be evaluated
+     * @param columnNames Names of the columns of the file
+     */
+    ScanFilter(Filter filter, String [] columnNames){
+        Set<String> used = new LinkedHashSet<>();
+        filter.addColumns(used);
+
+        this.filter = filter;
+        this.columns = new int[used.size()];
+        this.names = used.toArray(new String[0]);
+        for (int k = 0; k < this.names.length; k++)
+            this.columns[k] = indexOf(columnNames, this.names[k]);
+    }
+
+    /**
+     * Gets the position of a column in the header of a file
+     * @throws UnknownColumnException if the file has no such column
+     */
+    static int indexOf(String [] columnNames, String name){
+        for (int j = 0; j < columnNames.length; j++){
+            if (columnNames[j].equals(name))
+                return j;
+        }
+        throw new UnknownColumnException("The column \"" + name + "\" doesn't exist in the file.");
+    }
+
+    /**
+     * Gets the positions of the columns read by the filter, which have to be read even when they are not kept
+     */
+    int[] getColumns(){
+        return this.columns;
+    }
+
+    /**
+     * Evaluates the filter on the rows [start, size) of the buffers and drops the rows it rejects
+     * @param buffers The buffers of the columns of the file, null for the columns that are not read
+     * @param start Index of the first row not evaluated yet
+     * @return The number of rows left in the buffers
+     */
+    int apply(ColumnBuffer[] buffers, int start){
+        int length = buffers[this.columns[0]].getSize() - start;
+        if (length == 0)
+            return start;
+
+        Series<?>[] batch = new Series[this.columns.length];
+        for (int k = 0; k < batch.length; k++)
+            batch[k] = buffers[this.columns[k]].peek(this.names[k], start);
+
+        long [] keep = new long[Bitmap.words(length)];
+        this.filter.bind(new DataFrame(batch, false)).evaluate(0, length, keep);
+        for (ColumnBuffer buffer : buffers){
+            if (buffer != null)
+                buffer.retain(keep, start);
+        }
+        return buffers[this.columns[0]].getSize();
+    }
+
+    @Override
+    public String toString(){
+        return this.filter.toString();
+    }
+}
@@ -1,242 +1,564 @@
-package DataFrame;
-
-import MachineLearningExceptions.*;
-import java.lang.reflect.Array;
-import java.util.Arrays;
-
-public class Series<DataType>{
-
-    // Main Method used to test if the Series works as intended.
-    public static void main(String [] args){
-        System.out.println("Hello World");
-
-        String [] tempList = {"5", "4", "3", "2", "1", "1","5.1","3.5","1.4","0.2"};
-        Series<Float> set = new Series<Float>("Float", tempList.length, "Sample");
-        
-        for (int i = 0; i < tempList.length; i++)
-            set.addItem(Float.parseFloat(tempList[i]));
-        
-        // Series<Float> otherList = new Series<>(set);
-        Series<?> otherList = set.duplicate();
-        System.out.println(otherList.getIndex(3, 6));
-    }
-
-    // Used to determine the type of data stored.
-    private String type;
-
-    // Size of the Series.
-    // This is used when instantiating the DataType [] list array.
-    private int size;
-
-    // Current size while adding elements to the Series
-    // This is also essential when getting the index from a Series.
-    private int currentIndex;
-
-    // Column name, or name for the Series
-    private String name;
-
-    // The list of items to be stored
-    private DataType[] list;
-
-    public Series(){
-        this("noType", 0, "noName");
-    }
-
-    public Series(Series<DataType> other){
-        this.type = other.getType();
-        this.name = other.getName();
-        this.size = other.getSize();
-        this.currentIndex = other.currentIndex;
-        this.list = Arrays.copyOf(other.list, other.list.length);
-    }
-
-    public Series(DataType[] data, String type, String name){
-        this.type = type;
-        this.name = name;
-        this.size = data.length;
-        this.currentIndex = data.length;
-        this.list = Arrays.copyOf(data, data.length);
-    }
-
-    public Series(String type, int size, String name){
-        try {
-            if (size < 0)
-                throw new IllegalArgumentException("Size must be a positive value");
-            setList(size);   
-            setType(type);
-            setSize(size);
-            setName(name);
-            this.currentIndex = 0;
-            this.list = createArray(size);
-        } catch (Exception e){
-            System.err.println(e);
-        }
-
-    }
-
-    /**
-     * Creates an empty array given a specific size
-     * @param size Size of the array to be made
-     * @return An array with the same DataType as the Series<> object 
-     */
-    @SuppressWarnings("unchecked")
-    private DataType[] createArray(int size){
-        if (size > 0)
-            return (DataType[]) Array.newInstance(list.getClass().getComponentType(), size);
-        return (DataType[]) Array.newInstance(Object.class, size);
-    }
-
-    /**
-     * Creates an empty array given a specific size
-     * @param data A reference array with a set DataType to be used when creating the empty array
-     * @return An array with the same DataType as the data variable/array.
-     */
-    @SuppressWarnings("unchecked")
-    private DataType[] createArray(DataType [] data){
-        if (data != null)
-            return (DataType[]) Array.newInstance(data.getClass().getComponentType(), data.length);
-        return (DataType[]) Array.newInstance(Object.class, data.length);
-    }
-
-    /**
-     * Adds a new value to the DataFrame
-     * @param item It is an object to be added to the Series
-     */
-    public void addItem(DataType item){
-        if (this.currentIndex == this.size)
-            throw new SeriesOverflowException("Max set size reached.");
-        else if (item == null){
-            this.list[currentIndex++] =  (DataType) item;
-            return;
-        } else if (item instanceof DataType == false)
-            throw new IllegalArgumentException("The " + getName() + " Series only accept items of the type: " + getType());
-        this.list[currentIndex++] =  (DataType) item;
-    }
-
-    /**
-     * Make a duplicate deep copy of a Series
-     * @return A copy of a specific Series
-     */
-    public Series<DataType> duplicate(){
-        return new Series<DataType>(this);
-    }
-    
-    @Override
-    /**
-     * Returns a string representation of the object
-     * Heavily relies on the currentIndex variable.
-     */
-    public String toString(){
-        String resultString = "[ ";
-
-        for (int i = 0; i < currentIndex; i++){
-            resultString += this.list[i].toString() + " ";
-
-            if (i != this.currentIndex - 1)
-                resultString += ", ";
-        }
-
-        return resultString += "]";
-    }
-
-// ===================================================================================================================================
-//  SETTERS
-
-    private void setType(String type){
-        this.type = type;
-    }
-
-    private void setSize(int size){
-        this.size = size;
-    }
-
-    public void setName(String name){
-        this.name = name;
-    }
-
-    private void setList(int size){
-        this.list = (DataType[]) new Object[size];
-    }
-
-// ===================================================================================================================================
-//  GETTERS
-
-    @SuppressWarnings("unchecked")
-    private DataType[] getList(){
-        return (DataType[]) Arrays.copyOf(this.list, list.length);
-    }
-
-    public String getName(){
-        return this.name;
-    }
-
-    public String getType(){
-        return this.type;
-    }
-
-    public int getSize(){
-        return this.size;
-    }
-
-    /**
-     * 
-     * @param index Index of where the data is located
-     * @return A Series containing the singular data, type, and name of the series
-     */
-    public Series<DataType> getIndex(int index){
-        int resolvedIndex = index;
-
-        if (index < 0)
-            resolvedIndex = this.size - index;
-
-        if (resolvedIndex < 0 || resolvedIndex >= this.size)
-            throw new IllegalArgumentException("The parameter index must be within the size of the Series");
-        
-        DataType[] result = createArray(1);
-        result[0] = this.list[resolvedIndex];
-        return new Series<>(result, this.type, this.name);
-    }
-
-    /**
-     * Method to get a singular element from the Series, returned as a standalone element
-     * @param index Index of where the data is located
-     * @return A Series containing the singular data, type, and name of the series
-     */
-    public DataType getIndex_DataType(int index){
-        int resolvedIndex = index;
-
-        if (index < 0)
-            resolvedIndex = this.size - index;
-
-        if (resolvedIndex < 0 || resolvedIndex >= this.size)
-            throw new IllegalArgumentException("The parameter index must be within the size of the Series");
-        
-        return (DataType) this.list[resolvedIndex];
-    }
-
-    /**
-     * Gets a subset of the Series from its startIndex to its endIndex
-     * 
-     * Example:
-     * Series<> series = new Series(new Object[] {1, 2, 3, 4, 5, 6}, "Integer", "Number List");
-     * Series<> newSeries = series.getIndex(0, 3)       // Gets the elements of the series from index 0 to 3.
-     * System.out.println(newSeries)                    // Returns [ 1, 2, 3, 4 ]
-     * 
-     * @param startIndex    The starting row to be included in the subset 
-     * @param endIndex      The last row to be included in the subset (Inclusive)
-     * @return              A new Series object containing the rows from the start to end index
-     */
-    public Series<DataType> getIndex(int startIndex, int endIndex){
-        DataType[] newList = createArray(endIndex - startIndex + 1);
-        
-        if (startIndex >= currentIndex || startIndex > endIndex)
-            throw new IllegalArgumentException("The parameter \"startIndex\" must be less than the object size and less than the endIndex.");
-        else if (endIndex >= currentIndex)
-            throw new IllegalArgumentException("The parameter \"endIndex\" must be less than the object size.");
-
-        for (int i = startIndex; i <= endIndex; i++)
-            newList[i - startIndex] = this.list[i];
-
-        return new Series<DataType>(newList, this.type, this.name);
-    }
-}
\ No newline at end of file
+package DataFrame;
+
+import MachineLearningExceptions.*;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+public class Series<DataType>{
+
+    // Main Method used to test if the Series works as intended.
+    public static void main(String [] args){
+        System.out.println("Hello World");
+
+        String [] tempList = {"5", "4", "3", "2", "1", "1","5.1","3.5","1.4","0.2"};
+        Series<Float> set = new Series<Float>("Float", tempList.length, "Sample");
+        
+        for (int i = 0; i < tempList.length; i++)
+            set.addItem(Float.parseFloat(tempList[i]));
+        
+        // Series<Float> otherList = new Series<>(set);
+        Series<?> otherList = set.duplicate();
+        System.out.println(otherList.getIndex(3, 6));
+    }
+
+    // Used to determine the type of data stored.
+    private String type;
+
+    // Size of the Series.
+    // This is used when instantiating the DataType [] list array.
+    protected int size;
+
+    // Current size while adding elements to the Series
+    // This is also essential when getting the index from a Series.
+    protected int currentIndex;
+
+    // Column name, or name for the Series
+    private String name;
+
+    // The list of items to be stored
+    private DataType[] list;
+
+    // A set bit marks a null value. Left as null while the Series has no missing values.
+    // Every Series keeps one, whatever the storage of its values, so missing values are found a word of 64 rows at a time (see getValidity()).
+    protected long [] nulls;
+
+    // Whether a view has missing values: 0 if unknown yet, 1 if it does, -1 if it does not
+    private int viewNulls;
+
+    // Largest number of elements written by toString()
+    public static final int MAX_PRINTED_ELEMENTS = 100;
+
+    // Number of elements whose validity bitmap is read at once by countNulls()
+    private static final int VALIDITY_BLOCK = 4096;
+
+    // Views share the storage (list or primitive array) of another Series instead of copying it.
+    // Element i of a view is stored at rowIndex[offset + i] when the view has a row index, or at offset + i otherwise.
+    protected int offset;
+    protected int [] rowIndex;
+    private boolean view;
+
+    public Series(){
+        this("noType", 0, "noName");
+    }
+
+    @SuppressWarnings("unchecked")
+    public Series(Series<DataType> other){
+        this.type = other.getType();
+        this.name = other.getName();
+        this.size = other.getSize();
+        this.currentIndex = other.currentIndex;
+
+        if (other.list != null && !other.isView())
+            this.list = Arrays.copyOf(other.list, other.list.length);
+        else {
+            // Views and primitive Series are copied element by element
+            this.list = (DataType[]) new Object[other.size];
+            for (int i = 0; i < other.currentIndex; i++)
+                this.list[i] = other.getIndex_DataType(i);
+        }
+        this.nulls = other.copyNulls(0, other.size);
+    }
+
+    public Series(DataType[] data, String type, String name){
+        this.type = type;
+        this.name = name;
+        this.size = data.length;
+        this.currentIndex = data.length;
+        this.list = Arrays.copyOf(data, data.length);
+
+        for (int i = 0; i < data.length; i++){
+            if (data[i] == null){
+                if (this.nulls == null)
+                    this.nulls = new long[Bitmap.words(data.length)];
+                Bitmap.set(this.nulls, i);
+            }
+        }
+    }
+
+    /**
+     * Used by the primitive Series (FloatSeries, IntSeries, ...) which keep their values
+     * in their own arrays instead of the DataType [] list.
+     */
+    protected Series(String type, String name, int size){
+        if (size < 0)
+            throw new IllegalArgumentException("Size must be a positive value");
+        this.type = type;
+        this.name = name;
+        this.size = size;
+        this.currentIndex = 0;
+        this.list = null;
+    }
+
+    /**
+     * Creates a view sharing the storage of another Series. Used by createView().
+     * @param source The Series whose storage is shared
+     * @param offset Position of the first element, within the row index if there is one
+     * @param rowIndex Positions of the view's elements in the storage, or null if they are contiguous
+     * @param size Number of elements of the view
+     */
+    protected Series(Series<DataType> source, int offset, int [] rowIndex, int size){
+        this.type = source.type;
+        this.name = source.name;
+        this.size = size;
+        this.currentIndex = size;
+        this.list = source.list;
+        this.nulls = source.nulls;
+        this.offset = offset;
+        this.rowIndex = rowIndex;
+        this.view = true;
+    }
+
+    public Series(String type, int size, String name){
+        try {
+            if (size < 0)
+                throw new IllegalArgumentException("Size must be a positive value");
+            setList(size);   
+            setType(type);
+            setSize(size);
+            setName(name);
+            this.currentIndex = 0;
+            this.list = createArray(size);
+        } catch (Exception e){
+            System.err.println(e);
+        }
+
+    }
+
+    /**
+     * Creates an empty array given a specific size
+     * @param size Size of the array to be made
+     * @return An array with the same DataType as the Series<> object 
+     */
+    @SuppressWarnings("unchecked")
+    private DataType[] createArray(int size){
+        if (size > 0)
+            return (DataType[]) Array.newInstance(list.getClass().getComponentType(), size);
+        return (DataType[]) Array.newInstance(Object.class, size);
+    }
+
+    /**
+     * Creates an empty array given a specific size
+     * @param data A reference array with a set DataType to be used when creating the empty array
+     * @return An array with the same DataType as the data variable/array.
+     */
+    @SuppressWarnings("unchecked")
+    private DataType[] createArray(DataType [] data){
+        if (data != null)
+            return (DataType[]) Array.newInstance(data.getClass().getComponentType(), data.length);
+        return (DataType[]) Array.newInstance(Object.class, data.length);
+    }
+
+    /**
+     * Adds a new value to the DataFrame
+     * @param item It is an object to be added to the Series
+     */
+    public void addItem(DataType item){
+        if (this.currentIndex == this.size)
+            throw new SeriesOverflowException("Max set size reached.");
+        else if (item == null){
+            addNull();
+            return;
+        } else if (item instanceof DataType == false)
+            throw new IllegalArgumentException("The " + getName() + " Series only accept items of the type: " + getType());
+        this.list[currentIndex++] =  (DataType) item;
+    }
+
+    /**
+     * Adds a missing value to the Series
+     */
+    public void addNull(){
+        if (this.currentIndex == this.size)
+            throw new SeriesOverflowException("Max set size reached.");
+        if (this.nulls == null)
+            this.nulls = new long[Bitmap.words(this.size)];
+        Bitmap.set(this.nulls, this.currentIndex++);
+    }
+
+    /**
+     * Make a duplicate deep copy of a Series
+     * @return A copy of a specific Series
+     */
+    public Series<DataType> duplicate(){
+        return new Series<DataType>(this);
+    }
+
+    /**
+     * Gets a view of the whole Series. The view shares the values of the Series instead of copying them,
+     * so it is cheap to make, but its own name can still be changed.
+     * Call duplicate() for an independent copy.
+     * @return A view of the elements added so far
+     */
+    public Series<DataType> view(){
+        return createView(this.offset, this.rowIndex, this.currentIndex);
+    }
+
+    /**
+     * Gets a view of the rows rows[start, start + length), in that order.
+     * When the Series is not a view of some of its rows, the array itself becomes the row index of the view,
+     * so views over the same permutation share it and nothing is allocated per column. It must not change afterwards.
+     * @param rows Indices of the rows, which may repeat
+     * @param start Position of the first row in the array
+     * @param length Number of rows
+     * @return A view sharing the values of the Series
+     */
+    Series<DataType> view(int [] rows, int start, int length){
+        if (this.rowIndex == null && this.offset == 0)
+            return createView(start, rows, length);
+
+        int [] positions = new int[length];
+        for (int i = 0; i < length; i++)
+            positions[i] = locate(rows[start + i]);
+        return createView(0, positions, length);
+    }
+
+    /**
+     * Creates a view sharing the storage of the Series. Each subclass returns a view of its own type.
+     * @param offset Position of the first element, within the row index if there is one
+     * @param rowIndex Positions of the view's elements in the storage, or null if they are contiguous
+     * @param size Number of elements of the view
+     */
+    protected Series<DataType> createView(int offset, int [] rowIndex, int size){
+        return new Series<DataType>(this, offset, rowIndex, size);
+    }
+    
+    @Override
+    /**
+     * Returns a string representation of the object, with at most MAX_PRINTED_ELEMENTS elements
+     * Heavily relies on the currentIndex variable.
+     */
+    public String toString(){
+        int printed = Math.min(this.currentIndex, MAX_PRINTED_ELEMENTS);
+        StringBuilder builder = new StringBuilder(16 + printed * 8);
+        builder.append("[ ");
+
+        for (int i = 0; i < printed; i++){
+            appendTo(builder, i);
+            builder.append(' ');
+
+            if (i != this.currentIndex - 1)
+                builder.append(", ");
+        }
+
+        if (printed < this.currentIndex)
+            builder.append("... (").append(this.currentIndex - printed).append(" more) ");
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Appends the text of an element to a StringBuilder, as "null" for a missing value.
+     * Primitive Series append their values directly, without boxing them.
+     * @param builder The StringBuilder receiving the text
+     * @param index Index of where the data is located
+     */
+    public void appendTo(StringBuilder builder, int index){
+        builder.append(getIndex_DataType(index));
+    }
+
+// ===================================================================================================================================
+//  MISSING VALUES
+
+    /**
+     * Checks if the element at the given index is missing
+     * @param index Index of where the data is located
+     * @return true if the element is null
+     */
+    public boolean isNull(int index){
+        return this.nulls != null && Bitmap.get(this.nulls, locate(index));
+    }
+
+    /**
+     * Checks if the Series has at least one missing value
+     * @return true if the Series has a null value
+     */
+    public boolean hasNulls(){
+        if (this.nulls == null)
+            return false;
+        else if (!isView())
+            return true;
+
+        // A view may share the bitmap of a Series whose missing values are all out of its reach.
+        // Views never change, so the answer is only looked for once.
+        if (this.viewNulls == 0)
+            this.viewNulls = (countMissing() > 0)? 1 : -1;
+        return this.viewNulls == 1;
+    }
+
+    /**
+     * Counts the missing values of the Series
+     */
+    public int countNulls(){
+        return hasNulls()? countMissing() : 0;
+    }
+
+    /**
+     * Counts the clear bits of the validity bitmap, a word at a time
+     */
+    private int countMissing(){
+        long [] valid = new long[Bitmap.words(VALIDITY_BLOCK)];
+        int present = 0;
+        for (int start = 0; start < this.size; start += VALIDITY_BLOCK){
+            int length = Math.min(VALIDITY_BLOCK, this.size - start);
+            Bitmap.validity(this.nulls, this.offset + start, this.rowIndex, length, valid);
+            for (int w = 0; w < Bitmap.words(length); w++)
+                present += Long.bitCount(valid[w]);
+        }
+        return this.size - present;
+    }
+
+    /**
+     * Copies the validity bitmap of a range of elements: bit i of the destination is set when the element startIndex + i
+     * holds a value, and cleared when it is missing. The bits past the range are cleared too.
+     * Loops over the values can then test the bitmap once per word of 64 elements instead of once per element,
+     * since a word equal to -1L has no missing value at all.
+     *
+     * Example:
+     * long [] valid = new long[(length + 63) / 64];
+     * series.getValidity(start, length, valid);
+     * if (valid[0] == -1L)                     // The first 64 elements of the range are all present
+     *
+     * @param startIndex Index of the first element
+     * @param length Number of elements
+     * @param destination The array receiving the bitmap, of at least (length + 63) / 64 longs
+     */
+    public void getValidity(int startIndex, int length, long [] destination){
+        if (length == 0)
+            return;
+        checkRange(startIndex, startIndex + length - 1);
+        Bitmap.validity(this.nulls, this.offset + startIndex, this.rowIndex, length, destination);
+    }
+
+    /**
+     * Replaces the missing values by a constant, in bulk: the values are copied once, then only the positions marked
+     * in the null bitmap are written, a word of 64 elements at a time.
+     *
+     * Example:
+     * Series<?> filled = series.fillNa("unknown");      // [ "a", null, "b" ] becomes [ "a", "unknown", "b" ]
+     *
+     * @param value The value of the missing elements, of the type of the Series
+     * @return A new Series without missing values, or a view of this one if it has none
+     */
+    public Series<DataType> fillNa(DataType value){
+        if (value == null)
+            throw new IllegalArgumentException("The parameter \"value\" is null.");
+        else if (!getTypeClass().isInstance(value))
+            throw new IllegalArgumentException("The " + getName() + " Series only accept items of the type: " + getType());
+        else if (!hasNulls())
+            return view();
+
+        Series<DataType> result = duplicate();
+        result.fillNulls(value);
+        result.nulls = null;
+        return result;
+    }
+
+    /**
+     * Writes a value at every position marked in the null bitmap, visiting the set bits only.
+     * Called by fillNa() on a copy made by duplicate(), whose elements start at position 0. Each subclass writes into its own storage.
+     * @param value The value of the missing elements
+     */
+    protected void fillNulls(DataType value){
+        for (int w = 0; w < this.nulls.length; w++){
+            for (long bits = this.nulls[w]; bits != 0; bits &= bits - 1)
+                this.list[(w << 6) + Long.numberOfTrailingZeros(bits)] = value;
+        }
+    }
+
+    /**
+     * Removes the missing values
+     * @return A view of the elements holding a value, in their order
+     */
+    public Series<DataType> dropNa(){
+        if (!hasNulls())
+            return view();
+
+        long [] valid = new long[Bitmap.words(this.currentIndex)];
+        getValidity(0, this.currentIndex, valid);
+        int [] rows = Bitmap.positions(valid);
+        return view(rows, 0, rows.length);
+    }
+
+    /**
+     * Gets the null bitmap without copying it
+     * @return The bitmap, or null if the Series has no missing values
+     */
+    long[] getNulls(){
+        return this.nulls;
+    }
+
+    /**
+     * Copies the null bitmap of a range of elements, starting at bit 0
+     * @return The bitmap of the range, or null if the Series has no missing values
+     */
+    protected long[] copyNulls(int startIndex, int length){
+        return Bitmap.copyRange(this.nulls, this.offset + startIndex, this.rowIndex, length);
+    }
+
+// ===================================================================================================================================
+//  SETTERS
+
+    private void setType(String type){
+        this.type = type;
+    }
+
+    private void setSize(int size){
+        this.size = size;
+    }
+
+    public void setName(String name){
+        this.name = name;
+    }
+
+    private void setList(int size){
+        this.list = (DataType[]) new Object[size];
+    }
+
+// ===================================================================================================================================
+//  GETTERS
+
+    @SuppressWarnings("unchecked")
+    private DataType[] getList(){
+        return (DataType[]) Arrays.copyOf(this.list, list.length);
+    }
+
+    public String getName(){
+        return this.name;
+    }
+
+    public String getType(){
+        return this.type;
+    }
+
+    public int getSize(){
+        return this.size;
+    }
+
+
+    /**
+     * Gets the Java class of the elements stored in the Series, based on its type.
+     * Unlike calling getClass() on an element, this also works for Series containing null values.
+     * @return The class of the elements (i.e., class java.lang.Float for a "Float" Series)
+     */
+    public Class<?> getTypeClass(){
+        switch (this.type){
+            case "LocalDate":   return java.time.LocalDate.class;
+            case "LocalDateTime": return java.time.LocalDateTime.class;
+            case "Float":       return Float.class;
+            case "Double":      return Double.class;
+            case "Short":       return Short.class;
+            case "Integer":     return Integer.class;
+            case "Long":        return Long.class;
+            case "Boolean":     return Boolean.class;
+            case "Character":   return Character.class;
+            case "String":      return String.class;
+            default:            return Object.class;
+        }
+    }
+
+    /**
+     * Turns a negative index (counted from the end of the Series) into a positive one and checks its bounds.
+     * @param index Index of where the data is located
+     * @return The index within the Series
+     */
+    protected int resolveIndex(int index){
+        int resolvedIndex = index;
+
+        if (index < 0)
+            resolvedIndex = this.size + index;
+
+        if (resolvedIndex < 0 || resolvedIndex >= this.size)
+            throw new IllegalArgumentException("The parameter index must be within the size of the Series");
+        return resolvedIndex;
+    }
+
+    /**
+     * Checks if the Series shares the storage of another Series
+     * @return true if the Series was made by view() or getIndex(startIndex, endIndex)
+     */
+    boolean isView(){
+        return this.view;
+    }
+
+    /**
+     * Gets the position of an element in the storage of the Series
+     * @param index Index within the Series, which must already be resolved (see resolveIndex())
+     * @return The position in the list or primitive array
+     */
+    protected int position(int index){
+        return (this.rowIndex == null)? this.offset + index : this.rowIndex[this.offset + index];
+    }
+
+    /**
+     * Resolves an index (see resolveIndex()) and gets its position in the storage of the Series
+     */
+    protected int locate(int index){
+        return position(resolveIndex(index));
+    }
+
+    /**
+     * Checks the range used by getIndex(startIndex, endIndex)
+     */
+    protected void checkRange(int startIndex, int endIndex){
+        if (startIndex >= currentIndex || startIndex > endIndex || startIndex < 0)
+            throw new IllegalArgumentException("The parameter \"startIndex\" must be less than the object size and less than the endIndex.");
+        else if (endIndex >= currentIndex)
+            throw new IllegalArgumentException("The parameter \"endIndex\" must be less than the object size.");
+    }
+
+    /**
+     * 
+     * @param index Index of where the data is located
+     * @return A Series containing the singular data, type, and name of the series
+     */
+    public Series<DataType> getIndex(int index){
+        DataType[] result = createArray(1);
+        result[0] = this.list[locate(index)];
+        return new Series<>(result, this.type, this.name);
+    }
+
+    /**
+     * Method to get a singular element from the Series, returned as a standalone element
+     * @param index Index of where the data is located
+     * @return A Series containing the singular data, type, and name of the series
+     */
+    public DataType getIndex_DataType(int index){
+        return (DataType) this.list[locate(index)];
+    }
+
+    /**
+     * Gets a subset of the Series from its startIndex to its endIndex.
+     * The subset is a view sharing the values of the Series, so no element is copied.
+     * 
+     * Example:
+     * Series<> series = new Series(new Object[] {1, 2, 3, 4, 5, 6}, "Integer", "Number List");
+     * Series<> newSeries = series.getIndex(0, 3)       // Gets the elements of the series from index 0 to 3.
+     * System.out.println(newSeries)                    // Returns [ 1, 2, 3, 4 ]
+     * 
+     * @param startIndex    The starting row to be included in the subset 
+     * @param endIndex      The last row to be included in the subset (Inclusive)
+     * @return              A view of the rows from the start to end index
+     */
+    public Series<DataType> getIndex(int startIndex, int endIndex){
+        checkRange(startIndex, endIndex);
+        return createView(this.offset + startIndex, this.rowIndex, endIndex - startIndex + 1);
+    }
+}
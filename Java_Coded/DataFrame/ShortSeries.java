@@ -0,0 +1,182 @@
+package DataFrame;
+
+import java.util.Arrays;
+
+import MachineLearningExceptions.*;
+
+/**
+ * A Series of Shorts backed by a primitive short [] array.
+ *
+ * Example:
+ * ShortSeries series = new ShortSeries(new short[] {1, 2, 3}, "Sample");
+ * short value = series.getShort(1);            // Returns 2 without boxing it
+ */
+public class ShortSeries extends NumericSeries<Short> {
+
+    // The list of items to be stored
+    private short [] values;
+
+    public ShortSeries(int size, String name){
+        super("Short", name, size);
+        this.values = new short[size];
+    }
+
+    public ShortSeries(short [] data, String name){
+        this(Arrays.copyOf(data, data.length), null, data.length, name);
+    }
+
+    public ShortSeries(ShortSeries other){
+        super("Short", other.getName(), other.getSize());
+        this.values = other.copyValues();
+        this.nulls = other.copyNulls(0, other.size);
+        this.currentIndex = other.currentIndex;
+    }
+
+    /**
+     * Wraps an already filled array without copying it.
+     * @param values The values of the Series
+     * @param nulls The null bitmap of the values, or null if there are no missing values
+     * @param size Number of elements stored in the values array
+     * @param name Name of the Series
+     */
+    ShortSeries(short [] values, long [] nulls, int size, String name){
+        super("Short", name, size);
+        this.values = values;
+        this.nulls = nulls;
+        this.currentIndex = size;
+    }
+
+    /**
+     * Creates a view sharing the values of another Series (see Series.createView())
+     */
+    private ShortSeries(ShortSeries source, int offset, int [] rowIndex, int size){
+        super(source, offset, rowIndex, size);
+        this.values = source.values;
+    }
+
+    /**
+     * Adds a new value to the Series
+     * @param item The value to be added, null values are stored in the null bitmap
+     */
+    @Override
+    public void addItem(Short item){
+        if (item == null)
+            addNull();
+        else
+            addShort(item.shortValue());
+    }
+
+    /**
+     * Adds a new value to the Series without boxing it
+     * @param value The value to be added
+     */
+    public void addShort(short value){
+        if (this.currentIndex == this.size)
+            throw new SeriesOverflowException("Max set size reached.");
+        this.values[this.currentIndex++] = value;
+    }
+
+    @Override
+    public ShortSeries duplicate(){
+        return new ShortSeries(this);
+    }
+
+    @Override
+    protected ShortSeries createView(int offset, int [] rowIndex, int size){
+        return new ShortSeries(this, offset, rowIndex, size);
+    }
+
+    /**
+     * Copies the elements of the Series into a new array. Views only copy the elements they can reach.
+     */
+    private short[] copyValues(){
+        if (this.rowIndex == null)
+            return Arrays.copyOfRange(this.values, this.offset, this.offset + this.size);
+
+        short [] copy = new short[this.size];
+        for (int i = 0; i < this.size; i++)
+            copy[i] = this.values[this.rowIndex[this.offset + i]];
+        return copy;
+    }
+
+    @Override
+    protected void fillNulls(double value){
+        short filled = (short) round(value, Short.MIN_VALUE, Short.MAX_VALUE);
+        for (int w = 0; w < this.nulls.length; w++){
+            for (long bits = this.nulls[w]; bits != 0; bits &= bits - 1)
+                this.values[(w << 6) + Long.numberOfTrailingZeros(bits)] = filled;
+        }
+    }
+
+// ===================================================================================================================================
+//  GETTERS
+
+    /**
+     * Gets the array backing the Series without copying it. Null elements are stored as 0.
+     * Used to write the values in bulk (see ColumnarFile), which only makes sense when the Series is not a view.
+     */
+    short[] getValues(){
+        return this.values;
+    }
+
+    /**
+     * Gets an element of the Series without boxing it
+     * @param index Index of where the data is located
+     * @return The element at the given index. Null elements are returned as 0.
+     */
+    public short getShort(int index){
+        return this.values[locate(index)];
+    }
+
+    @Override
+    public double getDouble(int index){
+        return this.values[locate(index)];
+    }
+
+    @Override
+    public void getDoubles(int startIndex, int length, double [] destination, int destinationOffset){
+        if (length == 0)
+            return;
+        checkRange(startIndex, startIndex + length - 1);
+
+        if (this.rowIndex == null){
+            int start = this.offset + startIndex;
+            for (int i = 0; i < length; i++)
+                destination[destinationOffset + i] = this.values[start + i];
+        } else {
+            for (int i = 0; i < length; i++)
+                destination[destinationOffset + i] = this.values[this.rowIndex[this.offset + startIndex + i]];
+        }
+    }
+
+    @Override
+    public void appendTo(StringBuilder builder, int index){
+        int position = locate(index);
+
+        if (this.nulls != null && Bitmap.get(this.nulls, position))
+            builder.append("null");
+        else
+            builder.append(this.values[position]);
+    }
+
+    @Override
+    public Short getIndex_DataType(int index){
+        int position = locate(index);
+
+        if (this.nulls != null && Bitmap.get(this.nulls, position))
+            return null;
+        return this.values[position];
+    }
+
+    @Override
+    public ShortSeries getIndex(int index){
+        int resolvedIndex = resolveIndex(index);
+        return getIndex(resolvedIndex, resolvedIndex);
+    }
+
+    @Override
+    public ShortSeries getIndex(int startIndex, int endIndex){
+        checkRange(startIndex, endIndex);
+        return createView(this.offset + startIndex, this.rowIndex, endIndex - startIndex + 1);
+    }
+}
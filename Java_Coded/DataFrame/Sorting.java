@@ -0,0 +1,415 @@
+package DataFrame;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import MachineLearningExceptions.*;
+
+/**
+ * Sorting of the rows of a DataFrame by one of its columns, used by DataFrame.sortBy() and DataFrame.topK().
+ *
+ * The rows are never moved. An argsort finds the order of the rows as an int [] of positions,
+ * which the DataFrame then uses as the row index of a view.
+ *
+ * - Numeric columns are turned into 64-bit keys whose unsigned order is the order of the numbers:
+ *   integers get their sign bit flipped, and floating point numbers get their sign bit flipped when positive
+ *   or every bit flipped when negative. The keys are then sorted by a stable LSD radix sort, 11 bits per pass,
+ *   skipping the digits shared by every key (such as the high digits of small integers).
+ *   Date and timestamp columns (see TemporalSeries) are sorted the same way, on their epoch values.
+ * - Boolean columns are sorted by counting the false values.
+ * - Other columns (String, Character) are sorted by a stable merge sort, split over a ForkJoinPool.
+ *
+ * Missing values (null, and NaN for floating point columns) always come last, whatever the direction.
+ * Rows with the same value keep their order, in both directions.
+ */
+final class Sorting {
+
+    // Size of the ranges sorted without splitting them further, and below which the merge sort uses insertion sort
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+    private static final int INSERTION_THRESHOLD = 32;
+
+    // The radix sort reads 11 bits of the keys per pass, so 6 passes cover 64 bits with counts small enough for the L1 cache
+    private static final int RADIX_BITS = 11;
+    private static final int RADIX_BUCKETS = 1 << RADIX_BITS;
+    private static final int RADIX_MASK = RADIX_BUCKETS - 1;
+    private static final int RADIX_PASSES = (64 + RADIX_BITS - 1) / RADIX_BITS;
+
+    // Number of rows read at once by topK()
+    private static final int BLOCK = 1024;
+
+    private Sorting(){}
+
+// ===================================================================================================================================
+//  ARGSORT
+
+    /**
+     * Finds the order of the rows of a column
+     * @param column The column to be sorted
+     * @param ascending Whether the smallest values come first
+     * @param threads Maximum number of threads used to sort the columns which are not numeric
+     * @return The positions of the rows, in sorted order
+     */
+    static int[] argsort(Series<?> column, boolean ascending, int threads){
+        if (column instanceof NumericSeries)
+            return argsortNumbers((NumericSeries<?>) column, ascending);
+        else if (column instanceof TemporalSeries)
+            return argsortEpochs((TemporalSeries<?>) column, ascending);
+        else if (column instanceof BooleanSeries)
+            return argsortBooleans((BooleanSeries) column, ascending);
+        return argsortObjects(column, ascending, threads);
+    }
+
+    private static int[] argsortNumbers(NumericSeries<?> column, boolean ascending){
+        int size = column.getSize();
+        long [] keys = new long[size];
+        int [] rows = new int[size];
+
+        // Rows with a value fill rows from the start, the missing ones from the end
+        int valid = 0;
+        int missing = 0;
+        boolean nullable = column.hasNulls();
+        long flip = ascending? 0 : -1L;
+
+        for (int i = 0; i < size; i++){
+            long key;
+            if (nullable && column.isNull(i)){
+                rows[size - 1 - missing++] = i;
+                continue;
+            } else if (column instanceof LongSeries)
+                key = ((LongSeries) column).getLong(i) ^ Long.MIN_VALUE;
+            else if (column instanceof IntSeries)
+                key = ((IntSeries) column).getInt(i) ^ Long.MIN_VALUE;
+            else if (column instanceof ShortSeries)
+                key = ((ShortSeries) column).getShort(i) ^ Long.MIN_VALUE;
+            else {
+                double value = column.getDouble(i);
+                if (value != value){
+                    rows[size - 1 - missing++] = i;
+                    continue;
+                }
+                long bits = Double.doubleToLongBits(value + 0.0);
+                key = (bits < 0)? ~bits : bits ^ Long.MIN_VALUE;
+            }
+
+            // Flipping every bit reverses the order while the sort stays stable
+            keys[valid] = key ^ flip;
+            rows[valid++] = i;
+        }
+
+        radixSort(keys, rows, valid);
+        reverse(rows, valid, size);
+        return rows;
+    }
+
+    private static int[] argsortEpochs(TemporalSeries<?> column, boolean ascending){
+        int size = column.getSize();
+        long [] keys = new long[size];
+        int [] rows = new int[size];
+
+        int valid = 0;
+        int missing = 0;
+        boolean nullable = column.hasNulls();
+        long flip = ascending? 0 : -1L;
+
+        for (int i = 0; i < size; i++){
+            if (nullable && column.isNull(i))
+                rows[size - 1 - missing++] = i;
+            else {
+                keys[valid] = (column.getEpochValue(i) ^ Long.MIN_VALUE) ^ flip;
+                rows[valid++] = i;
+            }
+        }
+
+        radixSort(keys, rows, valid);
+        reverse(rows, valid, size);
+        return rows;
+    }
+
+    /**
+     * Sorts keys[0, length) as unsigned numbers, moving rows along with them
+     */
+    static void radixSort(long [] keys, int [] rows, int length){
+        if (length < 2)
+            return;
+
+        // The counts of every digit are found in a single pass, as moving the keys does not change them
+        int [][] counts = new int[RADIX_PASSES][RADIX_BUCKETS + 1];
+        for (int i = 0; i < length; i++){
+            long key = keys[i];
+            for (int d = 0; d < RADIX_PASSES; d++)
+                counts[d][(int) ((key >>> (d * RADIX_BITS)) & RADIX_MASK) + 1]++;
+        }
+
+        long [] keyBuffer = new long[length];
+        int [] rowBuffer = new int[length];
+        long [] sourceKeys = keys;
+        int [] sourceRows = rows;
+
+        for (int d = 0; d < RADIX_PASSES; d++){
+            int shift = d * RADIX_BITS;
+            int [] count = counts[d];
+
+            // A digit shared by every key leaves the order as it is
+            if (count[(int) ((sourceKeys[0] >>> shift) & RADIX_MASK) + 1] == length)
+                continue;
+
+            for (int b = 0; b < RADIX_BUCKETS; b++)
+                count[b + 1] += count[b];
+
+            long [] targetKeys = (sourceKeys == keys)? keyBuffer : keys;
+            int [] targetRows = (sourceRows == rows)? rowBuffer : rows;
+            for (int i = 0; i < length; i++){
+                long key = sourceKeys[i];
+                int position = count[(int) ((key >>> shift) & RADIX_MASK)]++;
+                targetKeys[position] = key;
+                targetRows[position] = sourceRows[i];
+            }
+            sourceKeys = targetKeys;
+            sourceRows = targetRows;
+        }
+
+        if (sourceRows != rows){
+            System.arraycopy(sourceRows, 0, rows, 0, length);
+            System.arraycopy(sourceKeys, 0, keys, 0, length);
+        }
+    }
+
+    private static int[] argsortBooleans(BooleanSeries column, boolean ascending){
+        int size = column.getSize();
+        int [] rows = new int[size];
+        boolean nullable = column.hasNulls();
+
+        int first = 0;
+        for (int i = 0; i < size; i++){
+            if (!(nullable && column.isNull(i)) && column.getBoolean(i) != ascending)
+                first++;
+        }
+
+        // The rows of the first value go before position first, the other ones after it, and the missing ones last
+        int second = first;
+        int missing = 0;
+        first = 0;
+        for (int i = 0; i < size; i++){
+            if (nullable && column.isNull(i))
+                rows[size - 1 - missing++] = i;
+            else if (column.getBoolean(i) != ascending)
+                rows[first++] = i;
+            else
+                rows[second++] = i;
+        }
+
+        reverse(rows, size - missing, size);
+        return rows;
+    }
+
+    private static int[] argsortObjects(Series<?> column, boolean ascending, int threads){
+        int size = column.getSize();
+        Object [] values = new Object[size];
+        int [] rows = new int[size];
+
+        int valid = 0;
+        int missing = 0;
+        for (int i = 0; i < size; i++){
+            Object value = column.getIndex_DataType(i);
+            values[i] = value;
+            if (value == null)
+                rows[size - 1 - missing++] = i;
+            else if (!(value instanceof Comparable))
+                throw new IllegalDataTypeException("Unable to sort the column \"" + column.getName() + "\" as its " + column.getType() + " values cannot be compared.");
+            else
+                rows[valid++] = i;
+        }
+
+        MergeSort sort = new MergeSort(values, ascending, rows, new int[valid], 0, valid);
+        if (threads == 1 || valid <= PARALLEL_THRESHOLD)
+            sort.compute();
+        else {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                pool.invoke(sort);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        reverse(rows, valid, size);
+        return rows;
+    }
+
+    /**
+     * Reverses rows[start, end), which holds the missing rows from the last one to the first one
+     */
+    private static void reverse(int [] rows, int start, int end){
+        for (int i = start, j = end - 1; i < j; i++, j--){
+            int row = rows[i];
+            rows[i] = rows[j];
+            rows[j] = row;
+        }
+    }
+
+    /**
+     * Stable merge sort of rows by their values. Both halves are sorted as separate tasks when the range is large.
+     */
+    private static final class MergeSort extends RecursiveAction {
+
+        private final Object [] values;
+        private final boolean ascending;
+        private final int [] rows;
+        private final int [] buffer;
+        private final int start;
+        private final int end;
+
+        MergeSort(Object [] values, boolean ascending, int [] rows, int [] buffer, int start, int end){
+            this.values = values;
+            this.ascending = ascending;
+            this.rows = rows;
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute(){
+            if (this.end - this.start <= PARALLEL_THRESHOLD){
+                sort(this.start, this.end);
+                return;
+            }
+
+            int middle = (this.start + this.end) >>> 1;
+            invokeAll(new MergeSort(this.values, this.ascending, this.rows, this.buffer, this.start, middle),
+                      new MergeSort(this.values, this.ascending, this.rows, this.buffer, middle, this.end));
+            merge(this.start, middle, this.end);
+        }
+
+        private void sort(int start, int end){
+            if (end - start <= INSERTION_THRESHOLD){
+                for (int i = start + 1; i < end; i++){
+                    int row = this.rows[i];
+                    int j = i - 1;
+                    for (; j >= start && compare(this.rows[j], row) > 0; j--)
+                        this.rows[j + 1] = this.rows[j];
+                    this.rows[j + 1] = row;
+                }
+                return;
+            }
+
+            int middle = (start + end) >>> 1;
+            sort(start, middle);
+            sort(middle, end);
+            merge(start, middle, end);
+        }
+
+        /**
+         * Merges the sorted ranges [start, middle) and [middle, end), taking from the left one on ties
+         */
+        private void merge(int start, int middle, int end){
+            if (compare(this.rows[middle - 1], this.rows[middle]) <= 0)
+                return;
+
+            System.arraycopy(this.rows, start, this.buffer, start, middle - start);
+            int left = start;
+            int right = middle;
+            int position = start;
+            while (left < middle && right < end)
+                this.rows[position++] = (compare(this.rows[right], this.buffer[left]) < 0)? this.rows[right++] : this.buffer[left++];
+            while (left < middle)
+                this.rows[position++] = this.buffer[left++];
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private int compare(int a, int b){
+            int order = ((Comparable) this.values[a]).compareTo(this.values[b]);
+            return this.ascending? order : -order;
+        }
+    }
+
+// ===================================================================================================================================
+//  TOP K
+
+    /**
+     * Finds the rows holding the k largest values of a column, through a heap of at most k rows
+     * @return The positions of the rows, from the largest value to the smallest. Rows with the same value keep their order.
+     */
+    static int[] topK(NumericSeries<?> column, int k){
+        int size = column.getSize();
+        k = Math.min(k, size);
+
+        // A min-heap of the best rows found so far: its root is the worst of them, the next one to be replaced
+        double [] heapValues = new double[k];
+        int [] heapRows = new int[k];
+        int count = 0;
+
+        boolean nullable = column.hasNulls();
+        double [] block = new double[BLOCK];
+
+        for (int b = 0; b < size && k > 0; b += BLOCK){
+            int length = Math.min(BLOCK, size - b);
+            column.getDoubles(b, length, block, 0);
+
+            for (int r = 0; r < length; r++){
+                double value = block[r];
+                if (value != value || (nullable && column.isNull(b + r)))
+                    continue;
+
+                if (count < k){
+                    heapValues[count] = value;
+                    heapRows[count] = b + r;
+                    siftUp(heapValues, heapRows, count++);
+                } else if (value > heapValues[0]){
+                    // Later rows only replace the root with a strictly larger value, so earlier rows win ties
+                    heapValues[0] = value;
+                    heapRows[0] = b + r;
+                    siftDown(heapValues, heapRows, 0, k);
+                }
+            }
+        }
+
+        // Removing the root repeatedly leaves the rows sorted from the best one to the worst one
+        for (int last = count - 1; last > 0; last--){
+            swap(heapValues, heapRows, 0, last);
+            siftDown(heapValues, heapRows, 0, last);
+        }
+        return (count == heapRows.length)? heapRows : Arrays.copyOf(heapRows, count);
+    }
+
+    /**
+     * Checks if the entry a of the heap is worse than the entry b: a smaller value, or the same value in a later row
+     */
+    private static boolean worse(double [] values, int [] rows, int a, int b){
+        return values[a] < values[b] || (values[a] == values[b] && rows[a] > rows[b]);
+    }
+
+    private static void siftUp(double [] values, int [] rows, int index){
+        while (index > 0){
+            int parent = (index - 1) >>> 1;
+            if (!worse(values, rows, index, parent))
+                break;
+            swap(values, rows, index, parent);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(double [] values, int [] rows, int index, int size){
+        while (true){
+            int child = 2 * index + 1;
+            if (child >= size)
+                break;
+            if (child + 1 < size && worse(values, rows, child + 1, child))
+                child++;
+            if (!worse(values, rows, child, index))
+                break;
+            swap(values, rows, index, child);
+            index = child;
+        }
+    }
+
+    private static void swap(double [] values, int [] rows, int a, int b){
+        double value = values[a];
+        values[a] = values[b];
+        values[b] = value;
+        int row = rows[a];
+        rows[a] = rows[b];
+        rows[b] = row;
+    }
+}
@@ -0,0 +1,206 @@
+package DataFrame;
+
+import java.io.IOException;
+
+/**
+ * Writes the rows of a DataFrame as an aligned text table, used by DataFrame.toString(), getHead() and print().
+ *
+ * Only the printed rows are read: the first head rows and the last tail rows, with a line of dots between them.
+ * Cells are appended straight from the Series (see Series.appendTo()), so no Series or boxed value is made per cell.
+ * Cells longer than MAX_CELL_WIDTH are cut, and columns stop being added once a line would be longer than the
+ * character budget, so the work and the output are bounded by the budget whatever the size of the DataFrame.
+ *
+ * Numeric columns are aligned to the right, the other columns to the left:
+ *
+ *      | TV    | Radio | Sales
+ *  ----+-------+-------+------
+ *    0 | 230.1 |  37.8 |  22.1
+ *    1 |  44.5 |  39.3 |  10.4
+ */
+final class TablePrinter {
+
+    // Longest text of a cell or column name, longer ones end with "..."
+    static final int MAX_CELL_WIDTH = 24;
+
+    private static final String ELLIPSIS = "...";
+    private static final String SEPARATOR = " | ";
+
+    private final Series<?> [] columns;
+    private final int columnCount;
+    private final int rowCount;
+
+    TablePrinter(Series<?> [] columns, int columnCount, int rowCount){
+        this.columns = columns;
+        this.columnCount = columnCount;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Writes the table
+     * @param out Where the table is written
+     * @param head Number of rows printed from the start of the DataFrame
+     * @param tail Number of rows printed from the end of the DataFrame, after the head
+     * @param maxCharacters Most characters written, the table is cut at the last line that fits
+     */
+    void print(Appendable out, int head, int tail, int maxCharacters) throws IOException {
+        head = Math.max(0, Math.min(head, this.rowCount));
+        tail = Math.max(0, Math.min(tail, this.rowCount - head));
+        boolean gap = head + tail < this.rowCount;
+
+        int [] rows = new int[head + tail];
+        for (int i = 0; i < head; i++)
+            rows[i] = i;
+        for (int i = 0; i < tail; i++)
+            rows[head + i] = this.rowCount - tail + i;
+
+        int indexWidth = Math.max(gap? ELLIPSIS.length() : 1, Integer.toString(Math.max(0, this.rowCount - 1)).length());
+
+        // Formats the cells column by column until a line would not fit the budget anymore
+        String [][] cells = new String[this.columnCount][];
+        int [] widths = new int[this.columnCount];
+        boolean [] rightAligned = new boolean[this.columnCount];
+        StringBuilder scratch = new StringBuilder(MAX_CELL_WIDTH * 2);
+
+        int lineWidth = indexWidth;
+        int shown = 0;
+        for (; shown < this.columnCount; shown++){
+            Series<?> column = this.columns[shown];
+            String name = cut(scratch.append(column.getName()));
+            int width = Math.max(name.length(), gap? ELLIPSIS.length() : 0);
+
+            String [] text = new String[rows.length + 1];
+            text[0] = name;
+            for (int i = 0; i < rows.length; i++){
+                column.appendTo(scratch, rows[i]);
+                text[i + 1] = cut(scratch);
+                width = Math.max(width, text[i + 1].length());
+            }
+
+            if (shown > 0 && lineWidth + SEPARATOR.length() + width > maxCharacters)
+                break;
+            lineWidth += SEPARATOR.length() + width;
+            cells[shown] = text;
+            widths[shown] = width;
+            rightAligned[shown] = column instanceof NumericSeries;
+        }
+        boolean cutColumns = shown < this.columnCount;
+
+        Budget budget = new Budget(out, maxCharacters);
+        StringBuilder line = new StringBuilder(lineWidth + 8);
+
+        // Column names, then the line under them
+        pad(line, "", indexWidth, true);
+        for (int j = 0; j < shown; j++)
+            pad(line.append(SEPARATOR), cells[j][0], lastPadded(j, shown, cutColumns, false, widths), false);
+        if (cutColumns)
+            line.append(SEPARATOR).append(ELLIPSIS);
+        if (!budget.writeLine(line))
+            return;
+
+        repeat(line, '-', indexWidth);
+        for (int j = 0; j < shown; j++)
+            repeat(line.append("-+-"), '-', widths[j]);
+        if (cutColumns)
+            repeat(line.append("-+-"), '-', ELLIPSIS.length());
+        if (!budget.writeLine(line))
+            return;
+
+        for (int i = 0; i < rows.length; i++){
+            if (gap && i == head && !budget.writeLine(dots(line, indexWidth, widths, shown, cutColumns)))
+                return;
+
+            pad(line, Integer.toString(rows[i]), indexWidth, true);
+            for (int j = 0; j < shown; j++)
+                pad(line.append(SEPARATOR), cells[j][i + 1], lastPadded(j, shown, cutColumns, rightAligned[j], widths), rightAligned[j]);
+            if (cutColumns)
+                line.append(SEPARATOR).append(ELLIPSIS);
+            if (!budget.writeLine(line))
+                return;
+        }
+        if (gap && tail == 0 && !budget.writeLine(dots(line, indexWidth, widths, shown, cutColumns)))
+            return;
+
+        if (gap || cutColumns)
+            budget.writeLine(line.append('[').append(this.rowCount).append(" rows x ").append(this.columnCount).append(" columns]"));
+    }
+
+    /**
+     * Takes the text of a StringBuilder, cut to MAX_CELL_WIDTH characters, and empties the StringBuilder
+     */
+    private static String cut(StringBuilder scratch){
+        if (scratch.length() > MAX_CELL_WIDTH){
+            scratch.setLength(MAX_CELL_WIDTH - ELLIPSIS.length());
+            scratch.append(ELLIPSIS);
+        }
+        String text = scratch.toString();
+        scratch.setLength(0);
+        return text;
+    }
+
+    private static StringBuilder pad(StringBuilder line, String text, int width, boolean right){
+        if (right)
+            repeat(line, ' ', width - text.length()).append(text);
+        else
+            repeat(line.append(text), ' ', width - text.length());
+        return line;
+    }
+
+    /**
+     * Gets the width a cell is padded to, which is 0 for a left-aligned cell ending its line so lines have no trailing spaces
+     */
+    private static int lastPadded(int column, int shown, boolean cutColumns, boolean right, int [] widths){
+        return (column == shown - 1 && !cutColumns && !right)? 0 : widths[column];
+    }
+
+    private static StringBuilder repeat(StringBuilder line, char character, int count){
+        for (int i = 0; i < count; i++)
+            line.append(character);
+        return line;
+    }
+
+    /**
+     * Fills a line with dots, standing for the rows between the head and the tail
+     */
+    private static StringBuilder dots(StringBuilder line, int indexWidth, int [] widths, int shown, boolean cutColumns){
+        pad(line, ELLIPSIS, indexWidth, true);
+        for (int j = 0; j < shown; j++)
+            pad(line.append(SEPARATOR), ELLIPSIS, widths[j], true);
+        if (cutColumns)
+            line.append(SEPARATOR).append(ELLIPSIS);
+        return line;
+    }
+
+    /**
+     * Writes whole lines as long as they fit within the character budget
+     */
+    private static final class Budget {
+
+        private final Appendable out;
+        private int remaining;
+
+        Budget(Appendable out, int maxCharacters){
+            this.out = out;
+            this.remaining = maxCharacters;
+        }
+
+        /**
+         * Writes a line followed by a line break, then empties it
+         * @return false once a line did not fit, after writing "..." in its place if there was room for it
+         */
+        boolean writeLine(StringBuilder line) throws IOException {
+            int length = line.length() + 1;
+            if (length > this.remaining){
+                if (this.remaining >= ELLIPSIS.length() + 1)
+                    this.out.append(ELLIPSIS).append('\n');
+                this.remaining = 0;
+                line.setLength(0);
+                return false;
+            }
+
+            this.out.append(line).append('\n');
+            this.remaining -= length;
+            line.setLength(0);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package DataFrame;
+
+/**
+ * Base class of the Series storing dates and timestamps as primitive numbers (DateSeries and TimestampSeries)
+ * instead of one LocalDate or LocalDateTime object per element.
+ *
+ * Each element is kept as its distance from 1970-01-01: a number of days for a DateSeries, and a number of
+ * milliseconds (UTC) for a TimestampSeries. These epoch values sort like the dates they stand for, so filters,
+ * sortBy(), groupBy() and joins compare them directly, and bucket() moves them to the start of their day, week or
+ * month with integer arithmetic only. A LocalDate or LocalDateTime is only made when an element is asked for.
+ *
+ * Missing values are kept in the null bitmap of the Series, as in NumericSeries.
+ *
+ * Example:
+ * DateSeries dates = (DateSeries) df.select("date");
+ * int day = dates.getEpochDay(0);                 // 10957 for 2000-01-01
+ * DateSeries months = dates.bucket("month");       // 2000-01-15 becomes 2000-01-01
+ */
+public abstract class TemporalSeries<DataType> extends Series<DataType> {
+
+    static final long MILLIS_PER_DAY = 86_400_000L;
+
+    // Units of bucket()
+    static final int DAY = 0;
+    static final int WEEK = 1;
+    static final int MONTH = 2;
+
+    // Days between 0000-03-01 and 1970-01-01, and in a cycle of 400 years
+    private static final int DAYS_BEFORE_EPOCH = 719468;
+    private static final int DAYS_PER_ERA = 146097;
+
+    protected TemporalSeries(String type, String name, int size){
+        super(type, name, size);
+    }
+
+    protected TemporalSeries(TemporalSeries<DataType> source, int offset, int [] rowIndex, int size){
+        super(source, offset, rowIndex, size);
+    }
+
+    /**
+     * Gets an element of the Series as its epoch value, without making an object
+     * @param index Index of where the data is located
+     * @return The epoch day of a DateSeries, or the epoch millisecond of a TimestampSeries. Null elements are returned as 0.
+     */
+    public abstract long getEpochValue(int index);
+
+    /**
+     * Copies the epoch values of a range of elements into an array of doubles, used by the filters.
+     * Null elements are copied as 0, use isNull() to tell them apart.
+     * @param startIndex Index of the first element to be copied
+     * @param length Number of elements to be copied
+     * @param destination The array receiving the elements
+     * @param destinationOffset Position of the first element in the destination
+     */
+    public void getDoubles(int startIndex, int length, double [] destination, int destinationOffset){
+        if (length == 0)
+            return;
+        checkRange(startIndex, startIndex + length - 1);
+        for (int i = 0; i < length; i++)
+            destination[destinationOffset + i] = getEpochValue(startIndex + i);
+    }
+
+    /**
+     * Moves every element to the start of its period, so that groupBy() gathers the rows by day, week or month.
+     * Weeks start on Monday. Missing values stay missing.
+     *
+     * Example:
+     * dates.bucket("week");        // 2024-05-16 (a Thursday) becomes 2024-05-13
+     *
+     * @param unit "day", "week" or "month"
+     * @return A Series of the same type and name holding the start of each period
+     */
+    public abstract TemporalSeries<DataType> bucket(String unit);
+
+// ===================================================================================================================================
+//  CALENDAR
+
+    /**
+     * Counts the days between 1970-01-01 and a date of the proleptic Gregorian calendar, as LocalDate.toEpochDay() does
+     * @param year The year, 0 being 1 BC
+     * @param month The month, from 1 to 12
+     * @param day The day of the month, from 1 to 31
+     */
+    static long epochDay(long year, int month, int day){
+        // Years are counted from March, so the leap day is the last day of the year
+        long shifted = (month <= 2)? year - 1 : year;
+        long era = Math.floorDiv(shifted, 400);
+        long yearOfEra = shifted - era * 400;
+        long dayOfYear = (153 * (month + ((month > 2)? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_BEFORE_EPOCH;
+    }
+
+    /**
+     * Finds the year, month and day of an epoch day
+     * @return The date packed as year * 10000 + month * 100 + day
+     */
+    static long civilDate(long epochDay){
+        long shifted = epochDay + DAYS_BEFORE_EPOCH;
+        long era = Math.floorDiv(shifted, DAYS_PER_ERA);
+        long dayOfEra = shifted - era * DAYS_PER_ERA;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        long month = (shiftedMonth < 10)? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + ((month <= 2)? 1 : 0);
+        return year * 10000 + month * 100 + day;
+    }
+
+    /**
+     * Checks the unit of bucket()
+     * @return DAY, WEEK or MONTH
+     */
+    static int unitOf(String unit){
+        if (unit != null){
+            switch (unit){
+                case "day":     return DAY;
+                case "week":    return WEEK;
+                case "month":   return MONTH;
+            }
+        }
+        throw new IllegalArgumentException("The parameter \"unit\" must be \"day\", \"week\" or \"month\".");
+    }
+
+    /**
+     * Moves an epoch day to the first day of its period
+     * @param unit DAY, WEEK or MONTH
+     */
+    static long truncate(long epochDay, int unit){
+        if (unit == WEEK)
+            // 1970-01-01 was a Thursday, 3 days after a Monday
+            return epochDay - Math.floorMod(epochDay + 3, 7);
+        else if (unit == MONTH)
+            return epochDay - Math.floorMod(civilDate(epochDay), 100) + 1;
+        return epochDay;
+    }
+
+    /**
+     * Appends an epoch day as yyyy-MM-dd, like LocalDate.toString() for the years 0 to 9999
+     * @return The builder
+     */
+    static StringBuilder appendDate(StringBuilder builder, long epochDay){
+        long date = civilDate(epochDay);
+        long year = Math.floorDiv(date, 10000);
+        if (year < 0 || year > 9999)
+            return builder.append(java.time.LocalDate.ofEpochDay(epochDay));
+
+        appendDigits(builder, year, 4);
+        builder.append('-');
+        appendDigits(builder, (date / 100) % 100, 2);
+        builder.append('-');
+        appendDigits(builder, date % 100, 2);
+        return builder;
+    }
+
+    /**
+     * Appends a number padded with zeros to the given number of digits
+     */
+    static void appendDigits(StringBuilder builder, long value, int digits){
+        for (long limit = 10; digits > 1; digits--, limit *= 10){
+            if (value < limit)
+                builder.append('0');
+        }
+        builder.append(value);
+    }
+}
@@ -0,0 +1,220 @@
+package DataFrame;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import MachineLearningExceptions.*;
+
+/**
+ * A Series of LocalDateTimes backed by a primitive long [] array of epoch milliseconds (milliseconds since
+ * 1970-01-01T00:00 UTC). Timestamps read with an offset (i.e., 2024-05-16T08:30:00+02:00) are stored in UTC.
+ *
+ * Example:
+ * TimestampSeries series = new TimestampSeries(new long[] {0L, 90_000L}, "time");
+ * LocalDateTime time = series.getIndex_DataType(1);    // 1970-01-01T00:01:30
+ * long millis = series.getEpochMilli(1);               // Returns 90000 without making a LocalDateTime
+ */
+public class TimestampSeries extends TemporalSeries<LocalDateTime> {
+
+    // The epoch millisecond of each element
+    private long [] millis;
+
+    public TimestampSeries(int size, String name){
+        super("LocalDateTime", name, size);
+        this.millis = new long[size];
+    }
+
+    public TimestampSeries(long [] epochMillis, String name){
+        this(Arrays.copyOf(epochMillis, epochMillis.length), null, epochMillis.length, name);
+    }
+
+    public TimestampSeries(TimestampSeries other){
+        super("LocalDateTime", other.getName(), other.getSize());
+        this.millis = other.copyMillis();
+        this.nulls = other.copyNulls(0, other.size);
+        this.currentIndex = other.currentIndex;
+    }
+
+    /**
+     * Wraps an already filled array without copying it.
+     * @param millis The epoch millisecond of each element
+     * @param nulls The null bitmap of the values, or null if there are no missing values
+     * @param size Number of elements stored in the millis array
+     * @param name Name of the Series
+     */
+    TimestampSeries(long [] millis, long [] nulls, int size, String name){
+        super("LocalDateTime", name, size);
+        this.millis = millis;
+        this.nulls = nulls;
+        this.currentIndex = size;
+    }
+
+    /**
+     * Creates a view sharing the values of another Series (see Series.createView())
+     */
+    private TimestampSeries(TimestampSeries source, int offset, int [] rowIndex, int size){
+        super(source, offset, rowIndex, size);
+        this.millis = source.millis;
+    }
+
+    /**
+     * Adds a new value to the Series, read as a UTC time. Anything finer than a millisecond is dropped.
+     * @param item The value to be added, null values are stored in the null bitmap
+     */
+    @Override
+    public void addItem(LocalDateTime item){
+        if (item == null)
+            addNull();
+        else
+            addEpochMilli(item.toEpochSecond(ZoneOffset.UTC) * 1000 + item.getNano() / 1_000_000);
+    }
+
+    /**
+     * Adds a new value to the Series without making a LocalDateTime
+     * @param epochMilli The number of milliseconds since 1970-01-01T00:00 UTC
+     */
+    public void addEpochMilli(long epochMilli){
+        if (this.currentIndex == this.size)
+            throw new SeriesOverflowException("Max set size reached.");
+        this.millis[this.currentIndex++] = epochMilli;
+    }
+
+    @Override
+    public TimestampSeries duplicate(){
+        return new TimestampSeries(this);
+    }
+
+    @Override
+    protected TimestampSeries createView(int offset, int [] rowIndex, int size){
+        return new TimestampSeries(this, offset, rowIndex, size);
+    }
+
+    /**
+     * Copies the elements of the Series into a new array. Views only copy the elements they can reach.
+     */
+    private long[] copyMillis(){
+        if (this.rowIndex == null)
+            return Arrays.copyOfRange(this.millis, this.offset, this.offset + this.size);
+
+        long [] copy = new long[this.size];
+        for (int i = 0; i < this.size; i++)
+            copy[i] = this.millis[this.rowIndex[this.offset + i]];
+        return copy;
+    }
+
+    @Override
+    public TimestampSeries bucket(String unit){
+        int bucket = unitOf(unit);
+        long [] starts = new long[this.size];
+        for (int i = 0; i < this.size; i++){
+            long day = Math.floorDiv(this.millis[position(i)], MILLIS_PER_DAY);
+            starts[i] = truncate(day, bucket) * MILLIS_PER_DAY;
+        }
+        return new TimestampSeries(starts, copyNulls(0, this.size), this.size, getName());
+    }
+
+    @Override
+    protected void fillNulls(LocalDateTime value){
+        long epochMilli = value.toEpochSecond(ZoneOffset.UTC) * 1000 + value.getNano() / 1_000_000;
+        for (int w = 0; w < this.nulls.length; w++){
+            for (long bits = this.nulls[w]; bits != 0; bits &= bits - 1)
+                this.millis[(w << 6) + Long.numberOfTrailingZeros(bits)] = epochMilli;
+        }
+    }
+
+// ===================================================================================================================================
+//  GETTERS
+
+    /**
+     * Gets the array backing the Series without copying it. Null elements are stored as 0.
+     * Used to write the values in bulk (see ColumnarFile), which only makes sense when the Series is not a view.
+     */
+    long[] getValues(){
+        return this.millis;
+    }
+
+    /**
+     * Gets an element of the Series without making a LocalDateTime
+     * @param index Index of where the data is located
+     * @return The number of milliseconds since 1970-01-01T00:00 UTC. Null elements are returned as 0.
+     */
+    public long getEpochMilli(int index){
+        return this.millis[locate(index)];
+    }
+
+    @Override
+    public long getEpochValue(int index){
+        return this.millis[locate(index)];
+    }
+
+    @Override
+    public void getDoubles(int startIndex, int length, double [] destination, int destinationOffset){
+        if (length == 0)
+            return;
+        checkRange(startIndex, startIndex + length - 1);
+
+        if (this.rowIndex == null){
+            int start = this.offset + startIndex;
+            for (int i = 0; i < length; i++)
+                destination[destinationOffset + i] = this.millis[start + i];
+        } else {
+            for (int i = 0; i < length; i++)
+                destination[destinationOffset + i] = this.millis[this.rowIndex[this.offset + startIndex + i]];
+        }
+    }
+
+    @Override
+    public void appendTo(StringBuilder builder, int index){
+        int position = locate(index);
+
+        if (this.nulls != null && Bitmap.get(this.nulls, position))
+            builder.append("null");
+        else
+            appendTimestamp(builder, this.millis[position]);
+    }
+
+    /**
+     * Appends an epoch millisecond like LocalDateTime.toString(): the seconds and milliseconds are only shown when they are not 0
+     * @return The builder
+     */
+    static StringBuilder appendTimestamp(StringBuilder builder, long epochMilli){
+        long time = Math.floorMod(epochMilli, MILLIS_PER_DAY);
+        appendDate(builder, Math.floorDiv(epochMilli, MILLIS_PER_DAY));
+        builder.append('T');
+        appendDigits(builder, time / 3_600_000, 2);
+        builder.append(':');
+        appendDigits(builder, (time / 60_000) % 60, 2);
+        if (time % 60_000 != 0){
+            builder.append(':');
+            appendDigits(builder, (time / 1000) % 60, 2);
+            if (time % 1000 != 0){
+                builder.append('.');
+                appendDigits(builder, time % 1000, 3);
+            }
+        }
+        return builder;
+    }
+
+    @Override
+    public LocalDateTime getIndex_DataType(int index){
+        int position = locate(index);
+
+        if (this.nulls != null && Bitmap.get(this.nulls, position))
+            return null;
+        long value = this.millis[position];
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(value, 1000), (int) Math.floorMod(value, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    @Override
+    public TimestampSeries getIndex(int index){
+        int resolvedIndex = resolveIndex(index);
+        return getIndex(resolvedIndex, resolvedIndex);
+    }
+
+    @Override
+    public TimestampSeries getIndex(int startIndex, int endIndex){
+        checkRange(startIndex, endIndex);
+        return createView(this.offset + startIndex, this.rowIndex, endIndex - startIndex + 1);
+    }
+}
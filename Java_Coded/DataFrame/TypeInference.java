@@ -0,0 +1,600 @@
+package DataFrame;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Works out the data type of the fields of a csv file without throwing a single exception.
+ *
+ * Each field is run through a small state machine driven by the class of each character (digit, sign, dot,
+ * exponent, dash or other). The same scan also computes the value of plain numbers, so a field is read only once
+ * to find both its type and its value. The type of a whole column is found by widening the types of its fields:
+ *
+ *      Short -> Integer -> Long -> Float -> Double -> String
+ *
+ * Boolean, LocalDate and Character columns stay as they are as long as every field agrees, otherwise they become
+ * String columns. Empty fields have no type (null) and do not affect the column.
+ *
+ * Dates and timestamps are only recognized in their fixed ISO layout, and their epoch value is computed by the scan:
+ *
+ *      yyyy-MM-dd                                  LocalDate, as an epoch day
+ *      yyyy-MM-ddTHH:mm[:ss[.SSS]][Z|+HH:mm]       LocalDateTime, as an epoch millisecond in UTC (a space may replace the T)
+ *
+ * A column mixing both holds LocalDateTime values, the dates standing for their midnight.
+ *
+ * NaN, Infinity and -Infinity are Float values, as Float.parseFloat() reads them.
+ *
+ * A TypeInference object keeps the result of its last scan, so each thread needs its own instance.
+ */
+class TypeInference {
+
+    // Kinds of fields
+    static final int EMPTY = 0;
+    static final int WHOLE_NUMBER = 1;
+    static final int DECIMAL = 2;
+    static final int BOOLEAN = 3;
+    static final int DATE = 4;
+    static final int CHARACTER = 5;
+    static final int TEXT = 6;
+    static final int TIMESTAMP = 7;
+
+    // States of the state machine
+    private static final int S_START = 0;
+    private static final int S_SIGN = 1;
+    private static final int S_INTEGER = 2;
+    private static final int S_LEADING_DOT = 3;
+    private static final int S_FRACTION = 4;
+    private static final int S_EXPONENT = 5;
+    private static final int S_EXPONENT_SIGN = 6;
+    private static final int S_EXPONENT_DIGITS = 7;
+    private static final int S_MONTH = 8;
+    private static final int S_MONTH_DIGIT = 9;
+    private static final int S_DAY_DASH = 10;
+    private static final int S_DAY = 11;
+    private static final int S_DAY_DIGIT = 12;
+    private static final int S_DATE = 13;
+    private static final int S_TEXT = 14;
+    private static final int S_HOUR = 15;
+    private static final int S_MINUTE = 16;
+    private static final int S_SECOND = 17;
+    private static final int S_MILLIS = 18;
+    private static final int S_ZONE = 19;
+    private static final int S_OFFSET_HOUR = 20;
+    private static final int S_OFFSET_MINUTE = 21;
+
+    // Powers of ten that are exactly representable as a double
+    private static final double [] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // Largest mantissa that a double can hold exactly (2^53)
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private static final int [] DAYS_IN_MONTH = {0, 31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    // Result of the last scan
+    private int kind;
+    private long wholeValue;
+    private double decimalValue;
+    private boolean booleanValue;
+    private boolean exact;
+    private int decimalExponent;
+    private int characters;
+
+    // Working state of the scan
+    private int state;
+    private int length;
+    private int digits;
+    private int fractionDigits;
+    private long mantissa;
+    private boolean negative;
+    private boolean overflow;
+    private int leadingDigit;
+    private int exponent;
+    private boolean negativeExponent;
+    private int year, month, day;
+    private int hour, minute, second, millis;
+    private int fieldDigits, millisDigits;
+    private int offsetSign, offsetMinutes;
+    private int matchTrue, matchFalse;
+    private int signLength, matchNaN, matchInfinity;
+
+    TypeInference(){
+        this.kind = EMPTY;
+    }
+
+// ===================================================================================================================================
+//  SCANNING
+
+    /**
+     * Scans a field of a csv file
+     * @param value The text of the field
+     * @return The kind of the field (EMPTY, WHOLE_NUMBER, DECIMAL, BOOLEAN, DATE, TIMESTAMP, CHARACTER or TEXT)
+     */
+    int scan(CharSequence value){
+        begin();
+        int size = value.length();
+        for (int i = 0; i < size; i++){
+            char c = value.charAt(i);
+            step(c < 128? c : -1);
+            this.length++;
+        }
+        return finish(this.length);
+    }
+
+    /**
+     * Scans a field straight from the bytes of a csv file
+     * @param buffer The bytes of the file
+     * @param start Position of the first byte of the field
+     * @param end Position right after the last byte of the field
+     * @return The kind of the field (EMPTY, WHOLE_NUMBER, DECIMAL, BOOLEAN, DATE, TIMESTAMP, CHARACTER or TEXT)
+     */
+    int scan(ByteBuffer buffer, int start, int end){
+        begin();
+        int characters = 0;
+        for (int i = start; i < end; i++){
+            int b = buffer.get(i) & 0xFF;
+            step(b < 128? b : -1);
+
+            // Counts the characters, not the bytes, of UTF-8 text. 4-byte characters take 2 chars in Java.
+            if ((b & 0xC0) != 0x80)
+                characters += (b >= 0xF0)? 2 : 1;
+            this.length++;
+        }
+        return finish(characters);
+    }
+
+    private void begin(){
+        this.state = S_START;
+        this.length = 0;
+        this.digits = 0;
+        this.fractionDigits = 0;
+        this.mantissa = 0;
+        this.negative = false;
+        this.overflow = false;
+        this.leadingDigit = -1;
+        this.exponent = 0;
+        this.negativeExponent = false;
+        this.year = this.month = this.day = 0;
+        this.hour = this.minute = this.second = this.millis = 0;
+        this.fieldDigits = this.millisDigits = 0;
+        this.offsetSign = this.offsetMinutes = 0;
+        this.matchTrue = this.matchFalse = 0;
+        this.signLength = this.matchNaN = this.matchInfinity = 0;
+    }
+
+    /**
+     * Moves the state machines by a single character
+     * @param c The ASCII code of the character, or -1 for any other character
+     */
+    private void step(int c){
+        // Booleans are matched separately, ignoring the case of the letters
+        int lower = c | 0x20;
+        if (this.matchTrue == this.length && this.matchTrue < 4 && lower == "true".charAt(this.matchTrue))
+            this.matchTrue++;
+        if (this.matchFalse == this.length && this.matchFalse < 5 && lower == "false".charAt(this.matchFalse))
+            this.matchFalse++;
+
+        // NaN and Infinity are matched after an optional sign, keeping the case of the letters
+        if (this.length == 0 && (c == '-' || c == '+'))
+            this.signLength = 1;
+        int at = this.length - this.signLength;
+        if (at >= 0 && this.matchNaN == at && at < 3 && c == "NaN".charAt(at))
+            this.matchNaN++;
+        if (at >= 0 && this.matchInfinity == at && at < 8 && c == "Infinity".charAt(at))
+            this.matchInfinity++;
+
+        boolean isDigit = c >= '0' && c <= '9';
+        int digit = c - '0';
+
+        switch (this.state){
+            case S_START:
+                if (isDigit)
+                    addDigit(digit, false);
+                else if (c == '-' || c == '+'){
+                    this.negative = c == '-';
+                    this.state = S_SIGN;
+                } else if (c == '.')
+                    this.state = S_LEADING_DOT;
+                else
+                    this.state = S_TEXT;
+                break;
+            case S_SIGN:
+                if (isDigit)
+                    addDigit(digit, false);
+                else if (c == '.')
+                    this.state = S_LEADING_DOT;
+                else
+                    this.state = S_TEXT;
+                break;
+            case S_INTEGER:
+                if (isDigit)
+                    addDigit(digit, false);
+                else if (c == '.')
+                    this.state = S_FRACTION;
+                else if (c == 'e' || c == 'E')
+                    this.state = S_EXPONENT;
+                else if (c == '-' && this.digits == 4 && this.length == 4){
+                    // yyyy-MM-dd
+                    this.year = (int) this.mantissa;
+                    this.state = S_MONTH;
+                } else
+                    this.state = S_TEXT;
+                break;
+            case S_LEADING_DOT:
+                this.state = S_FRACTION;
+                if (isDigit)
+                    addDigit(digit, true);
+                else
+                    this.state = S_TEXT;
+                break;
+            case S_FRACTION:
+                if (isDigit)
+                    addDigit(digit, true);
+                else if (c == 'e' || c == 'E')
+                    this.state = S_EXPONENT;
+                else
+                    this.state = S_TEXT;
+                break;
+            case S_EXPONENT:
+                if (isDigit){
+                    this.exponent = digit;
+                    this.state = S_EXPONENT_DIGITS;
+                } else if (c == '-' || c == '+'){
+                    this.negativeExponent = c == '-';
+                    this.state = S_EXPONENT_SIGN;
+                } else
+                    this.state = S_TEXT;
+                break;
+            case S_EXPONENT_SIGN:
+            case S_EXPONENT_DIGITS:
+                if (isDigit){
+                    this.exponent = Math.min(this.exponent * 10 + digit, 100000);
+                    this.state = S_EXPONENT_DIGITS;
+                } else
+                    this.state = S_TEXT;
+                break;
+            case S_MONTH:
+            case S_MONTH_DIGIT:
+                if (isDigit){
+                    this.month = this.month * 10 + digit;
+                    this.state = (this.state == S_MONTH)? S_MONTH_DIGIT : S_DAY_DASH;
+                } else
+                    this.state = S_TEXT;
+                break;
+            case S_DAY_DASH:
+                this.state = (c == '-')? S_DAY : S_TEXT;
+                break;
+            case S_DAY:
+            case S_DAY_DIGIT:
+                if (isDigit){
+                    this.day = this.day * 10 + digit;
+                    this.state = (this.state == S_DAY)? S_DAY_DIGIT : S_DATE;
+                } else
+                    this.state = S_TEXT;
+                break;
+            case S_DATE:
+                // yyyy-MM-ddTHH:mm[:ss[.SSS]][Z|+HH:mm]
+                this.state = (c == 'T' || c == ' ')? S_HOUR : S_TEXT;
+                break;
+            case S_HOUR:
+                if (isDigit && this.fieldDigits < 2){
+                    this.hour = this.hour * 10 + digit;
+                    this.fieldDigits++;
+                } else if (c == ':' && this.fieldDigits == 2){
+                    this.fieldDigits = 0;
+                    this.state = S_MINUTE;
+                } else
+                    this.state = S_TEXT;
+                break;
+            case S_MINUTE:
+                if (isDigit && this.fieldDigits < 2){
+                    this.minute = this.minute * 10 + digit;
+                    this.fieldDigits++;
+                } else if (c == ':' && this.fieldDigits == 2){
+                    this.fieldDigits = 0;
+                    this.state = S_SECOND;
+                } else
+                    zone(c, this.fieldDigits == 2);
+                break;
+            case S_SECOND:
+                if (isDigit && this.fieldDigits < 2){
+                    this.second = this.second * 10 + digit;
+                    this.fieldDigits++;
+                } else if (c == '.' && this.fieldDigits == 2)
+                    this.state = S_MILLIS;
+                else
+                    zone(c, this.fieldDigits == 2);
+                break;
+            case S_MILLIS:
+                // Digits past the milliseconds are read but dropped
+                if (isDigit){
+                    if (this.millisDigits < 3)
+                        this.millis = this.millis * 10 + digit;
+                    this.millisDigits++;
+                } else
+                    zone(c, this.millisDigits > 0);
+                break;
+            case S_OFFSET_HOUR:
+            case S_OFFSET_MINUTE:
+                if (isDigit && this.fieldDigits < 2){
+                    this.offsetMinutes += digit * ((this.state == S_OFFSET_HOUR)? 60 : 1) * ((this.fieldDigits == 0)? 10 : 1);
+                    this.fieldDigits++;
+                } else if (c == ':' && this.fieldDigits == 2 && this.state == S_OFFSET_HOUR){
+                    this.fieldDigits = 0;
+                    this.state = S_OFFSET_MINUTE;
+                } else
+                    this.state = S_TEXT;
+                break;
+            default:
+                this.state = S_TEXT;
+        }
+    }
+
+    /**
+     * Moves to the time zone of a timestamp, which is either Z or an offset such as +02:00
+     * @param complete Whether the field before the time zone has all of its digits
+     */
+    private void zone(int c, boolean complete){
+        if (complete && c == 'Z')
+            this.state = S_ZONE;
+        else if (complete && (c == '+' || c == '-')){
+            this.offsetSign = (c == '-')? -1 : 1;
+            this.fieldDigits = 0;
+            this.state = S_OFFSET_HOUR;
+        } else
+            this.state = S_TEXT;
+    }
+
+    private void addDigit(int digit, boolean fraction){
+        if (this.state != S_FRACTION)
+            this.state = S_INTEGER;
+
+        // Position of the first non-zero digit, used to know how large the number is
+        if (digit != 0 && this.leadingDigit == -1)
+            this.leadingDigit = this.digits;
+
+        if (this.mantissa > (Long.MAX_VALUE - digit) / 10)
+            this.overflow = true;
+        else
+            this.mantissa = this.mantissa * 10 + digit;
+
+        this.digits++;
+        if (fraction)
+            this.fractionDigits++;
+    }
+
+    private int finish(int characters){
+        this.exact = false;
+        this.characters = characters;
+
+        if (this.length == 0)
+            return this.kind = EMPTY;
+
+        switch (this.state){
+            case S_INTEGER:
+                if (!this.overflow){
+                    this.wholeValue = this.negative? -this.mantissa : this.mantissa;
+                    this.exact = true;
+                    return this.kind = WHOLE_NUMBER;
+                }
+                return finishDecimal();
+            case S_FRACTION:
+                if (this.digits > 0)
+                    return finishDecimal();
+                break;
+            case S_EXPONENT_DIGITS:
+                if (this.digits > 0)
+                    return finishDecimal();
+                break;
+            case S_DATE:
+                if (isValidDate())
+                    return this.kind = DATE;
+                break;
+            case S_MINUTE:
+            case S_SECOND:
+            case S_OFFSET_HOUR:
+            case S_OFFSET_MINUTE:
+                if (this.fieldDigits == 2 && isValidDate() && isValidTime())
+                    return this.kind = TIMESTAMP;
+                break;
+            case S_MILLIS:
+                if (this.millisDigits > 0 && isValidDate() && isValidTime())
+                    return this.kind = TIMESTAMP;
+                break;
+            case S_ZONE:
+                if (isValidDate() && isValidTime())
+                    return this.kind = TIMESTAMP;
+                break;
+        }
+
+        if (this.length == this.signLength + 3 && this.matchNaN == 3)
+            return finishSpecial(Double.NaN);
+        else if (this.length == this.signLength + 8 && this.matchInfinity == 8)
+            return finishSpecial(this.negative? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+
+        if (this.length == 4 && this.matchTrue == 4){
+            this.booleanValue = true;
+            return this.kind = BOOLEAN;
+        } else if (this.length == 5 && this.matchFalse == 5){
+            this.booleanValue = false;
+            return this.kind = BOOLEAN;
+        }
+
+        return this.kind = (characters == 1)? CHARACTER : TEXT;
+    }
+
+    private int finishDecimal(){
+        int signedExponent = this.negativeExponent? -this.exponent : this.exponent;
+        int integerDigits = this.digits - this.fractionDigits;
+
+        // Power of ten of the first non-zero digit, i.e. 2 for 123.4 and -2 for 0.0123
+        this.decimalExponent = (this.leadingDigit == -1)? 0 : integerDigits - this.leadingDigit - 1 + signedExponent;
+
+        if (!this.overflow && this.mantissa <= MAX_EXACT_MANTISSA && this.exponent == 0 && this.fractionDigits < POWERS_OF_TEN.length){
+            // Both values are exact, so the division is correctly rounded
+            double value = (this.fractionDigits == 0)? this.mantissa : this.mantissa / POWERS_OF_TEN[this.fractionDigits];
+            this.decimalValue = this.negative? -value : value;
+            this.exact = true;
+        }
+
+        return this.kind = DECIMAL;
+    }
+
+    /**
+     * Ends the scan of NaN or Infinity, which are stored by Float columns
+     */
+    private int finishSpecial(double value){
+        this.decimalValue = value;
+        this.decimalExponent = 0;
+        this.exact = true;
+        return this.kind = DECIMAL;
+    }
+
+    private boolean isValidDate(){
+        return this.month >= 1 && this.month <= 12 && this.day >= 1 && this.day <= DAYS_IN_MONTH[this.month]
+            && (this.month != 2 || this.day < 29 || isLeapYear(this.year));
+    }
+
+    private boolean isValidTime(){
+        return this.hour < 24 && this.minute < 60 && this.second < 60 && this.offsetMinutes < 18 * 60;
+    }
+
+    private static boolean isLeapYear(int year){
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+// ===================================================================================================================================
+//  RESULTS
+
+    int getKind(){
+        return this.kind;
+    }
+
+    /**
+     * Checks if the value of the last number was computed by the scan.
+     * Numbers with an exponent or too many digits have to be parsed again from their text.
+     */
+    boolean isExact(){
+        return this.exact;
+    }
+
+    long getWholeValue(){
+        return this.wholeValue;
+    }
+
+    double getDecimalValue(){
+        return this.decimalValue;
+    }
+
+    boolean getBooleanValue(){
+        return this.booleanValue;
+    }
+
+    /**
+     * Gets the number of characters of the last scanned field, whatever its kind
+     */
+    int getCharacters(){
+        return this.characters;
+    }
+
+    /**
+     * Gets the last scanned date as the number of days since 1970-01-01
+     */
+    int getEpochDay(){
+        return (int) TemporalSeries.epochDay(this.year, this.month, this.day);
+    }
+
+    /**
+     * Gets the last scanned timestamp as the number of milliseconds since 1970-01-01T00:00 UTC.
+     * A date gives the millisecond of its midnight.
+     */
+    long getEpochMilli(){
+        if (this.kind == DATE)
+            return getEpochDay() * TemporalSeries.MILLIS_PER_DAY;
+
+        // The fraction of second may have less than 3 digits, i.e. .5 is 500 milliseconds
+        int fraction = this.millis;
+        for (int d = this.millisDigits; d < 3; d++)
+            fraction *= 10;
+
+        long time = ((this.hour * 60L + this.minute) * 60 + this.second) * 1000 + fraction;
+        return getEpochDay() * TemporalSeries.MILLIS_PER_DAY + time - this.offsetSign * this.offsetMinutes * 60_000L;
+    }
+
+    /**
+     * Gets the data type of the last scanned field, using the same names as Series.getType()
+     * @return The data type, or null for an empty field
+     */
+    String getType(){
+        switch (this.kind){
+            case WHOLE_NUMBER:
+                return (this.wholeValue >= Integer.MIN_VALUE && this.wholeValue <= Integer.MAX_VALUE)? "Integer" : "Long";
+            case DECIMAL:
+                // Floats hold numbers between roughly 1.4e-45 and 3.4e38
+                return (this.leadingDigit == -1 || (this.decimalExponent <= 37 && this.decimalExponent >= -44))? "Float" : "Double";
+            case BOOLEAN:
+                return "Boolean";
+            case DATE:
+                return "LocalDate";
+            case TIMESTAMP:
+                return "LocalDateTime";
+            case CHARACTER:
+                return "Character";
+            case TEXT:
+                return "String";
+            default:
+                return null;
+        }
+    }
+
+// ===================================================================================================================================
+//  WIDENING
+
+    /**
+     * Gets the narrowest data type able to hold the values of both types.
+     *
+     * Example:
+     * widen("Integer", "Float")     // Returns "Float"
+     * widen("Integer", null)        // Returns "Integer", as null stands for an empty value
+     * widen("Boolean", "Integer")   // Returns "String"
+     * widen("LocalDate", "LocalDateTime")   // Returns "LocalDateTime"
+     *
+     * @param type The current data type of a column, or null if it is unknown
+     * @param other The data type of a new value, or null for an empty value
+     * @return The widened data type
+     */
+    static String widen(String type, String other){
+        if (type == null)
+            return other;
+        else if (other == null || type.equals(other))
+            return type;
+
+        int rank = numericRank(type);
+        int otherRank = numericRank(other);
+        if (rank >= 0 && otherRank >= 0)
+            return (rank >= otherRank)? type : other;
+        else if ((type.equals("LocalDate") || type.equals("LocalDateTime")) && (other.equals("LocalDate") || other.equals("LocalDateTime")))
+            return "LocalDateTime";
+
+        return "String";
+    }
+
+    /**
+     * Checks if a column of the given type can hold a value of another type without widening
+     */
+    static boolean fits(String type, String other){
+        return other == null || type.equals(widen(type, other));
+    }
+
+    private static int numericRank(String type){
+        switch (type){
+            case "Short":   return 0;
+            case "Integer": return 1;
+            case "Long":    return 2;
+            case "Float":   return 3;
+            case "Double":  return 4;
+            default:        return -1;
+        }
+    }
+}
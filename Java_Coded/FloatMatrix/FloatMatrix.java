@@ -1,36 +1,381 @@
-package JavaCoded;
+package FloatMatrix;
 
-import DataFrame.DataFrame;
-import MachineLearningException.*;
+import java.util.concurrent.ForkJoinPool;
 
-public class FloatMatrix{
-    
-    private int rowSize;
-    private int colSize;
-    private float[][] values;
-    
-    public FloatMatrix(){
+import DataFrame.*;
+import MachineLearningExceptions.*;
 
+/**
+ * A dense matrix of floats, stored row by row in a single array.
+ *
+ * Element (row, col) sits at values[offset + row * stride + col]. A matrix created by subMatrix() is a view
+ * sharing the array of its source, so its stride is the row length of the source rather than its own.
+ * Operations never modify their operands and return a new matrix with a contiguous array.
+ *
+ * How to use it:
+ * FloatMatrix x = new FloatMatrix(df.select("TV", "Radio", "Newspaper"));
+ * FloatMatrix gram = x.transpose().dotProduct(x);
+ * float [] predictions = x.dotProduct(new float[]{0.0458f, 0.1885f, -0.0010f});
+ *
+ * Large products run on several threads (see ParallelGemm and setThreads()). The result is the same
+ * to the last bit whatever the number of threads, so a model trained on a laptop matches the one trained on a server.
+ */
+public class FloatMatrix {
+
+    // Size of the square tiles moved at once by transpose()
+    private static final int TRANSPOSE_TILE = 32;
+
+    // Pool running the large products, or null to keep every product on the calling thread
+    private static ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    // Products with fewer multiply-adds than this stay on the calling thread, as splitting them costs more than it saves
+    private static long parallelThreshold = 1L << 21;
+
+    private final int rowSize;
+    private final int colSize;
+    private final float [] values;
+    private final int offset;
+    private final int stride;
+
+    /**
+     * Creates a matrix filled with 0
+     */
+    public FloatMatrix(int rowSize, int colSize){
+        this(new float[checkSize(rowSize, colSize)], rowSize, colSize, 0, colSize);
+    }
+
+    /**
+     * Creates a matrix from an array of rows, which is copied
+     */
+    public FloatMatrix(float [][] values){
+        if (values == null)
+            throw new IllegalArgumentException("The parameter \"values\" is null.");
+
+        this.rowSize = values.length;
+        this.colSize = (values.length == 0)? 0 : values[0].length;
+        this.values = new float[checkSize(rowSize, colSize)];
+        this.offset = 0;
+        this.stride = colSize;
+
+        for (int i = 0; i < rowSize; i++){
+            if (values[i] == null || values[i].length != colSize)
+                throw new IllegalArgumentException("The row " + i + " of the parameter \"values\" must have " + colSize + " elements.");
+            System.arraycopy(values[i], 0, this.values, i * colSize, colSize);
+        }
+    }
+
+    /**
+     * Wraps a row-major array without copying it, so later changes to the array show in the matrix
+     * @param values The elements, row by row (rowSize * colSize of them)
+     */
+    public FloatMatrix(int rowSize, int colSize, float [] values){
+        if (values == null)
+            throw new IllegalArgumentException("The parameter \"values\" is null.");
+        else if (values.length != checkSize(rowSize, colSize))
+            throw new IllegalArgumentException("The parameter \"values\" must have " + (rowSize * colSize) + " elements, but it has " + values.length + ".");
+
+        this.rowSize = rowSize;
+        this.colSize = colSize;
+        this.values = values;
+        this.offset = 0;
+        this.stride = colSize;
     }
 
+    /**
+     * Packs the columns of a DataFrame into a matrix, one column of the DataFrame per column of the matrix.
+     * The values are copied straight from the primitive arrays of the columns, without boxing them.
+     * Missing values become NaN.
+     * @param data A DataFrame made of numeric columns only
+     */
     public FloatMatrix(DataFrame data){
-        int [] get
+        if (data == null)
+            throw new IllegalArgumentException("The parameter \"data\" is null.");
+
+        int [] shape = data.getShape();
+        this.rowSize = shape[0];
+        this.colSize = shape[1];
+        this.values = new float[checkSize(rowSize, colSize)];
+        this.offset = 0;
+        this.stride = colSize;
+
+        for (int j = 0; j < colSize; j++){
+            Series<?> column = data.getColumn(j);
+            if (!(column instanceof NumericSeries))
+                throw new IllegalDataTypeException("The column \"" + column.getName() + "\" must be numeric, but it holds " + column.getType() + " values.");
+
+            NumericSeries<?> numbers = (NumericSeries<?>) column;
+            numbers.getFloats(0, rowSize, this.values, j, colSize);
+
+            // Missing values become NaN, found a word of the validity bitmap at a time
+            if (numbers.hasNulls()){
+                long [] present = new long[(rowSize + 63) >>> 6];
+                numbers.getValidity(0, rowSize, present);
+                for (int w = 0; w < present.length; w++){
+                    for (long missing = ~present[w]; missing != 0; missing &= missing - 1){
+                        int i = (w << 6) + Long.numberOfTrailingZeros(missing);
+                        if (i >= rowSize)
+                            break;
+                        this.values[i * colSize + j] = Float.NaN;
+                    }
+                }
+            }
+        }
     }
 
-    public FloatMatrix add(){
+    private FloatMatrix(float [] values, int rowSize, int colSize, int offset, int stride){
+        this.rowSize = rowSize;
+        this.colSize = colSize;
+        this.values = values;
+        this.offset = offset;
+        this.stride = stride;
+    }
+
+    private static int checkSize(int rowSize, int colSize){
+        if (rowSize < 0 || colSize < 0)
+            throw new IllegalArgumentException("The number of rows and columns must not be negative.");
+        else if ((long) rowSize * colSize > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("A matrix of " + rowSize + " x " + colSize + " is too large to be held in a single array.");
+        return rowSize * colSize;
+    }
+
+// ===================================================================================================================================
+//  OPERATIONS
+
+    public FloatMatrix add(FloatMatrix other){
+        checkSameShape(other);
+        FloatMatrix result = new FloatMatrix(rowSize, colSize);
+
+        for (int i = 0; i < rowSize; i++){
+            int row = this.offset + i * this.stride;
+            int otherRow = other.offset + i * other.stride;
+            int resultRow = i * colSize;
+            for (int j = 0; j < colSize; j++)
+                result.values[resultRow + j] = this.values[row + j] + other.values[otherRow + j];
+        }
+        return result;
+    }
+
+    public FloatMatrix subtract(FloatMatrix other){
+        checkSameShape(other);
+        FloatMatrix result = new FloatMatrix(rowSize, colSize);
 
+        for (int i = 0; i < rowSize; i++){
+            int row = this.offset + i * this.stride;
+            int otherRow = other.offset + i * other.stride;
+            int resultRow = i * colSize;
+            for (int j = 0; j < colSize; j++)
+                result.values[resultRow + j] = this.values[row + j] - other.values[otherRow + j];
+        }
+        return result;
     }
 
-    public FloatMatrix subtract(){
+    /**
+     * Multiplies every element by a number
+     */
+    public FloatMatrix scale(float factor){
+        FloatMatrix result = new FloatMatrix(rowSize, colSize);
 
+        for (int i = 0; i < rowSize; i++){
+            int row = this.offset + i * this.stride;
+            int resultRow = i * colSize;
+            for (int j = 0; j < colSize; j++)
+                result.values[resultRow + j] = factor * this.values[row + j];
+        }
+        return result;
     }
 
-    public FloatMatrix scale(){
+    /**
+     * Swaps the rows and the columns. The elements are moved in square tiles,
+     * so both the reads and the writes stay within a few cache lines at a time.
+     */
+    public FloatMatrix transpose(){
+        FloatMatrix result = new FloatMatrix(colSize, rowSize);
 
+        for (int ii = 0; ii < rowSize; ii += TRANSPOSE_TILE){
+            int iEnd = Math.min(rowSize, ii + TRANSPOSE_TILE);
+            for (int jj = 0; jj < colSize; jj += TRANSPOSE_TILE){
+                int jEnd = Math.min(colSize, jj + TRANSPOSE_TILE);
+
+                for (int i = ii; i < iEnd; i++){
+                    int row = this.offset + i * this.stride;
+                    for (int j = jj; j < jEnd; j++)
+                        result.values[j * rowSize + i] = this.values[row + j];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the matrix product this * other (see Gemm)
+     * @param other A matrix with as many rows as this one has columns
+     * @return A matrix of this.getRowSize() x other.getColSize()
+     */
+    public FloatMatrix dotProduct(FloatMatrix other){
+        if (other == null)
+            throw new IllegalArgumentException("The parameter \"other\" is null.");
+        else if (this.colSize != other.rowSize)
+            throw new IllegalArgumentException("Unable to multiply a matrix of " + getShape_String() + " by a matrix of " + other.getShape_String() + ".");
+
+        FloatMatrix result = new FloatMatrix(this.rowSize, other.colSize);
+        ForkJoinPool pool = getPool((long) this.rowSize * this.colSize * other.colSize);
+        if (pool != null)
+            ParallelGemm.multiply(pool, this.values, this.offset, this.stride,
+                                  other.values, other.offset, other.stride,
+                                  result.values, 0, result.stride,
+                                  this.rowSize, this.colSize, other.colSize);
+        else
+            Gemm.multiply(this.values, this.offset, this.stride,
+                          other.values, other.offset, other.stride,
+                          result.values, 0, result.stride,
+                          0, this.rowSize, this.colSize, other.colSize);
+        return result;
     }
 
-    public FloatMatrix dotProduct(){
+    /**
+     * Computes the matrix-vector product this * vector
+     * @param vector An array with one element per column
+     * @return An array with one element per row
+     */
+    public float[] dotProduct(float [] vector){
+        if (vector == null)
+            throw new IllegalArgumentException("The parameter \"vector\" is null.");
+        else if (vector.length != this.colSize)
+            throw new IllegalArgumentException("The parameter \"vector\" must have " + colSize + " elements, but it has " + vector.length + ".");
+
+        float [] result = new float[rowSize];
+        ForkJoinPool pool = getPool((long) this.rowSize * this.colSize);
+        if (pool != null)
+            ParallelGemm.multiplyVector(pool, this.values, this.offset, this.stride, vector, result, rowSize, colSize);
+        else
+            Gemm.multiplyVector(this.values, this.offset, this.stride, vector, result, 0, rowSize, colSize);
+        return result;
+    }
+
+    /**
+     * @param multiplyAdds Amount of work of a product
+     * @return The pool to run the product on, or null if it should stay on the calling thread
+     */
+    private static synchronized ForkJoinPool getPool(long multiplyAdds){
+        return (multiplyAdds < parallelThreshold)? null : pool;
+    }
 
+    private void checkSameShape(FloatMatrix other){
+        if (other == null)
+            throw new IllegalArgumentException("The parameter \"other\" is null.");
+        else if (this.rowSize != other.rowSize || this.colSize != other.colSize)
+            throw new IllegalArgumentException("The matrices must have the same shape, but they are " + getShape_String() + " and " + other.getShape_String() + ".");
     }
 
-}
\ No newline at end of file
+// ===================================================================================================================================
+//  THREADING
+
+    /**
+     * Sets the number of threads running the large products of every FloatMatrix.
+     * Defaults to the common ForkJoinPool, which has one thread per core.
+     * @param threads Number of threads, or 1 to run every product on the calling thread
+     */
+    public static synchronized void setThreads(int threads){
+        if (threads < 1)
+            throw new IllegalArgumentException("The parameter \"threads\" must be a positive non-zero number.");
+
+        if (pool != null && pool != ForkJoinPool.commonPool())
+            pool.shutdown();
+
+        if (threads == 1)
+            pool = null;
+        else if (threads == ForkJoinPool.getCommonPoolParallelism())
+            pool = ForkJoinPool.commonPool();
+        else
+            pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Sets the size from which a product is spread over several threads
+     * @param multiplyAdds Number of multiply-adds of a product (rows * depth * columns), 0 to spread every product
+     */
+    public static synchronized void setParallelThreshold(long multiplyAdds){
+        if (multiplyAdds < 0)
+            throw new IllegalArgumentException("The parameter \"multiplyAdds\" must not be negative.");
+        parallelThreshold = multiplyAdds;
+    }
+
+// ===================================================================================================================================
+//  SUBSETTING
+
+    /**
+     * Selects a block of the matrix (both ends included)
+     * @return A view sharing its elements with this matrix, so a set() on one shows in the other
+     */
+    public FloatMatrix subMatrix(int startRow, int startCol, int endRow, int endCol){
+        if (startRow < 0 || startCol < 0 || startRow > endRow || startCol > endCol || endRow >= rowSize || endCol >= colSize)
+            throw new IllegalArgumentException("The rows [" + startRow + ", " + endRow + "] and columns [" + startCol + ", " + endCol
+                                                + "] must be within the " + getShape_String() + " matrix.");
+
+        return new FloatMatrix(values, endRow - startRow + 1, endCol - startCol + 1, offset + startRow * stride + startCol, stride);
+    }
+
+    /**
+     * Copies the matrix into a new, contiguous array
+     */
+    public FloatMatrix copy(){
+        FloatMatrix result = new FloatMatrix(rowSize, colSize);
+        for (int i = 0; i < rowSize; i++)
+            System.arraycopy(this.values, this.offset + i * this.stride, result.values, i * colSize, colSize);
+        return result;
+    }
+
+// ===================================================================================================================================
+//  GETTERS AND SETTERS
+
+    public float get(int row, int col){
+        return this.values[position(row, col)];
+    }
+
+    public void set(int row, int col, float value){
+        this.values[position(row, col)] = value;
+    }
+
+    private int position(int row, int col){
+        if (row < 0 || row >= rowSize || col < 0 || col >= colSize)
+            throw new IllegalArgumentException("The element (" + row + ", " + col + ") is out of the " + getShape_String() + " matrix.");
+        return this.offset + row * this.stride + col;
+    }
+
+    public int getRowSize(){
+        return this.rowSize;
+    }
+
+    public int getColSize(){
+        return this.colSize;
+    }
+
+    public int[] getShape(){
+        return new int[]{this.rowSize, this.colSize};
+    }
+
+    public String getShape_String(){
+        return "(" + this.rowSize + ", " + this.colSize + ")";
+    }
+
+    /**
+     * Copies a row of the matrix
+     */
+    public float[] getRow(int row){
+        float [] result = new float[colSize];
+        System.arraycopy(this.values, position(row, 0), result, 0, colSize);
+        return result;
+    }
+
+    @Override
+    public String toString(){
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < rowSize; i++){
+            builder.append("[ ");
+            for (int j = 0; j < colSize; j++)
+                builder.append(this.values[this.offset + i * this.stride + j]).append(' ');
+            builder.append("]\n");
+        }
+        return builder.toString();
+    }
+}
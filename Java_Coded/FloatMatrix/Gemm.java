@@ -0,0 +1,65 @@
+package FloatMatrix;
+
+import VectorMath.VectorMath;
+
+/**
+ * Cache-blocked kernel of the matrix product C += A * B used by FloatMatrix.
+ *
+ * The loops run in i-k-j order, so the innermost loop walks along a row of B and a row of C with unit stride,
+ * as fused multiply-adds over whole SIMD registers (see VectorMath.fma4()). The depth is cut into blocks of
+ * DEPTH_BLOCK rows of B, and the columns into blocks of WIDTH_BLOCK, so the panel of B being read stays in the
+ * L2 cache while every row of A goes through it. Four rows of B are consumed per pass over the row of C, quartering the loads and stores of C.
+ *
+ * Every element of C sums its products in the same order (by increasing k, four at a time) whatever range of rows
+ * is computed, so computing the rows in separate calls gives the exact same bits as a single call.
+ */
+final class Gemm {
+
+    // Number of rows of B (and columns of A) per block
+    static final int DEPTH_BLOCK = 256;
+
+    // Number of columns of B and C per block
+    static final int WIDTH_BLOCK = 512;
+
+    private Gemm(){}
+
+    /**
+     * Adds the product of A and B to the rows [rowStart, rowEnd) of C.
+     * Each matrix is given as a row-major array, the position of its first element and the distance between two rows.
+     * @param depth Number of columns of A, which is the number of rows of B
+     * @param width Number of columns of B and C
+     */
+    static void multiply(float [] a, int aOffset, int aStride,
+                         float [] b, int bOffset, int bStride,
+                         float [] c, int cOffset, int cStride,
+                         int rowStart, int rowEnd, int depth, int width){
+        for (int kk = 0; kk < depth; kk += DEPTH_BLOCK){
+            int kEnd = Math.min(depth, kk + DEPTH_BLOCK);
+
+            for (int jj = 0; jj < width; jj += WIDTH_BLOCK){
+                int length = Math.min(width, jj + WIDTH_BLOCK) - jj;
+
+                for (int i = rowStart; i < rowEnd; i++){
+                    int aRow = aOffset + i * aStride;
+                    int cRow = cOffset + i * cStride + jj;
+
+                    int k = kk;
+                    for (; k + 3 < kEnd; k += 4)
+                        VectorMath.fma4(a[aRow + k], a[aRow + k + 1], a[aRow + k + 2], a[aRow + k + 3],
+                                        b, bOffset + k * bStride + jj, bStride, c, cRow, length);
+                    for (; k < kEnd; k++)
+                        VectorMath.fma(a[aRow + k], b, bOffset + k * bStride + jj, c, cRow, length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes y = A * x for the rows [rowStart, rowEnd) of A
+     */
+    static void multiplyVector(float [] a, int aOffset, int aStride, float [] x, float [] y,
+                               int rowStart, int rowEnd, int width){
+        for (int i = rowStart; i < rowEnd; i++)
+            y[i] = (float) VectorMath.dot(a, aOffset + i * aStride, x, 0, width);
+    }
+}
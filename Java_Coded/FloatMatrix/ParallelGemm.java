@@ -0,0 +1,123 @@
+package FloatMatrix;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Spreads the matrix products of FloatMatrix over the threads of a ForkJoinPool.
+ *
+ * The output is split in halves, rows first then columns, until each tile is at most ROW_TILE rows by COL_TILE columns.
+ * Every tile is then computed by the single-threaded Gemm kernel. Idle threads steal the halves left by busy ones,
+ * so uneven tiles and busy cores balance out on their own.
+ *
+ * Tiles never share an output element and Gemm sums every element in the same order whatever tile it is in,
+ * so the result has the same bits as the single-threaded product, for any number of threads.
+ */
+final class ParallelGemm {
+
+    // Largest tile computed by one task
+    static final int ROW_TILE = 64;
+    static final int COL_TILE = Gemm.WIDTH_BLOCK;
+
+    // Columns are split at multiples of this, so each tile starts on a whole SIMD register of floats
+    private static final int COL_ALIGNMENT = 16;
+
+    // Largest number of rows of a matrix-vector product computed by one task
+    static final int VECTOR_ROW_TILE = 1024;
+
+    private ParallelGemm(){}
+
+    /**
+     * Same as Gemm.multiply() over all the rows and columns of C, run on a pool
+     */
+    static void multiply(ForkJoinPool pool, float [] a, int aOffset, int aStride,
+                         float [] b, int bOffset, int bStride,
+                         float [] c, int cOffset, int cStride,
+                         int rows, int depth, int width){
+        pool.invoke(new ProductTile(a, aOffset, aStride, b, bOffset, bStride, c, cOffset, cStride, depth, 0, rows, 0, width));
+    }
+
+    /**
+     * Same as Gemm.multiplyVector() over all the rows of A, run on a pool
+     */
+    static void multiplyVector(ForkJoinPool pool, float [] a, int aOffset, int aStride, float [] x, float [] y,
+                               int rows, int width){
+        pool.invoke(new VectorTile(a, aOffset, aStride, x, y, width, 0, rows));
+    }
+
+    private static final class ProductTile extends RecursiveAction {
+
+        private final float [] a, b, c;
+        private final int aOffset, aStride, bOffset, bStride, cOffset, cStride;
+        private final int depth;
+        private final int rowStart, rowEnd, colStart, colEnd;
+
+        ProductTile(float [] a, int aOffset, int aStride, float [] b, int bOffset, int bStride,
+                    float [] c, int cOffset, int cStride, int depth, int rowStart, int rowEnd, int colStart, int colEnd){
+            this.a = a;
+            this.aOffset = aOffset;
+            this.aStride = aStride;
+            this.b = b;
+            this.bOffset = bOffset;
+            this.bStride = bStride;
+            this.c = c;
+            this.cOffset = cOffset;
+            this.cStride = cStride;
+            this.depth = depth;
+            this.rowStart = rowStart;
+            this.rowEnd = rowEnd;
+            this.colStart = colStart;
+            this.colEnd = colEnd;
+        }
+
+        private ProductTile tile(int rowStart, int rowEnd, int colStart, int colEnd){
+            return new ProductTile(a, aOffset, aStride, b, bOffset, bStride, c, cOffset, cStride, depth, rowStart, rowEnd, colStart, colEnd);
+        }
+
+        @Override
+        protected void compute(){
+            int rows = rowEnd - rowStart;
+            int cols = colEnd - colStart;
+
+            if (rows > ROW_TILE){
+                int middle = rowStart + rows / 2;
+                invokeAll(tile(rowStart, middle, colStart, colEnd), tile(middle, rowEnd, colStart, colEnd));
+            } else if (cols > COL_TILE){
+                int middle = colStart + (cols / 2 + COL_ALIGNMENT - 1) / COL_ALIGNMENT * COL_ALIGNMENT;
+                invokeAll(tile(rowStart, rowEnd, colStart, middle), tile(rowStart, rowEnd, middle, colEnd));
+            } else {
+                // Moving the start of B and C to the first column of the tile leaves the kernel a whole product to compute
+                Gemm.multiply(a, aOffset, aStride, b, bOffset + colStart, bStride, c, cOffset + colStart, cStride,
+                              rowStart, rowEnd, depth, cols);
+            }
+        }
+    }
+
+    private static final class VectorTile extends RecursiveAction {
+
+        private final float [] a, x, y;
+        private final int aOffset, aStride, width;
+        private final int rowStart, rowEnd;
+
+        VectorTile(float [] a, int aOffset, int aStride, float [] x, float [] y, int width, int rowStart, int rowEnd){
+            this.a = a;
+            this.aOffset = aOffset;
+            this.aStride = aStride;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.rowStart = rowStart;
+            this.rowEnd = rowEnd;
+        }
+
+        @Override
+        protected void compute(){
+            if (rowEnd - rowStart > VECTOR_ROW_TILE){
+                int middle = rowStart + (rowEnd - rowStart) / 2;
+                invokeAll(new VectorTile(a, aOffset, aStride, x, y, width, rowStart, middle),
+                          new VectorTile(a, aOffset, aStride, x, y, width, middle, rowEnd));
+            } else
+                Gemm.multiplyVector(a, aOffset, aStride, x, y, rowStart, rowEnd, width);
+        }
+    }
+}
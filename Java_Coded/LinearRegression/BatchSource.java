@@ -0,0 +1,40 @@
+package LinearRegression;
+
+/**
+ * Hands out the rows of a training dataset in batches, one epoch at a time (see GradientDescent).
+ *
+ * Only one batch has to be held in memory at once, so a source can stream a dataset that does not fit in memory
+ * (see CsvBatches) as well as walk through a DataFrame (see DataFrameBatches).
+ */
+public interface BatchSource extends AutoCloseable {
+
+    /**
+     * @return The names of the independent variables, in the order their values are written to each row
+     */
+    String[] getFeatureNames();
+
+    /**
+     * @return The name of the dependent variable
+     */
+    String getTargetName();
+
+    /**
+     * Goes back to the first row, starting a new epoch
+     */
+    void reset();
+
+    /**
+     * Writes the next rows of the epoch
+     * @param x Receives the independent variables, row by row (maxRows * number of features values)
+     * @param y Receives the dependent variable of each row
+     * @param maxRows Maximum number of rows to be written
+     * @return The number of rows written, or 0 once the epoch is over
+     */
+    int nextBatch(double [] x, double [] y, int maxRows);
+
+    /**
+     * Releases the resources held by the source, such as an open file
+     */
+    @Override
+    default void close(){}
+}
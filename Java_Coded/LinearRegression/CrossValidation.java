@@ -0,0 +1,236 @@
+package LinearRegression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import DataFrame.*;
+import MachineLearningExceptions.IllegalDataTypeException;
+import MachineLearningExceptions.NoTrainingExecutedException;
+
+/**
+ * K-fold cross-validation of a LinearRegression over a single DataFrame.
+ *
+ * The rows are shuffled once into k folds (see DataFrame.kFold()), which are views of the DataFrame, so no row is copied.
+ * Each fold is then trained on the other k - 1 folds and scored on its own rows.
+ *
+ * Instead of fitting every fold from scratch, which would read the dataset k - 1 times, the sums XᵀX and Xᵀy of each fold
+ * are built once (see NormalEquations). The equations of a fold's training rows are the sum of the other folds' partial
+ * sums, so the whole cross-validation reads every row twice: once for the sums and once for the scores.
+ * Only a fold whose equations are ill-conditioned goes back to its training rows, for a QR decomposition.
+ * Both passes run one fold per task on a pool bounded by setThreads().
+ *
+ * How to use it:
+ * CrossValidation cv = new CrossValidation(5);
+ * cv.setSeed(42);
+ * cv.run(df, "Sales", "TV", "Radio", "Newspaper");
+ * System.out.println(cv.getMetrics().getR2());
+ */
+public class CrossValidation {
+
+    private final int folds;
+    private int threads;
+    private int seed;
+
+    // Results of the last run, one per fold
+    private LinearRegression [] models;
+    private RegressionMetrics [] foldMetrics;
+
+    /**
+     * @param folds Number of folds, at least 2
+     */
+    public CrossValidation(int folds){
+        if (folds < 2)
+            throw new IllegalArgumentException("The parameter \"folds\" must be at least 2.");
+        this.folds = folds;
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.seed = -1;
+    }
+
+// ===================================================================================================================================
+//  SETTERS
+
+    /**
+     * Sets the maximum number of folds processed at once. Defaults to the number of available processors.
+     * The results do not depend on it.
+     */
+    public void setThreads(int threads){
+        if (threads < 1)
+            throw new IllegalArgumentException("The parameter \"threads\" must be a positive non-zero number.");
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the seed of the shuffle, so the same seed gives the same folds. Defaults to -1, a different shuffle on every run.
+     */
+    public void setSeed(int seed){
+        this.seed = seed;
+    }
+
+// ===================================================================================================================================
+//  CROSS-VALIDATION
+
+    /**
+     * Trains and scores a model on every fold
+     * @param dataset The DataFrame to be split into folds
+     * @param dependentVar The column to be predicted
+     * @param independentVars The columns used to predict it
+     */
+    public void run(DataFrame dataset, String dependentVar, String... independentVars){
+        if (dataset == null)
+            throw new IllegalArgumentException("The parameter \"dataset\" is null.");
+        else if (dependentVar == null)
+            throw new IllegalArgumentException("The parameter \"dependentVar\" is null.");
+        else if (independentVars == null || independentVars.length == 0)
+            throw new IllegalArgumentException("The parameter \"independentVars\" must not be null nor empty.");
+
+        int [] shape = dataset.getShape();
+        if (shape[0] < folds)
+            throw new IllegalArgumentException("Unable to make " + folds + " folds out of " + shape[0] + " rows.");
+
+        // A view of every row carries the seed, leaving the one of the dataset untouched
+        DataFrame rows = dataset.iloc(0, 0, shape[0] - 1, shape[1] - 1);
+        rows.setSeed(this.seed);
+        DataFrame[][] pairs = rows.kFold(folds);
+
+        // First pass: the sums of each fold's own rows
+        List<NormalEquations> partials = runFolds(fold -> {
+            DataFrame testing = pairs[fold][1];
+            return NormalEquations.build(getColumns(testing, independentVars), getColumn(testing, dependentVar), 1);
+        });
+
+        // Second pass: each fold is fitted on the sums of the other folds, then scored on its own rows
+        List<LinearRegression> fitted = runFolds(fold -> {
+            NormalEquations equations = new NormalEquations(independentVars.length);
+            for (int other = 0; other < folds; other++){
+                if (other != fold)
+                    equations.merge(partials.get(other));
+            }
+            if (equations.getRows() == 0)
+                throw new IllegalArgumentException("Unable to fit the fold " + fold + " as every training row has a missing value.");
+
+            double [] coefficients = equations.solve();
+            if (coefficients == null){
+                DataFrame training = pairs[fold][0];
+                coefficients = IncrementalQR.build(getColumns(training, independentVars), getColumn(training, dependentVar), 1).solve();
+            }
+
+            LinearRegression model = new LinearRegression();
+            model.setThreads(1);
+            model.setModel(dependentVar, independentVars.clone(), coefficients);
+            return model;
+        });
+
+        List<RegressionMetrics> scores = runFolds(fold -> fitted.get(fold).evaluate(pairs[fold][1]));
+
+        this.models = fitted.toArray(new LinearRegression[0]);
+        this.foldMetrics = scores.toArray(new RegressionMetrics[0]);
+    }
+
+    /**
+     * A task run for a single fold
+     */
+    private interface FoldTask<T> {
+        T run(int fold);
+    }
+
+    /**
+     * Runs a task for every fold on a pool of at most threads threads
+     * @return The result of each fold, in fold order
+     */
+    private <T> List<T> runFolds(FoldTask<T> task){
+        List<T> results = new ArrayList<>(folds);
+        if (threads == 1){
+            for (int fold = 0; fold < folds; fold++)
+                results.add(task.run(fold));
+            return results;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, folds));
+        try {
+            List<Callable<T>> tasks = new ArrayList<>(folds);
+            for (int fold = 0; fold < folds; fold++){
+                int index = fold;
+                tasks.add(() -> task.run(index));
+            }
+
+            for (Future<T> result : pool.invokeAll(tasks))
+                results.add(result.get());
+            return results;
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The cross-validation was interrupted.", e);
+        } catch (ExecutionException e){
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static NumericSeries<?>[] getColumns(DataFrame dataset, String [] colNames){
+        NumericSeries<?>[] columns = new NumericSeries[colNames.length];
+        for (int j = 0; j < colNames.length; j++)
+            columns[j] = getColumn(dataset, colNames[j]);
+        return columns;
+    }
+
+    private static NumericSeries<?> getColumn(DataFrame dataset, String colName){
+        Series<?> column = dataset.select(colName);
+        if (!(column instanceof NumericSeries))
+            throw new IllegalDataTypeException("The column \"" + colName + "\" must be numeric, but it holds " + column.getType() + " values.");
+        return (NumericSeries<?>) column;
+    }
+
+// ===================================================================================================================================
+//  GETTERS
+
+    private void checkRun(){
+        if (this.foldMetrics == null)
+            throw new NoTrainingExecutedException("No cross-validation has been run. Call the run() method first.");
+    }
+
+    /**
+     * @return The model fitted for each fold, on the rows of every other fold
+     */
+    public LinearRegression[] getModels(){
+        checkRun();
+        return this.models.clone();
+    }
+
+    /**
+     * @return The scores of each fold's model on the fold's own rows
+     */
+    public RegressionMetrics[] getFoldMetrics(){
+        checkRun();
+        return this.foldMetrics.clone();
+    }
+
+    /**
+     * Gets the scores of every fold pooled together, as if each row had been predicted by the model that did not see it
+     */
+    public RegressionMetrics getMetrics(){
+        checkRun();
+        RegressionMetrics pooled = new RegressionMetrics();
+        for (RegressionMetrics metrics : this.foldMetrics)
+            pooled.merge(metrics);
+        return pooled;
+    }
+
+    /**
+     * @return The mean of the R² of the folds
+     */
+    public double getMeanR2(){
+        checkRun();
+        double sum = 0;
+        for (RegressionMetrics metrics : this.foldMetrics)
+            sum += metrics.getR2();
+        return sum / this.foldMetrics.length;
+    }
+}
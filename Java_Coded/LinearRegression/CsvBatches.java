@@ -0,0 +1,179 @@
+package LinearRegression;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import MachineLearningExceptions.UnknownColumnException;
+
+/**
+ * A BatchSource streaming the rows of a csv file, so a dataset larger than the memory can still be trained on.
+ *
+ * The file is read again from the start on every epoch, and only the current line is kept in memory.
+ * Only the selected columns are parsed, as numbers. Rows with an empty field in one of them are skipped.
+ *
+ * How to use it:
+ * try (CsvBatches batches = new CsvBatches("large_file.csv", "Price", "Area", "Rooms")){
+ *     lr.train(batches, optimizer);
+ * }
+ */
+public class CsvBatches implements BatchSource {
+
+    // Size of the character buffer used by the underlying BufferedReader
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private final String pathToFile;
+    private final String [] featureNames;
+    private final String targetName;
+
+    // Position of each feature and of the target among the fields of a line
+    private final int [] featureFields;
+    private final int targetField;
+    private final int fieldCount;
+
+    // Holds the fields of the line being parsed, by position
+    private final double [] values;
+    private final boolean [] selected;
+
+    private BufferedReader reader;
+    private long lineNumber;
+
+    public CsvBatches(String pathToFile, String dependentVar, String... independentVars){
+        if (pathToFile == null)
+            throw new IllegalArgumentException("The parameter \"pathToFile\" is null.");
+        else if (dependentVar == null)
+            throw new IllegalArgumentException("The parameter \"dependentVar\" is null.");
+        else if (independentVars == null || independentVars.length == 0)
+            throw new IllegalArgumentException("The parameter \"independentVars\" must not be null nor empty.");
+
+        this.pathToFile = pathToFile;
+        this.featureNames = independentVars.clone();
+        this.targetName = dependentVar;
+
+        String [] header = openFile();
+        this.fieldCount = header.length;
+        this.featureFields = new int[independentVars.length];
+        for (int j = 0; j < independentVars.length; j++)
+            this.featureFields[j] = findField(header, independentVars[j]);
+        this.targetField = findField(header, dependentVar);
+
+        this.values = new double[fieldCount];
+        this.selected = new boolean[fieldCount];
+        for (int field : featureFields)
+            this.selected[field] = true;
+        this.selected[targetField] = true;
+    }
+
+    private int findField(String [] header, String colName){
+        for (int i = 0; i < header.length; i++){
+            if (header[i].equals(colName))
+                return i;
+        }
+        throw new UnknownColumnException("The column \"" + colName + "\" doesn't exist in the file \"" + pathToFile + "\".");
+    }
+
+    /**
+     * Opens the file, leaving the reader right after the header
+     * @return The column names found in the header
+     */
+    private String [] openFile(){
+        close();
+        try {
+            this.reader = new BufferedReader(new FileReader(pathToFile, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+            this.lineNumber = 1;
+            String header = reader.readLine();
+            if (header == null)
+                throw new IllegalArgumentException("The file \"" + pathToFile + "\" is empty.");
+            if (header.endsWith("\r"))
+                header = header.substring(0, header.length() - 1);
+            return header.split(",", -1);
+        } catch (IOException e){
+            throw new UncheckedIOException("Unable to read the file \"" + pathToFile + "\".", e);
+        }
+    }
+
+    @Override
+    public String[] getFeatureNames(){
+        return this.featureNames.clone();
+    }
+
+    @Override
+    public String getTargetName(){
+        return this.targetName;
+    }
+
+    @Override
+    public void reset(){
+        openFile();
+    }
+
+    @Override
+    public int nextBatch(double [] x, double [] y, int maxRows){
+        if (reader == null)
+            return 0;
+
+        int width = featureFields.length;
+        int filled = 0;
+        try {
+            String line;
+            while (filled < maxRows && (line = reader.readLine()) != null){
+                lineNumber++;
+                if (line.isEmpty() || !parseLine(line))
+                    continue;
+
+                for (int j = 0; j < width; j++)
+                    x[filled * width + j] = values[featureFields[j]];
+                y[filled] = values[targetField];
+                filled++;
+            }
+        } catch (IOException e){
+            throw new UncheckedIOException("Unable to read the file \"" + pathToFile + "\".", e);
+        }
+        return filled;
+    }
+
+    /**
+     * Parses the selected fields of a line
+     * @return false if one of them is empty
+     */
+    private boolean parseLine(String line){
+        int length = line.length();
+        if (line.charAt(length - 1) == '\r')
+            length--;
+
+        int start = 0;
+        for (int field = 0; field < fieldCount; field++){
+            int end = (start > length)? -1 : line.indexOf(',', start);
+            if (end == -1 || end > length)
+                end = length;
+
+            if (selected[field]){
+                if (start >= end)
+                    return false;
+                try {
+                    values[field] = Double.parseDouble(line.substring(start, end));
+                } catch (NumberFormatException e){
+                    throw new IllegalArgumentException("Unable to read the value \"" + line.substring(start, end) + "\" at line "
+                                                        + lineNumber + " of the file \"" + pathToFile + "\" as a number.", e);
+                }
+            }
+            start = end + 1;
+        }
+        return true;
+    }
+
+    @Override
+    public void close(){
+        if (reader == null)
+            return;
+        try {
+            reader.close();
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        } finally {
+            reader = null;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package LinearRegression;
+
+import java.util.Random;
+
+import DataFrame.*;
+import MachineLearningExceptions.IllegalDataTypeException;
+
+/**
+ * A BatchSource walking through the numeric columns of a DataFrame.
+ *
+ * The rows are read in blocks of DesignBlock.ROWS straight from the primitive arrays of the columns.
+ * When shuffling, the order of the blocks changes on every epoch while the rows of a block stay together,
+ * so the whole dataset never has to be copied or permuted. Rows with a missing value are skipped.
+ *
+ * How to use it:
+ * DataFrameBatches batches = new DataFrameBatches(df, "Sales", "TV", "Radio");
+ * batches.setShuffle(42);
+ */
+public class DataFrameBatches implements BatchSource {
+
+    private final String [] featureNames;
+    private final String targetName;
+    private final NumericSeries<?>[] features;
+    private final NumericSeries<?> target;
+    private final int rows;
+
+    // The block being handed out, and the position of its next row
+    private final DesignBlock block;
+    private int blockRow;
+
+    // Order in which the blocks are read during the current epoch, and the next one to be read
+    private final int [] blockOrder;
+    private int nextBlock;
+
+    // Shuffles the blocks on every epoch, or null to read them in order
+    private Random random;
+
+    public DataFrameBatches(DataFrame dataset, String dependentVar, String... independentVars){
+        if (dataset == null)
+            throw new IllegalArgumentException("The parameter \"dataset\" is null.");
+        else if (dependentVar == null)
+            throw new IllegalArgumentException("The parameter \"dependentVar\" is null.");
+        else if (independentVars == null || independentVars.length == 0)
+            throw new IllegalArgumentException("The parameter \"independentVars\" must not be null nor empty.");
+
+        this.featureNames = independentVars.clone();
+        this.targetName = dependentVar;
+        this.features = new NumericSeries[independentVars.length];
+        for (int j = 0; j < independentVars.length; j++)
+            this.features[j] = getNumericColumn(dataset, independentVars[j]);
+        this.target = getNumericColumn(dataset, dependentVar);
+        this.rows = this.target.getSize();
+
+        this.block = new DesignBlock(independentVars.length);
+        this.blockOrder = new int[(rows + DesignBlock.ROWS - 1) / DesignBlock.ROWS];
+        for (int k = 0; k < blockOrder.length; k++)
+            blockOrder[k] = k;
+        reset();
+    }
+
+    private static NumericSeries<?> getNumericColumn(DataFrame dataset, String colName){
+        Series<?> column = dataset.select(colName);
+        if (!(column instanceof NumericSeries))
+            throw new IllegalDataTypeException("The column \"" + colName + "\" must be numeric, but it holds " + column.getType() + " values.");
+        return (NumericSeries<?>) column;
+    }
+
+    /**
+     * Shuffles the order of the rows on every epoch, in blocks of consecutive rows
+     * @param seed Seed of the shuffle, so the same seed gives the same order
+     */
+    public void setShuffle(long seed){
+        this.random = new Random(seed);
+        reset();
+    }
+
+    @Override
+    public String[] getFeatureNames(){
+        return this.featureNames.clone();
+    }
+
+    @Override
+    public String getTargetName(){
+        return this.targetName;
+    }
+
+    @Override
+    public void reset(){
+        if (this.random != null){
+            for (int k = blockOrder.length - 1; k > 0; k--){
+                int other = random.nextInt(k + 1);
+                int temp = blockOrder[k];
+                blockOrder[k] = blockOrder[other];
+                blockOrder[other] = temp;
+            }
+        }
+
+        this.nextBlock = 0;
+        this.blockRow = 0;
+        this.block.length = 0;
+    }
+
+    @Override
+    public int nextBatch(double [] x, double [] y, int maxRows){
+        int width = features.length;
+        int filled = 0;
+
+        while (filled < maxRows){
+            if (blockRow == block.length){
+                if (nextBlock == blockOrder.length)
+                    break;
+
+                int start = blockOrder[nextBlock++] * DesignBlock.ROWS;
+                block.load(features, target, start, Math.min(DesignBlock.ROWS, rows - start));
+                blockRow = 0;
+                continue;
+            }
+
+            int r = blockRow++;
+            if (!block.valid[r])
+                continue;
+
+            // Column 0 of the block holds the intercept
+            for (int j = 0; j < width; j++)
+                x[filled * width + j] = block.x[(j + 1) * DesignBlock.ROWS + r];
+            y[filled] = block.y[r];
+            filled++;
+        }
+
+        return filled;
+    }
+}
@@ -0,0 +1,89 @@
+package LinearRegression;
+
+import DataFrame.*;
+
+/**
+ * A block of rows of the design matrix X (with a leading column of ones for the intercept) and of the target y,
+ * copied out of the columns of a DataFrame.
+ *
+ * The block is stored column by column, so every column of X is a contiguous run of ROWS doubles
+ * that stays in the cache while it is combined with the other columns.
+ * Rows with a missing value are zeroed out, so they add nothing to the sums built from the block.
+ */
+final class DesignBlock {
+
+    // Number of rows per block, and of words in their bitmaps
+    static final int ROWS = 256;
+    private static final int WORDS = ROWS / 64;
+
+    // Number of columns of X, the intercept included
+    final int width;
+
+    // Column j of X is stored in x[j * ROWS, (j + 1) * ROWS)
+    final double [] x;
+    final double [] y;
+
+    // Whether each row of the block is used
+    final boolean [] valid;
+
+    // Validity bitmap of the block (see Series.getValidity()), and of the column being loaded
+    private final long [] validity;
+    private final long [] present;
+
+    // Number of rows loaded, and how many of them are valid
+    int length;
+    int validRows;
+
+    DesignBlock(int features){
+        this.width = features + 1;
+        this.x = new double[this.width * ROWS];
+        this.y = new double[ROWS];
+        this.valid = new boolean[ROWS];
+        this.validity = new long[WORDS];
+        this.present = new long[WORDS];
+    }
+
+    /**
+     * Loads a block of rows
+     * @param features The columns of X, without the intercept
+     * @param target The column y
+     * @param start Index of the first row
+     * @param length Number of rows, at most ROWS
+     */
+    void load(NumericSeries<?>[] features, NumericSeries<?> target, int start, int length){
+        this.length = length;
+        for (int r = 0; r < length; r++){
+            x[r] = 1;
+            valid[r] = true;
+        }
+
+        // A row is valid when every column holds a value, which is the AND of their validity bitmaps
+        int words = (length + 63) >>> 6;
+        target.getDoubles(start, length, y, 0);
+        target.getValidity(start, length, validity);
+        for (int j = 0; j < features.length; j++){
+            features[j].getDoubles(start, length, x, (j + 1) * ROWS);
+            if (features[j].hasNulls()){
+                features[j].getValidity(start, length, present);
+                for (int w = 0; w < words; w++)
+                    validity[w] &= present[w];
+            }
+        }
+
+        // Only the rows with a missing value are visited, a word at a time
+        validRows = 0;
+        for (int w = 0; w < words; w++){
+            validRows += Long.bitCount(validity[w]);
+            for (long missing = ~validity[w]; missing != 0; missing &= missing - 1){
+                int r = (w << 6) + Long.numberOfTrailingZeros(missing);
+                if (r >= length)
+                    break;
+
+                valid[r] = false;
+                for (int j = 0; j < width; j++)
+                    x[j * ROWS + r] = 0;
+                y[r] = 0;
+            }
+        }
+    }
+}
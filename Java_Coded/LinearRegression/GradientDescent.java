@@ -0,0 +1,307 @@
+package LinearRegression;
+
+import java.util.Arrays;
+
+/**
+ * Settings and algorithm of the mini-batch gradient descent used by LinearRegression.train(..., GradientDescent, ...).
+ *
+ * Each epoch walks through a BatchSource once. For every batch, the gradient of the mean squared error is computed
+ * and the coefficients take a step against it. A batch size of 1 gives plain stochastic gradient descent.
+ * Only one batch is held in memory, so a streamed source (see CsvBatches) trains in memory bounded by the batch size.
+ *
+ * Options:
+ * - L2 regularization (ridge) shrinks the coefficients by adding l2 * w to their gradient.
+ * - L1 regularization (lasso) pushes small coefficients to 0 through a soft-threshold after each step.
+ * - Early stopping ends the training once the loss has not improved for a number of epochs (the patience),
+ *   restoring the best coefficients. The validation loss is used when a validation source is set, the training loss otherwise.
+ * - Standardization (on by default) scales every independent variable to a mean of 0 and a standard deviation of 1,
+ *   found in one extra pass over the source. The learning rate then works whatever the scale of the columns.
+ *   Regularization applies to the standardized coefficients, and the returned coefficients are scaled back.
+ *
+ * How to use it:
+ * GradientDescent optimizer = new GradientDescent();
+ * optimizer.setLearningRate(0.05);
+ * optimizer.setBatchSize(64);
+ * optimizer.setEpochs(50);
+ * optimizer.setEarlyStopping(3, 1e-6);
+ * optimizer.setProgress((epoch, loss, validationLoss, rowsPerSecond) -> System.out.println(epoch + ": " + loss));
+ * lr.train(df, optimizer, "Sales", "TV", "Radio", "Newspaper");
+ */
+public class GradientDescent {
+
+    private double learningRate;
+    private int batchSize;
+    private int epochs;
+    private double l1;
+    private double l2;
+
+    // Early stopping is disabled while the patience is 0
+    private int patience;
+    private double minImprovement;
+
+    private boolean standardize;
+    private BatchSource validation;
+    private TrainingProgress progress;
+
+    // Training loss of each epoch of the last training
+    private double [] losses;
+
+    public GradientDescent(){
+        this.learningRate = 0.01;
+        this.batchSize = 32;
+        this.epochs = 100;
+        this.l1 = 0;
+        this.l2 = 0;
+        this.patience = 0;
+        this.minImprovement = 0;
+        this.standardize = true;
+        this.validation = null;
+        this.progress = null;
+        this.losses = new double[0];
+    }
+
+// ===================================================================================================================================
+//  SETTERS
+
+    public void setLearningRate(double learningRate){
+        if (!(learningRate > 0))
+            throw new IllegalArgumentException("The parameter \"learningRate\" must be a positive non-zero number.");
+        this.learningRate = learningRate;
+    }
+
+    /**
+     * @param batchSize Number of rows per gradient step, 1 for stochastic gradient descent
+     */
+    public void setBatchSize(int batchSize){
+        if (batchSize < 1)
+            throw new IllegalArgumentException("The parameter \"batchSize\" must be a positive non-zero number.");
+        this.batchSize = batchSize;
+    }
+
+    public void setEpochs(int epochs){
+        if (epochs < 1)
+            throw new IllegalArgumentException("The parameter \"epochs\" must be a positive non-zero number.");
+        this.epochs = epochs;
+    }
+
+    /**
+     * Sets the strength of the L1 (lasso) and L2 (ridge) regularizations. Both default to 0.
+     */
+    public void setRegularization(double l1, double l2){
+        if (l1 < 0 || l2 < 0)
+            throw new IllegalArgumentException("The parameters \"l1\" and \"l2\" must not be negative.");
+        this.l1 = l1;
+        this.l2 = l2;
+    }
+
+    /**
+     * Stops the training once the loss has not improved for a number of epochs
+     * @param patience Number of epochs without improvement before stopping, or 0 to disable early stopping
+     * @param minImprovement Smallest decrease of the loss counted as an improvement
+     */
+    public void setEarlyStopping(int patience, double minImprovement){
+        if (patience < 0 || minImprovement < 0)
+            throw new IllegalArgumentException("The parameters \"patience\" and \"minImprovement\" must not be negative.");
+        this.patience = patience;
+        this.minImprovement = minImprovement;
+    }
+
+    public void setStandardize(boolean standardize){
+        this.standardize = standardize;
+    }
+
+    /**
+     * Sets the rows used to compute the validation loss after every epoch, which then drives early stopping
+     * @param validation A source with the same variables as the training source, or null to remove it
+     */
+    public void setValidation(BatchSource validation){
+        this.validation = validation;
+    }
+
+    public void setProgress(TrainingProgress progress){
+        this.progress = progress;
+    }
+
+// ===================================================================================================================================
+//  TRAINING
+
+    /**
+     * Fits the coefficients of a linear model to the rows of a source
+     * @param source The training rows
+     * @return The coefficients, starting with the intercept
+     */
+    double[] fit(BatchSource source){
+        int width = source.getFeatureNames().length;
+        double [] x = new double[batchSize * width];
+        double [] y = new double[batchSize];
+
+        // Scaling of each independent variable: (x - mean) / scale
+        double [] mean = new double[width];
+        double [] scale = new double[width];
+        Arrays.fill(scale, 1);
+        double targetMean = findScaling(source, x, y, mean, scale);
+
+        double [] weights = new double[width];
+        double [] gradient = new double[width];
+        double bias = targetMean;
+
+        double [] bestWeights = weights.clone();
+        double bestBias = bias;
+        double bestLoss = Double.POSITIVE_INFINITY;
+        int epochsWithoutImprovement = 0;
+        double [] history = new double[epochs];
+        int epochsRun = 0;
+
+        for (int epoch = 1; epoch <= epochs; epoch++){
+            source.reset();
+            long start = System.nanoTime();
+            long rows = 0;
+            double squaredErrors = 0;
+
+            int length;
+            while ((length = source.nextBatch(x, y, batchSize)) > 0){
+                Arrays.fill(gradient, 0);
+                double biasGradient = 0;
+
+                for (int r = 0; r < length; r++){
+                    int row = r * width;
+                    double prediction = bias;
+                    for (int j = 0; j < width; j++){
+                        double value = (x[row + j] - mean[j]) / scale[j];
+                        x[row + j] = value;
+                        prediction += weights[j] * value;
+                    }
+
+                    double error = prediction - y[r];
+                    squaredErrors += error * error;
+                    biasGradient += error;
+                    for (int j = 0; j < width; j++)
+                        gradient[j] += error * x[row + j];
+                }
+
+                bias -= learningRate * biasGradient / length;
+                for (int j = 0; j < width; j++){
+                    double weight = weights[j] - learningRate * (gradient[j] / length + l2 * weights[j]);
+
+                    // Soft-threshold of the L1 regularization
+                    if (l1 > 0){
+                        double threshold = learningRate * l1;
+                        weight = (weight > threshold)? weight - threshold : (weight < -threshold)? weight + threshold : 0;
+                    }
+                    weights[j] = weight;
+                }
+                rows += length;
+            }
+
+            if (rows == 0)
+                throw new IllegalArgumentException("Unable to train the model as the source has no rows without missing values.");
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double loss = squaredErrors / rows;
+            if (Double.isNaN(loss) || Double.isInfinite(loss))
+                throw new IllegalArgumentException("The training diverged at epoch " + epoch + ". Try a lower learning rate.");
+
+            history[epochsRun++] = loss;
+
+            double validationLoss = (validation == null)? Double.NaN : evaluate(validation, weights, bias, mean, scale, x, y);
+            if (progress != null)
+                progress.onEpoch(epoch, loss, validationLoss, rows / Math.max(seconds, 1e-9));
+
+            if (patience > 0){
+                double monitored = (validation == null)? loss : validationLoss;
+                if (monitored < bestLoss - minImprovement){
+                    bestLoss = monitored;
+                    bestWeights = weights.clone();
+                    bestBias = bias;
+                    epochsWithoutImprovement = 0;
+                } else if (++epochsWithoutImprovement >= patience)
+                    break;
+            }
+        }
+
+        this.losses = Arrays.copyOf(history, epochsRun);
+        if (patience > 0){
+            weights = bestWeights;
+            bias = bestBias;
+        }
+
+        // Turns the standardized coefficients back into coefficients of the original columns
+        double [] coefficients = new double[width + 1];
+        coefficients[0] = bias;
+        for (int j = 0; j < width; j++){
+            coefficients[j + 1] = weights[j] / scale[j];
+            coefficients[0] -= coefficients[j + 1] * mean[j];
+        }
+        return coefficients;
+    }
+
+    /**
+     * Finds the mean and standard deviation of every independent variable through Welford's algorithm.
+     * Leaves the scaling untouched when standardization is off.
+     * @return The mean of the dependent variable, used as the starting intercept
+     */
+    private double findScaling(BatchSource source, double [] x, double [] y, double [] mean, double [] scale){
+        int width = mean.length;
+        double [] squares = new double[width];
+        double targetMean = 0;
+        long rows = 0;
+
+        source.reset();
+        int length;
+        while ((length = source.nextBatch(x, y, batchSize)) > 0){
+            for (int r = 0; r < length; r++){
+                rows++;
+                targetMean += (y[r] - targetMean) / rows;
+                if (!standardize)
+                    continue;
+
+                for (int j = 0; j < width; j++){
+                    double value = x[r * width + j];
+                    double delta = value - mean[j];
+                    mean[j] += delta / rows;
+                    squares[j] += delta * (value - mean[j]);
+                }
+            }
+        }
+
+        for (int j = 0; j < width && rows > 0; j++){
+            double deviation = Math.sqrt(squares[j] / rows);
+            scale[j] = (deviation > 0)? deviation : 1;
+        }
+        return targetMean;
+    }
+
+    /**
+     * Computes the mean squared error of the model over every row of a source
+     */
+    private double evaluate(BatchSource source, double [] weights, double bias, double [] mean, double [] scale, double [] x, double [] y){
+        int width = weights.length;
+        double squaredErrors = 0;
+        long rows = 0;
+
+        source.reset();
+        int length;
+        while ((length = source.nextBatch(x, y, batchSize)) > 0){
+            for (int r = 0; r < length; r++){
+                double prediction = bias;
+                for (int j = 0; j < width; j++)
+                    prediction += weights[j] * (x[r * width + j] - mean[j]) / scale[j];
+                double error = prediction - y[r];
+                squaredErrors += error * error;
+            }
+            rows += length;
+        }
+        return (rows == 0)? Double.NaN : squaredErrors / rows;
+    }
+
+// ===================================================================================================================================
+//  GETTERS
+
+    /**
+     * Gets the training loss (mean squared error) of every epoch of the last training
+     * @return One loss per epoch run, which may be less than the number of epochs when early stopping kicked in
+     */
+    public double[] getLosses(){
+        return Arrays.copyOf(this.losses, this.losses.length);
+    }
+}
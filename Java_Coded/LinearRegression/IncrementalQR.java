@@ -0,0 +1,149 @@
+package LinearRegression;
+
+import java.util.List;
+
+import DataFrame.*;
+
+/**
+ * A QR decomposition of the design matrix X (with a leading column of ones for the intercept), built one row at a time.
+ *
+ * Each row is rotated into the upper triangular R through Givens rotations, applying the same rotations to y to build Qᵀy.
+ * Q itself is never stored, so the memory used only depends on the number of coefficients.
+ * Like NormalEquations, each row partition builds its own R, and the partial results are then merged in row order
+ * by rotating the rows of one R into the other.
+ *
+ * Unlike the normal equations, R is computed from X itself instead of XᵀX, so the condition number is not squared.
+ * It is used when the Cholesky decomposition of XᵀX is not trusted.
+ */
+final class IncrementalQR {
+
+    // A diagonal entry of R smaller than this share of its column's norm marks a column that is a combination
+    // of the previous ones. Its coefficient is set to 0.
+    private static final double RANK_TOLERANCE = 1e-12;
+
+    // Number of coefficients, the intercept included
+    private final int size;
+
+    // R (upper triangle, row by row) and Qᵀy
+    private final double [] r;
+    private final double [] qty;
+
+    // Sum of squares of each column of X
+    private final double [] squares;
+
+    // Holds the row being rotated into R
+    private final double [] row;
+
+    IncrementalQR(int features){
+        this.size = features + 1;
+        this.r = new double[size * size];
+        this.qty = new double[size];
+        this.squares = new double[size];
+        this.row = new double[size];
+    }
+
+    /**
+     * Decomposes the design matrix of a dataset, skipping the rows with missing values
+     * @param features The columns of X, without the intercept
+     * @param target The column y
+     * @param threads Maximum number of threads
+     */
+    static IncrementalQR build(NumericSeries<?>[] features, NumericSeries<?> target, int threads){
+        List<IncrementalQR> parts = RowPartitions.map(target.getSize(), threads, (start, end) -> {
+            IncrementalQR part = new IncrementalQR(features.length);
+            DesignBlock block = new DesignBlock(features.length);
+            for (int b = start; b < end; b += DesignBlock.ROWS){
+                block.load(features, target, b, Math.min(DesignBlock.ROWS, end - b));
+                part.add(block);
+            }
+            return part;
+        });
+
+        IncrementalQR result = parts.get(0);
+        for (int k = 1; k < parts.size(); k++)
+            result.merge(parts.get(k));
+        return result;
+    }
+
+    /**
+     * Rotates the valid rows of a block into R
+     */
+    void add(DesignBlock block){
+        for (int i = 0; i < block.length; i++){
+            if (!block.valid[i])
+                continue;
+
+            for (int j = 0; j < size; j++){
+                double value = block.x[j * DesignBlock.ROWS + i];
+                row[j] = value;
+                squares[j] += value * value;
+            }
+            addRow(block.y[i], 0);
+        }
+    }
+
+    /**
+     * Rotates the rows of the R of another partition into this one
+     */
+    void merge(IncrementalQR other){
+        for (int k = 0; k < size; k++){
+            for (int j = 0; j < size; j++)
+                row[j] = (j < k)? 0 : other.r[k * size + j];
+            addRow(other.qty[k], k);
+        }
+        for (int j = 0; j < size; j++)
+            squares[j] += other.squares[j];
+    }
+
+    /**
+     * Zeroes out the entries of the row one at a time, each through a Givens rotation with a row of R
+     * @param y The value of y for the row
+     * @param from The first entry of the row that may not be 0
+     */
+    private void addRow(double y, int from){
+        for (int k = from; k < size; k++){
+            double xk = row[k];
+            if (xk == 0)
+                continue;
+
+            int diagonal = k * size + k;
+            double rkk = r[diagonal];
+            double norm = Math.sqrt(rkk * rkk + xk * xk);
+            double c = rkk / norm;
+            double s = xk / norm;
+            r[diagonal] = norm;
+
+            for (int j = k + 1; j < size; j++){
+                double rkj = r[k * size + j];
+                r[k * size + j] = c * rkj + s * row[j];
+                row[j] = c * row[j] - s * rkj;
+            }
+
+            double qk = qty[k];
+            qty[k] = c * qk + s * y;
+            y = c * y - s * qk;
+        }
+    }
+
+    /**
+     * Solves R b = Qᵀy through back substitution
+     * @return The coefficients, starting with the intercept. Columns that are a combination of the previous ones get 0.
+     */
+    double[] solve(){
+        double [] b = new double[size];
+
+        for (int i = size - 1; i >= 0; i--){
+            double rii = r[i * size + i];
+            if (Math.abs(rii) <= RANK_TOLERANCE * Math.sqrt(squares[i])){
+                b[i] = 0;
+                continue;
+            }
+
+            double sum = qty[i];
+            for (int k = i + 1; k < size; k++)
+                sum -= r[i * size + k] * b[k];
+            b[i] = sum / rii;
+        }
+        return b;
+    }
+}
@@ -1,203 +1,505 @@
-package LinearRegression;
-import java.util.Arrays;
-
-import DataFrame.*;
-import MachineLearningExceptions.NoTrainingExecutedException;
-
-/**
- * A Machine Learning algorithm to run Linear Regression.
- * 
- * How to use it:
- * 1. Instantiate the model (LinearRegression lr = new LinearRegression())
- * 2. Pass the split DataFrame and call out the train() method
- * 3. When using the predict() method, pass the variables in the same order as how you've trained the data.
- */
-public class LinearRegression {
-    // Column names used for the DataFrame
-    String [] independentVars;
-    String [] independentVarClasses;
-    String dependentVar;
-
-    // Resulting values to be multiplied to when solving predicting the value of the dependentVar.
-    float [] independentPredictors;
-    float bias;
-
-    // Dataset to be used for training
-    DataFrame trainingDataset;
-    
-    // Dataset to be used for testing
-    DataFrame testingDataset;
-
-    public LinearRegression(){
-        this.trainingDataset = this.testingDataset = null;
-        this.independentVars = null;
-        this.dependentVar = null;
-        bias = Float.MIN_VALUE;
-    }
-
-// ===================================================================================================================================
-//  MACHINE LEARNING MODEL
-
-    // TODO: Implement this method
-    // Runs the linear regression algorithm
-    public void train(DataFrame trainingDataset, String dependentVar, String... independentVars){
-        if (trainingDataset == null)
-            throw new IllegalArgumentException("The parameter \"trainingDataset\" is null.");
-        else if (dependentVar == null)
-            throw new IllegalArgumentException("The parameter \"dependentVar\" is null.");
-        else if (independentVars == null)
-            throw new IllegalArgumentException("The parameter \"independentVars\" is null.");
-        else if (!trainingDataset.getDataType(dependentVar).equals("class java.lang.Float"))
-            throw new IllegalArgumentException("The selected column for prediction: \"" + dependentVar + "\" must be a float.");
-
-        // Prepare the global data
-        this.trainingDataset = trainingDataset;
-        this.dependentVar = dependentVar;
-        this.independentVars = independentVars;
-        this.independentVarClasses = new String[independentVars.length];
-        for (int i = 0; i < independentVars.length; i++)
-            this.independentVarClasses[i] = trainingDataset.getDataType(independentVars[i]);
-        this.independentPredictors = new float[independentVars.length];
-
-        if (independentVars.length == 1)
-            simpleLinearRegression();
-    }
-
-    public float predict(float... predictors){
-        if (trainingDataset == null || dependentVar == null || independentVars == null || independentPredictors == null)
-            throw new NoTrainingExecutedException("Unable to run prediction as no training has been called. Call the train() before running the predict().");
-        else if (predictors == null || predictors.length < 1)
-            throw new IllegalArgumentException("The parameter \"predictors\" must not be null nor empty.");
-        else if (predictors.length != independentVars.length){
-            String concat = "";
-            for (int i = 0; i < independentVars.length; i++){
-                concat += independentVars[i];
-                if (i < independentVars.length - 1)
-                    concat += ", ";
-            }
-            throw new IllegalArgumentException("The parameter \"predictors\" doesn't match the number of independent variables: " + concat);
-        }
-
-        float result = bias;
-        for (int i = 0; i < independentVars.length; i++)
-            result += independentPredictors[i] * predictors[i];
-        return result;
-    }
-
-    private void simpleLinearRegression(){
-        float sumX, sumY, sumXY, sumX2;                                         // sum of all x, y, x * y, and x * x respectively
-        sumX = sumY = sumXY = sumX2 = 0;
-        Series<?> iv = this.trainingDataset.select(this.independentVars[0]);    // iv represents x (Independent Var)
-        Series<?> dv = this.trainingDataset.select(this.dependentVar);          // dv represents y (Dependent Var)
-        int n = dv.getSize();
-
-        for (int i = 0; i < n; i++){
-            // Gets the values of X and Y
-            Object tempX = iv.getIndex_DataType(i);
-            Object tempY = dv.getIndex_DataType(i);
-
-            if (tempX == null || tempY == null)
-                continue;
-
-            float x = (Float) iv.getIndex_DataType(i);
-            float y = (Float) dv.getIndex_DataType(i);
-
-            sumX += x;
-            sumY += y;
-            sumXY += x * y;
-            sumX2 += x * x;
-        }
-
-        this.independentPredictors[0] = ((iv.getSize() * sumXY) - (sumX * sumY)) / ((iv.getSize() * sumX2) - (sumX * sumX));
-        this.bias = ((sumY / n) - ( this.independentPredictors[0] * (sumX / n)));
-        
-    }
-
-    // TODO: Implement this method
-    public void multipleLinearRegression(){
-        DataFrame iv = this.trainingDataset.select(this.independentVars);    // iv represents x (Independent Var)
-        Series<?> dv = this.trainingDataset.select(this.dependentVar);       // dv represents y (Dependent Var)
-
-
-    }
-
-// ===================================================================================================================================
-//  GETTERS
-
-    /**
-     * Gets the intercept or bias of the regression model
-     * @return  A float containing the bias of the regression model
-     */
-    public float getIntercept(){
-        return this.bias;
-    }
-
-    /**
-     * Gets the regression coefficients taken from the model
-     * @return An array of regression coefficients
-     */
-    public float[] getRegressionCoefs(){
-        return Arrays.copyOf(independentPredictors, independentPredictors.length);
-    }
-
-    /**
-     * Gets the R-squared score of the Linear Regression model.
-     * The score represents the percentage of variance in the dependent variable is influenced by the independent variables
-     * 
-     * It compares the training dataset's dependent variable, and cross checks it against the model's prediction
-     * using the training dataset's independent variable 
-     * 
-     * Formula for R-Squared:
-     * 1 - (SSR / SST)
-     * SSR = Residual Sum of Squares (the difference between the true pred and the model's prediction)
-     *       Formula: sum((y_true - y_pred) ^ 2)
-     * 
-     * SST = Total variation (The difference between the true dataset's pred and its mean)
-     *       Formula: sum((y_true - y_true_mean) ^ 2)
-     * 
-     * @param independentColumns The dependent variables used to train the model
-     * @param dependentColumn    The independent variable found in the dataset
-     * @return A float representing the score of the Linear Model
-     */
-    public float getScore(Series<?> independentColumns, Series<?> dependentColumn){
-        // TODO: Add error handling
-
-        float rSquared = 0;
-        /*
-         * 1 - (SSR / SST)
-         * SSR = Residual Sum of Squares (the difference between the true pred and the model's prediction)
-         *       This determines the distance between the true data and the model's prediction
-         *       Formula: sum((y_true - y_pred) ^ 2)
-         * 
-         * SST = Total variation (The difference between the true dataset's pred and its mean)
-         *       Formula: sum((y_true - y_true_mean) ^ 2)
-         */
-        
-        //TODO: Implement method
-
-        return rSquared;
-    }
-
-    // TODO: Implement this method
-    // Prints out the formula for the linear regression model.
-    public String toString(){
-        if (this.trainingDataset == null || dependentVar == null || independentVars == null)
-            return "LinearRegression model (No Training nor Dataset was passed.)";
-
-        String refString = "";
-        String regressionFormula = "\nRegression Formula: y = ";
-        refString += "Coefficients: ";
-
-        for (int i = 0; i < independentVars.length; i++){
-            refString += independentPredictors[i];
-            regressionFormula += independentPredictors[i] + " * x" + (i + 1);
-
-            if (i < independentVars.length - 1){
-                refString += ", ";
-                regressionFormula += " + ";
-            }
-        }
-
-        return refString += "\nIntercept: " + this.bias + regressionFormula;
-    }
-}
+package LinearRegression;
+import java.util.Arrays;
+import java.util.List;
+
+import DataFrame.*;
+import MachineLearningExceptions.IllegalDataTypeException;
+import MachineLearningExceptions.NoTrainingExecutedException;
+import MachineLearningExceptions.UnknownColumnException;
+import VectorMath.VectorMath;
+
+/**
+ * A Machine Learning algorithm to run Linear Regression.
+ * 
+ * How to use it:
+ * 1. Instantiate the model (LinearRegression lr = new LinearRegression())
+ * 2. Pass the split DataFrame and call out the train() method
+ * 3. When using the predict() method, pass the variables in the same order as how you've trained the data.
+ */
+public class LinearRegression {
+    // Column names used for the DataFrame
+    String [] independentVars;
+    String [] independentVarClasses;
+    String dependentVar;
+
+    // Resulting values to be multiplied to when solving predicting the value of the dependentVar.
+    float [] independentPredictors;
+    float bias;
+
+    // Dataset to be used for training
+    DataFrame trainingDataset;
+    
+    // Dataset to be used for testing
+    DataFrame testingDataset;
+
+    // Number of threads used when fitting several independent variables and when predicting a DataFrame
+    int threads;
+
+    // Number of rows predicted at once by predict(DataFrame)
+    private static final int PREDICTION_BLOCK = 1024;
+
+    public LinearRegression(){
+        this.trainingDataset = this.testingDataset = null;
+        this.independentVars = null;
+        this.dependentVar = null;
+        bias = Float.MIN_VALUE;
+        this.threads = Runtime.getRuntime().availableProcessors();
+    }
+
+// ===================================================================================================================================
+//  SETTERS
+
+    /**
+     * Sets the number of threads used to fit a model with several independent variables and to predict a DataFrame.
+     * Defaults to the number of available processors. The fitted model does not depend on it.
+     * @param threads Number of threads, at least 1
+     */
+    public void setThreads(int threads){
+        if (threads < 1)
+            throw new IllegalArgumentException("The parameter \"threads\" must be a positive non-zero number.");
+        this.threads = threads;
+    }
+
+// ===================================================================================================================================
+//  MACHINE LEARNING MODEL
+
+    // Runs the linear regression algorithm
+    public void train(DataFrame trainingDataset, String dependentVar, String... independentVars){
+        prepareTraining(trainingDataset, dependentVar, independentVars);
+
+        if (independentVars.length == 1)
+            simpleLinearRegression();
+        else
+            multipleLinearRegression();
+    }
+
+    /**
+     * Trains the model through mini-batch gradient descent instead of the closed-form solution.
+     * Useful when there are too many independent variables to solve the normal equations.
+     * 
+     * @param trainingDataset The DataFrame used for training
+     * @param optimizer The settings of the gradient descent (learning rate, batch size, epochs, ...)
+     * @param dependentVar The column to be predicted
+     * @param independentVars The columns used to predict it
+     */
+    public void train(DataFrame trainingDataset, GradientDescent optimizer, String dependentVar, String... independentVars){
+        if (optimizer == null)
+            throw new IllegalArgumentException("The parameter \"optimizer\" is null.");
+        prepareTraining(trainingDataset, dependentVar, independentVars);
+        setCoefficients(optimizer.fit(new DataFrameBatches(trainingDataset, dependentVar, independentVars)));
+    }
+
+    /**
+     * Trains the model through mini-batch gradient descent over the rows of a source, such as a csv file streamed through CsvBatches.
+     * Only one batch of rows is held in memory at once.
+     * 
+     * @param source The training rows
+     * @param optimizer The settings of the gradient descent (learning rate, batch size, epochs, ...)
+     */
+    public void train(BatchSource source, GradientDescent optimizer){
+        if (source == null)
+            throw new IllegalArgumentException("The parameter \"source\" is null.");
+        else if (optimizer == null)
+            throw new IllegalArgumentException("The parameter \"optimizer\" is null.");
+
+        setModel(source.getTargetName(), source.getFeatureNames(), optimizer.fit(source));
+    }
+
+    /**
+     * Checks the parameters of train() and prepares the global data
+     */
+    private void prepareTraining(DataFrame trainingDataset, String dependentVar, String... independentVars){
+        if (trainingDataset == null)
+            throw new IllegalArgumentException("The parameter \"trainingDataset\" is null.");
+        else if (dependentVar == null)
+            throw new IllegalArgumentException("The parameter \"dependentVar\" is null.");
+        else if (independentVars == null)
+            throw new IllegalArgumentException("The parameter \"independentVars\" is null.");
+        else if (!trainingDataset.getDataType(dependentVar).equals("class java.lang.Float"))
+            throw new IllegalArgumentException("The selected column for prediction: \"" + dependentVar + "\" must be a float.");
+
+        // Prepare the global data
+        this.trainingDataset = trainingDataset;
+        this.dependentVar = dependentVar;
+        this.independentVars = independentVars;
+        this.independentVarClasses = new String[independentVars.length];
+        for (int i = 0; i < independentVars.length; i++)
+            this.independentVarClasses[i] = trainingDataset.getDataType(independentVars[i]);
+        this.independentPredictors = new float[independentVars.length];
+    }
+
+    /**
+     * Stores the fitted coefficients
+     * @param coefficients The intercept followed by one coefficient per independent variable
+     */
+    private void setCoefficients(double [] coefficients){
+        this.bias = (float) coefficients[0];
+        for (int i = 0; i < this.independentPredictors.length; i++)
+            this.independentPredictors[i] = (float) coefficients[i + 1];
+    }
+
+    /**
+     * Sets a model fitted without a training DataFrame, such as by gradient descent over a BatchSource or by CrossValidation
+     * @param coefficients The intercept followed by one coefficient per independent variable
+     */
+    void setModel(String dependentVar, String [] independentVars, double [] coefficients){
+        this.trainingDataset = null;
+        this.dependentVar = dependentVar;
+        this.independentVars = independentVars;
+        this.independentVarClasses = null;
+        this.independentPredictors = new float[independentVars.length];
+        setCoefficients(coefficients);
+    }
+
+    public float predict(float... predictors){
+        checkTrained();
+        if (predictors == null || predictors.length < 1)
+            throw new IllegalArgumentException("The parameter \"predictors\" must not be null nor empty.");
+        else if (predictors.length != independentVars.length)
+            throw new IllegalArgumentException("The parameter \"predictors\" doesn't match the number of independent variables: " + String.join(", ", independentVars));
+
+        float result = bias;
+        for (int i = 0; i < independentVars.length; i++)
+            result += independentPredictors[i] * predictors[i];
+        return result;
+    }
+
+    /**
+     * Predicts the dependent variable of every row of a DataFrame at once.
+     * 
+     * The independent variables are looked up once by name, so the DataFrame may hold other columns and in any order.
+     * The rows are processed in blocks, one column at a time: each column of a block is copied into an array of floats
+     * and added to the predictions with a SIMD multiply-add (see VectorMath), so nothing is allocated per row.
+     * Large DataFrames are split over the threads set by setThreads(), each thread writing its own rows.
+     * 
+     * @param dataset A DataFrame holding the independent variables used in training
+     * @return One prediction per row, or NaN for the rows with a missing independent variable
+     */
+    public float[] predict(DataFrame dataset){
+        checkTrained();
+        if (dataset == null)
+            throw new IllegalArgumentException("The parameter \"dataset\" is null.");
+
+        NumericSeries<?>[] iv = new NumericSeries[this.independentVars.length];
+        for (int j = 0; j < iv.length; j++)
+            iv[j] = getNumericColumn(dataset, this.independentVars[j]);
+
+        int rows = dataset.getShape()[0];
+        float [] predictions = new float[rows];
+
+        RowPartitions.map(rows, this.threads, (start, end) -> {
+            float [] column = new float[Math.min(PREDICTION_BLOCK, end - start)];
+
+            for (int b = start; b < end; b += PREDICTION_BLOCK){
+                int length = Math.min(PREDICTION_BLOCK, end - b);
+                Arrays.fill(predictions, b, b + length, this.bias);
+
+                for (int j = 0; j < iv.length; j++){
+                    iv[j].getFloats(b, length, column, 0, 1);
+                    VectorMath.fma(this.independentPredictors[j], column, 0, predictions, b, length);
+                }
+            }
+
+            // Only the rows with a missing value are visited, a word of the validity bitmap at a time
+            long [] present = new long[(end - start + 63) >>> 6];
+            for (NumericSeries<?> feature : iv){
+                if (!feature.hasNulls())
+                    continue;
+
+                feature.getValidity(start, end - start, present);
+                for (int w = 0; w < present.length; w++){
+                    for (long missing = ~present[w]; missing != 0; missing &= missing - 1){
+                        int r = start + (w << 6) + Long.numberOfTrailingZeros(missing);
+                        if (r >= end)
+                            break;
+                        predictions[r] = Float.NaN;
+                    }
+                }
+            }
+            return null;
+        });
+
+        return predictions;
+    }
+
+    private void checkTrained(){
+        if (dependentVar == null || independentVars == null || independentPredictors == null)
+            throw new NoTrainingExecutedException("Unable to run prediction as no training has been called. Call the train() before running the predict().");
+    }
+
+    private void simpleLinearRegression(){
+        NumericSeries<?>[] iv = { getNumericColumn(this.trainingDataset, this.independentVars[0]) };  // iv represents x (Independent Var)
+        NumericSeries<?> dv = getNumericColumn(this.trainingDataset, this.dependentVar);              // dv represents y (Dependent Var)
+        int size = dv.getSize();
+
+        double sumX, sumY, sumXY, sumX2;                                        // sum of all x, y, x * y, and x * x respectively
+        sumX = sumY = sumXY = sumX2 = 0;
+        long n = 0;                                                             // number of rows without missing values
+
+        // The rows are copied into blocks of doubles, where the rows with missing values are zeroed out (see DesignBlock)
+        // so they add nothing to the sums. Column 1 of a block holds x.
+        DesignBlock block = new DesignBlock(1);
+        for (int start = 0; start < size; start += DesignBlock.ROWS){
+            block.load(iv, dv, start, Math.min(DesignBlock.ROWS, size - start));
+
+            sumX += VectorMath.sum(block.x, DesignBlock.ROWS, block.length);
+            sumY += VectorMath.sum(block.y, 0, block.length);
+            sumXY += VectorMath.dot(block.x, DesignBlock.ROWS, block.y, 0, block.length);
+            sumX2 += VectorMath.sumOfSquares(block.x, DesignBlock.ROWS, block.length);
+            n += block.validRows;
+        }
+
+        if (n == 0)
+            throw new IllegalArgumentException("Unable to fit the model as every row of the training dataset has a missing value.");
+
+        double slope = ((n * sumXY) - (sumX * sumY)) / ((n * sumX2) - (sumX * sumX));
+        this.independentPredictors[0] = (float) slope;
+        this.bias = (float) ((sumY / n) - (slope * (sumX / n)));
+    }
+
+    /**
+     * Gets a column of a dataset that holds numbers
+     * @param colName Name of the column
+     * @return The column as a primitive-backed Series
+     */
+    private static NumericSeries<?> getNumericColumn(DataFrame dataset, String colName){
+        return toNumeric(dataset.select(colName));
+    }
+
+    /**
+     * Fits every independent variable at once by solving the normal equations (XᵀX) b = Xᵀy.
+     * 
+     * XᵀX and Xᵀy are built in one pass over the columns, in double precision and in parallel over row partitions
+     * (see NormalEquations). They are solved through a Cholesky decomposition, falling back to a QR decomposition
+     * of X (see IncrementalQR) when XᵀX is ill-conditioned, i.e., when an independent variable is nearly a combination of the others.
+     * Rows with a missing value are skipped.
+     */
+    public void multipleLinearRegression(){
+        if (this.trainingDataset == null || this.dependentVar == null || this.independentVars == null)
+            throw new NoTrainingExecutedException("Unable to fit the model as no training dataset was passed. Call the train() method instead.");
+
+        NumericSeries<?>[] iv = new NumericSeries[this.independentVars.length];     // iv represents x (Independent Var)
+        for (int i = 0; i < iv.length; i++)
+            iv[i] = getNumericColumn(this.trainingDataset, this.independentVars[i]);
+        NumericSeries<?> dv = getNumericColumn(this.trainingDataset, this.dependentVar);                  // dv represents y (Dependent Var)
+
+        NormalEquations equations = NormalEquations.build(iv, dv, this.threads);
+        if (equations.getRows() == 0)
+            throw new IllegalArgumentException("Unable to fit the model as every row of the training dataset has a missing value.");
+
+        double [] coefficients = equations.solve();
+        if (coefficients == null)
+            coefficients = IncrementalQR.build(iv, dv, this.threads).solve();
+
+        setCoefficients(coefficients);
+    }
+
+// ===================================================================================================================================
+//  GETTERS
+
+    /**
+     * Gets the intercept or bias of the regression model
+     * @return  A float containing the bias of the regression model
+     */
+    public float getIntercept(){
+        return this.bias;
+    }
+
+    /**
+     * Gets the regression coefficients taken from the model
+     * @return An array of regression coefficients
+     */
+    public float[] getRegressionCoefs(){
+        return Arrays.copyOf(independentPredictors, independentPredictors.length);
+    }
+
+    /**
+     * Gets the R-squared score of the Linear Regression model.
+     * The score represents the percentage of variance in the dependent variable is influenced by the independent variables
+     * 
+     * It compares the dependent variable of the dataset against the model's prediction
+     * using the dataset's independent variables (see evaluate() for the other scores)
+     * 
+     * Formula for R-Squared:
+     * 1 - (SSR / SST)
+     * SSR = Residual Sum of Squares (the difference between the true pred and the model's prediction)
+     *       Formula: sum((y_true - y_pred) ^ 2)
+     * 
+     * SST = Total variation (The difference between the true dataset's pred and its mean)
+     *       Formula: sum((y_true - y_true_mean) ^ 2)
+     * 
+     * @param testingDataset A DataFrame holding the independent and dependent variables used in training
+     * @return A float representing the score of the Linear Model
+     */
+    public float getScore(DataFrame testingDataset){
+        return (float) evaluate(testingDataset).getR2();
+    }
+
+    /**
+     * Gets the R-squared score of a model trained on a single independent variable (see getScore(DataFrame))
+     * @param independentColumns The independent variable used to train the model
+     * @param dependentColumn    The dependent variable found in the dataset
+     * @return A float representing the score of the Linear Model
+     */
+    public float getScore(Series<?> independentColumns, Series<?> dependentColumn){
+        checkTrained();
+        if (independentColumns == null || dependentColumn == null)
+            throw new IllegalArgumentException("The parameters \"independentColumns\" and \"dependentColumn\" must not be null.");
+        else if (this.independentVars.length != 1)
+            throw new IllegalArgumentException("The model has " + this.independentVars.length + " independent variables. Use getScore(DataFrame) instead.");
+        else if (independentColumns.getSize() != dependentColumn.getSize())
+            throw new IllegalArgumentException("The parameters \"independentColumns\" and \"dependentColumn\" must have the same size.");
+
+        NumericSeries<?>[] iv = { toNumeric(independentColumns) };
+        return (float) evaluate(iv, toNumeric(dependentColumn)).getR2();
+    }
+
+    /**
+     * Scores the model on a dataset in a single pass: R², MSE, RMSE and MAE (see RegressionMetrics).
+     * Large datasets are split over the threads set by setThreads(). Rows with a missing value are skipped.
+     * @param testingDataset A DataFrame holding the independent and dependent variables used in training
+     * @return The scores of the model
+     */
+    public RegressionMetrics evaluate(DataFrame testingDataset){
+        checkTrained();
+        if (testingDataset == null)
+            throw new IllegalArgumentException("The parameter \"testingDataset\" is null.");
+
+        NumericSeries<?>[] iv = new NumericSeries[this.independentVars.length];
+        for (int j = 0; j < iv.length; j++)
+            iv[j] = getNumericColumn(testingDataset, this.independentVars[j]);
+        return evaluate(iv, getNumericColumn(testingDataset, this.dependentVar));
+    }
+
+    /**
+     * Scores the model on the rows of a source, such as a csv file streamed through CsvBatches.
+     * Only one batch of rows is held in memory at once.
+     * @param source Rows holding the independent variables used in training, in any order
+     * @return The scores of the model
+     */
+    public RegressionMetrics evaluate(BatchSource source){
+        checkTrained();
+        if (source == null)
+            throw new IllegalArgumentException("The parameter \"source\" is null.");
+
+        // Position of each independent variable of the model among those of the source
+        String [] names = source.getFeatureNames();
+        int width = names.length;
+        int [] positions = new int[this.independentVars.length];
+        for (int j = 0; j < positions.length; j++){
+            positions[j] = Arrays.asList(names).indexOf(this.independentVars[j]);
+            if (positions[j] == -1)
+                throw new UnknownColumnException("The source doesn't hold the independent variable \"" + this.independentVars[j] + "\".");
+        }
+
+        RegressionMetrics metrics = new RegressionMetrics();
+        double [] x = new double[PREDICTION_BLOCK * width];
+        double [] y = new double[PREDICTION_BLOCK];
+        double [] predicted = new double[PREDICTION_BLOCK];
+
+        source.reset();
+        int length;
+        while ((length = source.nextBatch(x, y, PREDICTION_BLOCK)) > 0){
+            for (int r = 0; r < length; r++){
+                double prediction = this.bias;
+                for (int j = 0; j < positions.length; j++)
+                    prediction += this.independentPredictors[j] * x[r * width + positions[j]];
+                predicted[r] = prediction;
+            }
+            metrics.add(y, predicted, 0, length);
+        }
+        return metrics;
+    }
+
+    /**
+     * Scores the model over columns, a block of rows at a time: the predictions of a block are built column by column
+     * (as in predict(DataFrame)) and handed to the metrics along with the actual values.
+     * Each row partition is scored on its own thread, and the partial metrics are merged in row order.
+     */
+    private RegressionMetrics evaluate(NumericSeries<?>[] iv, NumericSeries<?> dv){
+        int rows = dv.getSize();
+        for (NumericSeries<?> column : iv){
+            if (column.getSize() != rows)
+                throw new IllegalArgumentException("The column \"" + column.getName() + "\" must have " + rows + " rows.");
+        }
+
+        List<RegressionMetrics> parts = RowPartitions.map(rows, this.threads, (start, end) -> {
+            RegressionMetrics part = new RegressionMetrics();
+            int capacity = Math.min(PREDICTION_BLOCK, end - start);
+            double [] predicted = new double[capacity];
+            double [] actual = new double[capacity];
+            double [] column = new double[capacity];
+
+            for (int b = start; b < end; b += PREDICTION_BLOCK){
+                int length = Math.min(PREDICTION_BLOCK, end - b);
+                Arrays.fill(predicted, 0, length, this.bias);
+                for (int j = 0; j < iv.length; j++){
+                    iv[j].getDoubles(b, length, column, 0);
+                    VectorMath.fma(this.independentPredictors[j], column, 0, predicted, 0, length);
+                }
+                dv.getDoubles(b, length, actual, 0);
+
+                // A NaN prediction makes the metrics skip the row
+                for (NumericSeries<?> feature : iv)
+                    markMissing(feature, b, length, predicted);
+                markMissing(dv, b, length, predicted);
+
+                part.add(actual, predicted, 0, length);
+            }
+            return part;
+        });
+
+        RegressionMetrics metrics = parts.get(0);
+        for (int k = 1; k < parts.size(); k++)
+            metrics.merge(parts.get(k));
+        return metrics;
+    }
+
+    /**
+     * Sets the predictions of the rows where a column has a missing value to NaN, reading its validity bitmap a word at a time
+     */
+    private static void markMissing(NumericSeries<?> column, int start, int length, double [] predicted){
+        if (!column.hasNulls())
+            return;
+
+        long [] present = new long[(length + 63) >>> 6];
+        column.getValidity(start, length, present);
+        for (int w = 0; w < present.length; w++){
+            for (long missing = ~present[w]; missing != 0; missing &= missing - 1){
+                int r = (w << 6) + Long.numberOfTrailingZeros(missing);
+                if (r >= length)
+                    break;
+                predicted[r] = Double.NaN;
+            }
+        }
+    }
+
+    private static NumericSeries<?> toNumeric(Series<?> column){
+        if (!(column instanceof NumericSeries))
+            throw new IllegalDataTypeException("The column \"" + column.getName() + "\" must be numeric, but it holds " + column.getType() + " values.");
+        return (NumericSeries<?>) column;
+    }
+
+    // TODO: Implement this method
+    // Prints out the formula for the linear regression model.
+    public String toString(){
+        if (dependentVar == null || independentVars == null || independentPredictors == null)
+            return "LinearRegression model (No Training nor Dataset was passed.)";
+
+        String refString = "";
+        String regressionFormula = "\nRegression Formula: y = ";
+        refString += "Coefficients: ";
+
+        for (int i = 0; i < independentVars.length; i++){
+            refString += independentPredictors[i];
+            regressionFormula += independentPredictors[i] + " * x" + (i + 1);
+
+            if (i < independentVars.length - 1){
+                refString += ", ";
+                regressionFormula += " + ";
+            }
+        }
+
+        return refString += "\nIntercept: " + this.bias + regressionFormula;
+    }
+}
@@ -0,0 +1,144 @@
+package LinearRegression;
+
+import java.util.List;
+
+import DataFrame.*;
+import VectorMath.VectorMath;
+
+/**
+ * The normal equations (XᵀX) b = Xᵀy of a least squares fit, where X holds a leading column of ones for the intercept.
+ *
+ * XᵀX and Xᵀy are built in a single pass over the rows, one DesignBlock at a time, accumulating in double precision.
+ * Every entry is a dot product of two columns of the block, computed with SIMD instructions (see VectorMath).
+ * Each row partition builds its own sums on its own thread, and the partial sums are then added together in row order.
+ * Only the upper triangle of XᵀX is kept, as the matrix is symmetric.
+ *
+ * The equations are solved through a Cholesky decomposition, which is fast but squares the condition number of X.
+ * solve() gives up when a column is (nearly) a combination of the previous ones, so the caller can fall back to IncrementalQR.
+ */
+final class NormalEquations {
+
+    // A Cholesky pivot smaller than this share of its diagonal entry means that the column is
+    // nearly a combination of the previous ones, in which case the decomposition is not trusted.
+    private static final double MIN_PIVOT_RATIO = 1e-10;
+
+    // Number of coefficients, the intercept included
+    private final int size;
+
+    // XᵀX (upper triangle, row by row) and Xᵀy
+    private final double [] xtx;
+    private final double [] xty;
+
+    // Number of rows without missing values
+    private long rows;
+
+    NormalEquations(int features){
+        this.size = features + 1;
+        this.xtx = new double[size * size];
+        this.xty = new double[size];
+        this.rows = 0;
+    }
+
+    /**
+     * Builds the normal equations of a dataset, skipping the rows with missing values
+     * @param features The columns of X, without the intercept
+     * @param target The column y
+     * @param threads Maximum number of threads
+     */
+    static NormalEquations build(NumericSeries<?>[] features, NumericSeries<?> target, int threads){
+        List<NormalEquations> parts = RowPartitions.map(target.getSize(), threads, (start, end) -> {
+            NormalEquations part = new NormalEquations(features.length);
+            DesignBlock block = new DesignBlock(features.length);
+            for (int b = start; b < end; b += DesignBlock.ROWS){
+                block.load(features, target, b, Math.min(DesignBlock.ROWS, end - b));
+                part.add(block);
+            }
+            return part;
+        });
+
+        NormalEquations result = parts.get(0);
+        for (int k = 1; k < parts.size(); k++)
+            result.merge(parts.get(k));
+        return result;
+    }
+
+    /**
+     * Adds the rows of a block to XᵀX and Xᵀy
+     */
+    void add(DesignBlock block){
+        double [] x = block.x;
+        double [] y = block.y;
+        int length = block.length;
+
+        for (int i = 0; i < size; i++){
+            int columnI = i * DesignBlock.ROWS;
+            for (int j = i; j < size; j++)
+                xtx[i * size + j] += VectorMath.dot(x, columnI, x, j * DesignBlock.ROWS, length);
+            xty[i] += VectorMath.dot(x, columnI, y, 0, length);
+        }
+
+        rows += block.validRows;
+    }
+
+    /**
+     * Adds the sums of another partition
+     */
+    void merge(NormalEquations other){
+        for (int i = 0; i < xtx.length; i++)
+            xtx[i] += other.xtx[i];
+        for (int i = 0; i < size; i++)
+            xty[i] += other.xty[i];
+        rows += other.rows;
+    }
+
+    /**
+     * Solves the equations through a Cholesky decomposition XᵀX = LLᵀ
+     * @return The coefficients, starting with the intercept, or null if XᵀX is singular or ill-conditioned
+     */
+    double[] solve(){
+        double [] l = new double[size * size];
+
+        for (int j = 0; j < size; j++){
+            double diagonal = xtx[j * size + j];
+            double pivot = diagonal;
+            for (int k = 0; k < j; k++)
+                pivot -= l[j * size + k] * l[j * size + k];
+
+            // Also catches a column of zeros and NaN values
+            if (!(pivot > diagonal * MIN_PIVOT_RATIO))
+                return null;
+
+            double ljj = Math.sqrt(pivot);
+            l[j * size + j] = ljj;
+            for (int i = j + 1; i < size; i++){
+                double sum = xtx[j * size + i];
+                for (int k = 0; k < j; k++)
+                    sum -= l[i * size + k] * l[j * size + k];
+                l[i * size + j] = sum / ljj;
+            }
+        }
+
+        // Solves L z = Xᵀy, then Lᵀ b = z
+        double [] b = new double[size];
+        for (int i = 0; i < size; i++){
+            double sum = xty[i];
+            for (int k = 0; k < i; k++)
+                sum -= l[i * size + k] * b[k];
+            b[i] = sum / l[i * size + i];
+        }
+        for (int i = size - 1; i >= 0; i--){
+            double sum = b[i];
+            for (int k = i + 1; k < size; k++)
+                sum -= l[k * size + i] * b[k];
+            b[i] = sum / l[i * size + i];
+        }
+        return b;
+    }
+
+    /**
+     * @return The number of rows used, excluding those with missing values
+     */
+    long getRows(){
+        return this.rows;
+    }
+}
@@ -0,0 +1,221 @@
+package LinearRegression;
+
+import VectorMath.VectorMath;
+
+/**
+ * Accumulates the scores of a regression model over pairs of actual and predicted values:
+ * R², mean squared error (MSE), root mean squared error (RMSE) and mean absolute error (MAE).
+ *
+ * Every score comes out of a single pass over the pairs. The total sum of squares needed by R² is tracked
+ * with Welford's running mean, updated a block at a time through the formula of Chan et al., so the mean of the
+ * actual values never has to be found beforehand. The sums of the errors are compensated (Kahan-Babuška),
+ * so they keep their precision over billions of pairs.
+ *
+ * Pairs can be added in batches, and the metrics of separate batches or threads merged together,
+ * which scores a dataset larger than the memory or spread over workers.
+ * Pairs holding a NaN (such as the prediction of a row with a missing value) are skipped.
+ * An instance is not thread-safe: give each thread its own and merge them.
+ *
+ * Example:
+ * RegressionMetrics metrics = lr.evaluate(testingDataset);
+ * System.out.println(metrics.getR2() + " " + metrics.getRMSE());
+ */
+public class RegressionMetrics {
+
+    // Number of pairs folded into the running totals at once
+    private static final int BLOCK = 1024;
+
+    private long count;
+
+    // Running mean of the actual values, and the sum of their squared deviations from it (the total sum of squares)
+    private double mean;
+    private double squaredDeviations;
+
+    private final CompensatedSum squaredErrors;
+    private final CompensatedSum absoluteErrors;
+
+    // Scratch arrays of add(double[], double[], int, int), created on first use
+    private double [] actualBlock;
+    private double [] residualBlock;
+
+    public RegressionMetrics(){
+        this.squaredErrors = new CompensatedSum();
+        this.absoluteErrors = new CompensatedSum();
+    }
+
+// ===================================================================================================================================
+//  ACCUMULATION
+
+    /**
+     * Adds a single pair
+     */
+    public void add(double actual, double predicted){
+        if (Double.isNaN(actual) || Double.isNaN(predicted))
+            return;
+
+        double residual = actual - predicted;
+        addBlock(1, actual, 0, residual * residual, Math.abs(residual));
+    }
+
+    /**
+     * Adds the pairs (actual[offset + i], predicted[offset + i]) for i in [0, length)
+     */
+    public void add(double [] actual, double [] predicted, int offset, int length){
+        if (actual == null || predicted == null)
+            throw new IllegalArgumentException("The parameters \"actual\" and \"predicted\" must not be null.");
+        else if (offset < 0 || length < 0 || offset + length > actual.length || offset + length > predicted.length)
+            throw new IllegalArgumentException("The range [" + offset + ", " + (offset + length) + ") must be within the arrays.");
+
+        if (actualBlock == null){
+            actualBlock = new double[BLOCK];
+            residualBlock = new double[BLOCK];
+        }
+
+        for (int b = 0; b < length; b += BLOCK){
+            int end = Math.min(length, b + BLOCK);
+
+            // Packs the pairs without NaN
+            int n = 0;
+            for (int i = b; i < end; i++){
+                double y = actual[offset + i];
+                double residual = y - predicted[offset + i];
+                if (Double.isNaN(residual))
+                    continue;
+                actualBlock[n] = y;
+                residualBlock[n] = residual;
+                n++;
+            }
+            if (n == 0)
+                continue;
+
+            // The block is small enough to stay in the cache, so its own mean is found with an exact second pass
+            double blockMean = VectorMath.sum(actualBlock, 0, n) / n;
+            double absolute = 0;
+            for (int i = 0; i < n; i++){
+                absolute += Math.abs(residualBlock[i]);
+                actualBlock[i] -= blockMean;
+            }
+
+            addBlock(n, blockMean, VectorMath.sumOfSquares(actualBlock, 0, n),
+                     VectorMath.sumOfSquares(residualBlock, 0, n), absolute);
+        }
+    }
+
+    /**
+     * Adds the pairs scored by another instance, such as the one of another thread
+     */
+    public void merge(RegressionMetrics other){
+        if (other == null)
+            throw new IllegalArgumentException("The parameter \"other\" is null.");
+
+        if (other.count == 0)
+            return;
+
+        combineMoments(other.count, other.mean, other.squaredDeviations);
+        this.squaredErrors.add(other.squaredErrors);
+        this.absoluteErrors.add(other.absoluteErrors);
+    }
+
+    /**
+     * Folds the totals of a block of pairs into the running ones
+     * @param n Number of pairs of the block
+     * @param blockMean Mean of the actual values of the block
+     * @param blockSquaredDeviations Sum of the squared deviations of the actual values from blockMean
+     */
+    private void addBlock(long n, double blockMean, double blockSquaredDeviations, double blockSquaredErrors, double blockAbsoluteErrors){
+        combineMoments(n, blockMean, blockSquaredDeviations);
+        this.squaredErrors.add(blockSquaredErrors);
+        this.absoluteErrors.add(blockAbsoluteErrors);
+    }
+
+    /**
+     * Combines the running mean and sum of squared deviations with those of n other values (Chan et al.),
+     * without going back to the values
+     */
+    private void combineMoments(long n, double otherMean, double otherSquaredDeviations){
+        long total = this.count + n;
+        double delta = otherMean - this.mean;
+        this.mean += delta * n / total;
+        this.squaredDeviations += otherSquaredDeviations + delta * delta * ((double) this.count * n / total);
+        this.count = total;
+    }
+
+// ===================================================================================================================================
+//  GETTERS
+
+    /**
+     * @return The number of pairs scored, excluding those with a NaN
+     */
+    public long getCount(){
+        return this.count;
+    }
+
+    /**
+     * Gets the coefficient of determination: 1 - SSR / SST
+     * SSR = Residual Sum of Squares, sum((y_true - y_pred) ^ 2)
+     * SST = Total variation, sum((y_true - y_true_mean) ^ 2)
+     * @return The share of the variance of the actual values explained by the model, NaN if no pair was added
+     *         or if every actual value is the same
+     */
+    public double getR2(){
+        if (this.count == 0 || this.squaredDeviations == 0)
+            return Double.NaN;
+        return 1 - this.squaredErrors.get() / this.squaredDeviations;
+    }
+
+    /**
+     * @return The mean squared error, NaN if no pair was added
+     */
+    public double getMSE(){
+        return (this.count == 0)? Double.NaN : this.squaredErrors.get() / this.count;
+    }
+
+    /**
+     * @return The root mean squared error, in the unit of the dependent variable. NaN if no pair was added
+     */
+    public double getRMSE(){
+        return Math.sqrt(getMSE());
+    }
+
+    /**
+     * @return The mean absolute error, NaN if no pair was added
+     */
+    public double getMAE(){
+        return (this.count == 0)? Double.NaN : this.absoluteErrors.get() / this.count;
+    }
+
+    @Override
+    public String toString(){
+        return "R2: " + getR2() + "\nMSE: " + getMSE() + "\nRMSE: " + getRMSE() + "\nMAE: " + getMAE() + "\nRows: " + this.count;
+    }
+
+// ===================================================================================================================================
+//  COMPENSATED SUM
+
+    /**
+     * A sum keeping the low-order bits lost by each addition in a second double (Kahan-Babuška / Neumaier),
+     * so its error does not grow with the number of terms.
+     */
+    private static final class CompensatedSum {
+        private double sum;
+        private double lost;
+
+        void add(double value){
+            double total = this.sum + value;
+            if (Math.abs(this.sum) >= Math.abs(value))
+                this.lost += (this.sum - total) + value;
+            else
+                this.lost += (value - total) + this.sum;
+            this.sum = total;
+        }
+
+        void add(CompensatedSum other){
+            add(other.sum);
+            this.lost += other.lost;
+        }
+
+        double get(){
+            return this.sum + this.lost;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package LinearRegression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a task over fixed size partitions of rows, spread over several threads.
+ *
+ * The partitions only depend on the number of rows, never on the number of threads, and the results are
+ * returned in row order. Reducing them in that order gives the same result whatever the number of threads.
+ */
+final class RowPartitions {
+
+    // Number of rows per partition, small enough to keep every thread busy and large enough to be worth a task
+    static final int PARTITION_ROWS = 1 << 16;
+
+    /**
+     * A task run on the rows [start, end) of a partition
+     */
+    interface Task<T> {
+        T run(int start, int end);
+    }
+
+    private RowPartitions(){}
+
+    /**
+     * Runs the task on every partition
+     * @param rows Total number of rows
+     * @param threads Maximum number of threads, at least 1
+     * @param task The task run on each partition
+     * @return The result of each partition, in row order
+     */
+    static <T> List<T> map(int rows, int threads, Task<T> task){
+        int partitions = Math.max(1, (rows + PARTITION_ROWS - 1) / PARTITION_ROWS);
+        List<T> results = new ArrayList<>(partitions);
+
+        if (partitions == 1 || threads == 1){
+            for (int k = 0; k < partitions; k++)
+                results.add(task.run(k * PARTITION_ROWS, Math.min(rows, (k + 1) * PARTITION_ROWS)));
+            return results;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, partitions));
+        try {
+            List<Callable<T>> tasks = new ArrayList<>(partitions);
+            for (int k = 0; k < partitions; k++){
+                int start = k * PARTITION_ROWS;
+                int end = Math.min(rows, start + PARTITION_ROWS);
+                tasks.add(() -> task.run(start, end));
+            }
+
+            for (Future<T> result : pool.invokeAll(tasks))
+                results.add(result.get());
+            return results;
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The training was interrupted.", e);
+        } catch (ExecutionException e){
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
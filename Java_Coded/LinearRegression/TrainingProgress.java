@@ -0,0 +1,20 @@
+package LinearRegression;
+
+/**
+ * Receives the progress of a GradientDescent training at the end of every epoch.
+ *
+ * Example:
+ * optimizer.setProgress((epoch, loss, validationLoss, rowsPerSecond) ->
+ *     System.out.println("Epoch " + epoch + ": " + loss + " (" + rowsPerSecond + " rows/sec)"));
+ */
+@FunctionalInterface
+public interface TrainingProgress {
+
+    /**
+     * @param epoch Number of the epoch that just ended, starting at 1
+     * @param loss Mean squared error over the training rows of the epoch
+     * @param validationLoss Mean squared error over the validation rows, or NaN if no validation source was set
+     * @param rowsPerSecond Number of training rows processed per second during the epoch
+     */
+    void onEpoch(int epoch, double loss, double validationLoss, double rowsPerSecond);
+}
@@ -0,0 +1,41 @@
+package DataFrame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ColumnarFileTest {
+
+    @TempDir
+    Path folder;
+
+    /**
+     * Character columns are dictionary encoded like String columns and come back with their nulls
+     */
+    @Test
+    void characterColumnsRoundTrip() throws IOException {
+        CsvReader reader = new CsvReader(Files.writeString(this.folder.resolve("grades.csv"), "grade,name\nA,x\nB,\n,y\nA,x\né,z\n").toString());
+        reader.setSchema(Map.of("grade", "Character", "name", "String"));
+        DataFrame df = reader.read();
+
+        Path file = this.folder.resolve("grades.bin");
+        df.save(file);
+        DataFrame loaded = DataFrame.load(file);
+
+        Object [][] expected = {{'A', 'B', null, 'A', 'é'}, {"x", null, "y", "x", "z"}};
+        String [] types = {"Character", "String"};
+        for (int j = 0; j < expected.length; j++){
+            Series<?> column = loaded.getColumn(j);
+            assertEquals(types[j], column.getType());
+            assertEquals(expected[j].length, column.getSize());
+            for (int i = 0; i < expected[j].length; i++)
+                assertEquals(expected[j][i], column.getIndex_DataType(i), column.getName() + " row " + i);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package DataFrame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Reads the same files with the streaming reader and with the memory-mapped one (see CsvReader.setMemoryMapped()).
+ */
+class CsvReaderTest {
+
+    @TempDir
+    Path folder;
+
+    /**
+     * A column inferred as a number from its sample is widened to String by a late text value.
+     * The values read before it must keep their text, leading zeros included.
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void widenedColumnKeepsTheTextOfItsFields(boolean memoryMapped) throws IOException {
+        int rows = 400_000;
+        StringBuilder csv = new StringBuilder("zip,n\n");
+        for (int i = 0; i < rows; i++)
+            csv.append(String.format("%05d", i % 100_000)).append(',').append(i).append('\n');
+        csv.append("A1234,").append(rows).append('\n');
+
+        CsvReader reader = new CsvReader(write("zips.csv", csv.toString()).toString());
+        reader.setMemoryMapped(memoryMapped);
+        reader.setThreads(4);
+        Series<?> zip = reader.read().select("zip");
+
+        assertEquals("String", zip.getType());
+        assertEquals(rows + 1, zip.getSize());
+        for (int i = 0; i < rows; i++)
+            assertEquals(String.format("%05d", i % 100_000), zip.getIndex_DataType(i), "row " + i);
+        assertEquals("A1234", zip.getIndex_DataType(rows));
+    }
+
+    /**
+     * Numbers and booleans written in a non-canonical way keep their text once their column becomes a String column
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void widenedColumnKeepsNonCanonicalValues(boolean memoryMapped) throws IOException {
+        CsvReader reader = new CsvReader(write("mixed.csv", "a,b,c,d\n00501,1.50,1E5,True\n,,,\n7,2,3,False\nx,y,z,maybe\n").toString());
+        reader.setMemoryMapped(memoryMapped);
+        reader.setSampleRows(CsvReader.ALL_ROWS);
+        DataFrame df = reader.read();
+
+        String [][] expected = {{"00501", null, "7", "x"}, {"1.50", null, "2", "y"}, {"1E5", null, "3", "z"}, {"True", null, "False", "maybe"}};
+        for (int j = 0; j < expected.length; j++){
+            Series<?> column = df.getColumn(j);
+            assertEquals("String", column.getType());
+            for (int i = 0; i < expected[j].length; i++)
+                assertEquals(expected[j][i], column.getIndex_DataType(i), column.getName() + " row " + i);
+        }
+    }
+
+    /**
+     * A schema fixing a column to Character takes every single character, digits included, and skips the inference
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void schemaCharacterAcceptsDigits(boolean memoryMapped) throws IOException {
+        CsvReader reader = new CsvReader(write("grades.csv", "grade,score\n5,90\nA,85\n,70\n0,60\n").toString());
+        reader.setMemoryMapped(memoryMapped);
+        reader.setSchema(Map.of("grade", "Character"));
+        Series<?> grade = reader.read().select("grade");
+
+        assertEquals("Character", grade.getType());
+        Object [] expected = {'5', 'A', null, '0'};
+        for (int i = 0; i < expected.length; i++)
+            assertEquals(expected[i], grade.getIndex_DataType(i), "row " + i);
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(this.folder.resolve(name), content);
+    }
+}
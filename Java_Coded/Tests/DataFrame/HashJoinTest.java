@@ -0,0 +1,56 @@
+package DataFrame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import MachineLearningExceptions.IllegalDataTypeException;
+
+class HashJoinTest {
+
+    @TempDir
+    Path folder;
+
+    /**
+     * A Character key column and a String key column are compared as text, both ways round
+     */
+    @Test
+    void characterKeysMatchStringKeys() throws IOException {
+        DataFrame letters = read("letters.csv", "k,n\nA,1\nB,2\nC,3\n", "Character");
+        DataFrame words = read("words.csv", "k,v\nA,x\nBB,y\nC,z\n", "String");
+
+        DataFrame joined = letters.join(words, "inner", "k");
+        assertEquals(2, joined.select("k").getSize());
+        assertEquals('A', joined.select("k").getIndex_DataType(0));
+        assertEquals('C', joined.select("k").getIndex_DataType(1));
+
+        joined = words.join(letters, "inner", "k");
+        assertEquals(2, joined.select("k").getSize());
+        assertEquals("A", joined.select("k").getIndex_DataType(0));
+        assertEquals("C", joined.select("k").getIndex_DataType(1));
+    }
+
+    /**
+     * Key columns whose values can never compare equal are rejected instead of silently matching nothing
+     */
+    @Test
+    void incompatibleKeysAreRejected() throws IOException {
+        DataFrame letters = read("letters.csv", "k,n\nA,1\nB,2\n", "Character");
+        DataFrame numbers = read("numbers.csv", "k,v\n1,x\n2,y\n", "Integer");
+
+        assertThrows(IllegalDataTypeException.class, () -> letters.join(numbers, "inner", "k"));
+    }
+
+    private DataFrame read(String name, String content, String keyType) throws IOException {
+        CsvReader reader = new CsvReader(Files.writeString(this.folder.resolve(name), content).toString());
+        reader.setSchema(Map.of("k", keyType));
+        return reader.read();
+    }
+}
@@ -0,0 +1,40 @@
+package VectorMath;
+
+/**
+ * The operations of VectorMath, implemented once with SIMD instructions (SimdKernels)
+ * and once with plain loops (ScalarKernels).
+ *
+ * Every method works on a range of an array given by its offset and length.
+ */
+interface Kernels {
+
+    double sum(double [] a, int offset, int length);
+
+    double sum(float [] a, int offset, int length);
+
+    double dot(double [] a, int aOffset, double [] b, int bOffset, int length);
+
+    double dot(float [] a, int aOffset, float [] b, int bOffset, int length);
+
+    double sumOfSquares(double [] a, int offset, int length);
+
+    double sumOfSquares(float [] a, int offset, int length);
+
+    double min(double [] a, int offset, int length);
+
+    float min(float [] a, int offset, int length);
+
+    double max(double [] a, int offset, int length);
+
+    float max(float [] a, int offset, int length);
+
+    void fma(double alpha, double [] x, int xOffset, double [] y, int yOffset, int length);
+
+    void fma(float alpha, float [] x, int xOffset, float [] y, int yOffset, int length);
+
+    void fma4(float a0, float a1, float a2, float a3, float [] x, int xOffset, int xStride, float [] y, int yOffset, int length);
+
+    void between(double [] a, int offset, int length, double lower, double upper, long [] bits, int wordOffset);
+
+    void equalsAny(double [] a, int offset, int length, double [] values, long [] bits, int wordOffset);
+}
@@ -0,0 +1,141 @@
+package VectorMath;
+
+/**
+ * Plain loop versions of the kernels, used when the jdk.incubator.vector module is not available.
+ * Sums are accumulated in double, whatever the type of the array.
+ */
+final class ScalarKernels implements Kernels {
+
+    @Override
+    public double sum(double [] a, int offset, int length){
+        double sum = 0;
+        for (int i = 0; i < length; i++)
+            sum += a[offset + i];
+        return sum;
+    }
+
+    @Override
+    public double sum(float [] a, int offset, int length){
+        double sum = 0;
+        for (int i = 0; i < length; i++)
+            sum += a[offset + i];
+        return sum;
+    }
+
+    @Override
+    public double dot(double [] a, int aOffset, double [] b, int bOffset, int length){
+        double sum = 0;
+        for (int i = 0; i < length; i++)
+            sum += a[aOffset + i] * b[bOffset + i];
+        return sum;
+    }
+
+    @Override
+    public double dot(float [] a, int aOffset, float [] b, int bOffset, int length){
+        double sum = 0;
+        for (int i = 0; i < length; i++)
+            sum += (double) a[aOffset + i] * b[bOffset + i];
+        return sum;
+    }
+
+    @Override
+    public double sumOfSquares(double [] a, int offset, int length){
+        return dot(a, offset, a, offset, length);
+    }
+
+    @Override
+    public double sumOfSquares(float [] a, int offset, int length){
+        return dot(a, offset, a, offset, length);
+    }
+
+    @Override
+    public double min(double [] a, int offset, int length){
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < length; i++)
+            min = Math.min(min, a[offset + i]);
+        return min;
+    }
+
+    @Override
+    public float min(float [] a, int offset, int length){
+        float min = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < length; i++)
+            min = Math.min(min, a[offset + i]);
+        return min;
+    }
+
+    @Override
+    public double max(double [] a, int offset, int length){
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < length; i++)
+            max = Math.max(max, a[offset + i]);
+        return max;
+    }
+
+    @Override
+    public float max(float [] a, int offset, int length){
+        float max = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < length; i++)
+            max = Math.max(max, a[offset + i]);
+        return max;
+    }
+
+    @Override
+    public void fma(double alpha, double [] x, int xOffset, double [] y, int yOffset, int length){
+        for (int i = 0; i < length; i++)
+            y[yOffset + i] += alpha * x[xOffset + i];
+    }
+
+    @Override
+    public void fma(float alpha, float [] x, int xOffset, float [] y, int yOffset, int length){
+        for (int i = 0; i < length; i++)
+            y[yOffset + i] += alpha * x[xOffset + i];
+    }
+
+    @Override
+    public void fma4(float a0, float a1, float a2, float a3, float [] x, int xOffset, int xStride, float [] y, int yOffset, int length){
+        int x1 = xOffset + xStride;
+        int x2 = x1 + xStride;
+        int x3 = x2 + xStride;
+        for (int i = 0; i < length; i++){
+            float sum = y[yOffset + i];
+            sum += a0 * x[xOffset + i];
+            sum += a1 * x[x1 + i];
+            sum += a2 * x[x2 + i];
+            sum += a3 * x[x3 + i];
+            y[yOffset + i] = sum;
+        }
+    }
+
+    @Override
+    public void between(double [] a, int offset, int length, double lower, double upper, long [] bits, int wordOffset){
+        for (int base = 0; base < length; base += 64){
+            int end = Math.min(64, length - base);
+            long word = 0;
+            for (int i = 0; i < end; i++){
+                double value = a[offset + base + i];
+                if (value >= lower && value <= upper)
+                    word |= 1L << i;
+            }
+            bits[wordOffset + (base >>> 6)] = word;
+        }
+    }
+
+    @Override
+    public void equalsAny(double [] a, int offset, int length, double [] values, long [] bits, int wordOffset){
+        for (int base = 0; base < length; base += 64){
+            int end = Math.min(64, length - base);
+            long word = 0;
+            for (int i = 0; i < end; i++){
+                double value = a[offset + base + i];
+                for (double candidate : values){
+                    if (value == candidate){
+                        word |= 1L << i;
+                        break;
+                    }
+                }
+            }
+            bits[wordOffset + (base >>> 6)] = word;
+        }
+    }
+}
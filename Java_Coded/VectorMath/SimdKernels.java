@@ -0,0 +1,284 @@
+package VectorMath;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernels written with the Vector API, which the JIT compiles to the widest SIMD instructions of the processor
+ * (4 doubles or 8 floats per instruction with AVX2, twice as many with AVX-512).
+ *
+ * Each kernel runs over whole vectors first and finishes the remaining elements one by one.
+ * The element-wise kernels use a fused multiply-add for both parts, so an element gets the same bits
+ * whether it falls in a vector or in the remainder.
+ */
+final class SimdKernels implements Kernels {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+
+    // Sums of floats are kept in float lanes for this many elements at most before being added to a double,
+    // which bounds their rounding error while keeping twice as many lanes per instruction as doubles
+    private static final int FLOAT_BLOCK = 1024;
+
+    @Override
+    public double sum(double [] a, int offset, int length){
+        int step = DOUBLES.length();
+        DoubleVector sum0 = DoubleVector.zero(DOUBLES);
+        DoubleVector sum1 = DoubleVector.zero(DOUBLES);
+
+        // Two accumulators hide the latency of the additions
+        int i = 0;
+        for (; i + 2 * step <= length; i += 2 * step){
+            sum0 = sum0.add(DoubleVector.fromArray(DOUBLES, a, offset + i));
+            sum1 = sum1.add(DoubleVector.fromArray(DOUBLES, a, offset + i + step));
+        }
+        for (; i + step <= length; i += step)
+            sum0 = sum0.add(DoubleVector.fromArray(DOUBLES, a, offset + i));
+
+        double sum = sum0.add(sum1).reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++)
+            sum += a[offset + i];
+        return sum;
+    }
+
+    @Override
+    public double sum(float [] a, int offset, int length){
+        int step = FLOATS.length();
+        double sum = 0;
+
+        int i = 0;
+        while (i + step <= length){
+            int end = Math.min(length, i + FLOAT_BLOCK);
+            FloatVector block = FloatVector.zero(FLOATS);
+            for (; i + step <= end; i += step)
+                block = block.add(FloatVector.fromArray(FLOATS, a, offset + i));
+            sum += block.reduceLanes(VectorOperators.ADD);
+        }
+        for (; i < length; i++)
+            sum += a[offset + i];
+        return sum;
+    }
+
+    @Override
+    public double dot(double [] a, int aOffset, double [] b, int bOffset, int length){
+        int step = DOUBLES.length();
+        DoubleVector sum0 = DoubleVector.zero(DOUBLES);
+        DoubleVector sum1 = DoubleVector.zero(DOUBLES);
+
+        int i = 0;
+        for (; i + 2 * step <= length; i += 2 * step){
+            sum0 = DoubleVector.fromArray(DOUBLES, a, aOffset + i)
+                    .fma(DoubleVector.fromArray(DOUBLES, b, bOffset + i), sum0);
+            sum1 = DoubleVector.fromArray(DOUBLES, a, aOffset + i + step)
+                    .fma(DoubleVector.fromArray(DOUBLES, b, bOffset + i + step), sum1);
+        }
+        for (; i + step <= length; i += step)
+            sum0 = DoubleVector.fromArray(DOUBLES, a, aOffset + i).fma(DoubleVector.fromArray(DOUBLES, b, bOffset + i), sum0);
+
+        double sum = sum0.add(sum1).reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++)
+            sum += a[aOffset + i] * b[bOffset + i];
+        return sum;
+    }
+
+    @Override
+    public double dot(float [] a, int aOffset, float [] b, int bOffset, int length){
+        int step = FLOATS.length();
+        double sum = 0;
+
+        int i = 0;
+        while (i + step <= length){
+            int end = Math.min(length, i + FLOAT_BLOCK);
+            FloatVector block = FloatVector.zero(FLOATS);
+            for (; i + step <= end; i += step)
+                block = FloatVector.fromArray(FLOATS, a, aOffset + i).fma(FloatVector.fromArray(FLOATS, b, bOffset + i), block);
+            sum += block.reduceLanes(VectorOperators.ADD);
+        }
+        for (; i < length; i++)
+            sum += (double) a[aOffset + i] * b[bOffset + i];
+        return sum;
+    }
+
+    @Override
+    public double sumOfSquares(double [] a, int offset, int length){
+        return dot(a, offset, a, offset, length);
+    }
+
+    @Override
+    public double sumOfSquares(float [] a, int offset, int length){
+        return dot(a, offset, a, offset, length);
+    }
+
+    @Override
+    public double min(double [] a, int offset, int length){
+        int step = DOUBLES.length();
+        DoubleVector min = DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY);
+
+        int i = 0;
+        for (; i + step <= length; i += step)
+            min = min.min(DoubleVector.fromArray(DOUBLES, a, offset + i));
+
+        double result = min.reduceLanes(VectorOperators.MIN);
+        for (; i < length; i++)
+            result = Math.min(result, a[offset + i]);
+        return result;
+    }
+
+    @Override
+    public float min(float [] a, int offset, int length){
+        int step = FLOATS.length();
+        FloatVector min = FloatVector.broadcast(FLOATS, Float.POSITIVE_INFINITY);
+
+        int i = 0;
+        for (; i + step <= length; i += step)
+            min = min.min(FloatVector.fromArray(FLOATS, a, offset + i));
+
+        float result = min.reduceLanes(VectorOperators.MIN);
+        for (; i < length; i++)
+            result = Math.min(result, a[offset + i]);
+        return result;
+    }
+
+    @Override
+    public double max(double [] a, int offset, int length){
+        int step = DOUBLES.length();
+        DoubleVector max = DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY);
+
+        int i = 0;
+        for (; i + step <= length; i += step)
+            max = max.max(DoubleVector.fromArray(DOUBLES, a, offset + i));
+
+        double result = max.reduceLanes(VectorOperators.MAX);
+        for (; i < length; i++)
+            result = Math.max(result, a[offset + i]);
+        return result;
+    }
+
+    @Override
+    public float max(float [] a, int offset, int length){
+        int step = FLOATS.length();
+        FloatVector max = FloatVector.broadcast(FLOATS, Float.NEGATIVE_INFINITY);
+
+        int i = 0;
+        for (; i + step <= length; i += step)
+            max = max.max(FloatVector.fromArray(FLOATS, a, offset + i));
+
+        float result = max.reduceLanes(VectorOperators.MAX);
+        for (; i < length; i++)
+            result = Math.max(result, a[offset + i]);
+        return result;
+    }
+
+    @Override
+    public void fma(double alpha, double [] x, int xOffset, double [] y, int yOffset, int length){
+        int step = DOUBLES.length();
+        DoubleVector factor = DoubleVector.broadcast(DOUBLES, alpha);
+
+        int i = 0;
+        for (; i + step <= length; i += step)
+            DoubleVector.fromArray(DOUBLES, x, xOffset + i)
+                    .fma(factor, DoubleVector.fromArray(DOUBLES, y, yOffset + i))
+                    .intoArray(y, yOffset + i);
+        for (; i < length; i++)
+            y[yOffset + i] = Math.fma(x[xOffset + i], alpha, y[yOffset + i]);
+    }
+
+    @Override
+    public void fma(float alpha, float [] x, int xOffset, float [] y, int yOffset, int length){
+        int step = FLOATS.length();
+        FloatVector factor = FloatVector.broadcast(FLOATS, alpha);
+
+        int i = 0;
+        for (; i + step <= length; i += step)
+            FloatVector.fromArray(FLOATS, x, xOffset + i)
+                    .fma(factor, FloatVector.fromArray(FLOATS, y, yOffset + i))
+                    .intoArray(y, yOffset + i);
+        for (; i < length; i++)
+            y[yOffset + i] = Math.fma(x[xOffset + i], alpha, y[yOffset + i]);
+    }
+
+    @Override
+    public void fma4(float a0, float a1, float a2, float a3, float [] x, int xOffset, int xStride, float [] y, int yOffset, int length){
+        int step = FLOATS.length();
+        int x1 = xOffset + xStride;
+        int x2 = x1 + xStride;
+        int x3 = x2 + xStride;
+        FloatVector f0 = FloatVector.broadcast(FLOATS, a0);
+        FloatVector f1 = FloatVector.broadcast(FLOATS, a1);
+        FloatVector f2 = FloatVector.broadcast(FLOATS, a2);
+        FloatVector f3 = FloatVector.broadcast(FLOATS, a3);
+
+        int i = 0;
+        for (; i + step <= length; i += step){
+            FloatVector sum = FloatVector.fromArray(FLOATS, y, yOffset + i);
+            sum = FloatVector.fromArray(FLOATS, x, xOffset + i).fma(f0, sum);
+            sum = FloatVector.fromArray(FLOATS, x, x1 + i).fma(f1, sum);
+            sum = FloatVector.fromArray(FLOATS, x, x2 + i).fma(f2, sum);
+            sum = FloatVector.fromArray(FLOATS, x, x3 + i).fma(f3, sum);
+            sum.intoArray(y, yOffset + i);
+        }
+        for (; i < length; i++){
+            float sum = y[yOffset + i];
+            sum = Math.fma(x[xOffset + i], a0, sum);
+            sum = Math.fma(x[x1 + i], a1, sum);
+            sum = Math.fma(x[x2 + i], a2, sum);
+            sum = Math.fma(x[x3 + i], a3, sum);
+            y[yOffset + i] = sum;
+        }
+    }
+
+    @Override
+    public void between(double [] a, int offset, int length, double lower, double upper, long [] bits, int wordOffset){
+        int step = DOUBLES.length();
+
+        // The lanes of a vector fill a whole part of a word, as 64 is a multiple of the number of lanes
+        for (int base = 0; base < length; base += 64){
+            int end = Math.min(64, length - base);
+            long word = 0;
+
+            int i = 0;
+            for (; i + step <= end; i += step){
+                DoubleVector values = DoubleVector.fromArray(DOUBLES, a, offset + base + i);
+                word |= values.compare(VectorOperators.GE, lower).and(values.compare(VectorOperators.LE, upper)).toLong() << i;
+            }
+            for (; i < end; i++){
+                double value = a[offset + base + i];
+                if (value >= lower && value <= upper)
+                    word |= 1L << i;
+            }
+            bits[wordOffset + (base >>> 6)] = word;
+        }
+    }
+
+    @Override
+    public void equalsAny(double [] a, int offset, int length, double [] values, long [] bits, int wordOffset){
+        int step = DOUBLES.length();
+
+        for (int base = 0; base < length; base += 64){
+            int end = Math.min(64, length - base);
+            long word = 0;
+
+            int i = 0;
+            for (; i + step <= end; i += step){
+                DoubleVector vector = DoubleVector.fromArray(DOUBLES, a, offset + base + i);
+                VectorMask<Double> matches = vector.compare(VectorOperators.EQ, values[0]);
+                for (int v = 1; v < values.length; v++)
+                    matches = matches.or(vector.compare(VectorOperators.EQ, values[v]));
+                word |= matches.toLong() << i;
+            }
+            for (; i < end; i++){
+                double value = a[offset + base + i];
+                for (double candidate : values){
+                    if (value == candidate){
+                        word |= 1L << i;
+                        break;
+                    }
+                }
+            }
+            bits[wordOffset + (base >>> 6)] = word;
+        }
+    }
+}
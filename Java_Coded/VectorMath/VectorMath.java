@@ -0,0 +1,161 @@
+package VectorMath;
+
+/**
+ * SIMD kernels for the numeric loops of the library: sums, dot products, sums of squares,
+ * minimums, maximums and fused multiply-adds over ranges of primitive arrays.
+ *
+ * The kernels are built on the jdk.incubator.vector module (see SimdKernels), which must be added when
+ * compiling and running: --add-modules jdk.incubator.vector
+ * When the module is missing at runtime, plain loops are used instead (see ScalarKernels), with the same results
+ * up to rounding. Running with -DVectorMath.scalar=true forces the plain loops, to compare both.
+ *
+ * Sums of floats are returned as doubles, so they keep their precision over long arrays.
+ *
+ * Example:
+ * double mean = VectorMath.sum(values, 0, values.length) / values.length;
+ */
+public final class VectorMath {
+
+    private static final Kernels KERNELS = loadKernels();
+
+    private VectorMath(){}
+
+    private static Kernels loadKernels(){
+        if (Boolean.getBoolean("VectorMath.scalar") || !ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent())
+            return new ScalarKernels();
+
+        try {
+            return new SimdKernels();
+        } catch (LinkageError e){
+            return new ScalarKernels();
+        }
+    }
+
+    /**
+     * @return true if the kernels run on SIMD instructions, false if they fell back to plain loops
+     */
+    public static boolean isVectorized(){
+        return KERNELS instanceof SimdKernels;
+    }
+
+// ===================================================================================================================================
+//  REDUCTIONS
+
+    /**
+     * @return The sum of a[offset, offset + length)
+     */
+    public static double sum(double [] a, int offset, int length){
+        return KERNELS.sum(a, offset, length);
+    }
+
+    /**
+     * @return The sum of a[offset, offset + length), accumulated in double
+     */
+    public static double sum(float [] a, int offset, int length){
+        return KERNELS.sum(a, offset, length);
+    }
+
+    /**
+     * @return The sum of a[aOffset + i] * b[bOffset + i] for i in [0, length)
+     */
+    public static double dot(double [] a, int aOffset, double [] b, int bOffset, int length){
+        return KERNELS.dot(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * @return The sum of a[aOffset + i] * b[bOffset + i] for i in [0, length), accumulated in double
+     */
+    public static double dot(float [] a, int aOffset, float [] b, int bOffset, int length){
+        return KERNELS.dot(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * @return The sum of the squares of a[offset, offset + length)
+     */
+    public static double sumOfSquares(double [] a, int offset, int length){
+        return KERNELS.sumOfSquares(a, offset, length);
+    }
+
+    /**
+     * @return The sum of the squares of a[offset, offset + length), accumulated in double
+     */
+    public static double sumOfSquares(float [] a, int offset, int length){
+        return KERNELS.sumOfSquares(a, offset, length);
+    }
+
+    /**
+     * @return The smallest element of a[offset, offset + length), NaN if one of them is NaN,
+     *         or positive infinity if the range is empty
+     */
+    public static double min(double [] a, int offset, int length){
+        return KERNELS.min(a, offset, length);
+    }
+
+    /**
+     * @return The smallest element of a[offset, offset + length), NaN if one of them is NaN,
+     *         or positive infinity if the range is empty
+     */
+    public static float min(float [] a, int offset, int length){
+        return KERNELS.min(a, offset, length);
+    }
+
+    /**
+     * @return The largest element of a[offset, offset + length), NaN if one of them is NaN,
+     *         or negative infinity if the range is empty
+     */
+    public static double max(double [] a, int offset, int length){
+        return KERNELS.max(a, offset, length);
+    }
+
+    /**
+     * @return The largest element of a[offset, offset + length), NaN if one of them is NaN,
+     *         or negative infinity if the range is empty
+     */
+    public static float max(float [] a, int offset, int length){
+        return KERNELS.max(a, offset, length);
+    }
+
+// ===================================================================================================================================
+//  ELEMENT-WISE
+
+    /**
+     * Computes y[yOffset + i] += alpha * x[xOffset + i] for i in [0, length)
+     */
+    public static void fma(double alpha, double [] x, int xOffset, double [] y, int yOffset, int length){
+        KERNELS.fma(alpha, x, xOffset, y, yOffset, length);
+    }
+
+    /**
+     * Computes y[yOffset + i] += alpha * x[xOffset + i] for i in [0, length)
+     */
+    public static void fma(float alpha, float [] x, int xOffset, float [] y, int yOffset, int length){
+        KERNELS.fma(alpha, x, xOffset, y, yOffset, length);
+    }
+
+    /**
+     * Runs fma() for four rows of x at once, the rows being xStride elements apart:
+     * y[yOffset + i] += a0 * x0[i] + a1 * x1[i] + a2 * x2[i] + a3 * x3[i], added in that order.
+     * Each element of y is loaded and stored once instead of four times.
+     */
+    public static void fma4(float a0, float a1, float a2, float a3, float [] x, int xOffset, int xStride, float [] y, int yOffset, int length){
+        KERNELS.fma4(a0, a1, a2, a3, x, xOffset, xStride, y, yOffset, length);
+    }
+
+// ===================================================================================================================================
+//  COMPARISONS
+
+    /**
+     * Sets bit i of a bitmap when lower <= a[offset + i] <= upper, for i in [0, length).
+     * The bitmap is written whole words at a time, from the word bits[wordOffset]. The bits past length are cleared.
+     */
+    public static void between(double [] a, int offset, int length, double lower, double upper, long [] bits, int wordOffset){
+        KERNELS.between(a, offset, length, lower, upper, bits, wordOffset);
+    }
+
+    /**
+     * Sets bit i of a bitmap when a[offset + i] is equal to one of the values, written like between()
+     */
+    public static void equalsAny(double [] a, int offset, int length, double [] values, long [] bits, int wordOffset){
+        KERNELS.equalsAny(a, offset, length, values, bits, wordOffset);
+    }
+}